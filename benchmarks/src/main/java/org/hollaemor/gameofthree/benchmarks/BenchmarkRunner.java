@@ -0,0 +1,40 @@
+package org.hollaemor.gameofthree.benchmarks;
+
+import org.openjdk.jmh.results.format.ResultFormatType;
+import org.openjdk.jmh.runner.Runner;
+import org.openjdk.jmh.runner.options.OptionsBuilder;
+
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.Arrays;
+
+/**
+ * Runs every benchmark once per thread count and writes one JSON result file per run, named after the thread count,
+ * so results from two commits can be compared file by file.
+ *
+ * <p>Usage: {@code java -cp target/benchmarks.jar org.hollaemor.gameofthree.benchmarks.BenchmarkRunner [resultDir] [threads...]}
+ */
+public class BenchmarkRunner {
+
+    private static final int[] DEFAULT_THREAD_COUNTS = {1, 4, 16};
+
+    public static void main(String[] args) throws Exception {
+        var resultDirectory = Path.of(args.length > 0 ? args[0] : "target/jmh-results");
+        var threadCounts = args.length > 1
+                ? Arrays.stream(args, 1, args.length).mapToInt(Integer::parseInt).toArray()
+                : DEFAULT_THREAD_COUNTS;
+
+        Files.createDirectories(resultDirectory);
+
+        for (int threads : threadCounts) {
+            var options = new OptionsBuilder()
+                    .include(BenchmarkRunner.class.getPackageName() + ".*Benchmark")
+                    .threads(threads)
+                    .resultFormat(ResultFormatType.JSON)
+                    .result(resultDirectory.resolve("threads-" + threads + ".json").toString())
+                    .build();
+
+            new Runner(options).run();
+        }
+    }
+}
@@ -0,0 +1,96 @@
+package org.hollaemor.gameofthree.benchmarks;
+
+import org.apache.activemq.broker.BrokerService;
+import org.springframework.context.ConfigurableApplicationContext;
+import org.springframework.messaging.simp.stomp.StompBrokerRelayMessageHandler;
+import org.springframework.messaging.simp.user.SimpUserRegistry;
+
+import java.util.ArrayList;
+
+/**
+ * Runs the {@link LoadGenerator} against an in-process server, once with Spring's simple broker and once relaying to
+ * an external STOMP broker. The external broker is an ActiveMQ instance embedded in this JVM, so the relay run pays
+ * for an extra TCP hop per message without getting a separate machine for the fan-out.
+ *
+ * <p>Usage: {@code java -cp target/benchmarks.jar org.hollaemor.gameofthree.benchmarks.BrokerModeLoadTest [bots] [seconds] [stomp-port]}.
+ * With a STOMP port the relay run uses the broker already listening on localhost at that port instead.
+ */
+public class BrokerModeLoadTest {
+
+    public static void main(String[] args) throws Exception {
+        int botCount = args.length > 0 ? Integer.parseInt(args[0]) : 1_000;
+        int seconds = args.length > 1 ? Integer.parseInt(args[1]) : 30;
+
+        var results = new ArrayList<String>();
+        results.add("simple " + run(botCount, seconds, "game.broker.mode=simple"));
+
+        if (args.length > 2) {
+            results.add("relay  " + runRelay(botCount, seconds, Integer.parseInt(args[2])));
+        } else {
+            var broker = startBroker();
+            try {
+                results.add("relay  " + runRelay(botCount, seconds, broker.getTransportConnectors().get(0).getConnectUri().getPort()));
+            } finally {
+                broker.stop();
+                broker.waitUntilStopped();
+            }
+        }
+
+        System.out.println();
+        results.forEach(System.out::println);
+    }
+
+    private static String runRelay(int botCount, int seconds, int port) throws Exception {
+        return run(botCount, seconds, "game.broker.mode=relay", "game.broker.relay.port=" + port,
+                "game.broker.relay.max-connections=" + (botCount + 16));
+    }
+
+    private static String run(int botCount, int seconds, String... properties) throws Exception {
+        try (var context = InProcessServer.start(properties)) {
+            awaitBrokerAvailable(context);
+            var summary = new LoadGenerator().run(InProcessServer.webSocketUrl(context), botCount, seconds);
+
+            awaitAllDisconnected(context);
+            return summary;
+        }
+    }
+
+    /*
+    The relay connects to the broker in the background; players connecting before that are rejected.
+     */
+    private static void awaitBrokerAvailable(ConfigurableApplicationContext context) throws InterruptedException {
+        var relays = context.getBeansOfType(StompBrokerRelayMessageHandler.class).values();
+        long deadline = System.currentTimeMillis() + 10_000;
+
+        while (relays.stream().anyMatch(relay -> !relay.isBrokerAvailable())) {
+            if (System.currentTimeMillis() > deadline) {
+                throw new IllegalStateException("External STOMP broker not available");
+            }
+            Thread.sleep(100);
+        }
+    }
+
+    /*
+    Sessions still open when the server stops would be closed after the relay, which cannot forward their DISCONNECT.
+     */
+    private static void awaitAllDisconnected(ConfigurableApplicationContext context) throws InterruptedException {
+        var userRegistry = context.getBean(SimpUserRegistry.class);
+        long deadline = System.currentTimeMillis() + 10_000;
+
+        while (userRegistry.getUserCount() > 0 && System.currentTimeMillis() < deadline) {
+            Thread.sleep(100);
+        }
+    }
+
+    private static BrokerService startBroker() throws Exception {
+        var broker = new BrokerService();
+        broker.setBrokerName("game-of-three-benchmark");
+        broker.setPersistent(false);
+        broker.setUseJmx(false);
+        broker.setAdvisorySupport(false);
+        broker.addConnector("stomp://localhost:0");
+        broker.start();
+        broker.waitUntilStarted();
+        return broker;
+    }
+}
@@ -0,0 +1,148 @@
+package org.hollaemor.gameofthree.benchmarks;
+
+import org.hollaemor.gameofthree.gaming.domain.GameMessage;
+import org.springframework.messaging.simp.stomp.StompFrameHandler;
+import org.springframework.messaging.simp.stomp.StompHeaders;
+import org.springframework.messaging.simp.stomp.StompSession;
+import org.springframework.messaging.simp.stomp.StompSessionHandlerAdapter;
+import org.springframework.scheduling.concurrent.ThreadPoolTaskScheduler;
+import org.springframework.web.socket.WebSocketHttpHeaders;
+import org.springframework.web.socket.messaging.WebSocketStompClient;
+
+import java.lang.management.ManagementFactory;
+import java.lang.reflect.Type;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.concurrent.*;
+
+/**
+ * Connect storm against an in-process server, once with the STOMP channels on platform-thread pools and once on
+ * virtual threads. Every client connects, subscribes to its update queue and sends {@code /app/game.start}; the
+ * latency is measured from the connect call to the first update received.
+ *
+ * <p>Memory and thread counts are taken for the whole JVM after all clients are connected, so they include the
+ * client sessions as well. Those are the same in both modes; the difference between the modes is the server's share.
+ *
+ * <p>Usage: {@code java -cp target/benchmarks.jar org.hollaemor.gameofthree.benchmarks.ChannelModeLoadTest [connections] [concurrency]}.
+ * The virtual-thread run is skipped unless the JVM is Java 21 or later.
+ */
+public class ChannelModeLoadTest {
+
+    public static void main(String[] args) throws Exception {
+        int connections = args.length > 0 ? Integer.parseInt(args[0]) : 2_000;
+        int concurrency = args.length > 1 ? Integer.parseInt(args[1]) : 200;
+
+        var results = new ArrayList<String>();
+        results.add(run(false, connections, concurrency));
+
+        if (Runtime.version().feature() >= 21) {
+            results.add(run(true, connections, concurrency));
+        } else {
+            System.out.println("Skipping virtual-thread mode, it requires Java 21 or later");
+        }
+
+        System.out.println();
+        System.out.println("mode      connections  failed   p50(ms)   p99(ms)  max(ms)  heap/conn(KB)  threads");
+        results.forEach(System.out::println);
+    }
+
+    private static String run(boolean virtualThreads, int connections, int concurrency) throws Exception {
+        try (var context = InProcessServer.start("game.channels.virtual-threads=" + virtualThreads)) {
+            var url = InProcessServer.webSocketUrl(context);
+
+            var scheduler = new ThreadPoolTaskScheduler();
+            scheduler.initialize();
+
+            var stompClient = InProcessServer.newStompClient(scheduler);
+
+            settle();
+            long heapBefore = usedHeap();
+            int threadsBefore = ManagementFactory.getThreadMXBean().getThreadCount();
+
+            var sessions = new ConcurrentLinkedQueue<StompSession>();
+            var latencies = new long[connections];
+            var failures = 0;
+
+            var clients = Executors.newFixedThreadPool(concurrency);
+            var futures = new ArrayList<Future<Long>>();
+            for (int i = 0; i < connections; i++) {
+                var username = (virtualThreads ? "virtual-" : "platform-") + i;
+                futures.add(clients.submit(() -> connectAndStart(stompClient, url, username, sessions)));
+            }
+
+            int measured = 0;
+            for (var future : futures) {
+                try {
+                    latencies[measured++] = future.get(30, TimeUnit.SECONDS);
+                } catch (ExecutionException | TimeoutException e) {
+                    measured--;
+                    failures++;
+                }
+            }
+            clients.shutdown();
+
+            settle();
+            long heapPerConnection = (usedHeap() - heapBefore) / Math.max(1, sessions.size()) / 1024;
+            int threads = ManagementFactory.getThreadMXBean().getThreadCount() - threadsBefore;
+
+            sessions.forEach(StompSession::disconnect);
+            stompClient.stop();
+            scheduler.shutdown();
+
+            var sorted = Arrays.copyOf(latencies, measured);
+            Arrays.sort(sorted);
+
+            return String.format("%-9s %11d %7d %9.1f %9.1f %8.1f %14d %8d",
+                    virtualThreads ? "virtual" : "platform", connections, failures,
+                    percentile(sorted, 0.50), percentile(sorted, 0.99), percentile(sorted, 1.0),
+                    heapPerConnection, threads);
+        }
+    }
+
+    private static long connectAndStart(WebSocketStompClient stompClient, String url, String username,
+                                        ConcurrentLinkedQueue<StompSession> sessions) throws Exception {
+        var stompHeaders = new StompHeaders();
+        stompHeaders.add("username", username);
+        var firstUpdate = new CompletableFuture<Long>();
+
+        long start = System.nanoTime();
+        var session = stompClient.connect(url, new WebSocketHttpHeaders(), stompHeaders, new StompSessionHandlerAdapter() {
+        }).get(30, TimeUnit.SECONDS);
+        sessions.add(session);
+
+        session.subscribe("/user/queue/updates", new StompFrameHandler() {
+            @Override
+            public Type getPayloadType(StompHeaders headers) {
+                return GameMessage.class;
+            }
+
+            @Override
+            public void handleFrame(StompHeaders headers, Object payload) {
+                firstUpdate.complete(System.nanoTime());
+            }
+        });
+        session.send("/app/game.start", null);
+
+        return firstUpdate.get(30, TimeUnit.SECONDS) - start;
+    }
+
+    private static double percentile(long[] sortedNanos, double percentile) {
+        if (sortedNanos.length == 0) {
+            return Double.NaN;
+        }
+        int index = (int) Math.ceil(percentile * sortedNanos.length) - 1;
+        return sortedNanos[Math.max(0, index)] / 1_000_000.0;
+    }
+
+    private static long usedHeap() {
+        var runtime = Runtime.getRuntime();
+        return runtime.totalMemory() - runtime.freeMemory();
+    }
+
+    private static void settle() throws InterruptedException {
+        for (int i = 0; i < 3; i++) {
+            System.gc();
+            Thread.sleep(200);
+        }
+    }
+}
@@ -0,0 +1,70 @@
+package org.hollaemor.gameofthree.benchmarks;
+
+import org.hollaemor.gameofthree.gaming.domain.GameRules;
+import org.openjdk.jmh.annotations.*;
+
+import java.util.Random;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Checking a move with the compiled game rules against the check on the constant divisor it replaces in
+ * {@code Game.play}: a range check and a modulo. Moves are random and mostly illegal, like the ones of a cheating
+ * client, so that the branches of the constant check cannot be predicted either.
+ */
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+public class GameRulesBenchmark {
+
+    private static final int VALUES = 1024;
+
+    private static final int DIVISOR = 3;
+
+    @State(Scope.Thread)
+    public static class MoveState {
+
+        @Param({"classic", "five"})
+        public String mode;
+
+        GameRules rules;
+
+        final int[] values = new int[VALUES];
+        final int[] moves = new int[VALUES];
+
+        int next;
+
+        @Setup(Level.Trial)
+        public void createMoves() {
+            rules = "classic".equals(mode)
+                    ? GameRules.CLASSIC
+                    : GameRules.compile(5, new int[]{-2, -1, 0, 1, 2}, 1);
+
+            var random = new Random(42);
+
+            for (int i = 0; i < VALUES; i++) {
+                values[i] = 2 + random.nextInt(Integer.MAX_VALUE - 2);
+                moves[i] = random.nextInt(5) - 2;
+            }
+        }
+
+        int index() {
+            next = (next + 1) & (VALUES - 1);
+            return next;
+        }
+    }
+
+    @Benchmark
+    public boolean checkMoveWithConstant(MoveState state) {
+        int i = state.index();
+        int move = state.moves[i];
+        return move >= -1 && move <= 1 && (state.values[i] + move) % DIVISOR == 0;
+    }
+
+    @Benchmark
+    public boolean checkMoveWithRules(MoveState state) {
+        int i = state.index();
+        return state.rules.isLegal(state.values[i], state.moves[i]);
+    }
+}
@@ -0,0 +1,58 @@
+package org.hollaemor.gameofthree.benchmarks;
+
+import org.hollaemor.gameofthree.GameOfThreeApplication;
+import org.hollaemor.gameofthree.gaming.infrastructure.WebSocketConfig;
+import org.springframework.boot.builder.SpringApplicationBuilder;
+import org.springframework.context.ConfigurableApplicationContext;
+import org.springframework.messaging.converter.CompositeMessageConverter;
+import org.springframework.messaging.converter.MappingJackson2MessageConverter;
+import org.springframework.messaging.converter.StringMessageConverter;
+import org.springframework.scheduling.concurrent.ThreadPoolTaskScheduler;
+import org.springframework.web.socket.client.WebSocketClient;
+import org.springframework.web.socket.client.standard.StandardWebSocketClient;
+import org.springframework.web.socket.messaging.WebSocketStompClient;
+import org.springframework.web.socket.sockjs.client.SockJsClient;
+import org.springframework.web.socket.sockjs.client.WebSocketTransport;
+
+import java.util.List;
+import java.util.stream.Stream;
+
+/**
+ * The game server started on a random port inside the load-generating JVM, plus the STOMP client the load tools use
+ * to talk to it.
+ */
+class InProcessServer {
+
+    private InProcessServer() {
+    }
+
+    static ConfigurableApplicationContext start(String... properties) {
+        return new SpringApplicationBuilder(GameOfThreeApplication.class)
+                .properties(Stream.concat(Stream.of("server.port=0", "logging.level.root=WARN"), Stream.of(properties))
+                        .toArray(String[]::new))
+                .run();
+    }
+
+    static String webSocketUrl(ConfigurableApplicationContext context) {
+        return "ws://localhost:" + context.getEnvironment().getProperty("local.server.port") + WebSocketConfig.SOCKJS_ENDPOINT;
+    }
+
+    static String nativeWebSocketUrl(ConfigurableApplicationContext context) {
+        return "ws://localhost:" + context.getEnvironment().getProperty("local.server.port") + WebSocketConfig.WEBSOCKET_ENDPOINT;
+    }
+
+    static WebSocketStompClient newStompClient(ThreadPoolTaskScheduler scheduler) {
+        return newStompClient(new SockJsClient(List.of(new WebSocketTransport(new StandardWebSocketClient()))), scheduler);
+    }
+
+    /*
+    Game messages are JSON, errors are plain strings.
+     */
+    static WebSocketStompClient newStompClient(WebSocketClient webSocketClient, ThreadPoolTaskScheduler scheduler) {
+        var stompClient = new WebSocketStompClient(webSocketClient);
+        stompClient.setMessageConverter(new CompositeMessageConverter(
+                List.of(new StringMessageConverter(), new MappingJackson2MessageConverter())));
+        stompClient.setTaskScheduler(scheduler);
+        return stompClient;
+    }
+}
@@ -0,0 +1,66 @@
+package org.hollaemor.gameofthree.benchmarks;
+
+import org.hollaemor.gameofthree.gaming.domain.Game;
+import org.hollaemor.gameofthree.gaming.infrastructure.journal.GameJournal;
+import org.hollaemor.gameofthree.gaming.infrastructure.journal.GameJournalProperties;
+import org.openjdk.jmh.annotations.*;
+import org.springframework.util.FileSystemUtils;
+
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.time.Duration;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Cost of recording a move in the game journal, as seen by the thread playing the move. The writer runs on its own
+ * thread against a temporary directory, forcing after every batch or at most once per {@code forceIntervalMillis}.
+ *
+ * <p>Once the writer falls behind, records are dropped rather than waited for; the benchmark reports how many were
+ * dropped at the end of the trial, so the cost can be read together with the share of records that made it.
+ */
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+@State(Scope.Benchmark)
+public class JournalBenchmark {
+
+    @Param({"0", "10"})
+    public int forceIntervalMillis;
+
+    private Path directory;
+    private GameJournal journal;
+
+    @State(Scope.Thread)
+    public static class GameState {
+
+        final Game game = new Game(1, "player", "opponent");
+    }
+
+    @Setup(Level.Trial)
+    public void setup() throws IOException {
+        directory = Files.createTempDirectory("journal-benchmark");
+
+        var properties = new GameJournalProperties();
+        properties.setEnabled(true);
+        properties.setDirectory(directory);
+        properties.setForceInterval(Duration.ofMillis(forceIntervalMillis));
+
+        journal = new GameJournal(properties);
+        journal.afterPropertiesSet();
+    }
+
+    @TearDown(Level.Trial)
+    public void tearDown() throws Exception {
+        journal.destroy();
+        System.out.printf("%nrecords appended: %d, dropped: %d%n", journal.getAppendedRecords(), journal.getDroppedRecords());
+        FileSystemUtils.deleteRecursively(directory);
+    }
+
+    @Benchmark
+    public void recordMove(GameState gameState) {
+        journal.moved(gameState.game, "player", 1, 19);
+    }
+}
@@ -0,0 +1,135 @@
+package org.hollaemor.gameofthree.benchmarks;
+
+import org.hollaemor.gameofthree.gaming.domain.GameInstruction;
+import org.hollaemor.gameofthree.gaming.domain.GameMessage;
+import org.springframework.messaging.simp.stomp.StompFrameHandler;
+import org.springframework.messaging.simp.stomp.StompHeaders;
+import org.springframework.messaging.simp.stomp.StompSession;
+
+import java.lang.reflect.Type;
+import java.util.concurrent.ThreadLocalRandom;
+
+/**
+ * A connected player that plays like the automatic mode of {@code app.js}: the primary player sends a random number,
+ * every PLAY is answered with the move that makes the value divisible by three, and the primary player asks for a
+ * rematch after every game. A bot that loses its opponent asks to be paired again.
+ *
+ * <p>Bots react on the STOMP client's receiving thread; there is no thread per bot.
+ */
+class LoadBot implements StompFrameHandler {
+
+    private final String name;
+    private final LoadGenerator generator;
+
+    private StompSession session;
+
+    private volatile boolean primary;
+    private volatile String opponent;
+
+    /*
+    System.nanoTime() of the last number or move this bot sent, read by the opponent when the resulting frame arrives.
+     */
+    private volatile long lastSendNanos;
+
+
+    LoadBot(String name, LoadGenerator generator) {
+        this.name = name;
+        this.generator = generator;
+    }
+
+    String getName() {
+        return name;
+    }
+
+    long getLastSendNanos() {
+        return lastSendNanos;
+    }
+
+    void join(StompSession session) {
+        this.session = session;
+        session.subscribe("/user/queue/updates", this);
+        session.subscribe("/user/queue/errors", new ErrorHandler());
+        requestGame();
+    }
+
+    void leave() {
+        if (null != session && session.isConnected()) {
+            session.disconnect();
+        }
+    }
+
+    @Override
+    public Type getPayloadType(StompHeaders headers) {
+        return GameMessage.class;
+    }
+
+    @Override
+    public void handleFrame(StompHeaders headers, Object payload) {
+        var gameMessage = (GameMessage) payload;
+
+        switch (gameMessage.getGameStatus()) {
+            case START:
+                opponent = gameMessage.getOpponent();
+                primary = gameMessage.isPrimaryPlayer();
+                if (primary) {
+                    sendRandomNumber();
+                }
+                break;
+            case PLAY:
+                generator.recordMove(opponent);
+                sendMove(gameMessage.getPlay());
+                break;
+            case GAMEOVER:
+                if (gameMessage.isWinner()) {
+                    generator.recordGame(opponent);
+                }
+                if (primary && generator.isRunning()) {
+                    requestGame();
+                }
+                break;
+            case DISCONNECT:
+                opponent = null;
+                if (generator.isRunning()) {
+                    requestGame();
+                }
+                break;
+            default:
+                break;
+        }
+    }
+
+    private void requestGame() {
+        session.send("/app/game.start", null);
+    }
+
+    private void sendRandomNumber() {
+        lastSendNanos = System.nanoTime();
+        session.send("/app/game.number", GameInstruction.builder()
+                .value(ThreadLocalRandom.current().nextInt(2, 101))
+                .build());
+    }
+
+    /*
+    The hint of the PLAY message, so that the bots play by whatever rules the server runs.
+     */
+    private void sendMove(int move) {
+        lastSendNanos = System.nanoTime();
+        session.send("/app/game.play", GameInstruction.builder()
+                .move(move)
+                .build());
+    }
+
+
+    private class ErrorHandler implements StompFrameHandler {
+
+        @Override
+        public Type getPayloadType(StompHeaders headers) {
+            return String.class;
+        }
+
+        @Override
+        public void handleFrame(StompHeaders headers, Object payload) {
+            generator.recordError(name, (String) payload);
+        }
+    }
+}
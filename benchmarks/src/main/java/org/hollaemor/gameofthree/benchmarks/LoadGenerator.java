@@ -0,0 +1,206 @@
+package org.hollaemor.gameofthree.benchmarks;
+
+import org.HdrHistogram.Histogram;
+import org.HdrHistogram.Recorder;
+import org.springframework.context.ConfigurableApplicationContext;
+import org.springframework.messaging.simp.stomp.StompHeaders;
+import org.springframework.messaging.simp.stomp.StompSessionHandlerAdapter;
+import org.springframework.scheduling.concurrent.ThreadPoolTaskScheduler;
+import org.springframework.web.socket.WebSocketHttpHeaders;
+import org.springframework.web.socket.messaging.WebSocketStompClient;
+
+import java.util.ArrayList;
+import java.util.Map;
+import java.util.concurrent.*;
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * Capacity-planning and soak-test tool: connects a number of {@link LoadBot}s that keep playing automatic games
+ * against each other for a given time, printing throughput and move latency every few seconds and a summary at the end.
+ *
+ * <p>The move latency is the time from a bot sending its number or move until its opponent receives the resulting
+ * PLAY or GAMEOVER frame, i.e. one trip through the server and back out to a client. Both bots live in this JVM, so
+ * no clock synchronization is involved.
+ *
+ * <p>Usage: {@code java -cp target/benchmarks.jar org.hollaemor.gameofthree.benchmarks.LoadGenerator [bots] [seconds] [url]}.
+ * Without a URL the server is started in-process; its heap is then included in the reported heap usage.
+ */
+public class LoadGenerator {
+
+    private static final int CONNECT_CONCURRENCY = 200;
+    private static final long REPORT_INTERVAL_SECONDS = 5;
+    private static final long MAX_LATENCY_NANOS = TimeUnit.MINUTES.toNanos(1);
+    private static final long DRAIN_TIMEOUT_MILLIS = 5_000;
+
+    private final Map<String, LoadBot> bots = new ConcurrentHashMap<>();
+
+    private final Recorder latencies = new Recorder(MAX_LATENCY_NANOS, 3);
+    private final Histogram totalLatencies = new Histogram(MAX_LATENCY_NANOS, 3);
+
+    private final LongAdder moves = new LongAdder();
+    private final LongAdder games = new LongAdder();
+    private final LongAdder errors = new LongAdder();
+
+    private volatile boolean running = true;
+
+
+    public static void main(String[] args) throws Exception {
+        int botCount = args.length > 0 ? Integer.parseInt(args[0]) : 2_000;
+        int seconds = args.length > 1 ? Integer.parseInt(args[1]) : 60;
+
+        if (args.length > 2) {
+            new LoadGenerator().run(args[2], botCount, seconds);
+        } else {
+            try (ConfigurableApplicationContext context = InProcessServer.start()) {
+                new LoadGenerator().run(InProcessServer.webSocketUrl(context), botCount, seconds);
+            }
+        }
+    }
+
+    boolean isRunning() {
+        return running;
+    }
+
+    void recordMove(String senderName) {
+        moves.increment();
+        recordLatency(senderName);
+    }
+
+    void recordGame(String loserName) {
+        games.increment();
+        recordLatency(loserName);
+    }
+
+    void recordError(String botName, String error) {
+        if (running) {
+            errors.increment();
+            System.err.println(botName + ": " + error);
+        }
+    }
+
+    private void recordLatency(String senderName) {
+        var sender = null == senderName ? null : bots.get(senderName);
+
+        if (null != sender) {
+            latencies.recordValue(Math.min(System.nanoTime() - sender.getLastSendNanos(), MAX_LATENCY_NANOS));
+        }
+    }
+
+    /**
+     * Runs the bots against the server at the given URL and returns the summary line.
+     */
+    String run(String url, int botCount, int seconds) throws Exception {
+        var scheduler = new ThreadPoolTaskScheduler();
+        scheduler.initialize();
+        var stompClient = InProcessServer.newStompClient(scheduler);
+
+        System.out.printf("Connecting %d bots to %s%n", botCount, url);
+        long connectStart = System.nanoTime();
+        int connected = connectAll(stompClient, url, botCount);
+        double connectSeconds = (System.nanoTime() - connectStart) / 1e9;
+        System.out.printf("Connected %d bots in %.1f s (%.0f connects/s), %d failed%n",
+                connected, connectSeconds, connected / connectSeconds, botCount - connected);
+
+        latencies.getIntervalHistogram();
+        long movesBefore = moves.sum();
+        long gamesBefore = games.sum();
+
+        System.out.println();
+        System.out.println("time(s)   games/s   moves/s   p50(ms)   p99(ms)  p999(ms)   errors  heap(MB)");
+
+        long measureStart = System.nanoTime();
+        long lastMoves = movesBefore;
+        long lastGames = gamesBefore;
+        for (long elapsed = REPORT_INTERVAL_SECONDS; elapsed <= seconds; elapsed += REPORT_INTERVAL_SECONDS) {
+            Thread.sleep(TimeUnit.SECONDS.toMillis(REPORT_INTERVAL_SECONDS));
+
+            var interval = latencies.getIntervalHistogram();
+            totalLatencies.add(interval);
+
+            long currentMoves = moves.sum();
+            long currentGames = games.sum();
+            System.out.printf("%7d %9.0f %9.0f %9.2f %9.2f %9.2f %8d %9d%n", elapsed,
+                    (currentGames - lastGames) / (double) REPORT_INTERVAL_SECONDS,
+                    (currentMoves - lastMoves) / (double) REPORT_INTERVAL_SECONDS,
+                    millis(interval, 50), millis(interval, 99), millis(interval, 99.9),
+                    errors.sum(), usedHeapMegabytes());
+            lastMoves = currentMoves;
+            lastGames = currentGames;
+        }
+        double measuredSeconds = (System.nanoTime() - measureStart) / 1e9;
+
+        running = false;
+        drain();
+        bots.values().forEach(LoadBot::leave);
+        stompClient.stop();
+        scheduler.shutdown();
+
+        var summary = String.format("bots %d, connects/s %.0f, games/s %.0f, moves/s %.0f, move latency p50 %.2f ms, p99 %.2f ms, p999 %.2f ms, max %.2f ms, errors %d",
+                connected, connected / connectSeconds,
+                (games.sum() - gamesBefore) / measuredSeconds,
+                (moves.sum() - movesBefore) / measuredSeconds,
+                millis(totalLatencies, 50), millis(totalLatencies, 99), millis(totalLatencies, 99.9),
+                totalLatencies.getMaxValue() / 1e6, errors.sum());
+
+        System.out.println();
+        System.out.println(summary);
+        return summary;
+    }
+
+    /*
+    Bots stop asking for rematches once the run is over; games in progress are played out before disconnecting so
+    that their opponents do not see errors.
+     */
+    private void drain() throws InterruptedException {
+        long deadline = System.currentTimeMillis() + DRAIN_TIMEOUT_MILLIS;
+        long lastMoves;
+
+        do {
+            lastMoves = moves.sum();
+            Thread.sleep(200);
+        } while (moves.sum() != lastMoves && System.currentTimeMillis() < deadline);
+    }
+
+    private int connectAll(WebSocketStompClient stompClient, String url, int botCount) throws InterruptedException {
+        var connector = Executors.newFixedThreadPool(CONNECT_CONCURRENCY);
+        var futures = new ArrayList<Future<?>>();
+
+        for (int i = 0; i < botCount; i++) {
+            var bot = new LoadBot("bot-" + i, this);
+            futures.add(connector.submit(() -> connect(stompClient, url, bot)));
+        }
+
+        int connected = 0;
+        for (var future : futures) {
+            try {
+                future.get(30, TimeUnit.SECONDS);
+                connected++;
+            } catch (ExecutionException | TimeoutException e) {
+                errors.increment();
+            }
+        }
+        connector.shutdown();
+        return connected;
+    }
+
+    private Void connect(WebSocketStompClient stompClient, String url, LoadBot bot) throws Exception {
+        var stompHeaders = new StompHeaders();
+        stompHeaders.add("username", bot.getName());
+
+        var session = stompClient.connect(url, new WebSocketHttpHeaders(), stompHeaders, new StompSessionHandlerAdapter() {
+        }).get(30, TimeUnit.SECONDS);
+
+        bots.put(bot.getName(), bot);
+        bot.join(session);
+        return null;
+    }
+
+    private static double millis(Histogram histogram, double percentile) {
+        return histogram.getTotalCount() == 0 ? Double.NaN : histogram.getValueAtPercentile(percentile) / 1e6;
+    }
+
+    private static long usedHeapMegabytes() {
+        var runtime = Runtime.getRuntime();
+        return (runtime.totalMemory() - runtime.freeMemory()) / (1024 * 1024);
+    }
+}
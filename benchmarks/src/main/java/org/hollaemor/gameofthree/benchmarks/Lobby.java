@@ -0,0 +1,66 @@
+package org.hollaemor.gameofthree.benchmarks;
+
+import org.hollaemor.gameofthree.gaming.domain.Game;
+import org.hollaemor.gameofthree.gaming.domain.GameRules;
+import org.hollaemor.gameofthree.gaming.domain.GameService;
+import org.hollaemor.gameofthree.gaming.domain.Player;
+import org.hollaemor.gameofthree.gaming.domain.PlayerLocks;
+import org.hollaemor.gameofthree.gaming.infrastructure.bot.BotQueue;
+import org.hollaemor.gameofthree.gaming.infrastructure.bot.GameBotProperties;
+import org.hollaemor.gameofthree.gaming.infrastructure.broker.GameBrokerProperties;
+import org.hollaemor.gameofthree.gaming.infrastructure.journal.GameJournal;
+import org.hollaemor.gameofthree.gaming.infrastructure.journal.GameJournalProperties;
+import org.hollaemor.gameofthree.gaming.infrastructure.matchmaking.FifoPairingStrategy;
+import org.hollaemor.gameofthree.gaming.infrastructure.matchmaking.GameMatchmakingProperties;
+import org.hollaemor.gameofthree.gaming.infrastructure.matchmaking.LatencyProbe;
+import org.hollaemor.gameofthree.gaming.infrastructure.matchmaking.MatchmakingQueue;
+import org.hollaemor.gameofthree.gaming.infrastructure.metrics.GameMetrics;
+import org.hollaemor.gameofthree.gaming.infrastructure.repository.InMemoryGameRepository;
+import org.hollaemor.gameofthree.gaming.infrastructure.repository.InMemoryPlayerRepository;
+import org.hollaemor.gameofthree.gaming.infrastructure.spectator.GameSpectatorProperties;
+import org.hollaemor.gameofthree.gaming.infrastructure.spectator.SpectatorBroadcaster;
+import org.hollaemor.gameofthree.gaming.infrastructure.timer.GameTimeouts;
+import org.hollaemor.gameofthree.gaming.infrastructure.timer.GameTimerProperties;
+import org.hollaemor.gameofthree.gaming.infrastructure.timer.TimerWheel;
+import org.hollaemor.gameofthree.gaming.infrastructure.tournament.GameTournamentProperties;
+import org.hollaemor.gameofthree.gaming.infrastructure.tournament.TournamentQueue;
+
+/**
+ * A repository pre-filled with idle players waiting in the lobby, plus a game service wired against it.
+ */
+class Lobby {
+
+    final InMemoryPlayerRepository repository = new InMemoryPlayerRepository();
+    final InMemoryGameRepository gameRepository = new InMemoryGameRepository();
+    final GameJournal gameJournal = new GameJournal(new GameJournalProperties());
+    final TimerWheel timerWheel = new TimerWheel(new GameTimerProperties());
+    final TournamentQueue tournamentQueue = new TournamentQueue(new GameTournamentProperties());
+    final SpectatorBroadcaster spectators = new SpectatorBroadcaster(null, new GameSpectatorProperties(),
+            new GameBrokerProperties(), gameRepository);
+    final GameService gameService = new GameService(repository, gameRepository, new NoOpNotificationService(),
+            new PlayerLocks(), new GameMetrics(),
+            new MatchmakingQueue(new GameMatchmakingProperties(), new FifoPairingStrategy(), new LatencyProbe()),
+            gameJournal, new GameTimeouts(new GameTimerProperties(), timerWheel),
+            new BotQueue(new GameBotProperties(), repository, gameJournal, timerWheel), GameRules.CLASSIC,
+            tournamentQueue, spectators);
+
+    Lobby(int idlePlayers) {
+        for (int i = 0; i < idlePlayers; i++) {
+            repository.save(new Player("idle-" + i));
+        }
+    }
+
+    Player[] pair(String playerName, String opponentName) {
+        var player = new Player(playerName);
+        var opponent = new Player(opponentName);
+
+        player.setOpponent(opponent);
+        player.setPrimary(true);
+
+        repository.save(player);
+        repository.save(opponent);
+        gameRepository.save(new Game(gameRepository.nextId(), playerName, opponentName));
+
+        return new Player[]{player, opponent};
+    }
+}
@@ -0,0 +1,75 @@
+package org.hollaemor.gameofthree.benchmarks;
+
+import org.hollaemor.gameofthree.gaming.domain.GameMessage;
+import org.hollaemor.gameofthree.gaming.domain.Player;
+import org.openjdk.jmh.annotations.*;
+
+import java.util.Optional;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+
+/**
+ * Cost of finding an opponent and of a full start request in a lobby of idle players. Each invocation returns the
+ * players it touched to the lobby, so the lobby size stays constant for the whole run.
+ */
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+public class MatchmakingBenchmark {
+
+    @State(Scope.Benchmark)
+    public static class LobbyState {
+
+        @Param({"1000", "10000", "100000"})
+        public int lobbySize;
+
+        Lobby lobby;
+
+        final AtomicInteger requesters = new AtomicInteger();
+
+        @Setup(Level.Trial)
+        public void setup() {
+            lobby = new Lobby(lobbySize);
+        }
+    }
+
+    @State(Scope.Thread)
+    public static class RequesterState {
+
+        Player requester;
+
+        @Setup(Level.Trial)
+        public void setup(LobbyState lobbyState) {
+            requester = new Player("requester-" + lobbyState.requesters.incrementAndGet());
+            lobbyState.lobby.repository.save(requester);
+        }
+    }
+
+    @Benchmark
+    public Optional<Player> findAvailableForPlayer(LobbyState lobbyState, RequesterState requesterState) {
+        var repository = lobbyState.lobby.repository;
+        var available = repository.findAvailableForPlayer(requesterState.requester.getName());
+
+        available.ifPresent(repository::save);
+        return available;
+    }
+
+    @Benchmark
+    public GameMessage startForPlayer(LobbyState lobbyState, RequesterState requesterState) {
+        var repository = lobbyState.lobby.repository;
+        var requester = requesterState.requester;
+
+        var message = lobbyState.lobby.gameService.startForPlayer(requester.getName());
+
+        var opponent = requester.getOpponent();
+        if (null != opponent) {
+            opponent.removeOpponent();
+            requester.removeOpponent();
+            repository.save(opponent);
+            repository.save(requester);
+        }
+        return message;
+    }
+}
@@ -0,0 +1,73 @@
+package org.hollaemor.gameofthree.benchmarks;
+
+import org.hollaemor.gameofthree.gaming.domain.GameInstruction;
+import org.hollaemor.gameofthree.gaming.domain.Player;
+import org.openjdk.jmh.annotations.*;
+
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+
+/**
+ * Cost of the in-game requests for a paired player, with the lobby filled with idle players. Every benchmark thread
+ * plays its own game.
+ *
+ * <p>The server keeps the game state, so a single request cannot be repeated in isolation. Each invocation plays a
+ * whole game instead: a rematch, the random number 3^10 and ten moves of 0, and the time is reported per request.
+ */
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+public class MoveBenchmark {
+
+    private static final int RANDOM_NUMBER = 59_049;
+    private static final int MOVES = 10;
+
+    @State(Scope.Benchmark)
+    public static class LobbyState {
+
+        @Param({"1000", "10000", "100000"})
+        public int lobbySize;
+
+        Lobby lobby;
+
+        final AtomicInteger games = new AtomicInteger();
+
+        @Setup(Level.Trial)
+        public void setup() {
+            lobby = new Lobby(lobbySize);
+        }
+    }
+
+    @State(Scope.Thread)
+    public static class GameState {
+
+        Player player;
+        Player opponent;
+
+        final GameInstruction move = GameInstruction.builder().move(0).build();
+
+        @Setup(Level.Trial)
+        public void setup(LobbyState lobbyState) {
+            int game = lobbyState.games.incrementAndGet();
+            var players = lobbyState.lobby.pair("player-" + game, "opponent-" + game);
+            player = players[0];
+            opponent = players[1];
+        }
+    }
+
+    @Benchmark
+    @OperationsPerInvocation(MOVES + 2)
+    public void playGame(LobbyState lobbyState, GameState gameState) {
+        var gameService = lobbyState.lobby.gameService;
+
+        gameService.startForPlayer(gameState.player.getName());
+        gameService.processRandomNumberFromPlayer(RANDOM_NUMBER, gameState.player.getName());
+
+        for (int move = 0; move < MOVES; move++) {
+            var mover = move % 2 == 0 ? gameState.opponent : gameState.player;
+            gameService.processPlayerMove(mover.getName(), gameState.move);
+        }
+    }
+}
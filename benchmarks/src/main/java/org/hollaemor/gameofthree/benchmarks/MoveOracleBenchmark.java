@@ -0,0 +1,102 @@
+package org.hollaemor.gameofthree.benchmarks;
+
+import org.hollaemor.gameofthree.gaming.domain.MoveOracle;
+import org.openjdk.jmh.annotations.*;
+
+import java.util.Random;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * The move oracle against the modulo arithmetic it replaces: checking a move, finding the move to play, and working
+ * out how many turns a game takes by playing it out. Values are random, below the oracle's table or well beyond it.
+ */
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+public class MoveOracleBenchmark {
+
+    private static final int VALUES = 1024;
+
+    private static final int DIVISOR = 3;
+
+    @State(Scope.Thread)
+    public static class ValueState {
+
+        @Param({"65536", "2147483647"})
+        public int maxValue;
+
+        final int[] values = new int[VALUES];
+        final int[] moves = new int[VALUES];
+
+        int next;
+
+        @Setup(Level.Trial)
+        public void createValues() {
+            var random = new Random(42);
+
+            for (int i = 0; i < VALUES; i++) {
+                values[i] = 2 + random.nextInt(maxValue - 2);
+                moves[i] = random.nextInt(3) - 1;
+            }
+        }
+
+        int index() {
+            next = (next + 1) & (VALUES - 1);
+            return next;
+        }
+    }
+
+    @Benchmark
+    public boolean checkMoveWithModulo(ValueState state) {
+        int i = state.index();
+        return (state.values[i] + state.moves[i]) % DIVISOR == 0;
+    }
+
+    @Benchmark
+    public boolean checkMoveWithOracle(ValueState state) {
+        int i = state.index();
+        return state.moves[i] == MoveOracle.moveFor(state.values[i]);
+    }
+
+    /*
+    What the web client did before the hint: try the remainders one by one.
+     */
+    @Benchmark
+    public int findMoveWithModulo(ValueState state) {
+        int value = state.values[state.index()];
+
+        switch (value % DIVISOR) {
+            case 0:
+                return 0;
+            case 1:
+                return -1;
+            default:
+                return 1;
+        }
+    }
+
+    @Benchmark
+    public int findMoveWithOracle(ValueState state) {
+        return MoveOracle.moveFor(state.values[state.index()]);
+    }
+
+    @Benchmark
+    public int turnsLeftByPlaying(ValueState state) {
+        int value = state.values[state.index()];
+        int turns = 0;
+
+        while (value != 1) {
+            int remainder = value % DIVISOR;
+            value = (value + (remainder == 0 ? 0 : remainder == 1 ? -1 : 1)) / DIVISOR;
+            turns++;
+        }
+        return turns;
+    }
+
+    @Benchmark
+    public int turnsLeftWithOracle(ValueState state) {
+        return MoveOracle.turnsLeft(state.values[state.index()]);
+    }
+}
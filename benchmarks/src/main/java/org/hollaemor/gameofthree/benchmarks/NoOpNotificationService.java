@@ -0,0 +1,19 @@
+package org.hollaemor.gameofthree.benchmarks;
+
+import org.hollaemor.gameofthree.gaming.domain.GameMessage;
+import org.hollaemor.gameofthree.gaming.infrastructure.service.NotificationService;
+
+/**
+ * Drops every notification so that benchmarks measure domain cost only, without the messaging template or broker.
+ */
+public class NoOpNotificationService extends NotificationService {
+
+    public NoOpNotificationService() {
+        super(null, null, null, null);
+    }
+
+    @Override
+    public void notifyPlayer(String playerName, GameMessage message) {
+        // intentionally empty
+    }
+}
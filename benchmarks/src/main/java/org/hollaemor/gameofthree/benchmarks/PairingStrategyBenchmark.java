@@ -0,0 +1,76 @@
+package org.hollaemor.gameofthree.benchmarks;
+
+import org.hollaemor.gameofthree.gaming.domain.Player;
+import org.hollaemor.gameofthree.gaming.infrastructure.matchmaking.*;
+import org.openjdk.jmh.annotations.*;
+
+import java.time.Duration;
+import java.util.List;
+import java.util.Random;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Cost of one matchmaking round over a full queue for each pairing strategy. The waiting players have normally
+ * distributed ratings, round-trip times between 5 ms and 400 ms and have waited up to three seconds.
+ */
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+public class PairingStrategyBenchmark {
+
+    @State(Scope.Thread)
+    public static class QueueState {
+
+        @Param({"fifo", "rating-band", "lowest-latency"})
+        public String strategy;
+
+        @Param({"1000", "10000"})
+        public int waiting;
+
+        final GameMatchmakingProperties properties = new GameMatchmakingProperties();
+
+        MatchTicket[] tickets;
+        MatchmakingQueue queue;
+        long now;
+
+        @Setup(Level.Trial)
+        public void createTickets() {
+            var random = new Random(42);
+            now = System.nanoTime();
+            tickets = new MatchTicket[waiting];
+
+            for (int i = 0; i < waiting; i++) {
+                var player = new Player("waiting-" + i);
+                player.setRating((int) (1500 + random.nextGaussian() * 200));
+                long rttMillis = 5 + random.nextInt(396);
+                tickets[i] = new MatchTicket(player, rttMillis, now - random.nextInt(3_000) * 1_000_000L);
+            }
+        }
+
+        @Setup(Level.Invocation)
+        public void fillQueue() {
+            queue = new MatchmakingQueue(properties, pairingStrategy(), new LatencyProbe());
+            for (var ticket : tickets) {
+                queue.enqueue(ticket);
+            }
+        }
+
+        private PairingStrategy pairingStrategy() {
+            switch (strategy) {
+                case "rating-band":
+                    return new RatingBandPairingStrategy(properties.getRatingBand(), properties.getRatingBandGrowthPerSecond());
+                case "lowest-latency":
+                    return new LowestLatencyPairingStrategy(properties.getRttBucketWidth(), Duration.ofSeconds(2));
+                default:
+                    return new FifoPairingStrategy();
+            }
+        }
+    }
+
+    @Benchmark
+    public List<Match> matchRound(QueueState state) {
+        return state.queue.match(state.waiting / 2, state.now);
+    }
+}
@@ -0,0 +1,94 @@
+package org.hollaemor.gameofthree.benchmarks;
+
+import org.hollaemor.gameofthree.gaming.domain.Game;
+import org.hollaemor.gameofthree.gaming.domain.GameRules;
+import org.hollaemor.gameofthree.gaming.infrastructure.journal.GameJournal;
+import org.hollaemor.gameofthree.gaming.infrastructure.journal.GameJournalProperties;
+import org.hollaemor.gameofthree.gaming.infrastructure.journal.GameRecovery;
+import org.hollaemor.gameofthree.gaming.infrastructure.repository.InMemoryGameRepository;
+import org.hollaemor.gameofthree.gaming.infrastructure.repository.InMemoryPlayerRepository;
+import org.springframework.util.FileSystemUtils;
+
+import java.nio.file.Files;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Time from startup to serving for a journal of {@code players / 2} games in progress: the newest snapshot is loaded,
+ * the journal records after it are replayed and the players and games are added to empty repositories.
+ *
+ * <p>Every game has its random number and three moves in the snapshot and {@code tailMoves} further moves in the
+ * journal after it. The random number is 3^19 and every move adds 0, so no game ends.
+ *
+ * <p>Usage: {@code java -cp target/benchmarks.jar org.hollaemor.gameofthree.benchmarks.RecoveryLoadTest [players] [tailMoves]}.
+ */
+public class RecoveryLoadTest {
+
+    private static final int START_VALUE = 1_162_261_467;
+    private static final int SNAPSHOT_MOVES = 3;
+
+    public static void main(String[] args) throws Exception {
+        int players = args.length > 0 ? Integer.parseInt(args[0]) : 100_000;
+        int tailMoves = args.length > 1 ? Integer.parseInt(args[1]) : 2;
+
+        var directory = Files.createTempDirectory("recovery-load-test");
+        try {
+            var properties = new GameJournalProperties();
+            properties.setEnabled(true);
+            properties.setDirectory(directory);
+            properties.setQueueCapacity(players * (SNAPSHOT_MOVES + tailMoves + 2));
+
+            var games = new Game[players / 2];
+            for (int i = 0; i < games.length; i++) {
+                games[i] = new Game(i + 1, "primary-" + i, "secondary-" + i);
+            }
+
+            record(properties, games, 0, SNAPSHOT_MOVES, true);
+            long snapshot = newRecovery(properties).snapshot();
+            record(properties, games, SNAPSHOT_MOVES, tailMoves, false);
+
+            for (int run = 1; run <= 5; run++) {
+                var recovery = newRecovery(properties);
+
+                long start = System.nanoTime();
+                int restored = recovery.recover().size();
+                long millis = TimeUnit.NANOSECONDS.toMillis(System.nanoTime() - start);
+
+                System.out.printf("run %d: %d players restored from snapshot %d plus %d records in %d ms%n",
+                        run, restored, snapshot, (long) games.length * tailMoves, millis);
+            }
+        } finally {
+            FileSystemUtils.deleteRecursively(directory);
+        }
+    }
+
+    private static void record(GameJournalProperties properties, Game[] games, int movesPlayed, int moves,
+                               boolean start) throws Exception {
+        var journal = new GameJournal(properties);
+        journal.afterPropertiesSet();
+
+        for (var game : games) {
+            if (start) {
+                journal.paired(game);
+                journal.numberSent(game, game.getPrimaryPlayerName(), START_VALUE);
+            }
+            int value = START_VALUE;
+            for (int move = 0; move < movesPlayed + moves; move++) {
+                value /= GameRules.CLASSIC.getDivisor();
+                if (move >= movesPlayed) {
+                    var mover = move % 2 == 0 ? game.getSecondaryPlayerName() : game.getPrimaryPlayerName();
+                    journal.moved(game, mover, 0, value);
+                }
+            }
+        }
+        journal.destroy();
+
+        if (journal.getDroppedRecords() > 0) {
+            throw new IllegalStateException(journal.getDroppedRecords() + " records dropped");
+        }
+    }
+
+    private static GameRecovery newRecovery(GameJournalProperties properties) {
+        return new GameRecovery(properties, new InMemoryPlayerRepository(), new InMemoryGameRepository(), null,
+                GameRules.CLASSIC);
+    }
+}
@@ -0,0 +1,143 @@
+package org.hollaemor.gameofthree.benchmarks;
+
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.hollaemor.gameofthree.gaming.domain.GameInstruction;
+import org.hollaemor.gameofthree.gaming.domain.GameMessage;
+import org.hollaemor.gameofthree.gaming.domain.GameRules;
+import org.hollaemor.gameofthree.gaming.domain.GameService;
+import org.hollaemor.gameofthree.gaming.domain.GameStatus;
+import org.hollaemor.gameofthree.gaming.domain.MoveOracle;
+import org.hollaemor.gameofthree.gaming.domain.Player;
+import org.hollaemor.gameofthree.gaming.domain.PlayerLocks;
+import org.hollaemor.gameofthree.gaming.infrastructure.bot.BotQueue;
+import org.hollaemor.gameofthree.gaming.infrastructure.bot.GameBotProperties;
+import org.hollaemor.gameofthree.gaming.infrastructure.broker.GameBrokerProperties;
+import org.hollaemor.gameofthree.gaming.infrastructure.journal.GameJournal;
+import org.hollaemor.gameofthree.gaming.infrastructure.journal.GameJournalProperties;
+import org.hollaemor.gameofthree.gaming.infrastructure.matchmaking.FifoPairingStrategy;
+import org.hollaemor.gameofthree.gaming.infrastructure.matchmaking.GameMatchmakingProperties;
+import org.hollaemor.gameofthree.gaming.infrastructure.matchmaking.LatencyProbe;
+import org.hollaemor.gameofthree.gaming.infrastructure.matchmaking.MatchmakingQueue;
+import org.hollaemor.gameofthree.gaming.infrastructure.metrics.GameMetrics;
+import org.hollaemor.gameofthree.gaming.infrastructure.repository.InMemoryGameRepository;
+import org.hollaemor.gameofthree.gaming.infrastructure.repository.InMemoryPlayerRepository;
+import org.hollaemor.gameofthree.gaming.infrastructure.service.NotificationService;
+import org.hollaemor.gameofthree.gaming.infrastructure.spectator.GameSpectatorProperties;
+import org.hollaemor.gameofthree.gaming.infrastructure.spectator.SpectatorBroadcaster;
+import org.hollaemor.gameofthree.gaming.infrastructure.timer.GameTimeouts;
+import org.hollaemor.gameofthree.gaming.infrastructure.timer.GameTimerProperties;
+import org.hollaemor.gameofthree.gaming.infrastructure.timer.TimerWheel;
+import org.hollaemor.gameofthree.gaming.infrastructure.tournament.GameTournamentProperties;
+import org.hollaemor.gameofthree.gaming.infrastructure.tournament.TournamentDirector;
+import org.hollaemor.gameofthree.gaming.infrastructure.tournament.TournamentQueue;
+
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Plays a single tournament of {@code players} players against the domain, without a broker: the START messages of a
+ * round are handed to a pool of game threads, which play each match with the moves of the {@link MoveOracle}, and the
+ * director starts the next round as the last result of a round comes in. Prints how long the rounds took from their
+ * start to their last result, as recorded in {@code game.tournament.round}.
+ *
+ * <p>Usage: {@code java -cp target/benchmarks.jar org.hollaemor.gameofthree.benchmarks.TournamentLoadTest [players] [threads]}.
+ */
+public class TournamentLoadTest {
+
+    public static void main(String[] args) throws Exception {
+        int players = args.length > 0 ? Integer.parseInt(args[0]) : 16_384;
+        int threads = args.length > 1 ? Integer.parseInt(args[1]) : Runtime.getRuntime().availableProcessors();
+
+        var meterRegistry = new SimpleMeterRegistry();
+        var gameMetrics = new GameMetrics();
+        gameMetrics.bindTo(meterRegistry);
+        var repository = new InMemoryPlayerRepository();
+        var gameJournal = new GameJournal(new GameJournalProperties());
+        var timerProperties = new GameTimerProperties();
+        var timerWheel = new TimerWheel(timerProperties);
+        var tournamentProperties = new GameTournamentProperties();
+        tournamentProperties.setSize(players);
+        var tournamentQueue = new TournamentQueue(tournamentProperties);
+
+        var gameThreads = Executors.newFixedThreadPool(threads);
+        var notificationService = new MatchPlayer(gameThreads);
+        var gameRepository = new InMemoryGameRepository();
+        var spectators = new SpectatorBroadcaster(null, new GameSpectatorProperties(), new GameBrokerProperties(),
+                gameRepository);
+        var gameService = new GameService(repository, gameRepository, notificationService,
+                new PlayerLocks(), gameMetrics,
+                new MatchmakingQueue(new GameMatchmakingProperties(), new FifoPairingStrategy(), new LatencyProbe()),
+                gameJournal, new GameTimeouts(timerProperties, timerWheel),
+                new BotQueue(new GameBotProperties(), repository, gameJournal, timerWheel), GameRules.CLASSIC,
+                tournamentQueue, spectators);
+        notificationService.gameService = gameService;
+
+        var director = new TournamentDirector(tournamentQueue, gameService, repository, gameMetrics);
+        director.afterPropertiesSet();
+        try {
+            for (int i = 0; i < players; i++) {
+                repository.save(new Player("player-" + i));
+            }
+            notificationService.start = System.nanoTime();
+
+            for (int i = 0; i < players; i++) {
+                gameService.joinTournament("player-" + i);
+            }
+            if (!notificationService.championCrowned.await(5, TimeUnit.MINUTES)) {
+                throw new IllegalStateException("tournament did not end in time");
+            }
+            long millis = TimeUnit.NANOSECONDS.toMillis(System.nanoTime() - notificationService.start);
+            var roundTimer = meterRegistry.get("game.tournament.round").timer();
+
+            System.out.printf("%d players, %d rounds in %d ms, round from start to last result: mean %.1f ms, max %.1f ms%n",
+                    players, roundTimer.count(), millis, roundTimer.mean(TimeUnit.MILLISECONDS),
+                    roundTimer.max(TimeUnit.MILLISECONDS));
+        } finally {
+            director.destroy();
+            gameThreads.shutdownNow();
+        }
+    }
+
+    /**
+     * Plays every match it gets a START message for on the game threads.
+     */
+    private static class MatchPlayer extends NotificationService {
+
+        final ExecutorService gameThreads;
+        final CountDownLatch championCrowned = new CountDownLatch(1);
+
+        volatile GameService gameService;
+        volatile long start;
+
+        MatchPlayer(ExecutorService gameThreads) {
+            super(null, null, null, null);
+            this.gameThreads = gameThreads;
+        }
+
+        @Override
+        public void notifyPlayer(String playerName, GameMessage message) {
+            if (message.getGameStatus() == GameStatus.START && message.isPrimaryPlayer()) {
+                var secondaryPlayerName = message.getOpponent();
+                gameThreads.execute(() -> play(playerName, secondaryPlayerName));
+            } else if ("You won the tournament".equals(message.getContent())) {
+                championCrowned.countDown();
+            }
+        }
+
+        private void play(String primaryPlayerName, String secondaryPlayerName) {
+            int value = ThreadLocalRandom.current().nextInt(2, 1_000_000);
+            gameService.processRandomNumberFromPlayer(value, primaryPlayerName);
+
+            var mover = secondaryPlayerName;
+            while (value != 1) {
+                int move = MoveOracle.moveFor(value);
+                gameService.processPlayerMove(mover, GameInstruction.builder().move(move).build());
+                value = MoveOracle.next(value);
+                mover = mover.equals(primaryPlayerName) ? secondaryPlayerName : primaryPlayerName;
+            }
+        }
+    }
+}
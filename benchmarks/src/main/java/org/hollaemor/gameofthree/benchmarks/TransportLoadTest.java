@@ -0,0 +1,287 @@
+package org.hollaemor.gameofthree.benchmarks;
+
+import org.HdrHistogram.Histogram;
+import org.hollaemor.gameofthree.gaming.domain.GameInstruction;
+import org.hollaemor.gameofthree.gaming.domain.GameMessage;
+import org.springframework.messaging.simp.stomp.StompFrameHandler;
+import org.springframework.messaging.simp.stomp.StompHeaders;
+import org.springframework.messaging.simp.stomp.StompSession;
+import org.springframework.messaging.simp.stomp.StompSessionHandlerAdapter;
+import org.springframework.scheduling.concurrent.ThreadPoolTaskScheduler;
+import org.springframework.util.concurrent.ListenableFuture;
+import org.springframework.web.socket.WebSocketHandler;
+import org.springframework.web.socket.WebSocketHttpHeaders;
+import org.springframework.web.socket.WebSocketMessage;
+import org.springframework.web.socket.WebSocketSession;
+import org.springframework.web.socket.client.WebSocketClient;
+import org.springframework.web.socket.client.standard.StandardWebSocketClient;
+import org.springframework.web.socket.handler.WebSocketHandlerDecorator;
+import org.springframework.web.socket.handler.WebSocketSessionDecorator;
+import org.springframework.web.socket.messaging.WebSocketStompClient;
+import org.springframework.web.socket.sockjs.client.SockJsClient;
+import org.springframework.web.socket.sockjs.client.WebSocketTransport;
+
+import java.io.IOException;
+import java.lang.reflect.Type;
+import java.net.URI;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * Bytes and latency per move over the plain WebSocket endpoint and over SockJS on WebSocket, the transport browsers
+ * with WebSocket support end up on when they connect to the SockJS endpoint.
+ *
+ * <p>Two players play one move at a time against an in-process server, see {@link Player}. The latency is measured
+ * from sending a move until the opponent receives it. The bytes are the WebSocket message payloads sent and received by both players, so they
+ * include STOMP and SockJS framing but not the few bytes of WebSocket frame header per message.
+ *
+ * <p>Usage: {@code java -cp target/benchmarks.jar org.hollaemor.gameofthree.benchmarks.TransportLoadTest [moves]}.
+ */
+public class TransportLoadTest {
+
+    private static final int START_VALUE = 1_162_261_467;
+    private static final long MAX_LATENCY_NANOS = TimeUnit.SECONDS.toNanos(10);
+
+    private static int duels;
+
+    public static void main(String[] args) throws Exception {
+        int moves = args.length > 0 ? Integer.parseInt(args[0]) : 20_000;
+
+        var results = new ArrayList<String>();
+        try (var context = InProcessServer.start()) {
+            var webSocketUrl = InProcessServer.nativeWebSocketUrl(context);
+            var sockJsUrl = InProcessServer.webSocketUrl(context);
+
+            // an unmeasured round of each first, so that neither transport runs against a cold server
+            run("websocket", webSocketUrl, moves / 5, 0);
+            run("sockjs", sockJsUrl, moves / 5, 0);
+
+            results.add(run("websocket", webSocketUrl, moves / 5, moves));
+            results.add(run("sockjs", sockJsUrl, moves / 5, moves));
+        }
+
+        System.out.println();
+        System.out.println("transport      moves  bytes/move  p50(us)  p99(us)  p999(us)");
+        results.forEach(System.out::println);
+    }
+
+    private static String run(String transport, String url, int warmupMoves, int moves) throws Exception {
+        var scheduler = new ThreadPoolTaskScheduler();
+        scheduler.initialize();
+
+        var counter = new CountingWebSocketClient(new StandardWebSocketClient());
+        var stompClient = InProcessServer.newStompClient("sockjs".equals(transport)
+                ? new SockJsClient(List.of(new WebSocketTransport(counter)))
+                : counter, scheduler);
+
+        var duel = new Duel(warmupMoves, moves, counter);
+        var name = transport + "-" + (++duels);
+        var first = duel.connect(stompClient, url, name + "-primary");
+        var second = duel.connect(stompClient, url, name + "-secondary");
+        first.opponent = second;
+        second.opponent = first;
+
+        first.requestGame();
+        first.waiting.await(10, TimeUnit.SECONDS);
+        second.requestGame();
+        duel.await();
+        long bytes = counter.total();
+
+        // the winner of the last game may still be asking for a rematch
+        Thread.sleep(200);
+        first.session.disconnect();
+        second.session.disconnect();
+        stompClient.stop();
+        scheduler.shutdown();
+
+        var latencies = duel.latencies;
+        return String.format("%-10s %9d %11.1f %8.0f %8.0f %9.0f", transport, moves, bytes / (double) Math.max(1, moves),
+                latencies.getValueAtPercentile(50) / 1e3, latencies.getValueAtPercentile(99) / 1e3,
+                latencies.getValueAtPercentile(99.9) / 1e3);
+    }
+
+
+    /**
+     * Moves played between two players, one at a time. The first {@code warmupMoves} are not measured.
+     */
+    private static class Duel {
+
+        private final int warmupMoves;
+        private final int moves;
+        private final CountingWebSocketClient counter;
+
+        private final Histogram latencies = new Histogram(MAX_LATENCY_NANOS, 3);
+        private final CountDownLatch done = new CountDownLatch(1);
+
+        private int played;
+
+        Duel(int warmupMoves, int moves, CountingWebSocketClient counter) {
+            this.warmupMoves = warmupMoves;
+            this.moves = moves;
+            this.counter = counter;
+        }
+
+        Player connect(WebSocketStompClient stompClient, String url, String username) throws Exception {
+            var player = new Player(this);
+            var stompHeaders = new StompHeaders();
+            stompHeaders.add("username", username);
+
+            player.session = stompClient.connect(url, new WebSocketHttpHeaders(), stompHeaders, new StompSessionHandlerAdapter() {
+            }).get(10, TimeUnit.SECONDS);
+            player.session.subscribe("/user/queue/updates", player);
+            return player;
+        }
+
+        void await() throws InterruptedException {
+            if (!done.await(5, TimeUnit.MINUTES)) {
+                throw new IllegalStateException("only " + played + " of " + (warmupMoves + moves) + " moves played");
+            }
+        }
+
+        /*
+        Only one move is in flight at a time, but the players receive on different client threads. Returns whether
+        the duel goes on.
+         */
+        synchronized boolean moveReceived(long sentNanos) {
+            latencies.recordValue(Math.min(System.nanoTime() - sentNanos, MAX_LATENCY_NANOS));
+
+            if (++played == warmupMoves) {
+                latencies.reset();
+                counter.reset();
+            }
+            if (played == warmupMoves + moves) {
+                done.countDown();
+            }
+            return done.getCount() > 0;
+        }
+
+        boolean isOver() {
+            return done.getCount() == 0;
+        }
+    }
+
+
+    /**
+     * The primary player always sends 3^19 and both players add 0, so every game takes 20 turns. The primary player
+     * asks for a rematch when a game is over.
+     */
+    private static class Player implements StompFrameHandler {
+
+        private final Duel duel;
+        private final CountDownLatch waiting = new CountDownLatch(1);
+
+        private volatile StompSession session;
+        private volatile Player opponent;
+        private volatile boolean primary;
+        private volatile long lastSendNanos;
+
+        Player(Duel duel) {
+            this.duel = duel;
+        }
+
+        @Override
+        public Type getPayloadType(StompHeaders headers) {
+            return GameMessage.class;
+        }
+
+        @Override
+        public void handleFrame(StompHeaders headers, Object payload) {
+            var gameMessage = (GameMessage) payload;
+
+            switch (gameMessage.getGameStatus()) {
+                case WAITING:
+                    waiting.countDown();
+                    break;
+                case START:
+                    primary = gameMessage.isPrimaryPlayer();
+                    if (primary && !duel.isOver()) {
+                        send("/app/game.number", GameInstruction.builder().value(START_VALUE).build());
+                    }
+                    break;
+                case PLAY:
+                    if (duel.moveReceived(opponent.lastSendNanos)) {
+                        send("/app/game.play", GameInstruction.builder().move(0).build());
+                    }
+                    break;
+                case GAMEOVER:
+                    boolean goesOn = gameMessage.isWinner() ? !duel.isOver() : duel.moveReceived(opponent.lastSendNanos);
+                    if (goesOn && primary) {
+                        requestGame();
+                    }
+                    break;
+                default:
+                    break;
+            }
+        }
+
+        void requestGame() {
+            session.send("/app/game.start", null);
+        }
+
+        private void send(String destination, GameInstruction instruction) {
+            lastSendNanos = System.nanoTime();
+            session.send(destination, instruction);
+        }
+    }
+
+
+    /**
+     * Counts the payload bytes of the WebSocket messages sent and received through the sessions it opens.
+     */
+    private static class CountingWebSocketClient implements WebSocketClient {
+
+        private final WebSocketClient delegate;
+        private final LongAdder bytes = new LongAdder();
+
+        CountingWebSocketClient(WebSocketClient delegate) {
+            this.delegate = delegate;
+        }
+
+        void reset() {
+            bytes.reset();
+        }
+
+        long total() {
+            return bytes.sum();
+        }
+
+        @Override
+        public ListenableFuture<WebSocketSession> doHandshake(WebSocketHandler webSocketHandler, String uriTemplate,
+                                                              Object... uriVariables) {
+            return delegate.doHandshake(new CountingHandler(webSocketHandler), uriTemplate, uriVariables);
+        }
+
+        @Override
+        public ListenableFuture<WebSocketSession> doHandshake(WebSocketHandler webSocketHandler,
+                                                              WebSocketHttpHeaders headers, URI uri) {
+            return delegate.doHandshake(new CountingHandler(webSocketHandler), headers, uri);
+        }
+
+        private class CountingHandler extends WebSocketHandlerDecorator {
+
+            CountingHandler(WebSocketHandler delegate) {
+                super(delegate);
+            }
+
+            @Override
+            public void afterConnectionEstablished(WebSocketSession session) throws Exception {
+                super.afterConnectionEstablished(new WebSocketSessionDecorator(session) {
+                    @Override
+                    public void sendMessage(WebSocketMessage<?> message) throws IOException {
+                        bytes.add(message.getPayloadLength());
+                        super.sendMessage(message);
+                    }
+                });
+            }
+
+            @Override
+            public void handleMessage(WebSocketSession session, WebSocketMessage<?> message) throws Exception {
+                bytes.add(message.getPayloadLength());
+                super.handleMessage(session, message);
+            }
+        }
+    }
+}
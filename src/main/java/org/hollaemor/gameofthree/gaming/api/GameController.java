@@ -3,32 +3,43 @@ package org.hollaemor.gameofthree.gaming.api;
 import org.hollaemor.gameofthree.gaming.domain.GameInstruction;
 import org.hollaemor.gameofthree.gaming.domain.GameMessage;
 import org.hollaemor.gameofthree.gaming.domain.GameService;
+import org.hollaemor.gameofthree.gaming.infrastructure.metrics.GameMetrics;
+import org.hollaemor.gameofthree.gaming.infrastructure.spectator.SpectatorBroadcaster;
+import org.hollaemor.gameofthree.gaming.infrastructure.spectator.SpectatorFrame;
+import org.springframework.messaging.handler.annotation.DestinationVariable;
 import org.springframework.messaging.handler.annotation.MessageExceptionHandler;
 import org.springframework.messaging.handler.annotation.MessageMapping;
-import org.springframework.messaging.simp.SimpMessageHeaderAccessor;
 import org.springframework.messaging.simp.annotation.SendToUser;
+import org.springframework.messaging.simp.annotation.SubscribeMapping;
 import org.springframework.stereotype.Controller;
 
 import java.security.Principal;
 
-import static org.hollaemor.gameofthree.gaming.infrastructure.WebSocketConfig.USERNAME_HEADER;
-
 @Controller
 public class GameController {
 
     private final GameService gameService;
+    private final GameMetrics gameMetrics;
+    private final SpectatorBroadcaster spectators;
 
-    public GameController(GameService gameService) {
+    public GameController(GameService gameService, GameMetrics gameMetrics, SpectatorBroadcaster spectators) {
         this.gameService = gameService;
+        this.gameMetrics = gameMetrics;
+        this.spectators = spectators;
     }
 
     @MessageMapping("/game.start")
     @SendToUser("/queue/updates")
-    public GameMessage startGame(Principal principal, SimpMessageHeaderAccessor headerAccessor) {
-        headerAccessor.getSessionAttributes().put(USERNAME_HEADER, principal.getName());
+    public GameMessage startGame(Principal principal) {
         return gameService.startForPlayer(principal.getName());
     }
 
+    @MessageMapping("/tournament.join")
+    @SendToUser("/queue/updates")
+    public GameMessage joinTournament(Principal principal) {
+        return gameService.joinTournament(principal.getName());
+    }
+
     @MessageMapping("/game.number")
     public void randomNumber(GameInstruction gameInstruction, Principal principal) {
         gameService.processRandomNumberFromPlayer(gameInstruction.getValue(), principal.getName());
@@ -39,9 +50,19 @@ public class GameController {
         gameService.processPlayerMove(principal.getName(), gameInstruction);
     }
 
+    /*
+    Answers the subscription directly with the current state of the game; the moves after it are published on
+    /topic/game.{gameId}.
+     */
+    @SubscribeMapping("/game.{gameId}")
+    public SpectatorFrame watchGame(@DestinationVariable long gameId) {
+        return spectators.snapshot(gameId);
+    }
+
     @MessageExceptionHandler
     @SendToUser("/queue/errors")
     public String handleException(Throwable throwable) {
+        gameMetrics.countError(throwable);
         return throwable.getMessage();
     }
 }
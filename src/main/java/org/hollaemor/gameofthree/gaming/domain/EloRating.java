@@ -0,0 +1,26 @@
+package org.hollaemor.gameofthree.gaming.domain;
+
+/**
+ * Elo ratings of the players, updated after every game. The matchmaker uses them to pair players of similar skill.
+ */
+public final class EloRating {
+
+    public static final int INITIAL_RATING = 1500;
+
+    private static final int K_FACTOR = 32;
+
+    private EloRating() {
+    }
+
+    public static void update(Player winner, Player loser) {
+        double expectedWin = expectedScore(winner.getRating(), loser.getRating());
+        int change = (int) Math.round(K_FACTOR * (1 - expectedWin));
+
+        winner.setRating(winner.getRating() + change);
+        loser.setRating(loser.getRating() - change);
+    }
+
+    static double expectedScore(int rating, int opponentRating) {
+        return 1 / (1 + Math.pow(10, (opponentRating - rating) / 400.0));
+    }
+}
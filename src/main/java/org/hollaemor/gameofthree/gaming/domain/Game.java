@@ -0,0 +1,189 @@
+package org.hollaemor.gameofthree.gaming.domain;
+
+import lombok.Getter;
+import org.hollaemor.gameofthree.gaming.infrastructure.timer.Timeout;
+
+/**
+ * Server-side state of a game between two paired players. The primary player sends the random number, then the
+ * players take turns, starting with the secondary player, until a move brings the value down to the target of the
+ * game's {@link GameRules}, which is 1 in the classic game.
+ *
+ * <p>A current value of 0 means the random number has not been sent yet, so the whole state fits in a few primitive
+ * fields. Both players' frames may be processed on different threads, so every state change is synchronized.
+ */
+public class Game {
+
+    private static final int NOT_STARTED = 0;
+
+    @Getter
+    private final long id;
+
+    @Getter
+    private final String primaryPlayerName;
+
+    @Getter
+    private final String secondaryPlayerName;
+
+    @Getter
+    private final long createdAt;
+
+    @Getter
+    private final GameRules rules;
+
+    private int currentValue;
+
+    private boolean primaryPlayerTurn;
+
+    private int moveCount;
+
+    private long updatedAt;
+
+    /*
+    Deadline of the current turn, if turns have a time limit.
+     */
+    private Timeout turnTimeout;
+
+
+    public Game(long id, String primaryPlayerName, String secondaryPlayerName) {
+        this(id, primaryPlayerName, secondaryPlayerName, GameRules.CLASSIC);
+    }
+
+    public Game(long id, String primaryPlayerName, String secondaryPlayerName, GameRules rules) {
+        this.id = id;
+        this.primaryPlayerName = primaryPlayerName;
+        this.secondaryPlayerName = secondaryPlayerName;
+        this.createdAt = System.currentTimeMillis();
+        this.updatedAt = createdAt;
+        this.rules = rules;
+    }
+
+    /**
+     * Restores a game recorded in the game journal.
+     */
+    public Game(long id, String primaryPlayerName, String secondaryPlayerName, GameRules rules, long createdAt,
+                int currentValue, boolean primaryPlayerTurn, int moveCount, long updatedAt) {
+        this.id = id;
+        this.primaryPlayerName = primaryPlayerName;
+        this.secondaryPlayerName = secondaryPlayerName;
+        this.rules = rules;
+        this.createdAt = createdAt;
+        this.currentValue = currentValue;
+        this.primaryPlayerTurn = primaryPlayerTurn;
+        this.moveCount = moveCount;
+        this.updatedAt = updatedAt;
+    }
+
+    public synchronized void start(String playerName, int randomNumber) {
+        if (!primaryPlayerName.equals(playerName)) {
+            throw new OutOfTurnException("Only " + primaryPlayerName + " can send the random number");
+        }
+        if (currentValue != NOT_STARTED) {
+            throw new OutOfTurnException("The game has already started");
+        }
+        if (randomNumber <= rules.getTarget()) {
+            throw new InvalidCombinationException("Random number must be greater than " + rules.getTarget());
+        }
+
+        currentValue = randomNumber;
+        primaryPlayerTurn = false;
+        updatedAt = System.currentTimeMillis();
+    }
+
+    /**
+     * Applies the player's move to the current value and hands the turn to the opponent.
+     *
+     * @return the value after the division, the target of the rules if the move won the game
+     */
+    public synchronized int play(String playerName, int move) {
+        if (currentValue == NOT_STARTED) {
+            throw new OutOfTurnException("Waiting for the random number");
+        }
+        if (currentValue == rules.getTarget()) {
+            throw new OutOfTurnException("The game is over");
+        }
+        if (!isTurnOf(playerName)) {
+            throw new OutOfTurnException("It is not your turn");
+        }
+        if (!rules.isLegal(currentValue, move)) {
+            throw rules.isMove(move)
+                    ? new InvalidCombinationException((currentValue + move) + " is not divisible by " + rules.getDivisor())
+                    : new InvalidCombinationException("Move must be " + rules.describeMoves());
+        }
+
+        currentValue = rules.next(currentValue, move);
+        primaryPlayerTurn = !primaryPlayerTurn;
+        moveCount++;
+        updatedAt = System.currentTimeMillis();
+
+        return currentValue;
+    }
+
+    /**
+     * Ends the game if turn {@code turn} is still being waited for, and returns the name of the player who did not
+     * play it. Returns null if the game moved on or is over.
+     */
+    public synchronized String timeOut(int turn) {
+        if (currentValue == rules.getTarget() || turn != getTurn()) {
+            return null;
+        }
+        var playerName = currentValue == NOT_STARTED || primaryPlayerTurn ? primaryPlayerName : secondaryPlayerName;
+
+        currentValue = rules.getTarget();
+        turnTimeout = null;
+        updatedAt = System.currentTimeMillis();
+
+        return playerName;
+    }
+
+    /**
+     * Sets the deadline of turn {@code turn} and cancels the one of the previous turn, or only cancels it if
+     * {@code timeout} is null. A deadline for a turn that was played in the meantime is cancelled right away.
+     */
+    public synchronized void replaceTurnTimeout(int turn, Timeout timeout) {
+        if (turn != getTurn()) {
+            if (null != timeout) {
+                timeout.cancel();
+            }
+            return;
+        }
+        if (null != turnTimeout) {
+            turnTimeout.cancel();
+        }
+        turnTimeout = timeout;
+    }
+
+    /**
+     * Counts the turns played, the random number being the first one.
+     */
+    public synchronized int getTurn() {
+        return currentValue == NOT_STARTED ? 0 : moveCount + 1;
+    }
+
+    public String opponentOf(String playerName) {
+        return primaryPlayerName.equals(playerName) ? secondaryPlayerName : primaryPlayerName;
+    }
+
+    public synchronized boolean isStarted() {
+        return currentValue != NOT_STARTED;
+    }
+
+    public synchronized boolean isOver() {
+        return currentValue == rules.getTarget();
+    }
+
+    public synchronized int getCurrentValue() {
+        return currentValue;
+    }
+
+    public synchronized int getMoveCount() {
+        return moveCount;
+    }
+
+    public synchronized long getUpdatedAt() {
+        return updatedAt;
+    }
+
+    public synchronized boolean isTurnOf(String playerName) {
+        return (primaryPlayerTurn ? primaryPlayerName : secondaryPlayerName).equals(playerName);
+    }
+}
@@ -30,4 +30,7 @@ public class GameMessage {
 
     @Getter
     private boolean winner;
+
+    @Getter
+    private boolean turn;
 }
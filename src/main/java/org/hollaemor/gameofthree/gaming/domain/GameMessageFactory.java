@@ -2,26 +2,66 @@ package org.hollaemor.gameofthree.gaming.domain;
 
 public class GameMessageFactory {
 
+    /*
+    Game messages are never modified once built, so the ones without per-player content are shared.
+    PLAY messages are cached for the values a game usually passes through, like Integer.valueOf does for small ints.
+     */
+    private static final int PLAY_CACHE_SIZE = 1024;
+
+    private static final GameMessage WAITING = GameMessage.builder()
+            .gameStatus(GameStatus.WAITING)
+            .primaryPlayer(true)
+            .content("Waiting for available player")
+            .build();
+
+    private static final GameMessage GAMEOVER_WINNER = GameMessage.builder()
+            .gameStatus(GameStatus.GAMEOVER)
+            .winner(true)
+            .build();
+
+    private static final GameMessage GAMEOVER_LOSER = GameMessage.builder()
+            .gameStatus(GameStatus.GAMEOVER)
+            .winner(false)
+            .build();
+
+    private static final GameMessage IDLE = GameMessage.builder()
+            .gameStatus(GameStatus.TIMEOUT)
+            .content("Removed from the lobby after waiting too long for an opponent")
+            .build();
+
+    private static final GameMessage[] PLAY_CACHE = new GameMessage[PLAY_CACHE_SIZE];
+
+    static {
+        for (int value = 0; value < PLAY_CACHE_SIZE; value++) {
+            PLAY_CACHE[value] = newPlayMessage(value, GameRules.CLASSIC.moveFor(value));
+        }
+    }
+
     public static GameMessage buildWaitingMessage() {
-        return GameMessage.builder()
-                .gameStatus(GameStatus.WAITING)
-                .primaryPlayer(true)
-                .content("Waiting for available player")
-                .build();
+        return WAITING;
+    }
+
+    public static GameMessage buildIdleMessage() {
+        return IDLE;
     }
 
     public static GameMessage buildPlayMessage(int value) {
-        return GameMessage.builder()
-                .gameStatus(GameStatus.PLAY)
-                .value(value)
-                .build();
+        if (value >= 0 && value < PLAY_CACHE_SIZE) {
+            return PLAY_CACHE[value];
+        }
+        return newPlayMessage(value, GameRules.CLASSIC.moveFor(value));
+    }
+
+    /**
+     * A PLAY message of a game played by {@code rules}, with the hint of those rules. Only classic games share the
+     * cached messages.
+     */
+    public static GameMessage buildPlayMessage(int value, GameRules rules) {
+        return rules == GameRules.CLASSIC ? buildPlayMessage(value) : newPlayMessage(value, rules.moveFor(value));
     }
 
     public static GameMessage buildGameOverMessage(boolean winner) {
-        return GameMessage.builder()
-                .gameStatus(GameStatus.GAMEOVER)
-                .winner(winner)
-                .build();
+        return winner ? GAMEOVER_WINNER : GAMEOVER_LOSER;
     }
 
     public static GameMessage buildStartMessageForPlayer(Player player) {
@@ -30,14 +70,55 @@ public class GameMessageFactory {
                 .gameStatus(GameStatus.START)
                 .opponent(player.getOpponent().getName())
                 .primaryPlayer(player.isPrimary())
-                .content(String.format("%s requested a game session", player.getOpponent().getName()))
+                .content(player.getOpponent().getName() + " requested a game session")
+                .build();
+    }
+
+    /**
+     * The state of a game in progress, for a player who lost it, e.g. by reconnecting after a restart. The value is
+     * 0 until the random number was sent. Like a PLAY message, it carries the move to make from the value.
+     */
+    public static GameMessage buildResumeMessage(Player player, Game game) {
+        var opponentName = game.opponentOf(player.getName());
+
+        return GameMessage.builder()
+                .gameStatus(GameStatus.RESUME)
+                .opponent(opponentName)
+                .primaryPlayer(player.isPrimary())
+                .value(game.getCurrentValue())
+                .play(game.getRules().moveFor(game.getCurrentValue()))
+                .turn(game.isStarted() && game.isTurnOf(player.getName()))
+                .content("Resumed your game against " + opponentName)
+                .build();
+    }
+
+    /**
+     * News of the player's tournament. It has the WAITING status, since the player waits for its next match or, once
+     * it is out of the tournament, for a game from the lobby.
+     */
+    public static GameMessage buildTournamentMessage(String content) {
+        return GameMessage.builder()
+                .gameStatus(GameStatus.WAITING)
+                .content(content)
                 .build();
     }
 
     public static GameMessage buildDisconnectMessage(String disconnectedPlayerName) {
         return GameMessage.builder()
                 .gameStatus(GameStatus.DISCONNECT)
-                .content(String.format("%s disconnected from game", disconnectedPlayerName))
+                .content(disconnectedPlayerName + " disconnected from game")
+                .build();
+    }
+
+    /*
+    The move that makes the value divisible is sent along as a hint, which is what the web client plays in automatic
+    mode, and what bots play.
+     */
+    private static GameMessage newPlayMessage(int value, int move) {
+        return GameMessage.builder()
+                .gameStatus(GameStatus.PLAY)
+                .value(value)
+                .play(move)
                 .build();
     }
 }
@@ -0,0 +1,8 @@
+package org.hollaemor.gameofthree.gaming.domain;
+
+public class GameNotFoundException extends RuntimeException {
+
+    public GameNotFoundException(String message) {
+        super(message);
+    }
+}
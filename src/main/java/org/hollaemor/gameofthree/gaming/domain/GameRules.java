@@ -0,0 +1,179 @@
+package org.hollaemor.gameofthree.gaming.domain;
+
+import lombok.Getter;
+
+import java.util.Arrays;
+import java.util.stream.Collectors;
+
+/**
+ * The rules a game is played by: the divisor, the moves a player may add to the value, and the target value that wins
+ * the game for the player whose move brings the value down to it or below. {@link #CLASSIC} is the game of three.
+ *
+ * <p>Rules are compiled once into a table of the legal moves for every remainder of the divisor, kept as a bit mask
+ * of the moves, so checking a move costs one remainder, one array load and a shift, without branching on the move.
+ * The remainder is taken with a multiplication by a precomputed inverse of the divisor rather than a division, like
+ * the JIT does for a constant divisor.
+ * The moves must stay within the divisor, so that every move brings a value above the target closer to it.
+ */
+public class GameRules {
+
+    public static final GameRules CLASSIC = new GameRules(3, new int[]{-1, 0, 1}, 1);
+
+    @Getter
+    private final int divisor;
+
+    @Getter
+    private final int target;
+
+    private final int[] moves;
+
+    private final int minMove;
+
+    /*
+    Recorded with every game in the game journal, so a game is only replayed by the rules it was played by.
+     */
+    @Getter
+    private final int fingerprint;
+
+    /*
+    2^64 / divisor, rounded up; see Lemire, Kaser and Kurz, "Faster Remainder by Direct Computation".
+     */
+    private final long inverse;
+
+    /*
+    Indexed by the remainder of the value; bit (move - minMove) is set for every move that makes the value divisible.
+     */
+    private final long[] legalMoves;
+
+    /*
+    Indexed by the remainder of the value: the smallest legal move, which is the one sent along as a hint.
+     */
+    private final int[] hints;
+
+    private GameRules(int divisor, int[] moves, int target) {
+        this.divisor = divisor;
+        this.target = target;
+        this.moves = moves;
+        this.minMove = moves[0];
+        this.fingerprint = fingerprint(divisor, moves, target);
+        this.inverse = Long.divideUnsigned(-1L, divisor) + 1;
+        this.legalMoves = new long[divisor];
+        this.hints = new int[divisor];
+
+        for (int remainder = 0; remainder < divisor; remainder++) {
+            int hint = Integer.MAX_VALUE;
+
+            for (int move : moves) {
+                if (Math.floorMod(remainder + move, divisor) == 0) {
+                    legalMoves[remainder] |= 1L << (move - minMove);
+                    hint = Math.abs(move) < Math.abs(hint) ? move : hint;
+                }
+            }
+            if (hint == Integer.MAX_VALUE) {
+                throw new IllegalArgumentException("No move makes a value with remainder " + remainder
+                        + " divisible by " + divisor);
+            }
+            hints[remainder] = hint;
+        }
+    }
+
+    /**
+     * Compiles the rules of a game mode, or returns {@link #CLASSIC} if they are the classic ones.
+     *
+     * @throws IllegalArgumentException if the rules do not make a game that always ends
+     */
+    public static GameRules compile(int divisor, int[] moves, int target) {
+        var sortedMoves = Arrays.stream(moves).distinct().sorted().toArray();
+
+        if (divisor < 2) {
+            throw new IllegalArgumentException("Divisor must be at least 2");
+        }
+        if (target < 1) {
+            throw new IllegalArgumentException("Target must be at least 1");
+        }
+        if (sortedMoves.length == 0
+                || sortedMoves[0] <= -divisor || sortedMoves[sortedMoves.length - 1] >= divisor
+                || sortedMoves[sortedMoves.length - 1] - sortedMoves[0] >= Long.SIZE) {
+            throw new IllegalArgumentException("Moves must be between " + (1 - divisor) + " and " + (divisor - 1)
+                    + ", at most " + (Long.SIZE - 1) + " apart");
+        }
+        if (divisor == CLASSIC.divisor && target == CLASSIC.target && Arrays.equals(sortedMoves, CLASSIC.moves)) {
+            return CLASSIC;
+        }
+        return new GameRules(divisor, sortedMoves, target);
+    }
+
+    /**
+     * Whether {@code move} is one of the moves of the game, whatever the value.
+     */
+    public boolean isMove(int move) {
+        return Arrays.binarySearch(moves, move) >= 0;
+    }
+
+    /**
+     * Whether {@code move} makes {@code value}, which is not negative, divisible by the divisor. The shift by an offset
+     * out of the mask's range wraps around, so the range check is and-ed in rather than branched on.
+     */
+    public boolean isLegal(int value, int move) {
+        int offset = move - minMove;
+        return (offset >>> 6) == 0 & (legalMoves[remainder(value)] >>> offset & 1L) != 0;
+    }
+
+    /**
+     * The legal move from {@code value}, which is not negative, closest to 0.
+     */
+    public int moveFor(int value) {
+        return hints[remainder(value)];
+    }
+
+    /**
+     * The value after the legal {@code move} from {@code value}, or the target if the move reached it.
+     */
+    public int next(int value, int move) {
+        return Math.max((int) (((long) value + move) / divisor), target);
+    }
+
+    /**
+     * Moves left until the value comes down to the target, when every player plays the hint.
+     */
+    public int turnsLeft(int value) {
+        if (this == CLASSIC) {
+            return MoveOracle.turnsLeft(value);
+        }
+        int turns = 0;
+
+        while (value > target) {
+            value = next(value, moveFor(value));
+            turns++;
+        }
+        return turns;
+    }
+
+    /**
+     * The moves for an error message, e.g. "-1, 0 or 1".
+     */
+    public String describeMoves() {
+        var allButLast = Arrays.stream(moves, 0, moves.length - 1)
+                .mapToObj(Integer::toString)
+                .collect(Collectors.joining(", "));
+
+        return allButLast.isEmpty() ? Integer.toString(minMove) : allButLast + " or " + moves[moves.length - 1];
+    }
+
+    /*
+    Never 0, which journal records written before the rules were recorded hold.
+     */
+    private static int fingerprint(int divisor, int[] moves, int target) {
+        int hash = 31 * (31 * divisor + Arrays.hashCode(moves)) + target;
+        return hash == 0 ? 1 : hash;
+    }
+
+    /*
+    The high 64 bits of the unsigned product of the fractional part of value / divisor and the divisor. Math.multiplyHigh
+    is signed, so the divisor is added back when the fractional part has its top bit set.
+     */
+    private int remainder(int value) {
+        long fraction = inverse * value;
+        return (int) (Math.multiplyHigh(fraction, divisor) + (fraction >> 63 & divisor));
+    }
+}
@@ -1,10 +1,21 @@
 package org.hollaemor.gameofthree.gaming.domain;
 
 import lombok.extern.slf4j.Slf4j;
+import org.hollaemor.gameofthree.gaming.infrastructure.bot.BotQueue;
+import org.hollaemor.gameofthree.gaming.infrastructure.journal.GameJournal;
+import org.hollaemor.gameofthree.gaming.infrastructure.matchmaking.MatchmakingQueue;
+import org.hollaemor.gameofthree.gaming.infrastructure.metrics.GameMetrics;
+import org.hollaemor.gameofthree.gaming.infrastructure.repository.GameRepository;
 import org.hollaemor.gameofthree.gaming.infrastructure.repository.PlayerRepository;
 import org.hollaemor.gameofthree.gaming.infrastructure.service.NotificationService;
+import org.hollaemor.gameofthree.gaming.infrastructure.spectator.SpectatorBroadcaster;
+import org.hollaemor.gameofthree.gaming.infrastructure.timer.GameTimeouts;
+import org.hollaemor.gameofthree.gaming.infrastructure.tournament.TournamentMatch;
+import org.hollaemor.gameofthree.gaming.infrastructure.tournament.TournamentQueue;
 import org.springframework.stereotype.Service;
 
+import java.util.ArrayList;
+import java.util.List;
 import java.util.Optional;
 
 import static java.util.Optional.ofNullable;
@@ -14,82 +25,489 @@ import static org.hollaemor.gameofthree.gaming.domain.GameMessageFactory.*;
 @Service
 public class GameService {
 
-    private static final int DIVISOR = 3;
-
     private final PlayerRepository playerRepository;
+    private final GameRepository gameRepository;
     private final NotificationService notificationService;
-
-
-    public GameService(PlayerRepository playerRepository, NotificationService notificationService) {
+    private final PlayerLocks playerLocks;
+    private final GameMetrics gameMetrics;
+    private final MatchmakingQueue matchmakingQueue;
+    private final GameJournal gameJournal;
+    private final GameTimeouts gameTimeouts;
+    private final BotQueue botQueue;
+    private final GameRules gameRules;
+    private final TournamentQueue tournamentQueue;
+    private final SpectatorBroadcaster spectators;
+
+
+    public GameService(PlayerRepository playerRepository, GameRepository gameRepository,
+                       NotificationService notificationService, PlayerLocks playerLocks, GameMetrics gameMetrics,
+                       MatchmakingQueue matchmakingQueue, GameJournal gameJournal, GameTimeouts gameTimeouts,
+                       BotQueue botQueue, GameRules gameRules, TournamentQueue tournamentQueue,
+                       SpectatorBroadcaster spectators) {
         this.playerRepository = playerRepository;
+        this.gameRepository = gameRepository;
         this.notificationService = notificationService;
+        this.playerLocks = playerLocks;
+        this.gameMetrics = gameMetrics;
+        this.matchmakingQueue = matchmakingQueue;
+        this.gameJournal = gameJournal;
+        this.gameTimeouts = gameTimeouts;
+        this.botQueue = botQueue;
+        this.gameRules = gameRules;
+        this.tournamentQueue = tournamentQueue;
+        this.spectators = spectators;
     }
 
     public GameMessage startForPlayer(String playerName) {
-        return playerRepository.findByName(playerName)
-                .map(this::processStartRequestForPlayer)
-                .orElseThrow(() -> makePlayerNotFoundException(playerName));
+        long start = System.nanoTime();
+        try {
+            var player = playerRepository.findByName(playerName)
+                    .orElseThrow(() -> makePlayerNotFoundException(playerName));
+            return processStartRequestForPlayer(player);
+        } finally {
+            gameMetrics.recordStart(System.nanoTime() - start);
+        }
+    }
+
+    /**
+     * Starts a game between two players chosen by the matchmaker and sends both of them their START message. The
+     * first player becomes the primary one. Returns false, without pairing anyone, if either player was removed or
+     * paired in the meantime.
+     */
+    public boolean startMatch(String firstPlayerName, String secondPlayerName) {
+        var firstPlayer = playerRepository.findByName(firstPlayerName);
+        var secondPlayer = playerRepository.findByName(secondPlayerName);
+
+        if (firstPlayer.isEmpty() || secondPlayer.isEmpty()) {
+            return false;
+        }
+        return playerLocks.withLocks(firstPlayerName, secondPlayerName,
+                () -> startMatchUnderLock(firstPlayer.get(), secondPlayer.get()));
+    }
+
+    /**
+     * Starts a game between a waiting player and a bot, and sends the player its START message. The player becomes
+     * the primary one, so it makes the first move. Returns false, without pairing anyone, if the player was removed or
+     * paired in the meantime.
+     */
+    public boolean startBotMatch(String playerName, Player bot) {
+        return startGuestMatch(playerName, bot);
+    }
+
+    /**
+     * Starts a game between a waiting player of this node and a stand-in for a player connected to another node of
+     * the cluster, and sends both of them their START message. The player of this node becomes the primary one.
+     * Returns false, without pairing anyone, if the player was removed or paired in the meantime, or this node has a
+     * player of the same name as the remote one.
+     */
+    public boolean startRemoteMatch(String playerName, Player remotePlayer) {
+        return startGuestMatch(playerName, remotePlayer);
+    }
+
+    /**
+     * Registers a player without an opponent for the next tournament. From then on the player is no longer paired
+     * from the lobby, and waits for the matches of the tournament.
+     */
+    public GameMessage joinTournament(String playerName) {
+        var player = findPlayer(playerName);
+
+        return playerLocks.withLocks(playerName, playerName, () -> {
+            if (player.hasOpponent()) {
+                throw new OutOfTurnException("Finish your game before joining a tournament");
+            }
+            if (player.getStatus() == PlayerStatus.IN_TOURNAMENT) {
+                return buildTournamentMessage("You are already registered for a tournament");
+            }
+            player.setStatus(PlayerStatus.IN_TOURNAMENT);
+            playerRepository.save(player);
+            int registered = tournamentQueue.register(player);
+
+            return buildTournamentMessage("Registered for the next tournament, " + registered + " of "
+                    + tournamentQueue.getSize() + " players");
+        });
+    }
+
+    /**
+     * Starts the games of a tournament round and sends their START messages. The first player of a match becomes the
+     * primary one. Returns the matches that could not be started because a player left.
+     */
+    public List<TournamentMatch> startTournamentRound(List<TournamentMatch> matches) {
+        var unstarted = new ArrayList<TournamentMatch>();
+
+        for (var match : matches) {
+            var firstPlayer = playerRepository.findByName(match.getFirstPlayerName());
+            var secondPlayer = playerRepository.findByName(match.getSecondPlayerName());
+
+            if (firstPlayer.isEmpty() || secondPlayer.isEmpty()
+                    || !playerLocks.withLocks(match.getFirstPlayerName(), match.getSecondPlayerName(),
+                    () -> startTournamentMatchUnderLock(firstPlayer.get(), secondPlayer.get()))) {
+                unstarted.add(match);
+            }
+        }
+        return unstarted;
+    }
+
+    /**
+     * Sends the winner of a tournament back to the lobby.
+     */
+    public void releaseChampion(String playerName) {
+        playerRepository.findByName(playerName).ifPresent(player -> {
+            boolean released = playerLocks.withLocks(playerName, playerName, () -> {
+                if (player.getStatus() != PlayerStatus.IN_TOURNAMENT) {
+                    return false;
+                }
+                player.removeOpponent();
+                playerRepository.save(player);
+                return true;
+            });
+            if (released) {
+                notificationService.notifyPlayer(playerName, buildTournamentMessage("You won the tournament"));
+            }
+        });
     }
 
     public void processRandomNumberFromPlayer(int randomNumber, String playerName) {
-        playerRepository.findByName(playerName)
-                .ifPresentOrElse(player -> {
-                    checkPlayerHasOpponent(player);
-                    notificationService.notifyPlayer(player.getOpponent().getName(), buildPlayMessage(randomNumber));
-                }, () -> throwPlayerNotFoundException(playerName));
+        var game = findGame(playerName);
+
+        game.start(playerName, randomNumber);
+        gameJournal.numberSent(game, playerName, randomNumber);
+        spectators.numberSent(game, randomNumber);
+        gameMetrics.recordPredictedTurns(game.getRules().turnsLeft(randomNumber));
+        startTurnTimeout(game);
+        notificationService.notifyPlayer(game.opponentOf(playerName), buildPlayMessage(randomNumber, game.getRules()));
     }
 
 
     public void processPlayerMove(String playerName, GameInstruction gameInstruction) {
-        int addition = gameInstruction.getValue() + gameInstruction.getMove();
+        long start = System.nanoTime();
+        try {
+            playMove(playerName, gameInstruction);
+        } finally {
+            gameMetrics.recordMove(System.nanoTime() - start);
+        }
+    }
 
-        checkDivisibleByDivisor(addition);
+    private void playMove(String playerName, GameInstruction gameInstruction) {
+        var game = findGame(playerName);
 
-        playerRepository.findByName(playerName).ifPresentOrElse(player -> {
-            checkPlayerHasOpponent(player);
+        int newValueAfterDivision = game.play(playerName, gameInstruction.getMove());
+        gameJournal.moved(game, playerName, gameInstruction.getMove(), newValueAfterDivision);
+        spectators.moved(game, gameInstruction.getMove(), newValueAfterDivision);
 
-            int newValueAfterDivision = addition / DIVISOR;
+        if (log.isDebugEnabled()) {
+            logPlayerMove(playerName, gameInstruction, newValueAfterDivision, game.getRules().getDivisor());
+        }
 
-            logPlayerMove(playerName, gameInstruction, newValueAfterDivision);
+        var opponentName = game.opponentOf(playerName);
+
+        if (newValueAfterDivision != game.getRules().getTarget()) {
+            startTurnTimeout(game);
+            notificationService.notifyPlayer(opponentName, buildPlayMessage(newValueAfterDivision, game.getRules()));
+        } else {
+            stopTurnTimeout(game);
+            gameJournal.gameOver(game, playerName);
+            spectators.gameOver(game, playerName);
+            updateRatings(playerName);
+            notificationService.notifyPlayer(playerName, buildGameOverMessage(true));
+            notificationService.notifyPlayer(opponentName, buildGameOverMessage(false));
+            finishTournamentMatch(playerName, opponentName);
+        }
+    }
+
+    /*
+    Runs on the timer wheel's thread. A game that was removed or replaced by a rematch in the meantime is left alone.
+     */
+    private void timeOutTurn(Game game, int turn) {
+        if (gameRepository.findById(game.getId()).filter(current -> current == game).isEmpty()) {
+            return;
+        }
+        var playerName = game.timeOut(turn);
+
+        if (null == playerName) {
+            return;
+        }
+        var winnerName = game.opponentOf(playerName);
+        log.debug("{} did not play in time, {} wins", playerName, winnerName);
+
+        gameJournal.gameOver(game, winnerName);
+        spectators.gameOver(game, winnerName);
+        gameMetrics.countTurnTimeout();
+        updateRatings(winnerName);
+        notificationService.notifyPlayer(winnerName, buildGameOverMessage(true));
+        notificationService.notifyPlayer(playerName, buildGameOverMessage(false));
+        finishTournamentMatch(winnerName, playerName);
+    }
+
+    /*
+    Runs after the GAMEOVER messages were sent, since deciding the last match of a round has the next round started,
+    whose START message must not get ahead of them. The winner waits for its next match, the loser goes back to the
+    lobby.
+     */
+    private void finishTournamentMatch(String winnerName, String loserName) {
+        if (!tournamentQueue.isMatch(winnerName, loserName)) {
+            return;
+        }
+        var winner = playerRepository.findByName(winnerName);
+        var loser = playerRepository.findByName(loserName);
 
-            if (newValueAfterDivision != 1) {
-                notificationService.notifyPlayer(player.getOpponent().getName(), buildPlayMessage(newValueAfterDivision));
-            } else {
-                notificationService.notifyPlayer(player.getName(), buildGameOverMessage(true));
-                notificationService.notifyPlayer(player.getOpponent().getName(), buildGameOverMessage(false));
+        if (winner.isEmpty() || loser.isEmpty()) {
+            return;
+        }
+        playerLocks.withLocks(winnerName, loserName, () -> {
+            if (winner.get().getOpponent() != loser.get()) {
+                return false;
             }
+            winner.get().removeOpponent();
+            winner.get().setStatus(PlayerStatus.IN_TOURNAMENT);
+            loser.get().removeOpponent();
+            playerRepository.save(winner.get());
+            playerRepository.save(loser.get());
+            tournamentQueue.matchOver(winnerName, loserName);
+            return true;
+        });
+    }
 
-        }, () -> throwPlayerNotFoundException(playerName));
+    /*
+    Scheduled before the opponent is told it is its turn, so the deadline of the next turn cannot be set first.
+     */
+    private void startTurnTimeout(Game game) {
+        if (gameTimeouts.isTurnTimeoutEnabled()) {
+            int turn = game.getTurn();
+            game.replaceTurnTimeout(turn, gameTimeouts.scheduleTurnTimeout(timeout -> timeOutTurn(game, turn)));
+        }
+    }
+
+    private void stopTurnTimeout(Game game) {
+        if (gameTimeouts.isTurnTimeoutEnabled()) {
+            game.replaceTurnTimeout(game.getTurn(), null);
+        }
     }
 
+    private void updateRatings(String winnerName) {
+        playerRepository.findByName(winnerName)
+                .filter(Player::hasOpponent)
+                .ifPresent(winner -> EloRating.update(winner, winner.getOpponent()));
+    }
+
+    /*
+    A paired player whose game is still in progress gets the state of that game rather than a rematch, which is what
+    a player restored from the game journal sees on its first start request after reconnecting.
+     */
     private GameMessage processStartRequestForPlayer(Player player) {
+        if (player.getStatus() == PlayerStatus.IN_TOURNAMENT) {
+            return buildTournamentMessage("Waiting for your next tournament match");
+        }
+        var opponent = player.getOpponent();
 
-        return ofNullable(player.getOpponent())
-                .map(this::rematchWithOpponent).orElseGet(
-                        () -> pairPlayerWithAvailablePlayer(player).orElseGet(GameMessageFactory::buildWaitingMessage)
-                );
+        if (null == opponent) {
+            return pairOrWait(player);
+        }
+        var gameInProgress = gameRepository.findByPlayerName(player.getName()).filter(game -> !game.isOver());
+
+        if (gameInProgress.isPresent()) {
+            return buildResumeMessage(player, gameInProgress.get());
+        }
+        return tournamentQueue.isMatch(player.getName(), opponent.getName())
+                ? buildTournamentMessage("Waiting for your next tournament match")
+                : rematchWithOpponent(opponent);
+    }
+
+    /**
+     * Called when a start request found nobody to pair the player with, before the player is told to wait.
+     */
+    protected void waitForOpponent(Player player) {
+        botQueue.waitForOpponent(player);
+    }
+
+    /*
+    With the matchmaker the WAITING message is sent before the player is queued rather than as the reply, which could
+    otherwise arrive after the START message of a matchmaking round that ran in between.
+     */
+    private GameMessage pairOrWait(Player player) {
+        if (matchmakingQueue.isEnabled()) {
+            notificationService.notifyPlayer(player.getName(), buildWaitingMessage());
+            matchmakingQueue.enqueue(player);
+            botQueue.waitForOpponent(player);
+            return null;
+        }
+        return pairWithAvailablePlayerOrWait(player);
+    }
+
+    /*
+    Null when the player was paired by a concurrent start request in the meantime: that request already sent the
+    player its START message, and the controller sends nothing for a null reply, so the primary player is never told
+    twice to send the random number.
+     */
+    private GameMessage pairWithAvailablePlayerOrWait(Player player) {
+        var startMessage = pairPlayerWithAvailablePlayer(player);
+
+        if (startMessage.isPresent() || player.hasOpponent()) {
+            return startMessage.orElse(null);
+        }
+        waitForOpponent(player);
+        return buildWaitingMessage();
     }
 
 
     private GameMessage rematchWithOpponent(Player player) {
+        startGame(player.isPrimary() ? player : player.getOpponent());
         notificationService.notifyPlayer(player.getName(), buildStartMessageForPlayer(player));
         return buildStartMessageForPlayer(player.getOpponent());
     }
 
     private Optional<GameMessage> pairPlayerWithAvailablePlayer(Player player) {
-        return playerRepository.findAvailableForPlayer(player.getName())
-                .map(availablePlayer -> {
+        Optional<Player> candidate;
 
-                    availablePlayer.setPrimary(true);
-                    player.setPrimary(false);
+        while (isUnpaired(player) && (candidate = playerRepository.findAvailableForPlayer(player.getName())).isPresent()) {
+            var availablePlayer = candidate.get();
 
-                    availablePlayer.setOpponent(player);
+            var startMessage = playerLocks.withLocks(player.getName(), availablePlayer.getName(),
+                    () -> pairUnderLock(player, availablePlayer));
 
-                    savePlayerChanges(availablePlayer);
-                    notificationService.notifyPlayer(availablePlayer.getName(), buildStartMessageForPlayer(availablePlayer));
+            if (startMessage.isPresent()) {
+                return startMessage;
+            }
+        }
+        return Optional.empty();
+    }
 
-                    return buildStartMessageForPlayer(player);
-                });
+    /*
+    The available player was claimed from the waiting queue, but either player may have been paired or removed by
+    another inbound thread before both locks were taken. An empty result means the candidate is no longer usable, or
+    the player itself got paired or left, in which case the candidate goes back to the waiting queue. A player who got
+    paired was sent its START message by whoever paired it.
+     */
+    private Optional<GameMessage> pairUnderLock(Player player, Player availablePlayer) {
+        if (!isUnpaired(player)) {
+            if (playerRepository.exists(availablePlayer.getName())) {
+                playerRepository.save(availablePlayer);
+            }
+            return Optional.empty();
+        }
+
+        if (availablePlayer.hasOpponent() || isInTournament(availablePlayer)
+                || !playerRepository.exists(availablePlayer.getName())) {
+            return Optional.empty();
+        }
+
+        availablePlayer.setPrimary(true);
+        player.setPrimary(false);
+
+        availablePlayer.setOpponent(player);
+
+        savePlayerChanges(availablePlayer);
+        startGame(availablePlayer);
+        recordTimeToPair(availablePlayer);
+        recordTimeToPair(player);
+        notificationService.notifyPlayer(availablePlayer.getName(), buildStartMessageForPlayer(availablePlayer));
+
+        return Optional.of(buildStartMessageForPlayer(player));
+    }
+
+    private boolean startMatchUnderLock(Player firstPlayer, Player secondPlayer) {
+        if (firstPlayer.hasOpponent() || secondPlayer.hasOpponent()
+                || isInTournament(firstPlayer) || isInTournament(secondPlayer)
+                || !playerRepository.exists(firstPlayer.getName()) || !playerRepository.exists(secondPlayer.getName())) {
+            return false;
+        }
+
+        firstPlayer.setPrimary(true);
+        secondPlayer.setPrimary(false);
+
+        firstPlayer.setOpponent(secondPlayer);
+
+        savePlayerChanges(firstPlayer);
+        startGame(firstPlayer);
+        recordTimeToPair(firstPlayer);
+        recordTimeToPair(secondPlayer);
+        notificationService.notifyPlayer(firstPlayer.getName(), buildStartMessageForPlayer(firstPlayer));
+        notificationService.notifyPlayer(secondPlayer.getName(), buildStartMessageForPlayer(secondPlayer));
+        return true;
+    }
+
+    private boolean startGuestMatch(String playerName, Player guest) {
+        var player = playerRepository.findByName(playerName);
+
+        if (player.isEmpty()) {
+            return false;
+        }
+        return playerLocks.withLocks(playerName, guest.getName(), () -> startGuestMatchUnderLock(player.get(), guest));
+    }
+
+    /*
+    A guest, a bot or the stand-in for a player of another node, is not in the lobby of this node until the game
+    starts, and its notifications do not go to a session of this node.
+     */
+    private boolean startGuestMatchUnderLock(Player player, Player guest) {
+        if (!isUnpaired(player) || player.isDetached() || playerRepository.exists(guest.getName())) {
+            return false;
+        }
+
+        player.setPrimary(true);
+        guest.setPrimary(false);
+
+        player.setOpponent(guest);
+
+        savePlayerChanges(player);
+        startGame(player);
+        recordTimeToPair(player);
+        notificationService.notifyPlayer(player.getName(), buildStartMessageForPlayer(player));
+        notificationService.notifyPlayer(guest.getName(), buildStartMessageForPlayer(guest));
+        return true;
+    }
+
+    /*
+    Only players still waiting for this match are paired: a player who left was taken out of the repository, and the
+    director gives its opponent a walkover.
+     */
+    private boolean startTournamentMatchUnderLock(Player firstPlayer, Player secondPlayer) {
+        if (!isWaitingForTournamentMatch(firstPlayer) || !isWaitingForTournamentMatch(secondPlayer)) {
+            return false;
+        }
+
+        firstPlayer.setPrimary(true);
+        secondPlayer.setPrimary(false);
+
+        firstPlayer.setOpponent(secondPlayer);
+
+        savePlayerChanges(firstPlayer);
+        startGame(firstPlayer);
+        notificationService.notifyPlayer(firstPlayer.getName(), buildStartMessageForPlayer(firstPlayer));
+        notificationService.notifyPlayer(secondPlayer.getName(), buildStartMessageForPlayer(secondPlayer));
+        return true;
+    }
+
+    private boolean isWaitingForTournamentMatch(Player player) {
+        return isInTournament(player) && !player.hasOpponent() && isStored(player);
+    }
+
+    /*
+    A player still in the lobby: not paired, not in a tournament, and not removed, nor replaced by a player who
+    connected with the same name since.
+     */
+    private boolean isUnpaired(Player player) {
+        return !player.hasOpponent() && !isInTournament(player) && isStored(player);
+    }
+
+    private boolean isStored(Player player) {
+        return playerRepository.findByName(player.getName()).orElse(null) == player;
+    }
+
+    private static boolean isInTournament(Player player) {
+        return player.getStatus() == PlayerStatus.IN_TOURNAMENT;
+    }
+
+    private void startGame(Player primaryPlayer) {
+        var game = new Game(gameRepository.nextId(), primaryPlayer.getName(), primaryPlayer.getOpponent().getName(),
+                gameRules);
+        gameRepository.save(game);
+        gameJournal.paired(game);
+        spectators.paired(game);
+        startTurnTimeout(game);
+    }
+
+    private void recordTimeToPair(Player player) {
+        gameMetrics.recordTimeToPair(System.nanoTime() - player.getAvailableSince());
     }
 
     private void savePlayerChanges(Player player) {
@@ -98,34 +516,37 @@ public class GameService {
     }
 
 
-    private void checkPlayerHasOpponent(Player player) {
-        if (!player.hasOpponent()) {
-            throw new OpponentDoesNotExistException("You have not been paired with an opponent");
-        }
+    /*
+    Every paired player has a game, so the player only needs to be looked up to tell why there is none.
+     */
+    private Game findGame(String playerName) {
+        return gameRepository.findByPlayerName(playerName)
+                .orElseThrow(() -> {
+                    findPlayer(playerName);
+                    return new OpponentDoesNotExistException("You have not been paired with an opponent");
+                });
     }
 
-    private void checkDivisibleByDivisor(int number) {
-        if (number % DIVISOR != 0) {
-            throw new InvalidCombinationException(String.format("%d is not divisible by %d", number, DIVISOR));
+    private Player findPlayer(String playerName) {
+        var player = playerRepository.findByName(playerName);
+
+        if (player.isEmpty()) {
+            throw makePlayerNotFoundException(playerName);
         }
+        return player.get();
     }
 
-    private void logPlayerMove(String playerName, GameInstruction gameInstruction, int updatedGameValue) {
-        log.debug("{} got value: {} and added {} to get {}. Result after division by {}: {}",
+    private void logPlayerMove(String playerName, GameInstruction gameInstruction, int updatedGameValue, int divisor) {
+        log.debug("{} added {} to get {}. Result after division by {}: {}",
                 playerName,
-                gameInstruction.getValue(),
                 gameInstruction.getMove(),
-                gameInstruction.getValue() + gameInstruction.getMove(),
-                DIVISOR,
+                updatedGameValue * divisor,
+                divisor,
                 updatedGameValue);
     }
 
 
-    private void throwPlayerNotFoundException(String playerName) {
-        throw makePlayerNotFoundException(playerName);
-    }
-
     private PlayerNotFoundException makePlayerNotFoundException(String playerName) {
-        return new PlayerNotFoundException(String.format("Player not found: %s", playerName));
+        return new PlayerNotFoundException("Player not found: " + playerName);
     }
 }
@@ -1,5 +1,5 @@
 package org.hollaemor.gameofthree.gaming.domain;
 
 public enum GameStatus {
-    START, PLAY, WAITING, DISCONNECT, GAMEOVER
+    START, PLAY, WAITING, DISCONNECT, GAMEOVER, RESUME, TIMEOUT
 }
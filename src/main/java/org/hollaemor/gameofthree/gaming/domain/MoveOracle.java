@@ -0,0 +1,62 @@
+package org.hollaemor.gameofthree.gaming.domain;
+
+/**
+ * Where a classic game goes from any value. The {@link GameRules#CLASSIC} rules allow exactly one move from every
+ * value, so once the random number is sent the moves, the number of turns left and the winner all follow from the
+ * value. The moves are the ones of the compiled rules; turns left are kept in a table for the values a game usually
+ * passes through, and larger values are divided down into the table, which takes O(log n).
+ */
+public final class MoveOracle {
+
+    private static final GameRules RULES = GameRules.CLASSIC;
+
+    private static final int TABLE_SIZE = 1 << 16;
+
+    /*
+    A value below the table size never takes more than a byte's worth of turns, since every turn divides it by 3.
+     */
+    private static final byte[] TURNS_LEFT = new byte[TABLE_SIZE];
+
+    static {
+        for (int value = 2; value < TABLE_SIZE; value++) {
+            TURNS_LEFT[value] = (byte) (TURNS_LEFT[next(value)] + 1);
+        }
+    }
+
+    private MoveOracle() {
+    }
+
+    /**
+     * The classic move from {@code value}, which is not negative.
+     */
+    public static int moveFor(int value) {
+        return RULES.moveFor(value);
+    }
+
+    /**
+     * The value after the move from {@code value}.
+     */
+    public static int next(int value) {
+        return RULES.next(value, RULES.moveFor(value));
+    }
+
+    /**
+     * Moves left until the value comes down to 1.
+     */
+    public static int turnsLeft(int value) {
+        int turns = 0;
+
+        while (value >= TABLE_SIZE) {
+            value = next(value);
+            turns++;
+        }
+        return turns + TURNS_LEFT[value];
+    }
+
+    /**
+     * Whether the player about to move from {@code value} makes the last move, and so wins the game.
+     */
+    public static boolean isWonByMover(int value) {
+        return turnsLeft(value) % 2 == 1;
+    }
+}
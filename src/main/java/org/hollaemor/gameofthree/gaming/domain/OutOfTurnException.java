@@ -0,0 +1,8 @@
+package org.hollaemor.gameofthree.gaming.domain;
+
+public class OutOfTurnException extends RuntimeException {
+
+    public OutOfTurnException(String message) {
+        super(message);
+    }
+}
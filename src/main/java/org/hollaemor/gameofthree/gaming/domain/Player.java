@@ -11,16 +11,31 @@ public class Player {
 
     private String name;
 
-    private PlayerStatus status;
+    private volatile PlayerStatus status;
 
     private boolean primary;
 
-    private Player opponent;
+    private volatile Player opponent;
+
+    /*
+    System.nanoTime() at which the player last became available, used to measure the time it takes to pair them.
+     */
+    private volatile long availableSince;
+
+    private volatile int rating = EloRating.INITIAL_RATING;
+
+    /*
+    True while the player has no session, after it was restored from the game journal or while it may still resume its
+    game after its session closed. A detached player keeps its opponent and game until a session with its name
+    re-attaches it.
+     */
+    private volatile boolean detached;
 
 
     public Player(String name) {
         this.name = name;
         this.status = PlayerStatus.AVAILABLE;
+        this.availableSince = System.nanoTime();
     }
 
     public void setOpponent(Player opponent) {
@@ -33,6 +48,17 @@ public class Player {
                 });
     }
 
+    /**
+     * Returns false if the player was not detached, or another session re-attached it first.
+     */
+    public synchronized boolean reattach() {
+        if (!detached) {
+            return false;
+        }
+        detached = false;
+        return true;
+    }
+
     public boolean hasOpponent() {
         return null != opponent;
     }
@@ -40,5 +66,6 @@ public class Player {
     public void removeOpponent() {
         opponent = null;
         status = PlayerStatus.AVAILABLE;
+        availableSince = System.nanoTime();
     }
 }
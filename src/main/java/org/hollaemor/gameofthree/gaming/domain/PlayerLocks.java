@@ -0,0 +1,51 @@
+package org.hollaemor.gameofthree.gaming.domain;
+
+import org.springframework.stereotype.Component;
+
+import java.util.concurrent.locks.ReentrantLock;
+import java.util.function.Supplier;
+
+/**
+ * Striped locks guarding transitions that mutate two players at once (pairing, disconnect).
+ * Both stripes are always acquired in index order, so concurrent transitions cannot deadlock.
+ */
+@Component
+public class PlayerLocks {
+
+    private static final int DEFAULT_STRIPES = 1024;
+
+    private final ReentrantLock[] stripes;
+
+    public PlayerLocks() {
+        this(DEFAULT_STRIPES);
+    }
+
+    public PlayerLocks(int stripeCount) {
+        stripes = new ReentrantLock[stripeCount];
+        for (int i = 0; i < stripeCount; i++) {
+            stripes[i] = new ReentrantLock();
+        }
+    }
+
+    public <T> T withLocks(String playerName, String otherPlayerName, Supplier<T> action) {
+        int first = stripeFor(playerName);
+        int second = stripeFor(otherPlayerName);
+
+        var outer = stripes[Math.min(first, second)];
+        var inner = stripes[Math.max(first, second)];
+
+        outer.lock();
+        inner.lock();
+        try {
+            return action.get();
+        } finally {
+            inner.unlock();
+            outer.unlock();
+        }
+    }
+
+    private int stripeFor(String playerName) {
+        int hash = playerName.hashCode();
+        return Math.floorMod(hash ^ (hash >>> 16), stripes.length);
+    }
+}
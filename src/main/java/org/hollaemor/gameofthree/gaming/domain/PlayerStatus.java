@@ -1,5 +1,10 @@
 package org.hollaemor.gameofthree.gaming.domain;
 
 public enum PlayerStatus {
-    AVAILABLE, PAIRED
+    AVAILABLE, PAIRED,
+
+    /**
+     * Registered for a tournament and waiting for its next match, so not paired from the lobby.
+     */
+    IN_TOURNAMENT
 }
@@ -0,0 +1,60 @@
+package org.hollaemor.gameofthree.gaming.infrastructure;
+
+import com.fasterxml.jackson.annotation.JsonInclude;
+import org.hollaemor.gameofthree.gaming.domain.GameMessage;
+import org.hollaemor.gameofthree.gaming.infrastructure.spectator.SpectatorFrame;
+import org.springframework.http.converter.json.Jackson2ObjectMapperBuilder;
+import org.springframework.lang.Nullable;
+import org.springframework.messaging.Message;
+import org.springframework.messaging.MessageHeaders;
+import org.springframework.messaging.converter.MappingJackson2MessageConverter;
+import org.springframework.util.MimeType;
+
+import java.util.Map;
+
+/**
+ * Writes {@link GameMessage}s and {@link SpectatorFrame}s as JSON without the fields that hold their default value, so
+ * a PLAY frame only carries its status and value. The result is still plain JSON; the {@code format=compact} content-type parameter tells
+ * clients that missing fields mean null, false or 0.
+ * <p>
+ * Only messages sent with the {@link #COMPACT_JSON} content type are written by this converter, everything else falls
+ * through to the default Jackson converter.
+ */
+public class CompactGameMessageConverter extends MappingJackson2MessageConverter {
+
+    public static final MimeType COMPACT_JSON = new MimeType("application", "json", Map.of("format", "compact"));
+
+    public CompactGameMessageConverter() {
+        super(COMPACT_JSON);
+        setObjectMapper(Jackson2ObjectMapperBuilder.json()
+                .serializationInclusion(JsonInclude.Include.NON_DEFAULT)
+                .build());
+        setStrictContentTypeMatch(true);
+    }
+
+    @Override
+    protected boolean supports(Class<?> clazz) {
+        return GameMessage.class.isAssignableFrom(clazz) || SpectatorFrame.class.isAssignableFrom(clazz);
+    }
+
+    @Override
+    protected boolean canConvertFrom(Message<?> message, @Nullable Class<?> targetClass) {
+        return null != targetClass && supports(targetClass) && super.canConvertFrom(message, targetClass);
+    }
+
+    @Override
+    protected boolean canConvertTo(Object payload, @Nullable MessageHeaders headers) {
+        return supports(payload.getClass()) && super.canConvertTo(payload, headers);
+    }
+
+    /*
+    The default check ignores the parameters of the content type, which would have plain application/json messages
+    written in the compact format as well.
+     */
+    @Override
+    protected boolean supportsMimeType(@Nullable MessageHeaders headers) {
+        var mimeType = getMimeType(headers);
+        return null != mimeType && COMPACT_JSON.getParameter("format").equals(mimeType.getParameter("format"))
+                && super.supportsMimeType(headers);
+    }
+}
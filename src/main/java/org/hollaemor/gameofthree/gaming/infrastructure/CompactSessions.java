@@ -0,0 +1,62 @@
+package org.hollaemor.gameofthree.gaming.infrastructure;
+
+import org.springframework.context.event.EventListener;
+import org.springframework.messaging.MessageHeaders;
+import org.springframework.messaging.simp.stomp.StompHeaderAccessor;
+import org.springframework.stereotype.Component;
+import org.springframework.web.socket.messaging.SessionDisconnectEvent;
+
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+
+import static java.util.Optional.ofNullable;
+import static org.hollaemor.gameofthree.gaming.infrastructure.WebSocketConfig.USERNAME_HEADER;
+
+/**
+ * Players whose session asked for compact game messages with the {@code format:compact} CONNECT header. Updates pushed
+ * to them are written by the {@link CompactGameMessageConverter}; every other client gets the full JSON.
+ */
+@Component
+public class CompactSessions {
+
+    public static final String FORMAT_HEADER = "format";
+    public static final String COMPACT_FORMAT = "compact";
+
+    /*
+    Passed along with a payload to have it converted to the compact format.
+     */
+    public static final Map<String, Object> COMPACT_HEADERS =
+            Map.of(MessageHeaders.CONTENT_TYPE, CompactGameMessageConverter.COMPACT_JSON);
+
+    /*
+    The session of every player in the compact format, so that a closing session does not drop the format of a newer
+    session of the same player.
+     */
+    private final Map<String, String> sessionsByPlayer = new ConcurrentHashMap<>();
+
+    public void connected(String playerName, String sessionId, String format) {
+        if (COMPACT_FORMAT.equals(format)) {
+            sessionsByPlayer.put(playerName, sessionId);
+        } else {
+            sessionsByPlayer.remove(playerName);
+        }
+    }
+
+    public boolean isCompact(String playerName) {
+        return sessionsByPlayer.containsKey(playerName);
+    }
+
+    /**
+     * The headers to convert an update for the player with, null for the full JSON.
+     */
+    public Map<String, Object> headersFor(String playerName) {
+        return isCompact(playerName) ? COMPACT_HEADERS : null;
+    }
+
+    @EventListener
+    public void handleDisconnect(SessionDisconnectEvent event) {
+        ofNullable(StompHeaderAccessor.wrap(event.getMessage()).getSessionAttributes())
+                .map(attributes -> (String) attributes.get(USERNAME_HEADER))
+                .ifPresent(playerName -> sessionsByPlayer.remove(playerName, event.getSessionId()));
+    }
+}
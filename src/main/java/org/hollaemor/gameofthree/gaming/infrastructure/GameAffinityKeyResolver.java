@@ -0,0 +1,46 @@
+package org.hollaemor.gameofthree.gaming.infrastructure;
+
+import org.hollaemor.gameofthree.gaming.domain.Player;
+import org.hollaemor.gameofthree.gaming.infrastructure.repository.PlayerRepository;
+import org.springframework.messaging.Message;
+import org.springframework.messaging.simp.SimpMessageHeaderAccessor;
+
+import java.security.Principal;
+import java.util.function.Function;
+
+/**
+ * Maps an inbound frame to the game it belongs to. Both players of a game resolve to the same key; a player without
+ * an opponent is a game of their own, and frames without a user fall back to their session.
+ */
+public class GameAffinityKeyResolver implements Function<Message<?>, String> {
+
+    private final PlayerRepository playerRepository;
+
+    public GameAffinityKeyResolver(PlayerRepository playerRepository) {
+        this.playerRepository = playerRepository;
+    }
+
+    @Override
+    public String apply(Message<?> message) {
+        Principal user = SimpMessageHeaderAccessor.getUser(message.getHeaders());
+
+        if (null == user) {
+            return SimpMessageHeaderAccessor.getSessionId(message.getHeaders());
+        }
+
+        return playerRepository.findByName(user.getName())
+                .map(this::gameKey)
+                .orElse(user.getName());
+    }
+
+    private String gameKey(Player player) {
+        var opponent = player.getOpponent();
+
+        if (null == opponent) {
+            return player.getName();
+        }
+
+        var opponentName = opponent.getName();
+        return player.getName().compareTo(opponentName) < 0 ? player.getName() : opponentName;
+    }
+}
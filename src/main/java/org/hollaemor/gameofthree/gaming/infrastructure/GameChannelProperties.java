@@ -0,0 +1,20 @@
+package org.hollaemor.gameofthree.gaming.infrastructure;
+
+import lombok.Getter;
+import lombok.Setter;
+import org.springframework.boot.context.properties.ConfigurationProperties;
+
+/**
+ * Threading of the inbound and outbound STOMP channels.
+ */
+@Getter
+@Setter
+@ConfigurationProperties(prefix = "game.channels")
+public class GameChannelProperties {
+
+    /**
+     * Run channel tasks on virtual threads. Requires Java 21 or later at runtime, see the virtual-threads build profile.
+     * Game lanes, when enabled, keep their ordering and run each lane on a virtual thread.
+     */
+    private boolean virtualThreads = false;
+}
@@ -0,0 +1,29 @@
+package org.hollaemor.gameofthree.gaming.infrastructure;
+
+import lombok.Getter;
+import lombok.Setter;
+import org.springframework.boot.context.properties.ConfigurationProperties;
+
+/**
+ * Settings of the game lanes that process inbound STOMP frames, see {@link GameLaneTaskExecutor}.
+ */
+@Getter
+@Setter
+@ConfigurationProperties(prefix = "game.lanes")
+public class GameLaneProperties {
+
+    /**
+     * Whether inbound frames are processed on game lanes instead of Spring's shared inbound pool.
+     */
+    private boolean enabled = true;
+
+    /**
+     * Number of single-threaded lanes games are spread over.
+     */
+    private int count = Runtime.getRuntime().availableProcessors() * 2;
+
+    /**
+     * Maximum number of frames waiting on a single lane before new frames are rejected.
+     */
+    private int queueCapacity = 10_000;
+}
@@ -0,0 +1,200 @@
+package org.hollaemor.gameofthree.gaming.infrastructure;
+
+import org.springframework.core.task.TaskRejectedException;
+import org.springframework.messaging.Message;
+import org.springframework.messaging.simp.SimpMessageHeaderAccessor;
+import org.springframework.messaging.simp.SimpMessageType;
+import org.springframework.messaging.support.MessageHandlingRunnable;
+import org.springframework.scheduling.concurrent.CustomizableThreadFactory;
+import org.springframework.scheduling.concurrent.ThreadPoolTaskExecutor;
+
+import java.util.Map;
+import java.util.concurrent.*;
+import java.util.concurrent.atomic.LongAdder;
+import java.util.function.Function;
+
+/**
+ * Inbound channel executor that runs all frames of a game on the same single-threaded lane. Frames of one game are
+ * therefore handled in order and never concurrently, while different games run in parallel on other lanes.
+ *
+ * <p>The key of a session changes as its player is paired, so a session is only moved to the lane of its new key once
+ * none of its frames are waiting on or running on the old one. Until then it stays where it is, which keeps the frames
+ * of every session in order across the move.
+ *
+ * <p>Spring only accepts a {@link ThreadPoolTaskExecutor} for the inbound channel, hence the subclass. Tasks that do
+ * not carry a message are left to the inherited pool.
+ */
+public class GameLaneTaskExecutor extends ThreadPoolTaskExecutor {
+
+    static final String LANE_THREAD_PREFIX = "gameLane-";
+
+    private final GameLaneProperties properties;
+    private final Function<Message<?>, ?> laneKeyResolver;
+    private final ThreadFactory laneThreadFactory;
+
+    private final LongAdder rejectedTasks = new LongAdder();
+    private final Map<String, SessionLane> sessionLanes = new ConcurrentHashMap<>();
+
+    private ThreadPoolExecutor[] lanes;
+
+    public GameLaneTaskExecutor(GameLaneProperties properties, Function<Message<?>, ?> laneKeyResolver) {
+        this(properties, laneKeyResolver, new CustomizableThreadFactory(LANE_THREAD_PREFIX));
+    }
+
+    public GameLaneTaskExecutor(GameLaneProperties properties, Function<Message<?>, ?> laneKeyResolver, ThreadFactory laneThreadFactory) {
+        this.properties = properties;
+        this.laneKeyResolver = laneKeyResolver;
+        this.laneThreadFactory = laneThreadFactory;
+        setCorePoolSize(1);
+    }
+
+    @Override
+    protected ExecutorService initializeExecutor(ThreadFactory threadFactory, RejectedExecutionHandler rejectedExecutionHandler) {
+        lanes = new ThreadPoolExecutor[properties.getCount()];
+
+        for (int i = 0; i < lanes.length; i++) {
+            lanes[i] = new ThreadPoolExecutor(1, 1, 0L, TimeUnit.MILLISECONDS,
+                    new ArrayBlockingQueue<>(properties.getQueueCapacity()), laneThreadFactory);
+        }
+
+        return super.initializeExecutor(threadFactory, rejectedExecutionHandler);
+    }
+
+    @Override
+    public void execute(Runnable task) {
+        if (!(task instanceof MessageHandlingRunnable)) {
+            super.execute(task);
+            return;
+        }
+
+        var message = ((MessageHandlingRunnable) task).getMessage();
+        int lane = laneOf(message);
+        var sessionId = SimpMessageHeaderAccessor.getSessionId(message.getHeaders());
+
+        try {
+            if (null == sessionId) {
+                lanes[lane].execute(task);
+            } else {
+                executeForSession(sessionId, lane, task, message);
+            }
+        } catch (RejectedExecutionException ex) {
+            rejectedTasks.increment();
+            throw new TaskRejectedException("Game lane is saturated, rejected " + task, ex);
+        }
+    }
+
+    @Override
+    public void execute(Runnable task, long startTimeout) {
+        execute(task);
+    }
+
+    @Override
+    public void shutdown() {
+        if (null != lanes) {
+            for (var lane : lanes) {
+                lane.shutdown();
+            }
+        }
+        super.shutdown();
+    }
+
+    public int getLaneCount() {
+        return lanes.length;
+    }
+
+    public int getLaneQueueDepth(int lane) {
+        return lanes[lane].getQueue().size();
+    }
+
+    /**
+     * Frames waiting over all lanes.
+     */
+    public int getQueuedTasks() {
+        int queued = 0;
+        for (var lane : lanes) {
+            queued += lane.getQueue().size();
+        }
+        return queued;
+    }
+
+    /**
+     * Queue depth of the fullest lane, the first one to reject frames.
+     */
+    public int getMaxLaneQueueDepth() {
+        int max = 0;
+        for (var lane : lanes) {
+            max = Math.max(max, lane.getQueue().size());
+        }
+        return max;
+    }
+
+    public long getRejectedTasks() {
+        return rejectedTasks.sum();
+    }
+
+    /*
+    The session is forgotten once its DISCONNECT frame was taken and none of its frames are left, also when a saturated
+    lane rejected the DISCONNECT frame and it never runs.
+     */
+    private void executeForSession(String sessionId, int lane, Runnable task, Message<?> message) {
+        var sessionLane = sessionLanes.computeIfAbsent(sessionId, id -> new SessionLane());
+        boolean last = SimpMessageType.DISCONNECT == SimpMessageHeaderAccessor.getMessageType(message.getHeaders());
+
+        try {
+            lanes[sessionLane.enter(lane, last)].execute(() -> {
+                try {
+                    task.run();
+                } finally {
+                    leave(sessionId, sessionLane);
+                }
+            });
+        } catch (RejectedExecutionException ex) {
+            leave(sessionId, sessionLane);
+            throw ex;
+        }
+    }
+
+    private void leave(String sessionId, SessionLane sessionLane) {
+        if (sessionLane.leave()) {
+            sessionLanes.remove(sessionId, sessionLane);
+        }
+    }
+
+    int countSessions() {
+        return sessionLanes.size();
+    }
+
+    private int laneOf(Message<?> message) {
+        Object key = laneKeyResolver.apply(message);
+        int hash = null == key ? 0 : key.hashCode();
+        return Math.floorMod(hash ^ (hash >>> 16), lanes.length);
+    }
+
+
+    /**
+     * The lane a session's frames run on, how many of them are waiting or running there, and whether the session
+     * disconnected.
+     */
+    private static class SessionLane {
+
+        private int lane = -1;
+        private int pending;
+        private boolean disconnected;
+
+        synchronized int enter(int wantedLane, boolean last) {
+            if (pending == 0) {
+                lane = wantedLane;
+            }
+            pending++;
+            disconnected |= last;
+            return lane;
+        }
+
+        /**
+         * Returns true once the session disconnected and has no frames left.
+         */
+        synchronized boolean leave() {
+            return --pending == 0 && disconnected;
+        }
+    }
+}
@@ -0,0 +1,37 @@
+package org.hollaemor.gameofthree.gaming.infrastructure;
+
+import lombok.Getter;
+import lombok.Setter;
+import org.springframework.boot.context.properties.ConfigurationProperties;
+
+import java.time.Duration;
+
+/**
+ * Limits of the WebSocket transport shared by the plain WebSocket and the SockJS endpoints.
+ */
+@Getter
+@Setter
+@ConfigurationProperties(prefix = "game.transport")
+public class GameTransportProperties {
+
+    /**
+     * Largest inbound message. Game frames are well under 1 KB; larger messages close the session. The servlet
+     * container's per-session receive buffers are sized to match.
+     */
+    private int messageSizeLimit = 4 * 1024;
+
+    /**
+     * Maximum number of bytes buffered for a client that is slow to receive before its session is closed.
+     */
+    private int sendBufferSizeLimit = 64 * 1024;
+
+    /**
+     * Maximum time a single send to a client may take before its session is closed.
+     */
+    private Duration sendTimeLimit = Duration.ofSeconds(5);
+
+    /**
+     * Time a client has after the handshake to send its CONNECT frame.
+     */
+    private Duration timeToFirstMessage = Duration.ofSeconds(30);
+}
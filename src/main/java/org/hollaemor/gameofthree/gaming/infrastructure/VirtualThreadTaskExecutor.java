@@ -0,0 +1,51 @@
+package org.hollaemor.gameofthree.gaming.infrastructure;
+
+import org.springframework.core.task.TaskRejectedException;
+import org.springframework.scheduling.concurrent.ThreadPoolTaskExecutor;
+
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.RejectedExecutionHandler;
+import java.util.concurrent.ThreadFactory;
+
+/**
+ * Channel executor that starts a virtual thread per task, so blocked sends no longer hold on to a pooled platform
+ * thread. Like {@link GameLaneTaskExecutor} it extends {@link ThreadPoolTaskExecutor} because that is the only type a
+ * STOMP channel registration accepts; the inherited pool is kept at a single idle thread.
+ */
+public class VirtualThreadTaskExecutor extends ThreadPoolTaskExecutor {
+
+    private ExecutorService virtualThreadExecutor;
+
+    public VirtualThreadTaskExecutor() {
+        setCorePoolSize(1);
+    }
+
+    @Override
+    protected ExecutorService initializeExecutor(ThreadFactory threadFactory, RejectedExecutionHandler rejectedExecutionHandler) {
+        virtualThreadExecutor = VirtualThreads.newThreadPerTaskExecutor();
+        return super.initializeExecutor(threadFactory, rejectedExecutionHandler);
+    }
+
+    @Override
+    public void execute(Runnable task) {
+        try {
+            virtualThreadExecutor.execute(task);
+        } catch (RejectedExecutionException ex) {
+            throw new TaskRejectedException("Virtual thread executor did not accept " + task, ex);
+        }
+    }
+
+    @Override
+    public void execute(Runnable task, long startTimeout) {
+        execute(task);
+    }
+
+    @Override
+    public void shutdown() {
+        if (null != virtualThreadExecutor) {
+            virtualThreadExecutor.shutdown();
+        }
+        super.shutdown();
+    }
+}
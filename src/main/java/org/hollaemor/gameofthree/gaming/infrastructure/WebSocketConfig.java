@@ -1,10 +1,21 @@
 package org.hollaemor.gameofthree.gaming.infrastructure;
 
+import org.hollaemor.gameofthree.gaming.infrastructure.broker.BrokerRelayTcpClient;
+import org.hollaemor.gameofthree.gaming.infrastructure.broker.GameBrokerProperties;
+import org.hollaemor.gameofthree.gaming.infrastructure.cluster.StompClusterHub;
+import org.hollaemor.gameofthree.gaming.infrastructure.journal.JournalRecord;
+import org.hollaemor.gameofthree.gaming.infrastructure.matchmaking.LatencyProbe;
+import org.hollaemor.gameofthree.gaming.infrastructure.outbound.GameOutboundProperties;
+import org.hollaemor.gameofthree.gaming.infrastructure.outbound.OutboundFlowControl;
 import org.hollaemor.gameofthree.gaming.infrastructure.repository.PlayerRepository;
+import org.hollaemor.gameofthree.gaming.infrastructure.spectator.SpectatorPrincipal;
+import org.springframework.boot.context.properties.EnableConfigurationProperties;
+import org.springframework.context.annotation.Bean;
 import org.springframework.context.annotation.Configuration;
 import org.springframework.messaging.Message;
 import org.springframework.messaging.MessageChannel;
 import org.springframework.messaging.MessagingException;
+import org.springframework.messaging.converter.MessageConverter;
 import org.springframework.messaging.simp.config.ChannelRegistration;
 import org.springframework.messaging.simp.config.MessageBrokerRegistry;
 import org.springframework.messaging.simp.stomp.StompCommand;
@@ -12,32 +23,93 @@ import org.springframework.messaging.simp.stomp.StompHeaderAccessor;
 import org.springframework.messaging.support.ChannelInterceptor;
 import org.springframework.messaging.support.MessageHeaderAccessor;
 import org.springframework.util.StringUtils;
+import org.springframework.web.context.ServletContextAware;
 import org.springframework.web.socket.config.annotation.EnableWebSocketMessageBroker;
 import org.springframework.web.socket.config.annotation.StompEndpointRegistry;
 import org.springframework.web.socket.config.annotation.WebSocketMessageBrokerConfigurer;
+import org.springframework.web.socket.config.annotation.WebSocketTransportRegistration;
+
+import javax.websocket.server.ServerContainer;
+import java.nio.charset.StandardCharsets;
+import java.util.List;
 
 import static java.util.Optional.ofNullable;
 
 @Configuration
 @EnableWebSocketMessageBroker
+@EnableConfigurationProperties({GameLaneProperties.class, GameChannelProperties.class, GameBrokerProperties.class,
+        GameTransportProperties.class, GameOutboundProperties.class})
 public class WebSocketConfig implements WebSocketMessageBrokerConfigurer {
 
     public static final String USERNAME_HEADER = "username";
+    public static final String SPECTATOR_HEADER = "spectator";
 
-    private final PlayerRepository playerRepository;
+    public static final String WEBSOCKET_ENDPOINT = "/game-of-three-ws";
+    public static final String SOCKJS_ENDPOINT = "/game-of-three";
 
-    public WebSocketConfig(PlayerRepository playerRepository) {
+    private final PlayerRepository playerRepository;
+    private final GameLaneProperties gameLaneProperties;
+    private final GameChannelProperties gameChannelProperties;
+    private final GameBrokerProperties gameBrokerProperties;
+    private final GameTransportProperties gameTransportProperties;
+    private final OutboundFlowControl outboundFlowControl;
+    private final LatencyProbe latencyProbe;
+    private final CompactSessions compactSessions;
+
+    public WebSocketConfig(PlayerRepository playerRepository, GameLaneProperties gameLaneProperties,
+                           GameChannelProperties gameChannelProperties, GameBrokerProperties gameBrokerProperties,
+                           GameTransportProperties gameTransportProperties, OutboundFlowControl outboundFlowControl,
+                           LatencyProbe latencyProbe, CompactSessions compactSessions) {
         this.playerRepository = playerRepository;
+        this.gameLaneProperties = gameLaneProperties;
+        this.gameChannelProperties = gameChannelProperties;
+        this.gameBrokerProperties = gameBrokerProperties;
+        this.gameTransportProperties = gameTransportProperties;
+        this.outboundFlowControl = outboundFlowControl;
+        this.latencyProbe = latencyProbe;
+        this.compactSessions = compactSessions;
     }
 
+    /*
+    Clients that support WebSocket connect to the plain endpoint and skip SockJS framing; SockJS stays as the fallback
+    for browsers and networks without WebSocket.
+     */
     @Override
     public void registerStompEndpoints(StompEndpointRegistry registry) {
-        registry.addEndpoint("/game-of-three").withSockJS();
+        registry.addEndpoint(WEBSOCKET_ENDPOINT);
+        registry.addEndpoint(SOCKJS_ENDPOINT).withSockJS();
+    }
+
+    @Override
+    public void configureWebSocketTransport(WebSocketTransportRegistration registration) {
+        registration.setMessageSizeLimit(gameTransportProperties.getMessageSizeLimit())
+                .setSendBufferSizeLimit(gameTransportProperties.getSendBufferSizeLimit())
+                .setSendTimeLimit((int) gameTransportProperties.getSendTimeLimit().toMillis())
+                .setTimeToFirstMessage((int) gameTransportProperties.getTimeToFirstMessage().toMillis())
+                .addDecoratorFactory(outboundFlowControl)
+                .addDecoratorFactory(latencyProbe);
+    }
+
+    /*
+    The container allocates receive buffers of 8 KB per session by default. There is no container in a mock servlet
+    environment, so this does not use ServletServerContainerFactoryBean, which requires one.
+     */
+    @Bean
+    public ServletContextAware webSocketContainerBuffers() {
+        return servletContext -> ofNullable((ServerContainer) servletContext.getAttribute(ServerContainer.class.getName()))
+                .ifPresent(container -> {
+                    container.setDefaultMaxTextMessageBufferSize(gameTransportProperties.getMessageSizeLimit());
+                    container.setDefaultMaxBinaryMessageBufferSize(gameTransportProperties.getMessageSizeLimit());
+                });
     }
 
     @Override
     public void configureMessageBroker(MessageBrokerRegistry registry) {
-        registry.enableSimpleBroker("/queue");
+        if (GameBrokerProperties.Mode.RELAY == gameBrokerProperties.getMode()) {
+            enableBrokerRelay(registry, gameBrokerProperties.getRelay());
+        } else {
+            registry.enableSimpleBroker("/queue", "/topic");
+        }
         registry.setApplicationDestinationPrefixes("/app");
         registry.setPreservePublishOrder(true);
     }
@@ -45,16 +117,67 @@ public class WebSocketConfig implements WebSocketMessageBrokerConfigurer {
 
     @Override
     public void configureClientInboundChannel(ChannelRegistration registration) {
-        registration.interceptors(new AuthenticatedPlayerChannelInterceptor(playerRepository));
+        registration.interceptors(new AuthenticatedPlayerChannelInterceptor(playerRepository, compactSessions));
+
+        if (gameLaneProperties.isEnabled()) {
+            registration.taskExecutor(gameLaneTaskExecutor());
+        } else if (gameChannelProperties.isVirtualThreads()) {
+            registration.taskExecutor(new VirtualThreadTaskExecutor());
+        }
+    }
+
+    @Override
+    public void configureClientOutboundChannel(ChannelRegistration registration) {
+        if (gameChannelProperties.isVirtualThreads()) {
+            registration.taskExecutor(new VirtualThreadTaskExecutor());
+        }
+    }
+
+    /*
+    The compact converter only writes messages sent with its content type, the default converters that follow handle
+    everything else.
+     */
+    @Override
+    public boolean configureMessageConverters(List<MessageConverter> messageConverters) {
+        messageConverters.add(new CompactGameMessageConverter());
+        return true;
+    }
+
+
+    private void enableBrokerRelay(MessageBrokerRegistry registry, GameBrokerProperties.Relay relay) {
+        registry.enableStompBrokerRelay("/queue", "/topic")
+                .setRelayHost(relay.getHost())
+                .setRelayPort(relay.getPort())
+                .setVirtualHost(relay.getVirtualHost())
+                .setClientLogin(relay.getClientLogin())
+                .setClientPasscode(relay.getClientPasscode())
+                .setSystemLogin(relay.getSystemLogin())
+                .setSystemPasscode(relay.getSystemPasscode())
+                .setSystemHeartbeatSendInterval(relay.getSystemHeartbeatSendInterval().toMillis())
+                .setSystemHeartbeatReceiveInterval(relay.getSystemHeartbeatReceiveInterval().toMillis())
+                .setTcpClient(BrokerRelayTcpClient.create(relay));
+    }
+
+    private GameLaneTaskExecutor gameLaneTaskExecutor() {
+        var keyResolver = new GameAffinityKeyResolver(playerRepository);
+
+        if (gameChannelProperties.isVirtualThreads()) {
+            return new GameLaneTaskExecutor(gameLaneProperties, keyResolver,
+                    VirtualThreads.newThreadFactory(GameLaneTaskExecutor.LANE_THREAD_PREFIX));
+        }
+        return new GameLaneTaskExecutor(gameLaneProperties, keyResolver);
     }
 
 
     static class AuthenticatedPlayerChannelInterceptor implements ChannelInterceptor {
 
         private final PlayerRepository playerRepository;
+        private final CompactSessions compactSessions;
 
-        public AuthenticatedPlayerChannelInterceptor(PlayerRepository playerRepository) {
+        public AuthenticatedPlayerChannelInterceptor(PlayerRepository playerRepository,
+                                                     CompactSessions compactSessions) {
             this.playerRepository = playerRepository;
+            this.compactSessions = compactSessions;
         }
 
 
@@ -62,20 +185,46 @@ public class WebSocketConfig implements WebSocketMessageBrokerConfigurer {
         public Message<?> preSend(Message<?> message, MessageChannel channel) {
             StompHeaderAccessor accessor = MessageHeaderAccessor.getAccessor(message, StompHeaderAccessor.class);
 
-            if (StompCommand.CONNECT.equals(accessor.getCommand())) {
+            if (StompCommand.CONNECT.equals(accessor.getCommand())
+                    && Boolean.parseBoolean(accessor.getFirstNativeHeader(SPECTATOR_HEADER))) {
+                accessor.setUser(new SpectatorPrincipal(accessor.getSessionId()));
+            } else if (StompCommand.CONNECT.equals(accessor.getCommand())) {
                 ofNullable(accessor.getFirstNativeHeader(USERNAME_HEADER))
                         .filter(username -> !StringUtils.isEmpty(username))
                         .ifPresentOrElse(username -> {
-                            checkPlayerDoesNotExist(username);
+                            checkPlayerCanConnect(username);
                             accessor.setUser(() -> username);
+                            ofNullable(accessor.getSessionAttributes())
+                                    .ifPresent(attributes -> attributes.put(USERNAME_HEADER, username));
+                            compactSessions.connected(username, accessor.getSessionId(),
+                                    accessor.getFirstNativeHeader(CompactSessions.FORMAT_HEADER));
                         }, () -> throwMessagingException("username is required to establish a connection"));
+            } else if (StompCommand.SEND.equals(accessor.getCommand())
+                    && accessor.getUser() instanceof SpectatorPrincipal) {
+                throwMessagingException("Spectators can only watch games");
+            } else if ((StompCommand.SEND.equals(accessor.getCommand())
+                    || StompCommand.SUBSCRIBE.equals(accessor.getCommand()))
+                    && StompClusterHub.isClusterDestination(accessor.getDestination())) {
+                throwMessagingException("Destination is reserved for the cluster");
             }
 
             return message;
         }
 
-        private void checkPlayerDoesNotExist(String username) {
-            if (playerRepository.exists(username)) {
+        /*
+        Usernames are limited to what a game journal record holds, so that every game can be restored from it. A
+        detached player, restored from the game journal or parked after its session closed, is re-attached to the new
+        session instead. The session owns the player from here on: the username is kept in its attributes, so closing
+        the session parks or removes the player even when it closes before it was sent CONNECTED, and a re-attached
+        player is detached again rather than left attached without a session.
+         */
+        private void checkPlayerCanConnect(String username) {
+            if (username.getBytes(StandardCharsets.UTF_8).length > JournalRecord.MAX_NAME_BYTES) {
+                throwMessagingException("username must not be longer than " + JournalRecord.MAX_NAME_BYTES + " bytes");
+            }
+            var player = playerRepository.findByName(username);
+
+            if (player.isPresent() && !player.get().reattach()) {
                 throwMessagingException("Player with username already connected!!");
             }
         }
@@ -1,8 +1,10 @@
 package org.hollaemor.gameofthree.gaming.infrastructure;
 
 import lombok.extern.slf4j.Slf4j;
-import org.hollaemor.gameofthree.gaming.domain.Player;
+import org.hollaemor.gameofthree.gaming.infrastructure.outbound.SlowConsumerEvent;
 import org.hollaemor.gameofthree.gaming.infrastructure.service.PlayerService;
+import org.hollaemor.gameofthree.gaming.infrastructure.session.SessionResumption;
+import org.hollaemor.gameofthree.gaming.infrastructure.spectator.SpectatorPrincipal;
 import org.springframework.context.event.EventListener;
 import org.springframework.messaging.simp.stomp.StompHeaderAccessor;
 import org.springframework.stereotype.Component;
@@ -17,15 +19,22 @@ import static org.hollaemor.gameofthree.gaming.infrastructure.WebSocketConfig.US
 public class WebSocketEventListener {
 
     private final PlayerService playerService;
+    private final SessionResumption sessionResumption;
 
-    public WebSocketEventListener(PlayerService playerService) {
+    public WebSocketEventListener(PlayerService playerService, SessionResumption sessionResumption) {
         this.playerService = playerService;
+        this.sessionResumption = sessionResumption;
     }
 
     @EventListener
     public void handleWebSocketConnected(SessionConnectedEvent event) {
+        if (event.getUser() instanceof SpectatorPrincipal) {
+            log.debug("spectator connected: {}", event.getUser().getName());
+            return;
+        }
         log.debug("player connected: {}", event.getUser().getName());
-        playerService.save(new Player(event.getUser().getName()));
+        playerService.connect(event.getUser().getName());
+        sessionResumption.resumed(event.getUser().getName());
     }
 
 
@@ -37,7 +46,15 @@ public class WebSocketEventListener {
                 .map(String.class::cast)
                 .ifPresent(username -> {
                     log.debug("player disconnected: {}", username);
-                    playerService.removePlayer(username);
+                    if (!sessionResumption.park(username)) {
+                        playerService.removePlayer(username);
+                    }
                 });
     }
+
+    @EventListener
+    public void handleSlowConsumer(SlowConsumerEvent event) {
+        log.debug("slow consumer removed: {}", event.getPlayerName());
+        playerService.removePlayer(event.getPlayerName());
+    }
 }
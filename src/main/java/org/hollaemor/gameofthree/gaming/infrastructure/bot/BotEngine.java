@@ -0,0 +1,150 @@
+package org.hollaemor.gameofthree.gaming.infrastructure.bot;
+
+import lombok.extern.slf4j.Slf4j;
+import org.hollaemor.gameofthree.gaming.domain.GameInstruction;
+import org.hollaemor.gameofthree.gaming.domain.GameService;
+import org.hollaemor.gameofthree.gaming.domain.Player;
+import org.hollaemor.gameofthree.gaming.infrastructure.repository.PlayerRepository;
+import org.springframework.beans.factory.DisposableBean;
+import org.springframework.beans.factory.InitializingBean;
+import org.springframework.stereotype.Component;
+
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Plays the bot opponents of players left waiting in the lobby. A single thread takes the work out of the
+ * {@link BotQueue}: it pairs a waiting player with a new bot, and plays a bot's move as soon as the bot got its PLAY
+ * message, through the {@link GameService} like the move of any other player. There is no thread per bot, and
+ * answering a move of the classic game allocates nothing on the bot's side.
+ *
+ * <p>The player is the primary one of a game against a bot, so it plays first, right after its START message. The
+ * bot only ever answers the player's moves and cannot get ahead of the player's START message.
+ */
+@Slf4j
+@Component
+public class BotEngine implements InitializingBean, DisposableBean {
+
+    static final String NAME_PREFIX = "bot-";
+
+    private static final long POLL_TIMEOUT_MILLIS = 1_000;
+
+    /*
+    Instructions are only read by the game service, so the classic moves are shared by every bot.
+     */
+    private static final GameInstruction[] MOVES = {
+            GameInstruction.builder().move(-1).build(),
+            GameInstruction.builder().move(0).build(),
+            GameInstruction.builder().move(1).build()
+    };
+
+    private final GameBotProperties properties;
+    private final BotQueue queue;
+    private final GameService gameService;
+    private final PlayerRepository playerRepository;
+
+    /*
+    Only touched by the engine's thread.
+     */
+    private long botCount;
+
+    private volatile Thread worker;
+    private volatile boolean running;
+
+    public BotEngine(GameBotProperties properties, BotQueue queue, GameService gameService,
+                     PlayerRepository playerRepository) {
+        this.properties = properties;
+        this.queue = queue;
+        this.gameService = gameService;
+        this.playerRepository = playerRepository;
+    }
+
+    @Override
+    public void afterPropertiesSet() {
+        if (!queue.isEnabled()) {
+            return;
+        }
+        running = true;
+        worker = new Thread(this::run, "bot-engine");
+        worker.setDaemon(true);
+        worker.start();
+    }
+
+    @Override
+    public void destroy() throws InterruptedException {
+        running = false;
+
+        if (null != worker) {
+            worker.interrupt();
+            worker.join(TimeUnit.SECONDS.toMillis(5));
+        }
+    }
+
+    /**
+     * Takes the next piece of work out of the queue, waiting up to {@code timeoutMillis} for it, and returns false if
+     * there was none.
+     */
+    boolean runOnce(long timeoutMillis) throws InterruptedException {
+        var player = queue.poll(timeoutMillis);
+
+        if (null == player) {
+            return false;
+        }
+        if (player instanceof BotPlayer) {
+            play((BotPlayer) player);
+        } else {
+            pairWithBot(player);
+        }
+        return true;
+    }
+
+    private void run() {
+        while (running) {
+            try {
+                runOnce(POLL_TIMEOUT_MILLIS);
+            } catch (InterruptedException ex) {
+                Thread.currentThread().interrupt();
+                return;
+            } catch (RuntimeException ex) {
+                log.warn("bot engine failed", ex);
+            }
+        }
+    }
+
+    /*
+    The game may be gone by the time the bot plays, when its opponent left in the meantime.
+     */
+    private void play(BotPlayer bot) {
+        try {
+            gameService.processPlayerMove(bot.getName(), instructionFor(bot.getPendingMove()));
+        } catch (RuntimeException ex) {
+            log.debug("{} could not play: {}", bot.getName(), ex.getMessage());
+        }
+    }
+
+    private static GameInstruction instructionFor(int move) {
+        return move >= -1 && move <= 1 ? MOVES[move + 1] : GameInstruction.builder().move(move).build();
+    }
+
+    /*
+    The bot is registered before the game starts, so it gets its notifications from the first one on.
+     */
+    private void pairWithBot(Player player) {
+        if (queue.countBots() >= properties.getMaxBots()) {
+            return;
+        }
+        var bot = new BotPlayer(nextBotName());
+        queue.register(bot);
+
+        if (!gameService.startBotMatch(player.getName(), bot)) {
+            queue.unregister(bot);
+        }
+    }
+
+    private String nextBotName() {
+        String name;
+        do {
+            name = NAME_PREFIX + ++botCount;
+        } while (playerRepository.exists(name));
+        return name;
+    }
+}
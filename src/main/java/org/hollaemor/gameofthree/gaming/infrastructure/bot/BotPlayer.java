@@ -0,0 +1,24 @@
+package org.hollaemor.gameofthree.gaming.infrastructure.bot;
+
+import lombok.Getter;
+import lombok.Setter;
+import org.hollaemor.gameofthree.gaming.domain.Player;
+
+/**
+ * A player whose moves are computed by the {@link BotEngine}. It is paired, journaled and rated like any other player,
+ * but its notifications are handed to the engine instead of a session.
+ */
+public class BotPlayer extends Player {
+
+    /*
+    Hint of the last PLAY message, published to the engine's thread by the queue hand-off. The hint follows the rules
+    of the bot's game, so bots play every game mode.
+     */
+    @Getter
+    @Setter
+    private int pendingMove;
+
+    public BotPlayer(String name) {
+        super(name);
+    }
+}
@@ -0,0 +1,137 @@
+package org.hollaemor.gameofthree.gaming.infrastructure.bot;
+
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.binder.MeterBinder;
+import lombok.extern.slf4j.Slf4j;
+import org.hollaemor.gameofthree.gaming.domain.GameMessage;
+import org.hollaemor.gameofthree.gaming.domain.Player;
+import org.hollaemor.gameofthree.gaming.domain.PlayerStatus;
+import org.hollaemor.gameofthree.gaming.infrastructure.journal.GameJournal;
+import org.hollaemor.gameofthree.gaming.infrastructure.repository.PlayerRepository;
+import org.hollaemor.gameofthree.gaming.infrastructure.timer.TimerWheel;
+import org.springframework.stereotype.Component;
+
+import java.util.Map;
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.BlockingQueue;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Work for the {@link BotEngine}: bots whose turn it is, and players who waited long enough in the lobby to be paired
+ * with a bot. The bots are registered here, so that their notifications are taken in by {@link #deliver} instead of
+ * being sent to a session.
+ */
+@Slf4j
+@Component
+public class BotQueue implements MeterBinder {
+
+    private final GameBotProperties properties;
+    private final PlayerRepository playerRepository;
+    private final GameJournal gameJournal;
+    private final TimerWheel timerWheel;
+
+    private final Map<String, BotPlayer> bots = new ConcurrentHashMap<>();
+
+    /*
+    A bot is queued at most once, since it only gets its next PLAY message after it moved, so a bounded array queue
+    holds every bot's turn without allocating a node for it. Waiting players take the other half; there is no use in
+    queueing more of them than there are bots.
+     */
+    private final BlockingQueue<Player> work;
+
+    public BotQueue(GameBotProperties properties, PlayerRepository playerRepository, GameJournal gameJournal,
+                    TimerWheel timerWheel) {
+        this.properties = properties;
+        this.playerRepository = playerRepository;
+        this.gameJournal = gameJournal;
+        this.timerWheel = timerWheel;
+        this.work = new ArrayBlockingQueue<>(isEnabled() ? 2 * Math.max(1, properties.getMaxBots()) : 1);
+    }
+
+    @Override
+    public void bindTo(MeterRegistry registry) {
+        Gauge.builder("game.bots.active", this, BotQueue::countBots)
+                .description("Bots playing against a player")
+                .register(registry);
+    }
+
+    public boolean isEnabled() {
+        var pairAfter = properties.getPairAfter();
+        return !pairAfter.isZero() && !pairAfter.isNegative();
+    }
+
+    /**
+     * Queues the player for a bot once it has waited for {@code pair-after}, unless it was paired or left the lobby
+     * by then.
+     */
+    public void waitForOpponent(Player player) {
+        if (!isEnabled()) {
+            return;
+        }
+        long availableSince = player.getAvailableSince();
+
+        timerWheel.schedule(timeout -> {
+            if (player.getStatus() == PlayerStatus.AVAILABLE && player.getAvailableSince() == availableSince
+                    && !work.offer(player)) {
+                log.debug("no room to pair {} with a bot", player.getName());
+            }
+        }, properties.getPairAfter());
+    }
+
+    /**
+     * Takes in a notification for a bot and returns true, or returns false if the player is not a bot. A PLAY
+     * message queues the bot's move. A DISCONNECT message means its opponent left, so the bot leaves as well; this
+     * runs under the locks of the player who left and of the bot, so nobody gets paired with the bot in between.
+     */
+    public boolean deliver(String playerName, GameMessage message) {
+        var bot = bots.get(playerName);
+
+        if (null == bot) {
+            return false;
+        }
+        switch (message.getGameStatus()) {
+            case PLAY:
+                bot.setPendingMove(message.getPlay());
+                if (!work.offer(bot)) {
+                    log.warn("no room to queue the move of {}", playerName);
+                }
+                break;
+            case DISCONNECT:
+                retire(bot);
+                break;
+            default:
+                break;
+        }
+        return true;
+    }
+
+    /**
+     * Waits up to {@code timeoutMillis} for a bot whose turn it is or a player to pair with a bot.
+     */
+    public Player poll(long timeoutMillis) throws InterruptedException {
+        return work.poll(timeoutMillis, TimeUnit.MILLISECONDS);
+    }
+
+    public void register(BotPlayer bot) {
+        bots.put(bot.getName(), bot);
+    }
+
+    public void unregister(BotPlayer bot) {
+        bots.remove(bot.getName(), bot);
+    }
+
+    public int countBots() {
+        return bots.size();
+    }
+
+    /**
+     * Removes a bot whose opponent left. Runs under the locks of the player who left and of the bot.
+     */
+    public void retire(BotPlayer bot) {
+        unregister(bot);
+        playerRepository.delete(bot);
+        gameJournal.disconnected(0L, bot.getName(), null);
+    }
+}
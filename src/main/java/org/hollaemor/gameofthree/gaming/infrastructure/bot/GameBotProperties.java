@@ -0,0 +1,26 @@
+package org.hollaemor.gameofthree.gaming.infrastructure.bot;
+
+import lombok.Getter;
+import lombok.Setter;
+import org.springframework.boot.context.properties.ConfigurationProperties;
+
+import java.time.Duration;
+
+/**
+ * Settings of the bot opponents, see {@link BotEngine}.
+ */
+@Getter
+@Setter
+@ConfigurationProperties(prefix = "game.bot")
+public class GameBotProperties {
+
+    /**
+     * Time a player waits in the lobby without an opponent before it is paired with a bot; zero for no bots.
+     */
+    private Duration pairAfter = Duration.ZERO;
+
+    /**
+     * Most bots playing at the same time. Once they all play, waiting players are left to be paired with humans.
+     */
+    private int maxBots = 100_000;
+}
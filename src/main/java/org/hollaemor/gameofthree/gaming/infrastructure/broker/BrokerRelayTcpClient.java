@@ -0,0 +1,56 @@
+package org.hollaemor.gameofthree.gaming.infrastructure.broker;
+
+import org.springframework.messaging.simp.stomp.StompReactorNettyCodec;
+import org.springframework.messaging.tcp.reactor.ReactorNettyTcpClient;
+import org.springframework.util.concurrent.ListenableFuture;
+import reactor.netty.resources.ConnectionProvider;
+import reactor.netty.resources.LoopResources;
+import reactor.netty.tcp.TcpClient;
+
+/**
+ * TCP client of the STOMP broker relay with its own bounded connection pool and I/O threads, sized by
+ * {@link GameBrokerProperties.Relay}. Spring's default client uses a pool of up to 10000 connections and one I/O thread
+ * per core, neither of which can be configured.
+ *
+ * <p>The relay calls {@link #shutdown()} when it stops; the pool and the I/O threads are released afterwards.
+ */
+public class BrokerRelayTcpClient extends ReactorNettyTcpClient<byte[]> {
+
+    static final String RESOURCE_NAME = "broker-relay";
+
+    private final ConnectionProvider connectionProvider;
+    private final LoopResources loopResources;
+
+    private BrokerRelayTcpClient(TcpClient tcpClient, ConnectionProvider connectionProvider, LoopResources loopResources) {
+        super(tcpClient, new StompReactorNettyCodec());
+        this.connectionProvider = connectionProvider;
+        this.loopResources = loopResources;
+    }
+
+    public static BrokerRelayTcpClient create(GameBrokerProperties.Relay relay) {
+        var connectionProvider = ConnectionProvider.builder(RESOURCE_NAME)
+                .maxConnections(relay.getMaxConnections())
+                .pendingAcquireTimeout(relay.getAcquireTimeout())
+                .build();
+        var loopResources = LoopResources.create(RESOURCE_NAME, relay.getIoThreads(), true);
+
+        var tcpClient = TcpClient.create(connectionProvider)
+                .host(relay.getHost())
+                .port(relay.getPort())
+                .runOn(loopResources, false);
+
+        return new BrokerRelayTcpClient(tcpClient, connectionProvider, loopResources);
+    }
+
+    @Override
+    public ListenableFuture<Void> shutdown() {
+        var shutdown = super.shutdown();
+        shutdown.addCallback(result -> releaseResources(), failure -> releaseResources());
+        return shutdown;
+    }
+
+    private void releaseResources() {
+        connectionProvider.dispose();
+        loopResources.dispose();
+    }
+}
@@ -0,0 +1,87 @@
+package org.hollaemor.gameofthree.gaming.infrastructure.broker;
+
+import lombok.Getter;
+import lombok.Setter;
+import org.springframework.boot.context.properties.ConfigurationProperties;
+
+import java.time.Duration;
+
+/**
+ * Settings of the message broker that delivers {@code /queue} messages to players.
+ */
+@Getter
+@Setter
+@ConfigurationProperties(prefix = "game.broker")
+public class GameBrokerProperties {
+
+    /**
+     * Whether messages are delivered by Spring's in-memory broker or relayed to an external STOMP broker.
+     */
+    private Mode mode = Mode.SIMPLE;
+
+    private final Relay relay = new Relay();
+
+
+    public enum Mode {
+        SIMPLE, RELAY
+    }
+
+    @Getter
+    @Setter
+    public static class Relay {
+
+        /**
+         * Host of the external STOMP broker.
+         */
+        private String host = "localhost";
+
+        /**
+         * STOMP port of the external STOMP broker.
+         */
+        private int port = 61613;
+
+        /**
+         * Virtual host sent in the CONNECT frames, if the broker needs one.
+         */
+        private String virtualHost;
+
+        /**
+         * Login used for the connections opened on behalf of players.
+         */
+        private String clientLogin = "guest";
+
+        private String clientPasscode = "guest";
+
+        /**
+         * Login used for the shared system connection that carries the messages sent by the server.
+         */
+        private String systemLogin = "guest";
+
+        private String systemPasscode = "guest";
+
+        /**
+         * Interval at which heartbeats are sent to the broker on the system connection.
+         */
+        private Duration systemHeartbeatSendInterval = Duration.ofSeconds(10);
+
+        /**
+         * Interval at which heartbeats are expected from the broker on the system connection.
+         */
+        private Duration systemHeartbeatReceiveInterval = Duration.ofSeconds(10);
+
+        /**
+         * Maximum number of TCP connections to the broker, one per connected player plus the system connection.
+         */
+        private int maxConnections = 10_000;
+
+        /**
+         * How long a new player waits for a free connection once the pool is exhausted.
+         */
+        private Duration acquireTimeout = Duration.ofSeconds(5);
+
+        /**
+         * Number of I/O threads shared by all broker connections.
+         */
+        private int ioThreads = Math.max(2, Runtime.getRuntime().availableProcessors());
+    }
+}
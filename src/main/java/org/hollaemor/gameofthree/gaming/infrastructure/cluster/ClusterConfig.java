@@ -0,0 +1,92 @@
+package org.hollaemor.gameofthree.gaming.infrastructure.cluster;
+
+import org.hollaemor.gameofthree.gaming.domain.GameRules;
+import org.hollaemor.gameofthree.gaming.domain.GameService;
+import org.hollaemor.gameofthree.gaming.domain.PlayerLocks;
+import org.hollaemor.gameofthree.gaming.infrastructure.CompactSessions;
+import org.hollaemor.gameofthree.gaming.infrastructure.bot.BotQueue;
+import org.hollaemor.gameofthree.gaming.infrastructure.broker.GameBrokerProperties;
+import org.hollaemor.gameofthree.gaming.infrastructure.journal.GameJournal;
+import org.hollaemor.gameofthree.gaming.infrastructure.matchmaking.MatchmakingQueue;
+import org.hollaemor.gameofthree.gaming.infrastructure.metrics.GameMetrics;
+import org.hollaemor.gameofthree.gaming.infrastructure.outbound.OutboundFlowControl;
+import org.hollaemor.gameofthree.gaming.infrastructure.repository.GameRepository;
+import org.hollaemor.gameofthree.gaming.infrastructure.repository.PlayerRepository;
+import org.hollaemor.gameofthree.gaming.infrastructure.service.NotificationService;
+import org.hollaemor.gameofthree.gaming.infrastructure.service.PlayerService;
+import org.hollaemor.gameofthree.gaming.infrastructure.spectator.SpectatorBroadcaster;
+import org.hollaemor.gameofthree.gaming.infrastructure.timer.GameTimeouts;
+import org.hollaemor.gameofthree.gaming.infrastructure.timer.TimerWheel;
+import org.hollaemor.gameofthree.gaming.infrastructure.tournament.TournamentQueue;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.boot.context.properties.EnableConfigurationProperties;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.context.annotation.Primary;
+import org.springframework.messaging.simp.SimpMessagingTemplate;
+
+/**
+ * Clustered mode: players of this node are paired with players of the other nodes through the external broker of the
+ * relay mode, see {@link ClusterNode}. The game and notification services replace the single-node ones, which stay
+ * unused. Players, games and locks stay with the node, as without clustering.
+ */
+@Configuration
+@ConditionalOnProperty(prefix = "game.cluster", name = "enabled", havingValue = "true")
+@EnableConfigurationProperties(GameClusterProperties.class)
+public class ClusterConfig {
+
+    private final GameClusterProperties properties;
+    private final GameBrokerProperties brokerProperties;
+
+    public ClusterConfig(GameClusterProperties properties, GameBrokerProperties brokerProperties) {
+        if (GameBrokerProperties.Mode.RELAY != brokerProperties.getMode()) {
+            throw new IllegalStateException("game.cluster.enabled needs game.broker.mode=relay, the nodes exchange "
+                    + "their messages through the external broker");
+        }
+        this.properties = properties;
+        this.brokerProperties = brokerProperties;
+    }
+
+    @Bean
+    public ClusterHub clusterHub() {
+        return new StompClusterHub(properties.getName(), brokerProperties.getRelay());
+    }
+
+    @Bean
+    public ClusterRouter clusterRouter(ClusterHub clusterHub) {
+        return new ClusterRouter(properties.getNodeId(), clusterHub);
+    }
+
+    @Bean
+    @Primary
+    public NotificationService clusterNotificationService(SimpMessagingTemplate messagingTemplate,
+                                                          OutboundFlowControl outboundFlowControl,
+                                                          BotQueue botQueue, CompactSessions compactSessions,
+                                                          ClusterRouter clusterRouter) {
+        return new ClusterNotificationService(messagingTemplate, outboundFlowControl, botQueue, compactSessions,
+                clusterRouter);
+    }
+
+    @Bean
+    @Primary
+    public GameService clusterGameService(PlayerRepository playerRepository, GameRepository gameRepository,
+                                          NotificationService notificationService, PlayerLocks playerLocks,
+                                          GameMetrics gameMetrics, MatchmakingQueue matchmakingQueue,
+                                          GameJournal gameJournal, GameTimeouts gameTimeouts, BotQueue botQueue,
+                                          GameRules gameRules, TournamentQueue tournamentQueue,
+                                          SpectatorBroadcaster spectators, ClusterRouter clusterRouter) {
+        return new ClusterGameService(playerRepository, gameRepository, notificationService, playerLocks, gameMetrics,
+                matchmakingQueue, gameJournal, gameTimeouts, botQueue, gameRules, tournamentQueue, spectators,
+                clusterRouter);
+    }
+
+    @Bean
+    public ClusterNode clusterNode(ClusterHub clusterHub, ClusterRouter clusterRouter, GameService gameService,
+                                   PlayerService playerService, PlayerRepository playerRepository,
+                                   PlayerLocks playerLocks, NotificationService notificationService,
+                                   SimpMessagingTemplate messagingTemplate, TimerWheel timerWheel,
+                                   GameMetrics gameMetrics, GameRules gameRules) {
+        return new ClusterNode(properties, clusterHub, clusterRouter, gameService, playerService, playerRepository,
+                playerLocks, notificationService, messagingTemplate, timerWheel, gameMetrics, gameRules);
+    }
+}
@@ -0,0 +1,90 @@
+package org.hollaemor.gameofthree.gaming.infrastructure.cluster;
+
+import org.hollaemor.gameofthree.gaming.domain.GameInstruction;
+import org.hollaemor.gameofthree.gaming.domain.GameMessage;
+import org.hollaemor.gameofthree.gaming.domain.GameRules;
+import org.hollaemor.gameofthree.gaming.domain.GameService;
+import org.hollaemor.gameofthree.gaming.domain.Player;
+import org.hollaemor.gameofthree.gaming.domain.PlayerLocks;
+import org.hollaemor.gameofthree.gaming.infrastructure.bot.BotQueue;
+import org.hollaemor.gameofthree.gaming.infrastructure.journal.GameJournal;
+import org.hollaemor.gameofthree.gaming.infrastructure.matchmaking.MatchmakingQueue;
+import org.hollaemor.gameofthree.gaming.infrastructure.metrics.GameMetrics;
+import org.hollaemor.gameofthree.gaming.infrastructure.repository.GameRepository;
+import org.hollaemor.gameofthree.gaming.infrastructure.repository.PlayerRepository;
+import org.hollaemor.gameofthree.gaming.infrastructure.service.NotificationService;
+import org.hollaemor.gameofthree.gaming.infrastructure.spectator.SpectatorBroadcaster;
+import org.hollaemor.gameofthree.gaming.infrastructure.timer.GameTimeouts;
+import org.hollaemor.gameofthree.gaming.infrastructure.tournament.TournamentQueue;
+
+import java.util.Optional;
+
+import static org.hollaemor.gameofthree.gaming.domain.GameMessageFactory.buildWaitingMessage;
+
+/**
+ * Game service of a cluster node. A player left waiting is announced to the other nodes, and the commands of a player
+ * whose game another node hosts are forwarded to that node, which replies through notifications.
+ */
+public class ClusterGameService extends GameService {
+
+    private final PlayerRepository playerRepository;
+    private final GameRules gameRules;
+    private final ClusterRouter clusterRouter;
+
+    public ClusterGameService(PlayerRepository playerRepository, GameRepository gameRepository,
+                              NotificationService notificationService, PlayerLocks playerLocks, GameMetrics gameMetrics,
+                              MatchmakingQueue matchmakingQueue, GameJournal gameJournal, GameTimeouts gameTimeouts,
+                              BotQueue botQueue, GameRules gameRules, TournamentQueue tournamentQueue,
+                              SpectatorBroadcaster spectators, ClusterRouter clusterRouter) {
+        super(playerRepository, gameRepository, notificationService, playerLocks, gameMetrics, matchmakingQueue,
+                gameJournal, gameTimeouts, botQueue, gameRules, tournamentQueue, spectators);
+        this.playerRepository = playerRepository;
+        this.gameRules = gameRules;
+        this.clusterRouter = clusterRouter;
+    }
+
+    /*
+    Until the host confirmed the game, the player only knows it is waiting.
+     */
+    @Override
+    public GameMessage startForPlayer(String playerName) {
+        var host = hostOf(playerName);
+
+        if (host.isEmpty()) {
+            return super.startForPlayer(playerName);
+        }
+        if (!host.get().isConfirmed()) {
+            return buildWaitingMessage();
+        }
+        clusterRouter.forward(host.get(), ClusterMessageType.START, playerName, 0);
+        return null;
+    }
+
+    @Override
+    public void processRandomNumberFromPlayer(int randomNumber, String playerName) {
+        hostOf(playerName).ifPresentOrElse(
+                host -> clusterRouter.forward(host, ClusterMessageType.NUMBER, playerName, randomNumber),
+                () -> super.processRandomNumberFromPlayer(randomNumber, playerName));
+    }
+
+    @Override
+    public void processPlayerMove(String playerName, GameInstruction gameInstruction) {
+        hostOf(playerName).ifPresentOrElse(
+                host -> clusterRouter.forward(host, ClusterMessageType.MOVE, playerName, gameInstruction.getMove()),
+                () -> super.processPlayerMove(playerName, gameInstruction));
+    }
+
+    @Override
+    protected void waitForOpponent(Player player) {
+        super.waitForOpponent(player);
+        clusterRouter.seek(player, gameRules.getFingerprint());
+    }
+
+    private Optional<RemotePlayer> hostOf(String playerName) {
+        return playerRepository.findByName(playerName)
+                .map(Player::getOpponent)
+                .filter(RemotePlayer.class::isInstance)
+                .map(RemotePlayer.class::cast)
+                .filter(RemotePlayer::isHost);
+    }
+}
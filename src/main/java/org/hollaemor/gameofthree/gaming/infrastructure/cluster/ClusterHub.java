@@ -0,0 +1,27 @@
+package org.hollaemor.gameofthree.gaming.infrastructure.cluster;
+
+import java.util.function.Consumer;
+
+/**
+ * Transport between the nodes of a cluster. Nodes only exchange {@link ClusterMessage}s, which the hub serializes, and
+ * never share players, games or locks: every player belongs to the node holding its session, which alone changes it.
+ */
+public interface ClusterHub {
+
+    /**
+     * Starts handing the messages sent to the node, and those published to the cluster, to the receiver.
+     */
+    void join(String nodeId, Consumer<ClusterMessage> receiver);
+
+    void leave(String nodeId);
+
+    /**
+     * Sends the message to one node. Messages sent by a node to another one arrive in the order they were sent.
+     */
+    void send(String nodeId, ClusterMessage message);
+
+    /**
+     * Sends the message to every node of the cluster, including the sending one.
+     */
+    void publish(ClusterMessage message);
+}
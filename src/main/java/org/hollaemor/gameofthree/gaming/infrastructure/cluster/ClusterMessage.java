@@ -0,0 +1,46 @@
+package org.hollaemor.gameofthree.gaming.infrastructure.cluster;
+
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Getter;
+import lombok.NoArgsConstructor;
+import lombok.ToString;
+import org.hollaemor.gameofthree.gaming.domain.GameMessage;
+
+/**
+ * A message between the nodes of a cluster, see {@link ClusterNode} for what each type means. Players are referred to
+ * by name; {@code nodeId} is always the sending node.
+ */
+@Builder
+@NoArgsConstructor
+@AllArgsConstructor
+@ToString(exclude = "gameMessage")
+public class ClusterMessage {
+
+    @Getter
+    private ClusterMessageType type;
+
+    @Getter
+    private String nodeId;
+
+    @Getter
+    private String playerName;
+
+    @Getter
+    private String opponentName;
+
+    /**
+     * The random number or move of a command, or the fingerprint of the rules a SEEKing player plays by.
+     */
+    @Getter
+    private int value;
+
+    @Getter
+    private int rating;
+
+    @Getter
+    private String content;
+
+    @Getter
+    private GameMessage gameMessage;
+}
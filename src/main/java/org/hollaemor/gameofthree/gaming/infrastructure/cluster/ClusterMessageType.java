@@ -0,0 +1,39 @@
+package org.hollaemor.gameofthree.gaming.infrastructure.cluster;
+
+public enum ClusterMessageType {
+
+    /**
+     * Published for a player who found nobody to play with on its node.
+     */
+    SEEK,
+
+    /**
+     * An available player, held for the SEEKing player until it is released or its game starts.
+     */
+    OFFER,
+
+    /**
+     * Gives an OFFERed player back to its lobby.
+     */
+    RELEASE,
+
+    /**
+     * A notification for a player of the receiving node, sent by the node its opponent belongs to.
+     */
+    NOTIFY,
+
+    /**
+     * Commands of a player, forwarded to the node hosting its game.
+     */
+    START, NUMBER, MOVE,
+
+    /**
+     * The error a forwarded command was rejected with.
+     */
+    ERROR,
+
+    /**
+     * Published by a node that stops, whose players are then gone.
+     */
+    LEAVE
+}
@@ -0,0 +1,343 @@
+package org.hollaemor.gameofthree.gaming.infrastructure.cluster;
+
+import lombok.extern.slf4j.Slf4j;
+import org.hollaemor.gameofthree.gaming.domain.GameInstruction;
+import org.hollaemor.gameofthree.gaming.domain.GameRules;
+import org.hollaemor.gameofthree.gaming.domain.GameService;
+import org.hollaemor.gameofthree.gaming.domain.GameStatus;
+import org.hollaemor.gameofthree.gaming.domain.Player;
+import org.hollaemor.gameofthree.gaming.domain.PlayerLocks;
+import org.hollaemor.gameofthree.gaming.domain.PlayerStatus;
+import org.hollaemor.gameofthree.gaming.infrastructure.metrics.GameMetrics;
+import org.hollaemor.gameofthree.gaming.infrastructure.repository.PlayerRepository;
+import org.hollaemor.gameofthree.gaming.infrastructure.service.NotificationService;
+import org.hollaemor.gameofthree.gaming.infrastructure.service.PlayerService;
+import org.hollaemor.gameofthree.gaming.infrastructure.timer.TimerWheel;
+import org.springframework.beans.factory.DisposableBean;
+import org.springframework.beans.factory.InitializingBean;
+import org.springframework.messaging.simp.SimpMessagingTemplate;
+import org.springframework.scheduling.concurrent.CustomizableThreadFactory;
+
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.TimeUnit;
+
+import static java.util.Optional.ofNullable;
+
+/**
+ * Pairs the players of this node with players of other nodes, and plays their games, by exchanging
+ * {@link ClusterMessage}s through the {@link ClusterHub}. Every player belongs to the node holding its session: only
+ * that node pairs it, under its own locks, and other nodes only ever hold a {@link RemotePlayer} standing in for it.
+ *
+ * <p>A player who found nobody to play with on its node is announced to the cluster with a SEEK message. A node with
+ * an available player takes that player out of its lobby, pairs it with a stand-in for the seeker and OFFERs it to the
+ * seeker's node. That node starts the game with a stand-in for the offered player, and hosts it, if the seeker is still
+ * waiting, and RELEASEs the offered player back to its lobby otherwise. The offering node releases the player as well
+ * if the host does not confirm the game with a notification within {@code offer-timeout}. From then on the offered
+ * player's start requests, numbers and moves are forwarded to the host, which sends the notifications of both players
+ * to their nodes. A player who leaves is reported to the other node as a DISCONNECT notification, and that node
+ * removes its stand-in like a player who left, which tells its own player.
+ *
+ * <p>Messages are handled one at a time, in the order the hub delivers them, on a thread of their own.
+ */
+@Slf4j
+public class ClusterNode implements InitializingBean, DisposableBean {
+
+    static final String ERROR_QUEUE = "/queue/errors";
+
+    private final GameClusterProperties properties;
+    private final ClusterHub clusterHub;
+    private final ClusterRouter clusterRouter;
+    private final GameService gameService;
+    private final PlayerService playerService;
+    private final PlayerRepository playerRepository;
+    private final PlayerLocks playerLocks;
+    private final NotificationService notificationService;
+    private final SimpMessagingTemplate messagingTemplate;
+    private final TimerWheel timerWheel;
+    private final GameMetrics gameMetrics;
+    private final GameRules gameRules;
+
+    private ExecutorService executor;
+
+    public ClusterNode(GameClusterProperties properties, ClusterHub clusterHub, ClusterRouter clusterRouter,
+                       GameService gameService, PlayerService playerService, PlayerRepository playerRepository,
+                       PlayerLocks playerLocks, NotificationService notificationService,
+                       SimpMessagingTemplate messagingTemplate, TimerWheel timerWheel, GameMetrics gameMetrics,
+                       GameRules gameRules) {
+        this.properties = properties;
+        this.clusterHub = clusterHub;
+        this.clusterRouter = clusterRouter;
+        this.gameService = gameService;
+        this.playerService = playerService;
+        this.playerRepository = playerRepository;
+        this.playerLocks = playerLocks;
+        this.notificationService = notificationService;
+        this.messagingTemplate = messagingTemplate;
+        this.timerWheel = timerWheel;
+        this.gameMetrics = gameMetrics;
+        this.gameRules = gameRules;
+    }
+
+    @Override
+    public void afterPropertiesSet() {
+        var threadFactory = new CustomizableThreadFactory("game-cluster-");
+        threadFactory.setDaemon(true);
+        executor = Executors.newSingleThreadExecutor(threadFactory);
+
+        clusterHub.join(clusterRouter.getNodeId(), message -> executor.execute(() -> handle(message)));
+    }
+
+    @Override
+    public void destroy() throws InterruptedException {
+        clusterRouter.leaveCluster();
+        clusterHub.leave(clusterRouter.getNodeId());
+
+        executor.shutdown();
+        executor.awaitTermination(5, TimeUnit.SECONDS);
+    }
+
+    void handle(ClusterMessage message) {
+        try {
+            switch (message.getType()) {
+                case SEEK:
+                    offerPlayerTo(message);
+                    break;
+                case OFFER:
+                    acceptOffer(message);
+                    break;
+                case RELEASE:
+                    clusterRouter.find(message.getOpponentName())
+                            .filter(seeker -> isStandInFor(seeker, message))
+                            .ifPresent(this::release);
+                    break;
+                case NOTIFY:
+                    notifyPlayer(message);
+                    break;
+                case START:
+                case NUMBER:
+                case MOVE:
+                    play(message);
+                    break;
+                case ERROR:
+                    messagingTemplate.convertAndSendToUser(message.getPlayerName(), ERROR_QUEUE, message.getContent());
+                    break;
+                case LEAVE:
+                    removePlayersOf(message.getNodeId());
+                    break;
+                default:
+                    break;
+            }
+        } catch (RuntimeException ex) {
+            log.warn("could not handle {}", message, ex);
+        }
+    }
+
+    /*
+    Seekers of this node are left to this node's lobby, and seekers playing by other rules to nodes that share them.
+     */
+    private void offerPlayerTo(ClusterMessage seek) {
+        if (isFromThisNode(seek) || seek.getValue() != gameRules.getFingerprint()
+                || playerRepository.exists(seek.getPlayerName())) {
+            return;
+        }
+        playerRepository.findAvailableForPlayer(seek.getPlayerName()).ifPresent(player -> {
+            var seeker = new RemotePlayer(seek.getPlayerName(), seek.getNodeId(), true, player.getAvailableSince());
+            seeker.setRating(seek.getRating());
+
+            if (playerLocks.withLocks(player.getName(), seeker.getName(), () -> holdFor(player, seeker))) {
+                timerWheel.schedule(timeout -> release(seeker), properties.getOfferTimeout());
+
+                clusterRouter.send(seek.getNodeId(), ClusterMessage.builder()
+                        .type(ClusterMessageType.OFFER)
+                        .playerName(player.getName())
+                        .opponentName(seeker.getName())
+                        .rating(player.getRating()));
+            }
+        });
+    }
+
+    /*
+    The player was claimed from the lobby, but may have been paired or removed by an inbound thread in the meantime.
+    A player still waiting goes back to the lobby if it cannot be held for the seeker.
+     */
+    private boolean holdFor(Player player, RemotePlayer seeker) {
+        if (player.hasOpponent() || player.getStatus() != PlayerStatus.AVAILABLE || !isStored(player)) {
+            return false;
+        }
+        if (playerRepository.exists(seeker.getName()) || !clusterRouter.register(seeker)) {
+            playerRepository.save(player);
+            return false;
+        }
+        seeker.setPrimary(true);
+        player.setPrimary(false);
+
+        seeker.setOpponent(player);
+
+        playerRepository.save(player);
+        playerRepository.save(seeker);
+        return true;
+    }
+
+    /*
+    The stand-in is registered before the game starts, so its START message goes to its node.
+     */
+    private void acceptOffer(ClusterMessage offer) {
+        var offered = new RemotePlayer(offer.getPlayerName(), offer.getNodeId(), false, 0L);
+        offered.setRating(offer.getRating());
+
+        boolean started = clusterRouter.register(offered);
+        if (started && !gameService.startRemoteMatch(offer.getOpponentName(), offered)) {
+            clusterRouter.unregister(offered);
+            started = false;
+        }
+        if (!started) {
+            clusterRouter.send(offer.getNodeId(), ClusterMessage.builder()
+                    .type(ClusterMessageType.RELEASE)
+                    .playerName(offer.getPlayerName())
+                    .opponentName(offer.getOpponentName()));
+        }
+    }
+
+    /*
+    Only a player still held for the seeker goes back, with the time it became available before it was offered.
+     */
+    private void release(RemotePlayer seeker) {
+        var player = seeker.getOpponent();
+
+        if (null == player) {
+            return;
+        }
+        playerLocks.withLocks(player.getName(), seeker.getName(), () -> {
+            if (seeker.isConfirmed() || player.getOpponent() != seeker) {
+                return false;
+            }
+            clusterRouter.unregister(seeker);
+            playerRepository.delete(seeker);
+
+            player.removeOpponent();
+            player.setAvailableSince(seeker.getOfferedSince());
+            if (isStored(player)) {
+                playerRepository.save(player);
+            }
+            return true;
+        });
+    }
+
+    /*
+    A notification about a pairing this node no longer has, e.g. one whose offer timed out, is answered with a
+    DISCONNECT notification, so that the other node gives up its side of it too. The first notification of the host
+    confirms the game.
+     */
+    private void notifyPlayer(ClusterMessage notification) {
+        var playerName = notification.getPlayerName();
+        var gameMessage = notification.getGameMessage();
+        var opponent = clusterRouter.find(notification.getOpponentName())
+                .filter(remotePlayer -> isStandInFor(remotePlayer, notification));
+
+        if (opponent.isPresent() && GameStatus.DISCONNECT == gameMessage.getGameStatus()) {
+            drop(opponent.get());
+            return;
+        }
+        boolean paired = opponent.isPresent() && playerLocks.withLocks(playerName, opponent.get().getName(), () -> {
+            var player = opponent.get().getOpponent();
+
+            if (player.getOpponent() != opponent.get()) {
+                return false;
+            }
+            opponent.get().setConfirmed(true);
+            player.setRating(notification.getRating());
+            return true;
+        });
+
+        if (paired) {
+            notificationService.notifyPlayer(playerName, gameMessage);
+        } else if (GameStatus.DISCONNECT != gameMessage.getGameStatus()) {
+            clusterRouter.reportLeft(notification.getNodeId(), notification.getOpponentName(), playerName);
+        }
+    }
+
+    /*
+    Commands are only taken from the node of the player's stand-in. The reply to a start request is sent like any other
+    notification, and a rejected command is answered with its error, as the controller would.
+     */
+    private void play(ClusterMessage command) {
+        var playerName = command.getPlayerName();
+
+        if (clusterRouter.find(playerName).filter(remotePlayer -> isFromNodeOf(remotePlayer, command)).isEmpty()) {
+            sendError(command, "You have not been paired with an opponent");
+            return;
+        }
+        try {
+            switch (command.getType()) {
+                case START:
+                    ofNullable(gameService.startForPlayer(playerName))
+                            .ifPresent(reply -> notificationService.notifyPlayer(playerName, reply));
+                    break;
+                case NUMBER:
+                    gameService.processRandomNumberFromPlayer(command.getValue(), playerName);
+                    break;
+                default:
+                    var instruction = GameInstruction.builder().move(command.getValue()).build();
+                    gameService.processPlayerMove(playerName, instruction);
+                    break;
+            }
+        } catch (RuntimeException ex) {
+            gameMetrics.countError(ex);
+            sendError(command, ex.getMessage());
+        }
+    }
+
+    private void removePlayersOf(String nodeId) {
+        if (clusterRouter.getNodeId().equals(nodeId)) {
+            return;
+        }
+        clusterRouter.findAllOfNode(nodeId).forEach(this::drop);
+    }
+
+    /*
+    A player held for a seeker who is gone goes back to the lobby without ever hearing of it; a player paired with a
+    player who is gone is told its opponent left.
+     */
+    private void drop(RemotePlayer remotePlayer) {
+        if (remotePlayer.isHost() && !remotePlayer.isConfirmed()) {
+            release(remotePlayer);
+            return;
+        }
+        clusterRouter.unregister(remotePlayer);
+
+        if (isStored(remotePlayer)) {
+            playerService.removePlayer(remotePlayer.getName());
+        }
+    }
+
+    private void sendError(ClusterMessage command, String error) {
+        clusterRouter.send(command.getNodeId(), ClusterMessage.builder()
+                .type(ClusterMessageType.ERROR)
+                .playerName(command.getPlayerName())
+                .content(error));
+    }
+
+    /*
+    A stand-in belongs to the message if it is the sending node's player and paired with the player the message is
+    about.
+     */
+    private static boolean isStandInFor(RemotePlayer remotePlayer, ClusterMessage message) {
+        return isFromNodeOf(remotePlayer, message)
+                && ofNullable(remotePlayer.getOpponent())
+                .filter(opponent -> opponent.getName().equals(message.getPlayerName()))
+                .isPresent();
+    }
+
+    private static boolean isFromNodeOf(RemotePlayer remotePlayer, ClusterMessage message) {
+        return remotePlayer.getNodeId().equals(message.getNodeId());
+    }
+
+    private boolean isFromThisNode(ClusterMessage message) {
+        return clusterRouter.getNodeId().equals(message.getNodeId());
+    }
+
+    private boolean isStored(Player player) {
+        return playerRepository.findByName(player.getName()).orElse(null) == player;
+    }
+}
@@ -0,0 +1,30 @@
+package org.hollaemor.gameofthree.gaming.infrastructure.cluster;
+
+import org.hollaemor.gameofthree.gaming.domain.GameMessage;
+import org.hollaemor.gameofthree.gaming.infrastructure.CompactSessions;
+import org.hollaemor.gameofthree.gaming.infrastructure.bot.BotQueue;
+import org.hollaemor.gameofthree.gaming.infrastructure.outbound.OutboundFlowControl;
+import org.hollaemor.gameofthree.gaming.infrastructure.service.NotificationService;
+import org.springframework.messaging.simp.SimpMessagingTemplate;
+
+/**
+ * Sends notifications for the stand-ins of players of other nodes to those nodes, which deliver them through their own
+ * broker. Players of this node are notified through the local broker.
+ */
+public class ClusterNotificationService extends NotificationService {
+
+    private final ClusterRouter clusterRouter;
+
+    public ClusterNotificationService(SimpMessagingTemplate messagingTemplate, OutboundFlowControl outboundFlowControl,
+                                      BotQueue botQueue, CompactSessions compactSessions, ClusterRouter clusterRouter) {
+        super(messagingTemplate, outboundFlowControl, botQueue, compactSessions);
+        this.clusterRouter = clusterRouter;
+    }
+
+    @Override
+    public void notifyPlayer(String playerName, GameMessage message) {
+        if (!clusterRouter.deliver(playerName, message)) {
+            super.notifyPlayer(playerName, message);
+        }
+    }
+}
@@ -0,0 +1,123 @@
+package org.hollaemor.gameofthree.gaming.infrastructure.cluster;
+
+import lombok.Getter;
+import org.hollaemor.gameofthree.gaming.domain.GameMessage;
+import org.hollaemor.gameofthree.gaming.domain.GameStatus;
+import org.hollaemor.gameofthree.gaming.domain.Player;
+
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.stream.Collectors;
+
+import static java.util.Optional.ofNullable;
+import static org.hollaemor.gameofthree.gaming.domain.GameMessageFactory.buildDisconnectMessage;
+
+/**
+ * The stand-ins for players of other nodes, and the messages about players that go to other nodes. Like bots, the
+ * stand-ins are registered here, so that their notifications are taken in by {@link #deliver} instead of being sent
+ * to a session of this node.
+ */
+public class ClusterRouter {
+
+    @Getter
+    private final String nodeId;
+
+    private final ClusterHub clusterHub;
+
+    private final Map<String, RemotePlayer> remotePlayers = new ConcurrentHashMap<>();
+
+    public ClusterRouter(String nodeId, ClusterHub clusterHub) {
+        this.nodeId = nodeId;
+        this.clusterHub = clusterHub;
+    }
+
+    /**
+     * Returns false if a stand-in of the same name is registered already.
+     */
+    public boolean register(RemotePlayer remotePlayer) {
+        return remotePlayers.putIfAbsent(remotePlayer.getName(), remotePlayer) == null;
+    }
+
+    /*
+    Compared by identity: players are equal by their fields, which include their opponent.
+     */
+    public void unregister(RemotePlayer remotePlayer) {
+        remotePlayers.computeIfPresent(remotePlayer.getName(),
+                (name, registered) -> registered == remotePlayer ? null : registered);
+    }
+
+    public Optional<RemotePlayer> find(String playerName) {
+        return ofNullable(remotePlayers.get(playerName));
+    }
+
+    public List<RemotePlayer> findAllOfNode(String nodeId) {
+        return remotePlayers.values().stream()
+                .filter(remotePlayer -> remotePlayer.getNodeId().equals(nodeId))
+                .collect(Collectors.toList());
+    }
+
+    /**
+     * Passes a notification for a stand-in to the node of its player and returns true, or returns false if the player
+     * is not a stand-in. A DISCONNECT message means the stand-in's opponent left, so the stand-in leaves as well.
+     */
+    public boolean deliver(String playerName, GameMessage message) {
+        var remotePlayer = remotePlayers.get(playerName);
+
+        if (null == remotePlayer) {
+            return false;
+        }
+        if (GameStatus.DISCONNECT == message.getGameStatus()) {
+            unregister(remotePlayer);
+        }
+        send(remotePlayer.getNodeId(), ClusterMessage.builder()
+                .type(ClusterMessageType.NOTIFY)
+                .playerName(playerName)
+                .opponentName(ofNullable(remotePlayer.getOpponent()).map(Player::getName).orElse(null))
+                .rating(remotePlayer.getRating())
+                .gameMessage(message));
+        return true;
+    }
+
+    /**
+     * Tells another node that the opponent of its player is gone from this node, which holds no stand-in for that
+     * player, so that the other node removes its stand-in for the opponent.
+     */
+    public void reportLeft(String nodeId, String playerName, String opponentName) {
+        send(nodeId, ClusterMessage.builder()
+                .type(ClusterMessageType.NOTIFY)
+                .playerName(playerName)
+                .opponentName(opponentName)
+                .gameMessage(buildDisconnectMessage(opponentName)));
+    }
+
+    public void seek(Player player, int rulesFingerprint) {
+        clusterHub.publish(ClusterMessage.builder()
+                .type(ClusterMessageType.SEEK)
+                .nodeId(nodeId)
+                .playerName(player.getName())
+                .rating(player.getRating())
+                .value(rulesFingerprint)
+                .build());
+    }
+
+    /**
+     * Forwards a command of a player of this node to the node hosting its game.
+     */
+    public void forward(RemotePlayer host, ClusterMessageType command, String playerName, int value) {
+        send(host.getNodeId(), ClusterMessage.builder()
+                .type(command)
+                .playerName(playerName)
+                .opponentName(host.getName())
+                .value(value));
+    }
+
+    public void send(String nodeId, ClusterMessage.ClusterMessageBuilder message) {
+        clusterHub.send(nodeId, message.nodeId(this.nodeId).build());
+    }
+
+    public void leaveCluster() {
+        clusterHub.publish(ClusterMessage.builder().type(ClusterMessageType.LEAVE).nodeId(nodeId).build());
+    }
+}
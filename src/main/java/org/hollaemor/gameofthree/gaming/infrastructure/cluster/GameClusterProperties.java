@@ -0,0 +1,38 @@
+package org.hollaemor.gameofthree.gaming.infrastructure.cluster;
+
+import lombok.Getter;
+import lombok.Setter;
+import org.springframework.boot.context.properties.ConfigurationProperties;
+
+import java.time.Duration;
+import java.util.UUID;
+
+/**
+ * Settings of the clustered mode, see {@link ClusterConfig}.
+ */
+@Getter
+@Setter
+@ConfigurationProperties(prefix = "game.cluster")
+public class GameClusterProperties {
+
+    /**
+     * Whether players are paired with players of the other nodes of the cluster. Needs the relay broker mode, since
+     * the nodes exchange their messages through the external broker.
+     */
+    private boolean enabled = false;
+
+    /**
+     * Name of the cluster to join. Nodes only pair players of nodes that joined the same cluster on the same broker.
+     */
+    private String name = "game-of-three";
+
+    /**
+     * Identifier of this node, unique within the cluster. It names the node's queue on the broker.
+     */
+    private String nodeId = UUID.randomUUID().toString();
+
+    /**
+     * How long a player offered to another node is held for it before it goes back to the lobby.
+     */
+    private Duration offerTimeout = Duration.ofSeconds(5);
+}
@@ -0,0 +1,42 @@
+package org.hollaemor.gameofthree.gaming.infrastructure.cluster;
+
+import lombok.Getter;
+import lombok.Setter;
+import org.hollaemor.gameofthree.gaming.domain.Player;
+
+/**
+ * Stands in for a player of another node as the opponent of a player of this node. It is paired, journaled and rated
+ * like any other player, but its notifications are passed to its node by the {@link ClusterRouter}, and it leaves
+ * when its opponent does.
+ */
+public class RemotePlayer extends Player {
+
+    @Getter
+    private final String nodeId;
+
+    /*
+    The node of the player who SEEKed an opponent hosts the game. The offered player's node holds a stand-in for the
+    seeker with host set, forwards the offered player's commands to it, and confirms it on the first notification
+    the host sends.
+     */
+    @Getter
+    private final boolean host;
+
+    /*
+    When the offered player became available, which it gets back if the game does not start, so that its idle and bot
+    timeouts still apply to it.
+     */
+    @Getter
+    private final long offeredSince;
+
+    @Getter
+    @Setter
+    private volatile boolean confirmed;
+
+    public RemotePlayer(String name, String nodeId, boolean host, long offeredSince) {
+        super(name);
+        this.nodeId = nodeId;
+        this.host = host;
+        this.offeredSince = offeredSince;
+    }
+}
@@ -0,0 +1,180 @@
+package org.hollaemor.gameofthree.gaming.infrastructure.cluster;
+
+import lombok.extern.slf4j.Slf4j;
+import org.hollaemor.gameofthree.gaming.infrastructure.broker.GameBrokerProperties;
+import org.springframework.messaging.converter.MappingJackson2MessageConverter;
+import org.springframework.messaging.simp.stomp.ReactorNettyTcpStompClient;
+import org.springframework.messaging.simp.stomp.StompCommand;
+import org.springframework.messaging.simp.stomp.StompHeaders;
+import org.springframework.messaging.simp.stomp.StompSession;
+import org.springframework.messaging.simp.stomp.StompSessionHandlerAdapter;
+import org.springframework.scheduling.concurrent.ThreadPoolTaskScheduler;
+
+import java.lang.reflect.Type;
+import java.time.Duration;
+import java.time.Instant;
+import java.util.function.Consumer;
+
+/**
+ * Cluster hub on the external STOMP broker of the relay mode. Every node has a queue of its own on the broker,
+ * {@code /queue/game-cluster.<cluster>.<node-id>}, and all nodes subscribe to the topic
+ * {@code /topic/game-cluster.<cluster>}. The messages are sent as JSON over a connection of the hub, with the system
+ * credentials and heartbeats of the relay.
+ *
+ * <p>The hub reconnects while the broker is unavailable. Messages sent in the meantime are dropped: the players they
+ * were about are released by the offer timeout, or end their game by the turn timeout.
+ */
+@Slf4j
+public class StompClusterHub implements ClusterHub {
+
+    private static final String DESTINATION_PREFIX = "game-cluster.";
+
+    private static final Duration RECONNECT_DELAY = Duration.ofSeconds(5);
+
+    private final String clusterName;
+    private final GameBrokerProperties.Relay relay;
+    private final ThreadPoolTaskScheduler scheduler;
+    private final ReactorNettyTcpStompClient stompClient;
+
+    private volatile String nodeId;
+    private volatile Consumer<ClusterMessage> receiver;
+    private volatile StompSession session;
+    private volatile boolean joined;
+
+    public StompClusterHub(String clusterName, GameBrokerProperties.Relay relay) {
+        this.clusterName = clusterName;
+        this.relay = relay;
+
+        scheduler = new ThreadPoolTaskScheduler();
+        scheduler.setThreadNamePrefix("game-cluster-hub-");
+        scheduler.setDaemon(true);
+        scheduler.initialize();
+
+        stompClient = new ReactorNettyTcpStompClient(relay.getHost(), relay.getPort());
+        stompClient.setMessageConverter(new MappingJackson2MessageConverter());
+        stompClient.setTaskScheduler(scheduler);
+        stompClient.setDefaultHeartbeat(new long[]{relay.getSystemHeartbeatSendInterval().toMillis(),
+                relay.getSystemHeartbeatReceiveInterval().toMillis()});
+    }
+
+    /**
+     * Whether a destination is one of the hub's, which players must neither send to nor subscribe to through the relay.
+     */
+    public static boolean isClusterDestination(String destination) {
+        return null != destination
+                && (destination.startsWith("/queue/" + DESTINATION_PREFIX)
+                || destination.startsWith("/topic/" + DESTINATION_PREFIX));
+    }
+
+    public boolean isConnected() {
+        var current = session;
+        return null != current && current.isConnected();
+    }
+
+    @Override
+    public void join(String nodeId, Consumer<ClusterMessage> receiver) {
+        this.nodeId = nodeId;
+        this.receiver = receiver;
+        joined = true;
+        connect();
+    }
+
+    @Override
+    public void leave(String nodeId) {
+        joined = false;
+        var current = session;
+
+        if (null != current && current.isConnected()) {
+            current.disconnect();
+        }
+        stompClient.shutdown();
+        scheduler.shutdown();
+    }
+
+    @Override
+    public void send(String nodeId, ClusterMessage message) {
+        sendTo(queueOf(nodeId), message);
+    }
+
+    @Override
+    public void publish(ClusterMessage message) {
+        sendTo(topic(), message);
+    }
+
+    private void sendTo(String destination, ClusterMessage message) {
+        var current = session;
+
+        if (null == current || !current.isConnected()) {
+            log.warn("dropping {} to {}, the broker is not available", message, destination);
+            return;
+        }
+        current.send(destination, message);
+    }
+
+    private void connect() {
+        var headers = new StompHeaders();
+        headers.setLogin(relay.getSystemLogin());
+        headers.setPasscode(relay.getSystemPasscode());
+        if (null != relay.getVirtualHost()) {
+            headers.setHost(relay.getVirtualHost());
+        }
+        stompClient.connect(headers, new SessionHandler());
+    }
+
+    private void reconnectLater() {
+        if (joined) {
+            scheduler.schedule(this::connect, Instant.now().plus(RECONNECT_DELAY));
+        }
+    }
+
+    private String queueOf(String nodeId) {
+        return "/queue/" + DESTINATION_PREFIX + clusterName + "." + nodeId;
+    }
+
+    private String topic() {
+        return "/topic/" + DESTINATION_PREFIX + clusterName;
+    }
+
+
+    /*
+    Connection failures, and the loss of an established connection, both end up in handleTransportError.
+     */
+    private class SessionHandler extends StompSessionHandlerAdapter {
+
+        @Override
+        public void afterConnected(StompSession connected, StompHeaders connectedHeaders) {
+            connected.subscribe(queueOf(nodeId), this);
+            connected.subscribe(topic(), this);
+            session = connected;
+            log.info("node {} joined cluster {} at {}:{}", nodeId, clusterName, relay.getHost(), relay.getPort());
+        }
+
+        @Override
+        public Type getPayloadType(StompHeaders headers) {
+            return ClusterMessage.class;
+        }
+
+        @Override
+        public void handleFrame(StompHeaders headers, Object payload) {
+            receiver.accept((ClusterMessage) payload);
+        }
+
+        @Override
+        public void handleException(StompSession failed, StompCommand command, StompHeaders headers, byte[] payload,
+                                    Throwable exception) {
+            log.warn("could not handle a frame from the cluster", exception);
+        }
+
+        @Override
+        public void handleTransportError(StompSession failed, Throwable exception) {
+            if (session == failed) {
+                session = null;
+            }
+            if (joined) {
+                log.warn("node {} lost the broker at {}:{}, reconnecting in {} s: {}", nodeId, relay.getHost(),
+                        relay.getPort(), RECONNECT_DELAY.toSeconds(), exception.getMessage());
+            }
+            reconnectLater();
+        }
+    }
+}
@@ -0,0 +1,248 @@
+package org.hollaemor.gameofthree.gaming.infrastructure.journal;
+
+import io.micrometer.core.instrument.FunctionCounter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.binder.MeterBinder;
+import lombok.extern.slf4j.Slf4j;
+import org.hollaemor.gameofthree.gaming.domain.Game;
+import org.springframework.beans.factory.DisposableBean;
+import org.springframework.beans.factory.InitializingBean;
+import org.springframework.stereotype.Component;
+
+import java.io.IOException;
+import java.nio.MappedByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.BlockingQueue;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * Append-only journal of the state transitions of the games. The transitions are handed to a single writer thread,
+ * which copies them into a memory-mapped segment file and forces the segment to disk once per batch of records, so
+ * the threads playing the games never wait for the disk. A segment that is full is forced and the next one is
+ * started; the segments are read back with a {@link JournalReader}.
+ *
+ * <p>Records that arrive while the writer's queue is full are dropped and counted. Nothing is recorded unless
+ * {@code game.journal.enabled} is set.
+ */
+@Slf4j
+@Component
+public class GameJournal implements InitializingBean, DisposableBean, MeterBinder {
+
+    private static final long IDLE_POLL_MILLIS = 100;
+    private static final int MAX_BATCH = 1024;
+
+    private final GameJournalProperties properties;
+    private final BlockingQueue<JournalRecord> queue;
+
+    private final LongAdder appendedRecords = new LongAdder();
+    private final LongAdder droppedRecords = new LongAdder();
+
+    private volatile Thread writer;
+    private volatile boolean running;
+
+    private MappedByteBuffer segment;
+    private int position;
+    private long nextSequence = 1;
+    private long lastForce;
+    private boolean unforced;
+
+    public GameJournal(GameJournalProperties properties) {
+        this.properties = properties;
+        this.queue = new ArrayBlockingQueue<>(Math.max(1, properties.getQueueCapacity()));
+    }
+
+    @Override
+    public void bindTo(MeterRegistry registry) {
+        FunctionCounter.builder("game.journal.appended", this, GameJournal::getAppendedRecords)
+                .description("Records written to the game journal")
+                .register(registry);
+
+        FunctionCounter.builder("game.journal.dropped", this, GameJournal::getDroppedRecords)
+                .description("Records dropped because the journal writer could not keep up or failed")
+                .register(registry);
+
+        Gauge.builder("game.journal.queued", this, GameJournal::getQueuedRecords)
+                .description("Records waiting for the journal writer")
+                .register(registry);
+    }
+
+    public boolean isEnabled() {
+        return properties.isEnabled();
+    }
+
+    public void paired(Game game) {
+        append(JournalRecordType.PAIR, game.getId(), game.getPrimaryPlayerName(), game.getSecondaryPlayerName(),
+                game.getRules().getFingerprint(), 0);
+    }
+
+    public void numberSent(Game game, String playerName, int randomNumber) {
+        append(JournalRecordType.NUMBER, game.getId(), playerName, game.opponentOf(playerName), randomNumber, 0);
+    }
+
+    public void moved(Game game, String playerName, int move, int valueAfterDivision) {
+        append(JournalRecordType.MOVE, game.getId(), playerName, game.opponentOf(playerName), valueAfterDivision, move);
+    }
+
+    public void gameOver(Game game, String winnerName) {
+        append(JournalRecordType.GAMEOVER, game.getId(), winnerName, game.opponentOf(winnerName), 1, 0);
+    }
+
+    public void disconnected(long gameId, String playerName, String opponentName) {
+        append(JournalRecordType.DISCONNECT, gameId, playerName, opponentName, 0, 0);
+    }
+
+    public long getAppendedRecords() {
+        return appendedRecords.sum();
+    }
+
+    public long getDroppedRecords() {
+        return droppedRecords.sum();
+    }
+
+    public int getQueuedRecords() {
+        return queue.size();
+    }
+
+    @Override
+    public void afterPropertiesSet() throws IOException {
+        if (!properties.isEnabled()) {
+            return;
+        }
+        Files.createDirectories(properties.getDirectory());
+        openLastSegment();
+
+        lastForce = System.nanoTime();
+        running = true;
+        writer = new Thread(this::write, "game-journal");
+        writer.start();
+    }
+
+    /*
+    The writer drains what was queued before it stops, so a clean shutdown loses no records.
+     */
+    @Override
+    public void destroy() throws InterruptedException {
+        var thread = writer;
+        if (null == thread) {
+            return;
+        }
+        running = false;
+        thread.join(TimeUnit.SECONDS.toMillis(10));
+        writer = null;
+    }
+
+    private void append(JournalRecordType type, long gameId, String playerName, String opponentName, int value, int move) {
+        if (null == writer) {
+            return;
+        }
+        if (!queue.offer(new JournalRecord(type, gameId, playerName, opponentName, value, move))) {
+            droppedRecords.increment();
+        }
+    }
+
+    private void write() {
+        var batch = new ArrayList<JournalRecord>(MAX_BATCH);
+
+        while (running || !queue.isEmpty()) {
+            try {
+                var first = queue.poll(IDLE_POLL_MILLIS, TimeUnit.MILLISECONDS);
+                if (null == first) {
+                    force();
+                    continue;
+                }
+                batch.add(first);
+                queue.drainTo(batch, MAX_BATCH - 1);
+
+                writeBatch(batch);
+            } catch (InterruptedException ex) {
+                Thread.currentThread().interrupt();
+                break;
+            } catch (IOException | RuntimeException ex) {
+                log.error("could not write {} journal records", batch.size(), ex);
+                droppedRecords.add(batch.size());
+            } finally {
+                batch.clear();
+            }
+        }
+        force();
+    }
+
+    /*
+    Group commit: the whole batch goes out with a single force, or with none if the last one was less than the force
+    interval ago.
+     */
+    private void writeBatch(List<JournalRecord> batch) throws IOException {
+        for (var record : batch) {
+            if (position + JournalRecord.SIZE > segment.capacity()) {
+                force();
+                openSegment(nextSequence);
+            }
+            record.writeTo(segment, position, nextSequence++);
+            position += JournalRecord.SIZE;
+        }
+        appendedRecords.add(batch.size());
+        unforced = true;
+
+        long now = System.nanoTime();
+        if (now - lastForce >= properties.getForceInterval().toNanos()) {
+            force();
+            lastForce = now;
+        }
+    }
+
+    /*
+    Also called when the writer is idle, so the records of the last batch before a pause are not left unforced.
+     */
+    private void force() {
+        if (unforced) {
+            segment.force();
+            unforced = false;
+        }
+    }
+
+    /*
+    Appending goes on after the last complete record of the newest segment, overwriting whatever a crash left behind
+    it.
+     */
+    private void openLastSegment() throws IOException {
+        var segments = JournalReader.segmentsIn(properties.getDirectory());
+
+        if (segments.isEmpty()) {
+            openSegment(nextSequence);
+            return;
+        }
+        segment = map(segments.get(segments.size() - 1));
+        nextSequence = JournalReader.firstSequenceOf(segments.get(segments.size() - 1));
+
+        JournalRecord record;
+        while (position + JournalRecord.SIZE <= segment.capacity()
+                && null != (record = JournalRecord.readFrom(segment, position))
+                && record.getSequence() == nextSequence) {
+            position += JournalRecord.SIZE;
+            nextSequence++;
+        }
+        log.info("appending to the game journal in {} from record {}", properties.getDirectory(), nextSequence);
+    }
+
+    private void openSegment(long firstSequence) throws IOException {
+        segment = map(JournalReader.segmentPath(properties.getDirectory(), firstSequence));
+        position = 0;
+    }
+
+    private MappedByteBuffer map(Path path) throws IOException {
+        long recordsPerSegment = Math.max(1, properties.getSegmentSize().toBytes() / JournalRecord.SIZE);
+        long size = Math.min(recordsPerSegment * JournalRecord.SIZE, Integer.MAX_VALUE / JournalRecord.SIZE * JournalRecord.SIZE);
+
+        try (var channel = FileChannel.open(path, StandardOpenOption.CREATE, StandardOpenOption.READ, StandardOpenOption.WRITE)) {
+            return channel.map(FileChannel.MapMode.READ_WRITE, 0, Math.max(size, channel.size()));
+        }
+    }
+}
@@ -0,0 +1,60 @@
+package org.hollaemor.gameofthree.gaming.infrastructure.journal;
+
+import lombok.Getter;
+import lombok.Setter;
+import org.springframework.boot.context.properties.ConfigurationProperties;
+import org.springframework.util.unit.DataSize;
+
+import java.nio.file.Path;
+import java.time.Duration;
+
+/**
+ * Settings of the game journal, see {@link GameJournal}.
+ */
+@Getter
+@Setter
+@ConfigurationProperties(prefix = "game.journal")
+public class GameJournalProperties {
+
+    /**
+     * Whether the state transitions of the games are recorded.
+     */
+    private boolean enabled = false;
+
+    /**
+     * Directory of the segment files.
+     */
+    private Path directory = Path.of("journal");
+
+    /**
+     * Size of one segment file, rounded down to whole records.
+     */
+    private DataSize segmentSize = DataSize.ofMegabytes(64);
+
+    /**
+     * Records that may wait for the writer. Records that do not fit are dropped and counted rather than holding up
+     * the game.
+     */
+    private int queueCapacity = 65_536;
+
+    /**
+     * Minimum time between two forces of the segment to disk. Zero forces after every batch of records written.
+     */
+    private Duration forceInterval = Duration.ZERO;
+
+    /**
+     * Time between two snapshots of the games recorded in the journal.
+     */
+    private Duration snapshotInterval = Duration.ofSeconds(30);
+
+    /**
+     * Snapshots kept in the journal directory; older ones are deleted.
+     */
+    private int snapshotsRetained = 2;
+
+    /**
+     * Time the players of games restored at startup have to reconnect before they are removed, releasing their
+     * opponents.
+     */
+    private Duration reconnectTimeout = Duration.ofMinutes(2);
+}
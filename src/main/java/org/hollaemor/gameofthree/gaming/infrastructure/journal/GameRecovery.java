@@ -0,0 +1,245 @@
+package org.hollaemor.gameofthree.gaming.infrastructure.journal;
+
+import lombok.extern.slf4j.Slf4j;
+import org.hollaemor.gameofthree.gaming.domain.Game;
+import org.hollaemor.gameofthree.gaming.domain.GameRules;
+import org.hollaemor.gameofthree.gaming.domain.Player;
+import org.hollaemor.gameofthree.gaming.infrastructure.repository.GameRepository;
+import org.hollaemor.gameofthree.gaming.infrastructure.repository.PlayerRepository;
+import org.hollaemor.gameofthree.gaming.infrastructure.service.PlayerService;
+import org.springframework.beans.factory.DisposableBean;
+import org.springframework.beans.factory.InitializingBean;
+import org.springframework.scheduling.concurrent.CustomizableThreadFactory;
+import org.springframework.stereotype.Component;
+
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.TimeUnit;
+import java.util.regex.Pattern;
+import java.util.stream.Collectors;
+
+/**
+ * Restores the games recorded in the game journal at startup, and takes snapshots of them while the server runs. The
+ * newest snapshot is loaded and the journal records after it are replayed. The players of every game are added as
+ * detached players, who get their opponent and the state of their game back when they reconnect with the same
+ * username. Players who do not reconnect within {@code reconnect-timeout} are removed like disconnected ones. New
+ * games get ids above the highest one recorded, including those of games that ended before the restart.
+ *
+ * <p>Snapshots are taken on their own thread from a {@link JournalProjection} that follows the journal, so they cost
+ * the game threads nothing, and only the records since the last snapshot have to be replayed on the next start.
+ * Segments holding only records that every retained snapshot already contains are deleted after each snapshot.
+ */
+@Slf4j
+@Component
+public class GameRecovery implements InitializingBean, DisposableBean {
+
+    private static final Pattern SNAPSHOT_NAME = Pattern.compile("\\d{20}\\.snapshot");
+
+    private final GameJournalProperties properties;
+    private final PlayerRepository playerRepository;
+    private final GameRepository gameRepository;
+    private final PlayerService playerService;
+    private final GameRules gameRules;
+    private final JournalReader reader;
+
+    private JournalProjection projection;
+    private volatile long snapshotSequence;
+
+    private ScheduledExecutorService scheduler;
+
+    public GameRecovery(GameJournalProperties properties, PlayerRepository playerRepository,
+                        GameRepository gameRepository, PlayerService playerService, GameRules gameRules) {
+        this.properties = properties;
+        this.playerRepository = playerRepository;
+        this.gameRepository = gameRepository;
+        this.playerService = playerService;
+        this.gameRules = gameRules;
+        this.projection = new JournalProjection(gameRules);
+        this.reader = new JournalReader(properties.getDirectory());
+    }
+
+    @Override
+    public void afterPropertiesSet() throws IOException {
+        if (!properties.isEnabled()) {
+            return;
+        }
+        Files.createDirectories(properties.getDirectory());
+        var restoredPlayers = recover();
+
+        var threadFactory = new CustomizableThreadFactory("game-snapshot-");
+        threadFactory.setDaemon(true);
+        scheduler = Executors.newSingleThreadScheduledExecutor(threadFactory);
+
+        long snapshotMillis = properties.getSnapshotInterval().toMillis();
+        scheduler.scheduleWithFixedDelay(this::snapshot, snapshotMillis, snapshotMillis, TimeUnit.MILLISECONDS);
+
+        if (!restoredPlayers.isEmpty()) {
+            scheduler.schedule(() -> removeUnclaimed(restoredPlayers),
+                    properties.getReconnectTimeout().toMillis(), TimeUnit.MILLISECONDS);
+        }
+    }
+
+    @Override
+    public void destroy() {
+        if (null != scheduler) {
+            scheduler.shutdownNow();
+        }
+    }
+
+    /**
+     * Restores the games of the newest snapshot and the journal records after it, and returns the names of the
+     * players restored.
+     */
+    public synchronized List<String> recover() throws IOException {
+        long start = System.nanoTime();
+
+        projection = loadNewestSnapshot();
+        snapshotSequence = projection.getSequence();
+        long lastSequence = reader.read(snapshotSequence + 1, projection::apply);
+
+        var restoredPlayers = new ArrayList<String>();
+        gameRepository.reserveIdsUpTo(projection.getHighestGameId());
+        projection.games().forEach(game -> restore(game, restoredPlayers));
+
+        log.info("restored {} games from snapshot {} and {} journal records in {} ms", restoredPlayers.size() / 2,
+                snapshotSequence, lastSequence - snapshotSequence, TimeUnit.NANOSECONDS.toMillis(System.nanoTime() - start));
+        return restoredPlayers;
+    }
+
+    /**
+     * Brings the projection up to date with the journal and writes a snapshot of it, unless nothing was recorded
+     * since the last one. Returns the sequence number of the last record in the snapshot.
+     */
+    public long snapshot() {
+        try {
+            var copy = advanceProjection();
+
+            if (null != copy) {
+                copy.writeTo(snapshotPath(copy.getSequence()));
+                snapshotWritten(copy.getSequence());
+            }
+        } catch (IOException | RuntimeException ex) {
+            log.warn("could not take a snapshot of the game journal", ex);
+        }
+        return snapshotSequence;
+    }
+
+    /*
+    The snapshot is written from a copy taken once the projection is up to date, so that the games and ratings in it
+    add up to exactly the records up to its sequence number, even if the projection moves on while it is written.
+    Returns null if nothing was recorded since the last snapshot.
+     */
+    private synchronized JournalProjection advanceProjection() throws IOException {
+        reader.read(projection.getSequence() + 1, projection::apply);
+
+        return projection.getSequence() > snapshotSequence ? projection.copy() : null;
+    }
+
+    private synchronized void snapshotWritten(long sequence) throws IOException {
+        snapshotSequence = Math.max(snapshotSequence, sequence);
+        deleteOldSnapshots();
+        deleteReplayedSegments();
+    }
+
+    /*
+    A player connected under the same name since the restart keeps its new session; the game is not restored then.
+     */
+    private void restore(Game game, List<String> restoredPlayers) {
+        if (playerRepository.exists(game.getPrimaryPlayerName()) || playerRepository.exists(game.getSecondaryPlayerName())) {
+            return;
+        }
+        var primaryPlayer = detachedPlayer(game.getPrimaryPlayerName());
+        var secondaryPlayer = detachedPlayer(game.getSecondaryPlayerName());
+        primaryPlayer.setPrimary(true);
+        primaryPlayer.setOpponent(secondaryPlayer);
+
+        playerRepository.save(primaryPlayer);
+        playerRepository.save(secondaryPlayer);
+        gameRepository.save(new Game(game.getId(), game.getPrimaryPlayerName(), game.getSecondaryPlayerName(),
+                game.getRules(), game.getCreatedAt(), game.getCurrentValue(),
+                game.isTurnOf(game.getPrimaryPlayerName()), game.getMoveCount(), game.getUpdatedAt()));
+
+        restoredPlayers.add(primaryPlayer.getName());
+        restoredPlayers.add(secondaryPlayer.getName());
+    }
+
+    private Player detachedPlayer(String playerName) {
+        var player = new Player(playerName);
+        player.setRating(projection.ratingOf(playerName));
+        player.setDetached(true);
+        return player;
+    }
+
+    /*
+    Every player is claimed before any is removed, so that no session re-attaches a player while its opponent's
+    removal releases it.
+     */
+    void removeUnclaimed(List<String> restoredPlayers) {
+        var unclaimed = restoredPlayers.stream()
+                .filter(playerName -> playerRepository.findByName(playerName).filter(Player::reattach).isPresent())
+                .collect(Collectors.toList());
+
+        log.info("removing {} restored players who did not reconnect", unclaimed.size());
+        unclaimed.forEach(playerService::removePlayer);
+    }
+
+    private JournalProjection loadNewestSnapshot() throws IOException {
+        var snapshots = snapshots();
+
+        for (int i = snapshots.size() - 1; i >= 0; i--) {
+            try {
+                return JournalProjection.readFrom(snapshots.get(i), gameRules);
+            } catch (IOException | RuntimeException ex) {
+                log.warn("skipping snapshot {}", snapshots.get(i), ex);
+            }
+        }
+        return new JournalProjection(gameRules);
+    }
+
+    private void deleteOldSnapshots() throws IOException {
+        var snapshots = snapshots();
+
+        for (int i = 0; i < snapshots.size() - Math.max(1, properties.getSnapshotsRetained()); i++) {
+            Files.deleteIfExists(snapshots.get(i));
+        }
+    }
+
+    /*
+    The oldest retained snapshot is the one recovery falls back to last, so the records after it are kept. The last
+    segment is never deleted, as the journal is still appending to it.
+     */
+    private void deleteReplayedSegments() throws IOException {
+        var snapshots = snapshots();
+        if (snapshots.isEmpty()) {
+            return;
+        }
+        long keepFrom = sequenceOf(snapshots.get(0)) + 1;
+        var segments = reader.segments();
+
+        for (int i = 0; i + 1 < segments.size() && JournalReader.firstSequenceOf(segments.get(i + 1)) <= keepFrom; i++) {
+            Files.deleteIfExists(segments.get(i));
+        }
+    }
+
+    private List<Path> snapshots() throws IOException {
+        try (var files = Files.list(properties.getDirectory())) {
+            return files.filter(file -> SNAPSHOT_NAME.matcher(file.getFileName().toString()).matches())
+                    .sorted()
+                    .collect(Collectors.toList());
+        }
+    }
+
+    private static long sequenceOf(Path snapshot) {
+        var fileName = snapshot.getFileName().toString();
+        return Long.parseLong(fileName.substring(0, fileName.indexOf('.')));
+    }
+
+    private Path snapshotPath(long sequence) {
+        return properties.getDirectory().resolve(String.format("%020d.snapshot", sequence));
+    }
+}
@@ -0,0 +1,9 @@
+package org.hollaemor.gameofthree.gaming.infrastructure.journal;
+
+import org.springframework.boot.context.properties.EnableConfigurationProperties;
+import org.springframework.context.annotation.Configuration;
+
+@Configuration
+@EnableConfigurationProperties(GameJournalProperties.class)
+public class JournalConfig {
+}
@@ -0,0 +1,285 @@
+package org.hollaemor.gameofthree.gaming.infrastructure.journal;
+
+import lombok.Getter;
+import lombok.extern.slf4j.Slf4j;
+import org.hollaemor.gameofthree.gaming.domain.EloRating;
+import org.hollaemor.gameofthree.gaming.domain.Game;
+import org.hollaemor.gameofthree.gaming.domain.GameRules;
+import org.hollaemor.gameofthree.gaming.domain.Player;
+
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
+import java.io.DataInputStream;
+import java.io.DataOutputStream;
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardCopyOption;
+import java.util.Collection;
+import java.util.HashMap;
+import java.util.IdentityHashMap;
+import java.util.Map;
+import java.util.Optional;
+import java.util.zip.CRC32C;
+
+import static java.util.Optional.ofNullable;
+
+/**
+ * The games and player ratings that the journal adds up to, as of record {@link #getSequence()}. Snapshots are
+ * written from a projection kept by the snapshot thread, so taking one neither locks nor copies the live repositories.
+ *
+ * <p>Records with cut-off names are skipped, so players with names longer than {@link JournalRecord#MAX_NAME_BYTES}
+ * bytes are not restored. A game whose records do not add up, e.g. because one of them was dropped, is left out.
+ *
+ * <p>Games are replayed by the rules of the projection, which are the ones of the running server. The journal records
+ * the fingerprint of the rules every game was started with, and a snapshot the fingerprint of its projection's rules,
+ * so games played by other rules before a restart are left out rather than restored by rules they were not played
+ * by. Games recorded before the rules were, with a fingerprint of 0, are replayed by the projection's rules.
+ *
+ * <p>The highest game id recorded is kept even once its game is left out, over or disconnected, so that games started
+ * after a restart get new ids.
+ */
+@Slf4j
+public class JournalProjection {
+
+    private static final int MAGIC = 0x47335350;
+    private static final int VERSION = 3;
+
+    /*
+    Snapshots of version 1 do not hold the fingerprint of the rules, and those of versions 1 and 2 not the highest game
+    id, which is then the highest one of their games.
+     */
+    private static final int UNRECORDED_RULES_VERSION = 1;
+    private static final int UNRECORDED_GAME_ID_VERSION = 2;
+
+    private final GameRules rules;
+
+    /*
+    The game of every player, like the game repository. Players keep their game after it is over, until a rematch
+    replaces it or one of them disconnects. A game over record for a game still in progress ends it: the player whose
+    turn it was ran out of time.
+     */
+    private final Map<String, Game> gamesByPlayer = new HashMap<>();
+
+    /*
+    Ratings of the players who finished a game, until they disconnect.
+     */
+    private final Map<String, Integer> ratings = new HashMap<>();
+
+    @Getter
+    private long sequence;
+
+    @Getter
+    private long highestGameId;
+
+    public JournalProjection() {
+        this(GameRules.CLASSIC);
+    }
+
+    public JournalProjection(GameRules rules) {
+        this.rules = rules;
+    }
+
+    public void apply(JournalRecord record) {
+        if (record.getSequence() <= sequence) {
+            return;
+        }
+        sequence = record.getSequence();
+        highestGameId = Math.max(highestGameId, record.getGameId());
+
+        if (record.hasTruncatedNames()) {
+            return;
+        }
+        try {
+            switch (record.getType()) {
+                case PAIR:
+                    pair(record);
+                    break;
+                case NUMBER:
+                    gameOf(record).ifPresent(game -> game.start(record.getPlayerName(), record.getValue()));
+                    break;
+                case MOVE:
+                    gameOf(record).ifPresent(game -> move(game, record));
+                    break;
+                case GAMEOVER:
+                    gameOf(record).ifPresent(game -> game.timeOut(game.getTurn()));
+                    updateRatings(record.getPlayerName(), record.getOpponentName());
+                    break;
+                case DISCONNECT:
+                    ofNullable(gamesByPlayer.get(record.getPlayerName())).ifPresent(this::remove);
+                    ratings.remove(record.getPlayerName());
+                    break;
+                default:
+                    break;
+            }
+        } catch (RuntimeException ex) {
+            log.debug("leaving out game {}, record {} does not apply to it", record.getGameId(), record, ex);
+            gameOf(record).ifPresent(this::remove);
+        }
+    }
+
+    public Collection<Game> games() {
+        var games = new IdentityHashMap<Game, Game>();
+        gamesByPlayer.values().forEach(game -> games.put(game, game));
+        return games.keySet();
+    }
+
+    public int ratingOf(String playerName) {
+        return ratings.getOrDefault(playerName, EloRating.INITIAL_RATING);
+    }
+
+    /**
+     * Writes the projection to {@code file}, replacing it only once it is complete.
+     */
+    public void writeTo(Path file) throws IOException {
+        var bytes = new ByteArrayOutputStream(64 + gamesByPlayer.size() * 48 + ratings.size() * 24);
+        var out = new DataOutputStream(bytes);
+
+        out.writeInt(MAGIC);
+        out.writeInt(VERSION);
+        out.writeLong(sequence);
+        out.writeInt(rules.getFingerprint());
+        out.writeLong(highestGameId);
+
+        var games = games();
+        out.writeInt(games.size());
+        for (var game : games) {
+            out.writeLong(game.getId());
+            out.writeUTF(game.getPrimaryPlayerName());
+            out.writeUTF(game.getSecondaryPlayerName());
+            out.writeLong(game.getCreatedAt());
+            out.writeLong(game.getUpdatedAt());
+            out.writeInt(game.getCurrentValue());
+            out.writeBoolean(game.isTurnOf(game.getPrimaryPlayerName()));
+            out.writeInt(game.getMoveCount());
+        }
+
+        out.writeInt(ratings.size());
+        for (var rating : ratings.entrySet()) {
+            out.writeUTF(rating.getKey());
+            out.writeInt(rating.getValue());
+        }
+        out.writeInt(checksum(bytes.toByteArray(), bytes.size()));
+
+        var temporary = file.resolveSibling(file.getFileName() + ".tmp");
+        Files.write(temporary, bytes.toByteArray());
+        Files.move(temporary, file, StandardCopyOption.REPLACE_EXISTING, StandardCopyOption.ATOMIC_MOVE);
+    }
+
+    public static JournalProjection readFrom(Path file, GameRules rules) throws IOException {
+        var bytes = Files.readAllBytes(file);
+        var in = new DataInputStream(new ByteArrayInputStream(bytes));
+
+        int checksumAt = bytes.length - Integer.BYTES;
+
+        if (checksumAt < 16 || in.readInt() != MAGIC
+                || checksum(bytes, checksumAt) != ByteBuffer.wrap(bytes).getInt(checksumAt)) {
+            throw new IOException("Not a complete snapshot: " + file);
+        }
+        int version = in.readInt();
+        if (version < UNRECORDED_RULES_VERSION || version > VERSION) {
+            throw new IOException("Unknown snapshot version " + version + ": " + file);
+        }
+
+        var projection = new JournalProjection(rules);
+        projection.sequence = in.readLong();
+
+        boolean sameRules = version == UNRECORDED_RULES_VERSION || in.readInt() == rules.getFingerprint();
+        if (!sameRules) {
+            log.warn("leaving out the games of snapshot {}, they were played by other rules", file);
+        }
+        if (version > UNRECORDED_GAME_ID_VERSION) {
+            projection.highestGameId = in.readLong();
+        }
+
+        for (int games = in.readInt(); games > 0; games--) {
+            long id = in.readLong();
+            var primaryPlayerName = in.readUTF();
+            var secondaryPlayerName = in.readUTF();
+            long createdAt = in.readLong();
+            long updatedAt = in.readLong();
+            int currentValue = in.readInt();
+            boolean primaryPlayerTurn = in.readBoolean();
+            int moveCount = in.readInt();
+
+            projection.highestGameId = Math.max(projection.highestGameId, id);
+            if (sameRules) {
+                projection.put(new Game(id, primaryPlayerName, secondaryPlayerName, rules, createdAt, currentValue,
+                        primaryPlayerTurn, moveCount, updatedAt));
+            }
+        }
+        for (int ratings = in.readInt(); ratings > 0; ratings--) {
+            projection.ratings.put(in.readUTF(), in.readInt());
+        }
+        return projection;
+    }
+
+    /**
+     * A consistent copy of the projection, which is not changed by the records applied to this one afterwards.
+     */
+    public JournalProjection copy() {
+        var copy = new JournalProjection(rules);
+        copy.sequence = sequence;
+        copy.highestGameId = highestGameId;
+        copy.ratings.putAll(ratings);
+        games().forEach(game -> copy.put(new Game(game.getId(), game.getPrimaryPlayerName(),
+                game.getSecondaryPlayerName(), rules, game.getCreatedAt(), game.getCurrentValue(),
+                game.isTurnOf(game.getPrimaryPlayerName()), game.getMoveCount(), game.getUpdatedAt())));
+        return copy;
+    }
+
+    private void pair(JournalRecord record) {
+        ofNullable(gamesByPlayer.get(record.getPlayerName())).ifPresent(this::remove);
+        ofNullable(gamesByPlayer.get(record.getOpponentName())).ifPresent(this::remove);
+
+        if (record.getValue() != 0 && record.getValue() != rules.getFingerprint()) {
+            log.debug("leaving out game {}, it was played by other rules", record.getGameId());
+            return;
+        }
+
+        put(new Game(record.getGameId(), record.getPlayerName(), record.getOpponentName(), rules,
+                record.getTimestamp(), 0, false, 0, record.getTimestamp()));
+    }
+
+    private void move(Game game, JournalRecord record) {
+        int value = game.play(record.getPlayerName(), record.getMove());
+
+        if (value != record.getValue()) {
+            throw new IllegalStateException("Move leads to " + value + " instead of " + record.getValue());
+        }
+    }
+
+    private void updateRatings(String winnerName, String loserName) {
+        var winner = new Player(winnerName);
+        var loser = new Player(loserName);
+        winner.setRating(ratingOf(winnerName));
+        loser.setRating(ratingOf(loserName));
+
+        EloRating.update(winner, loser);
+
+        ratings.put(winnerName, winner.getRating());
+        ratings.put(loserName, loser.getRating());
+    }
+
+    private Optional<Game> gameOf(JournalRecord record) {
+        return ofNullable(gamesByPlayer.get(record.getPlayerName()))
+                .filter(game -> game.getId() == record.getGameId());
+    }
+
+    private void put(Game game) {
+        gamesByPlayer.put(game.getPrimaryPlayerName(), game);
+        gamesByPlayer.put(game.getSecondaryPlayerName(), game);
+    }
+
+    private void remove(Game game) {
+        gamesByPlayer.remove(game.getPrimaryPlayerName(), game);
+        gamesByPlayer.remove(game.getSecondaryPlayerName(), game);
+    }
+
+    private static int checksum(byte[] bytes, int length) {
+        var crc = new CRC32C();
+        crc.update(bytes, 0, length);
+        return (int) crc.getValue();
+    }
+}
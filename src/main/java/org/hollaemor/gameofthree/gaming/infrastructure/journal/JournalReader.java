@@ -0,0 +1,103 @@
+package org.hollaemor.gameofthree.gaming.infrastructure.journal;
+
+import java.io.IOException;
+import java.nio.MappedByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.List;
+import java.util.function.Consumer;
+import java.util.regex.Pattern;
+import java.util.stream.Collectors;
+
+/**
+ * Reads the records of a game journal in the order they were appended, for replay or analytics. The segments are
+ * mapped read-only, so a journal can be read while the server is appending to it; reading stops at the first record
+ * that is not completely written.
+ *
+ * <pre>
+ * new JournalReader(Path.of("journal")).read(1, record -> ...);
+ * </pre>
+ */
+public class JournalReader {
+
+    private static final Pattern SEGMENT_NAME = Pattern.compile("(\\d{20})\\.journal");
+
+    private final Path directory;
+
+    public JournalReader(Path directory) {
+        this.directory = directory;
+    }
+
+    /**
+     * Hands the records from sequence number {@code fromSequence} on to {@code consumer}.
+     *
+     * @return the sequence number of the last record read, or {@code fromSequence - 1} if there was none
+     */
+    public long read(long fromSequence, Consumer<JournalRecord> consumer) throws IOException {
+        var segments = segmentsIn(directory);
+        long expected = fromSequence;
+
+        for (int i = 0; i < segments.size(); i++) {
+            boolean hasNext = i + 1 < segments.size();
+            if (hasNext && firstSequenceOf(segments.get(i + 1)) <= fromSequence) {
+                continue;
+            }
+
+            var segment = map(segments.get(i));
+            long sequence = firstSequenceOf(segments.get(i));
+            long offset = Math.max(0, (expected - sequence) * JournalRecord.SIZE);
+            expected = Math.max(expected, sequence);
+
+            for (; offset + JournalRecord.SIZE <= segment.capacity(); offset += JournalRecord.SIZE) {
+                var record = JournalRecord.readFrom(segment, (int) offset);
+                if (null == record || record.getSequence() != expected) {
+                    break;
+                }
+                consumer.accept(record);
+                expected++;
+            }
+
+            if (!hasNext || firstSequenceOf(segments.get(i + 1)) != expected) {
+                break;
+            }
+        }
+        return expected - 1;
+    }
+
+    public List<Path> segments() throws IOException {
+        return segmentsIn(directory);
+    }
+
+    static List<Path> segmentsIn(Path directory) throws IOException {
+        if (!Files.isDirectory(directory)) {
+            return List.of();
+        }
+        try (var files = Files.list(directory)) {
+            return files.filter(file -> SEGMENT_NAME.matcher(file.getFileName().toString()).matches())
+                    .sorted()
+                    .collect(Collectors.toList());
+        }
+    }
+
+    /*
+    Segments are named after the sequence number of their first record, zero-padded so that they sort by name.
+     */
+    static Path segmentPath(Path directory, long firstSequence) {
+        return directory.resolve(String.format("%020d.journal", firstSequence));
+    }
+
+    static long firstSequenceOf(Path segment) {
+        var matcher = SEGMENT_NAME.matcher(segment.getFileName().toString());
+        if (!matcher.matches()) {
+            throw new IllegalArgumentException("Not a journal segment: " + segment);
+        }
+        return Long.parseLong(matcher.group(1));
+    }
+
+    private static MappedByteBuffer map(Path segment) throws IOException {
+        try (var channel = FileChannel.open(segment)) {
+            return channel.map(FileChannel.MapMode.READ_ONLY, 0, channel.size());
+        }
+    }
+}
@@ -0,0 +1,156 @@
+package org.hollaemor.gameofthree.gaming.infrastructure.journal;
+
+import lombok.Getter;
+
+import java.nio.ByteBuffer;
+import java.nio.charset.StandardCharsets;
+import java.util.zip.CRC32C;
+
+/**
+ * One state transition of a game, stored as a fixed-size record of {@link #SIZE} bytes:
+ *
+ * <pre>
+ *   0  sequence      long, from 1; 0 marks the end of the written records
+ *   8  timestamp     long, epoch millis of the transition
+ *  16  game id       long, 0 if the player had no game
+ *  24  type          byte, see {@link JournalRecordType}
+ *  25  flags         byte, see {@link #TRUNCATED_NAMES}
+ *  28  value         int
+ *  32  move          int
+ *  36  player        byte length + {@value #MAX_NAME_BYTES} bytes of UTF-8
+ *  80  opponent      byte length + {@value #MAX_NAME_BYTES} bytes of UTF-8
+ * 124  checksum      int, CRC32C of the bytes before it
+ * </pre>
+ *
+ * All numbers are big-endian.
+ */
+@Getter
+public class JournalRecord {
+
+    public static final int SIZE = 128;
+    public static final int MAX_NAME_BYTES = 43;
+
+    /**
+     * Set when a name was longer than {@link #MAX_NAME_BYTES} bytes and was cut off.
+     */
+    public static final byte TRUNCATED_NAMES = 1;
+
+    private static final int TIMESTAMP = 8;
+    private static final int GAME_ID = 16;
+    private static final int TYPE = 24;
+    private static final int FLAGS = 25;
+    private static final int VALUE = 28;
+    private static final int MOVE = 32;
+    private static final int PLAYER = 36;
+    private static final int OPPONENT = 80;
+    private static final int CHECKSUM = 124;
+
+    private final long sequence;
+    private final long timestamp;
+    private final JournalRecordType type;
+    private final long gameId;
+    private final String playerName;
+    private final String opponentName;
+    private final int value;
+    private final int move;
+    private final byte flags;
+
+    public JournalRecord(JournalRecordType type, long gameId, String playerName, String opponentName, int value, int move) {
+        this(0, System.currentTimeMillis(), type, gameId, playerName, opponentName, value, move, (byte) 0);
+    }
+
+    private JournalRecord(long sequence, long timestamp, JournalRecordType type, long gameId, String playerName,
+                          String opponentName, int value, int move, byte flags) {
+        this.sequence = sequence;
+        this.timestamp = timestamp;
+        this.type = type;
+        this.gameId = gameId;
+        this.playerName = playerName;
+        this.opponentName = opponentName;
+        this.value = value;
+        this.move = move;
+        this.flags = flags;
+    }
+
+    public boolean hasTruncatedNames() {
+        return (flags & TRUNCATED_NAMES) != 0;
+    }
+
+    /**
+     * Writes the record with the given sequence number at {@code offset}, which the writer assigns as records are
+     * appended.
+     */
+    void writeTo(ByteBuffer buffer, int offset, long sequence) {
+        byte flags = 0;
+        buffer.putLong(offset + TIMESTAMP, timestamp);
+        buffer.putLong(offset + GAME_ID, gameId);
+        buffer.put(offset + TYPE, type.getCode());
+        buffer.putInt(offset + VALUE, value);
+        buffer.putInt(offset + MOVE, move);
+        if (!putName(buffer, offset + PLAYER, playerName) | !putName(buffer, offset + OPPONENT, opponentName)) {
+            flags |= TRUNCATED_NAMES;
+        }
+        buffer.put(offset + FLAGS, flags);
+
+        /*
+        The sequence and checksum go last: a reader seeing the record before it is complete finds either no sequence
+        or a checksum that does not match, both of which end the records it reads.
+         */
+        buffer.putLong(offset, sequence);
+        buffer.putInt(offset + CHECKSUM, checksum(buffer, offset));
+    }
+
+    /**
+     * The record at {@code offset}, or null if none was written there or it was not written completely.
+     */
+    static JournalRecord readFrom(ByteBuffer buffer, int offset) {
+        long sequence = buffer.getLong(offset);
+
+        if (sequence <= 0 || buffer.getInt(offset + CHECKSUM) != checksum(buffer, offset)) {
+            return null;
+        }
+        return new JournalRecord(sequence,
+                buffer.getLong(offset + TIMESTAMP),
+                JournalRecordType.fromCode(buffer.get(offset + TYPE)),
+                buffer.getLong(offset + GAME_ID),
+                getName(buffer, offset + PLAYER),
+                getName(buffer, offset + OPPONENT),
+                buffer.getInt(offset + VALUE),
+                buffer.getInt(offset + MOVE),
+                buffer.get(offset + FLAGS));
+    }
+
+    private static int checksum(ByteBuffer buffer, int offset) {
+        var crc = new CRC32C();
+        crc.update(buffer.duplicate().position(offset).limit(offset + CHECKSUM));
+        return (int) crc.getValue();
+    }
+
+    /*
+    Returns false if the name had to be cut off. A null name is stored as an empty one.
+     */
+    private static boolean putName(ByteBuffer buffer, int offset, String name) {
+        var bytes = null == name ? new byte[0] : name.getBytes(StandardCharsets.UTF_8);
+        int length = Math.min(bytes.length, MAX_NAME_BYTES);
+
+        buffer.put(offset, (byte) length);
+        buffer.duplicate().position(offset + 1).put(bytes, 0, length);
+        return length == bytes.length;
+    }
+
+    private static String getName(ByteBuffer buffer, int offset) {
+        int length = buffer.get(offset);
+        if (length == 0) {
+            return null;
+        }
+        var bytes = new byte[length];
+        buffer.duplicate().position(offset + 1).get(bytes);
+        return new String(bytes, StandardCharsets.UTF_8);
+    }
+
+    @Override
+    public String toString() {
+        return sequence + " " + type + " game=" + gameId + " player=" + playerName + " opponent=" + opponentName
+                + " value=" + value + " move=" + move;
+    }
+}
@@ -0,0 +1,53 @@
+package org.hollaemor.gameofthree.gaming.infrastructure.journal;
+
+/**
+ * The state transitions recorded in the journal. The codes are stored in the segment files and must not change.
+ */
+public enum JournalRecordType {
+
+    /**
+     * Two players were paired, or started a rematch, in a new game. The player is the primary one; the value is the
+     * {@link org.hollaemor.gameofthree.gaming.domain.GameRules#getFingerprint() fingerprint} of the game's rules, or 0
+     * in records written before the rules were recorded.
+     */
+    PAIR(1),
+
+    /**
+     * The primary player sent the random number, held in the value.
+     */
+    NUMBER(2),
+
+    /**
+     * The player added the move to the current value; the value is the result after the division.
+     */
+    MOVE(3),
+
+    /**
+     * The player won the game against the opponent.
+     */
+    GAMEOVER(4),
+
+    /**
+     * The player left; the opponent, if any, was released.
+     */
+    DISCONNECT(5);
+
+    private final byte code;
+
+    JournalRecordType(int code) {
+        this.code = (byte) code;
+    }
+
+    public byte getCode() {
+        return code;
+    }
+
+    public static JournalRecordType fromCode(byte code) {
+        for (var type : values()) {
+            if (type.code == code) {
+                return type;
+            }
+        }
+        throw new IllegalArgumentException("Unknown journal record type " + code);
+    }
+}
@@ -0,0 +1,67 @@
+package org.hollaemor.gameofthree.gaming.infrastructure.matchmaking;
+
+import lombok.Getter;
+import lombok.Setter;
+import org.springframework.boot.context.properties.ConfigurationProperties;
+
+import java.time.Duration;
+
+/**
+ * Settings of the matchmaker, see {@link Matchmaker}.
+ */
+@Getter
+@Setter
+@ConfigurationProperties(prefix = "game.matchmaking")
+public class GameMatchmakingProperties {
+
+    /**
+     * Whether start requests are queued for the matchmaker instead of being paired with the first available player.
+     */
+    private boolean enabled = false;
+
+    /**
+     * How waiting players are paired, unless the application provides its own {@link PairingStrategy} bean.
+     */
+    private Strategy strategy = Strategy.FIFO;
+
+    /**
+     * Time between two matchmaking rounds.
+     */
+    private Duration tickInterval = Duration.ofMillis(100);
+
+    /**
+     * Most games started by one matchmaking round.
+     */
+    private int batchSize = 1_000;
+
+    /**
+     * Largest rating difference between paired players with the rating-band strategy.
+     */
+    private int ratingBand = 200;
+
+    /**
+     * How much the rating band widens for every second the older player has waited.
+     */
+    private int ratingBandGrowthPerSecond = 50;
+
+    /**
+     * Width of the round-trip time buckets of the lowest-latency strategy.
+     */
+    private Duration rttBucketWidth = Duration.ofMillis(50);
+
+    /**
+     * How long a player waits for an opponent of the same round-trip time bucket before being paired with a neighbouring
+     * bucket.
+     */
+    private Duration rttBucketWait = Duration.ofSeconds(2);
+
+    /**
+     * Time between two round-trip time measurements of a WebSocket session.
+     */
+    private Duration rttProbeInterval = Duration.ofSeconds(10);
+
+
+    public enum Strategy {
+        FIFO, RATING_BAND, LOWEST_LATENCY
+    }
+}
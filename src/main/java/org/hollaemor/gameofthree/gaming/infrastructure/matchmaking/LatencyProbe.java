@@ -0,0 +1,152 @@
+package org.hollaemor.gameofthree.gaming.infrastructure.matchmaking;
+
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.context.event.EventListener;
+import org.springframework.messaging.simp.SimpMessageHeaderAccessor;
+import org.springframework.stereotype.Component;
+import org.springframework.web.socket.CloseStatus;
+import org.springframework.web.socket.PingMessage;
+import org.springframework.web.socket.PongMessage;
+import org.springframework.web.socket.WebSocketHandler;
+import org.springframework.web.socket.WebSocketMessage;
+import org.springframework.web.socket.WebSocketSession;
+import org.springframework.web.socket.handler.WebSocketHandlerDecorator;
+import org.springframework.web.socket.handler.WebSocketHandlerDecoratorFactory;
+import org.springframework.web.socket.handler.WebSocketSessionDecorator;
+import org.springframework.web.socket.messaging.SessionConnectedEvent;
+import org.springframework.web.socket.sockjs.transport.SockJsSession;
+
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.locks.ReentrantLock;
+
+/**
+ * Measures the round-trip time of plain WebSocket sessions with ping frames, which browsers answer on their own.
+ * SockJS has no ping frames, so the round-trip time of SockJS sessions stays unknown.
+ *
+ * <p>The pings are sent by {@link #probe()}, which the matchmaker calls periodically; nothing is sent while the
+ * matchmaker is disabled.
+ */
+@Slf4j
+@Component
+public class LatencyProbe implements WebSocketHandlerDecoratorFactory {
+
+    private final Map<String, ProbedSession> sessionsById = new ConcurrentHashMap<>();
+    private final Map<String, ProbedSession> sessionsByPlayer = new ConcurrentHashMap<>();
+
+    /**
+     * The smoothed round-trip time of the player's session in milliseconds, or {@link MatchTicket#UNKNOWN_RTT}.
+     */
+    public long rttOf(String playerName) {
+        var session = sessionsByPlayer.get(playerName);
+        return null == session ? MatchTicket.UNKNOWN_RTT : session.rttMillis;
+    }
+
+    public void probe() {
+        sessionsById.values().forEach(ProbedSession::ping);
+    }
+
+    @Override
+    public WebSocketHandler decorate(WebSocketHandler handler) {
+        return new WebSocketHandlerDecorator(handler) {
+            @Override
+            public void afterConnectionEstablished(WebSocketSession session) throws Exception {
+                if (WebSocketSessionDecorator.unwrap(session) instanceof SockJsSession) {
+                    super.afterConnectionEstablished(session);
+                    return;
+                }
+                var probedSession = new ProbedSession(session);
+                sessionsById.put(session.getId(), probedSession);
+                super.afterConnectionEstablished(probedSession);
+            }
+
+            @Override
+            public void handleMessage(WebSocketSession session, WebSocketMessage<?> message) throws Exception {
+                if (message instanceof PongMessage) {
+                    var probedSession = sessionsById.get(session.getId());
+                    if (null != probedSession) {
+                        probedSession.pong((PongMessage) message);
+                    }
+                    return;
+                }
+                super.handleMessage(session, message);
+            }
+
+            @Override
+            public void afterConnectionClosed(WebSocketSession session, CloseStatus closeStatus) throws Exception {
+                var probedSession = sessionsById.remove(session.getId());
+                if (null != probedSession && null != probedSession.playerName) {
+                    sessionsByPlayer.remove(probedSession.playerName, probedSession);
+                }
+                super.afterConnectionClosed(session, closeStatus);
+            }
+        };
+    }
+
+    @EventListener
+    public void handleSessionConnected(SessionConnectedEvent event) {
+        var sessionId = SimpMessageHeaderAccessor.getSessionId(event.getMessage().getHeaders());
+        var probedSession = null == sessionId ? null : sessionsById.get(sessionId);
+
+        if (null != probedSession && null != event.getUser()) {
+            probedSession.playerName = event.getUser().getName();
+            sessionsByPlayer.put(probedSession.playerName, probedSession);
+        }
+    }
+
+
+    /**
+     * Sits below Spring's concurrent session decorator. Its lock keeps pings from interleaving with the frames that
+     * decorator sends; a ping is skipped rather than waiting behind a slow send.
+     */
+    private static class ProbedSession extends WebSocketSessionDecorator {
+
+        private final ReentrantLock sendLock = new ReentrantLock();
+
+        private volatile String playerName;
+        private volatile long rttMillis = MatchTicket.UNKNOWN_RTT;
+
+        ProbedSession(WebSocketSession session) {
+            super(session);
+        }
+
+        @Override
+        public void sendMessage(WebSocketMessage<?> message) throws IOException {
+            sendLock.lock();
+            try {
+                super.sendMessage(message);
+            } finally {
+                sendLock.unlock();
+            }
+        }
+
+        void ping() {
+            if (!isOpen() || !sendLock.tryLock()) {
+                return;
+            }
+            try {
+                super.sendMessage(new PingMessage(ByteBuffer.allocate(Long.BYTES).putLong(0, System.nanoTime())));
+            } catch (IOException | RuntimeException ex) {
+                log.debug("could not ping session {}", getId(), ex);
+            } finally {
+                sendLock.unlock();
+            }
+        }
+
+        /*
+        Smoothed like TCP's round-trip time estimate, so that one late pong does not move the player to another bucket.
+         */
+        void pong(PongMessage pong) {
+            var payload = pong.getPayload();
+            if (payload.remaining() != Long.BYTES) {
+                return;
+            }
+            long sample = TimeUnit.NANOSECONDS.toMillis(System.nanoTime() - payload.getLong(payload.position()));
+            long previous = rttMillis;
+            rttMillis = MatchTicket.UNKNOWN_RTT == previous ? sample : (previous * 7 + sample) / 8;
+        }
+    }
+}
@@ -0,0 +1,34 @@
+package org.hollaemor.gameofthree.gaming.infrastructure.matchmaking;
+
+import java.time.Duration;
+
+/**
+ * Pairs players of the same round-trip time bucket, so that a player on a slow connection only slows down games
+ * against other slow players. A player left alone in its bucket is paired with a neighbouring bucket once it has
+ * waited long enough. Players whose round-trip time is unknown, such as SockJS clients, share the last bucket.
+ */
+public class LowestLatencyPairingStrategy implements PairingStrategy {
+
+    private static final int UNKNOWN_RTT_BUCKET = Integer.MAX_VALUE;
+
+    private final long bucketWidthMillis;
+    private final long bucketWaitNanos;
+
+    public LowestLatencyPairingStrategy(Duration bucketWidth, Duration bucketWait) {
+        this.bucketWidthMillis = Math.max(1, bucketWidth.toMillis());
+        this.bucketWaitNanos = bucketWait.toNanos();
+    }
+
+    @Override
+    public int bucketOf(MatchTicket ticket) {
+        if (!ticket.hasRtt()) {
+            return UNKNOWN_RTT_BUCKET;
+        }
+        return (int) Math.min(ticket.getRttMillis() / bucketWidthMillis, UNKNOWN_RTT_BUCKET - 1);
+    }
+
+    @Override
+    public boolean canPair(MatchTicket older, MatchTicket newer, long now) {
+        return bucketOf(older) == bucketOf(newer) || older.waitedNanos(now) >= bucketWaitNanos;
+    }
+}
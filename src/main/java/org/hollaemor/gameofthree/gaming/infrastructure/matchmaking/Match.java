@@ -0,0 +1,18 @@
+package org.hollaemor.gameofthree.gaming.infrastructure.matchmaking;
+
+import lombok.Getter;
+
+/**
+ * Two tickets paired by the matchmaking queue. The first one has waited longer and becomes the primary player.
+ */
+@Getter
+public class Match {
+
+    private final MatchTicket first;
+    private final MatchTicket second;
+
+    public Match(MatchTicket first, MatchTicket second) {
+        this.first = first;
+        this.second = second;
+    }
+}
@@ -0,0 +1,33 @@
+package org.hollaemor.gameofthree.gaming.infrastructure.matchmaking;
+
+import lombok.Getter;
+import org.hollaemor.gameofthree.gaming.domain.Player;
+
+/**
+ * A player waiting in the matchmaking queue, with the rating and round-trip time it was queued with.
+ */
+@Getter
+public class MatchTicket {
+
+    public static final long UNKNOWN_RTT = -1;
+
+    private final Player player;
+    private final int rating;
+    private final long rttMillis;
+    private final long queuedAt;
+
+    public MatchTicket(Player player, long rttMillis, long queuedAt) {
+        this.player = player;
+        this.rating = player.getRating();
+        this.rttMillis = rttMillis;
+        this.queuedAt = queuedAt;
+    }
+
+    public boolean hasRtt() {
+        return UNKNOWN_RTT != rttMillis;
+    }
+
+    public long waitedNanos(long now) {
+        return now - queuedAt;
+    }
+}
@@ -0,0 +1,98 @@
+package org.hollaemor.gameofthree.gaming.infrastructure.matchmaking;
+
+import lombok.extern.slf4j.Slf4j;
+import org.hollaemor.gameofthree.gaming.domain.GameService;
+import org.hollaemor.gameofthree.gaming.domain.PlayerStatus;
+import org.hollaemor.gameofthree.gaming.infrastructure.repository.PlayerRepository;
+import org.springframework.beans.factory.DisposableBean;
+import org.springframework.beans.factory.InitializingBean;
+import org.springframework.scheduling.concurrent.CustomizableThreadFactory;
+import org.springframework.stereotype.Component;
+
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Starts the games of the players in the {@link MatchmakingQueue}. Every tick takes a batch of matches out of the
+ * queue and starts them; a match whose players are no longer both waiting is dropped, and the player still waiting
+ * goes back to the queue. The matchmaker thread also has the WebSocket sessions' round-trip times measured.
+ */
+@Slf4j
+@Component
+public class Matchmaker implements InitializingBean, DisposableBean {
+
+    private final GameMatchmakingProperties properties;
+    private final MatchmakingQueue queue;
+    private final GameService gameService;
+    private final PlayerRepository playerRepository;
+    private final LatencyProbe latencyProbe;
+
+    private ScheduledExecutorService scheduler;
+
+    public Matchmaker(GameMatchmakingProperties properties, MatchmakingQueue queue, GameService gameService,
+                      PlayerRepository playerRepository, LatencyProbe latencyProbe) {
+        this.properties = properties;
+        this.queue = queue;
+        this.gameService = gameService;
+        this.playerRepository = playerRepository;
+        this.latencyProbe = latencyProbe;
+    }
+
+    @Override
+    public void afterPropertiesSet() {
+        if (!properties.isEnabled()) {
+            return;
+        }
+        var threadFactory = new CustomizableThreadFactory("matchmaker-");
+        threadFactory.setDaemon(true);
+        scheduler = Executors.newSingleThreadScheduledExecutor(threadFactory);
+
+        long tickMillis = properties.getTickInterval().toMillis();
+        scheduler.scheduleWithFixedDelay(this::tick, tickMillis, tickMillis, TimeUnit.MILLISECONDS);
+
+        long probeMillis = properties.getRttProbeInterval().toMillis();
+        scheduler.scheduleWithFixedDelay(latencyProbe::probe, 0, probeMillis, TimeUnit.MILLISECONDS);
+    }
+
+    @Override
+    public void destroy() {
+        if (null != scheduler) {
+            scheduler.shutdownNow();
+        }
+    }
+
+    /**
+     * Runs one matchmaking round and returns the number of games started.
+     */
+    public int runRound(long now) {
+        int started = 0;
+
+        for (var match : queue.match(properties.getBatchSize(), now)) {
+            if (gameService.startMatch(match.getFirst().getPlayer().getName(), match.getSecond().getPlayer().getName())) {
+                started++;
+            } else {
+                requeueIfWaiting(match.getFirst());
+                requeueIfWaiting(match.getSecond());
+            }
+        }
+        return started;
+    }
+
+    /*
+    A failed round must not cancel the schedule, which is what an exception escaping the task would do.
+     */
+    private void tick() {
+        try {
+            runRound(System.nanoTime());
+        } catch (RuntimeException ex) {
+            log.warn("matchmaking round failed", ex);
+        }
+    }
+
+    private void requeueIfWaiting(MatchTicket ticket) {
+        playerRepository.findByName(ticket.getPlayer().getName())
+                .filter(player -> player.getStatus() == PlayerStatus.AVAILABLE)
+                .ifPresent(player -> queue.requeue(ticket));
+    }
+}
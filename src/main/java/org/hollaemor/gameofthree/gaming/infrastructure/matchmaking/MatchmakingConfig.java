@@ -0,0 +1,28 @@
+package org.hollaemor.gameofthree.gaming.infrastructure.matchmaking;
+
+import org.springframework.boot.autoconfigure.condition.ConditionalOnMissingBean;
+import org.springframework.boot.context.properties.EnableConfigurationProperties;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+
+/**
+ * The pairing strategy named by {@code game.matchmaking.strategy}. An application plugs in its own by declaring a
+ * {@link PairingStrategy} bean.
+ */
+@Configuration
+@EnableConfigurationProperties(GameMatchmakingProperties.class)
+public class MatchmakingConfig {
+
+    @Bean
+    @ConditionalOnMissingBean
+    public PairingStrategy pairingStrategy(GameMatchmakingProperties properties) {
+        switch (properties.getStrategy()) {
+            case RATING_BAND:
+                return new RatingBandPairingStrategy(properties.getRatingBand(), properties.getRatingBandGrowthPerSecond());
+            case LOWEST_LATENCY:
+                return new LowestLatencyPairingStrategy(properties.getRttBucketWidth(), properties.getRttBucketWait());
+            default:
+                return new FifoPairingStrategy();
+        }
+    }
+}
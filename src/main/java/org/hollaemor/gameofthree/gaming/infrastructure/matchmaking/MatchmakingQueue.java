@@ -0,0 +1,190 @@
+package org.hollaemor.gameofthree.gaming.infrastructure.matchmaking;
+
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.binder.MeterBinder;
+import org.hollaemor.gameofthree.gaming.domain.Player;
+import org.springframework.stereotype.Component;
+
+import java.util.ArrayDeque;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.TreeMap;
+
+/**
+ * Players who asked for a game while the matchmaker is enabled, in buckets keyed by the {@link PairingStrategy}.
+ * Tickets are only taken out by {@link #match(int, long)}; a ticket of a player who disconnected in the meantime is
+ * discarded by the matchmaker when its game cannot be started.
+ */
+@Component
+public class MatchmakingQueue implements MeterBinder {
+
+    /*
+    Bounds the search for a partner within a bucket, and the number of tickets nobody may be paired with that are
+    looked at per bucket, so that a round costs a constant amount per bucket rather than a pass over the lobby.
+     */
+    private static final int SCAN_LIMIT = 32;
+
+    private final GameMatchmakingProperties properties;
+    private final PairingStrategy strategy;
+    private final LatencyProbe latencyProbe;
+
+    private final TreeMap<Integer, ArrayDeque<MatchTicket>> buckets = new TreeMap<>();
+    private final Map<String, MatchTicket> tickets = new HashMap<>();
+    private final ArrayDeque<MatchTicket> skipped = new ArrayDeque<>(SCAN_LIMIT);
+
+    public MatchmakingQueue(GameMatchmakingProperties properties, PairingStrategy strategy, LatencyProbe latencyProbe) {
+        this.properties = properties;
+        this.strategy = strategy;
+        this.latencyProbe = latencyProbe;
+    }
+
+    @Override
+    public void bindTo(MeterRegistry registry) {
+        Gauge.builder("game.matchmaking.queued", this, MatchmakingQueue::size)
+                .description("Players waiting for the matchmaker")
+                .register(registry);
+    }
+
+    public boolean isEnabled() {
+        return properties.isEnabled();
+    }
+
+    /**
+     * Queues the player with its current rating and round-trip time. A player already queued keeps its place.
+     */
+    public boolean enqueue(Player player) {
+        return enqueue(new MatchTicket(player, latencyProbe.rttOf(player.getName()), System.nanoTime()));
+    }
+
+    public synchronized boolean enqueue(MatchTicket ticket) {
+        var playerName = ticket.getPlayer().getName();
+        var queued = tickets.get(playerName);
+
+        if (null != queued) {
+            if (queued.getPlayer() == ticket.getPlayer()) {
+                return false;
+            }
+            removeFromBucket(queued);
+        }
+
+        tickets.put(playerName, ticket);
+        buckets.computeIfAbsent(strategy.bucketOf(ticket), bucket -> new ArrayDeque<>()).addLast(ticket);
+        return true;
+    }
+
+    /**
+     * Puts back the ticket of a player whose match could not be started, at the head of its bucket since it has
+     * waited longer than the tickets behind it.
+     */
+    public synchronized void requeue(MatchTicket ticket) {
+        if (tickets.putIfAbsent(ticket.getPlayer().getName(), ticket) == null) {
+            buckets.computeIfAbsent(strategy.bucketOf(ticket), bucket -> new ArrayDeque<>()).addFirst(ticket);
+        }
+    }
+
+    /**
+     * Takes out up to {@code maxMatches} pairs, first within each bucket and then between the tickets left over in
+     * neighbouring buckets. The buckets are paired in place, without copying the tickets. {@code now} is a
+     * {@link System#nanoTime()} value.
+     */
+    public synchronized List<Match> match(int maxMatches, long now) {
+        var matches = new ArrayList<Match>();
+
+        for (var bucket : buckets.values()) {
+            if (matches.size() < maxMatches) {
+                pairWithinBucket(bucket, matches, maxMatches, now);
+            }
+        }
+        if (matches.size() < maxMatches) {
+            pairAcrossBuckets(matches, maxMatches, now);
+        }
+
+        buckets.values().removeIf(ArrayDeque::isEmpty);
+        for (var match : matches) {
+            tickets.remove(match.getFirst().getPlayer().getName(), match.getFirst());
+            tickets.remove(match.getSecond().getPlayer().getName(), match.getSecond());
+        }
+        return matches;
+    }
+
+    public synchronized int size() {
+        return tickets.size();
+    }
+
+    /*
+    Pairs the tickets at the head of the bucket in place, each with one of the SCAN_LIMIT tickets behind it. A head
+    nobody may be paired with is set aside and put back in front afterwards, and the bucket is left alone once
+    SCAN_LIMIT heads were set aside, so a round costs the same however many tickets the bucket holds.
+     */
+    private void pairWithinBucket(ArrayDeque<MatchTicket> bucket, List<Match> matches, int maxMatches, long now) {
+        while (matches.size() < maxMatches && skipped.size() < SCAN_LIMIT && bucket.size() > 1) {
+            var ticket = bucket.pollFirst();
+            var partner = takePartner(bucket, ticket, now);
+
+            if (null != partner) {
+                matches.add(new Match(ticket, partner));
+            } else {
+                skipped.addLast(ticket);
+            }
+        }
+
+        while (!skipped.isEmpty()) {
+            bucket.addFirst(skipped.pollLast());
+        }
+    }
+
+    private MatchTicket takePartner(ArrayDeque<MatchTicket> bucket, MatchTicket ticket, long now) {
+        var iterator = bucket.iterator();
+
+        for (int scanned = 0; scanned < SCAN_LIMIT && iterator.hasNext(); scanned++) {
+            var candidate = iterator.next();
+
+            if (strategy.canPair(ticket, candidate, now)) {
+                iterator.remove();
+                return candidate;
+            }
+        }
+        return null;
+    }
+
+    /*
+    Tickets of the same bucket were already tried against each other, so only the two tickets on either side of the
+    boundary between neighbouring buckets are: the newest of the lower bucket and the oldest of the upper one.
+     */
+    private void pairAcrossBuckets(List<Match> matches, int maxMatches, long now) {
+        ArrayDeque<MatchTicket> lower = null;
+
+        for (var bucket : buckets.values()) {
+            if (matches.size() >= maxMatches) {
+                return;
+            }
+            if (bucket.isEmpty()) {
+                continue;
+            }
+            if (null != lower) {
+                var ticket = lower.peekLast();
+                var neighbour = bucket.peekFirst();
+                boolean ticketIsOlder = ticket.getQueuedAt() <= neighbour.getQueuedAt();
+                var older = ticketIsOlder ? ticket : neighbour;
+                var newer = ticketIsOlder ? neighbour : ticket;
+
+                if (strategy.canPair(older, newer, now)) {
+                    matches.add(new Match(older, newer));
+                    lower.pollLast();
+                    bucket.pollFirst();
+                }
+            }
+            lower = bucket.isEmpty() ? null : bucket;
+        }
+    }
+
+    private void removeFromBucket(MatchTicket ticket) {
+        var bucket = buckets.get(strategy.bucketOf(ticket));
+        if (null != bucket) {
+            bucket.remove(ticket);
+        }
+    }
+}
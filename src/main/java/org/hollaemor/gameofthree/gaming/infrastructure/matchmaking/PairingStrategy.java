@@ -0,0 +1,17 @@
+package org.hollaemor.gameofthree.gaming.infrastructure.matchmaking;
+
+/**
+ * Decides which waiting players may be paired. The queue keeps its tickets in buckets ordered by
+ * {@link #bucketOf(MatchTicket)}; it pairs tickets of the same bucket first, oldest first, and then the tickets left
+ * over in neighbouring buckets.
+ */
+public interface PairingStrategy {
+
+    int bucketOf(MatchTicket ticket);
+
+    /**
+     * Whether two tickets may be paired at {@code now}, a {@link System#nanoTime()} value. {@code older} has waited at
+     * least as long as {@code newer}.
+     */
+    boolean canPair(MatchTicket older, MatchTicket newer, long now);
+}
@@ -0,0 +1,29 @@
+package org.hollaemor.gameofthree.gaming.infrastructure.matchmaking;
+
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Pairs players whose ratings differ by at most a band, which widens the longer the older player waits so that
+ * players far from the others are not left waiting forever.
+ */
+public class RatingBandPairingStrategy implements PairingStrategy {
+
+    private final int band;
+    private final int growthPerSecond;
+
+    public RatingBandPairingStrategy(int band, int growthPerSecond) {
+        this.band = band;
+        this.growthPerSecond = growthPerSecond;
+    }
+
+    @Override
+    public int bucketOf(MatchTicket ticket) {
+        return Math.floorDiv(ticket.getRating(), Math.max(1, band));
+    }
+
+    @Override
+    public boolean canPair(MatchTicket older, MatchTicket newer, long now) {
+        long waitedSeconds = TimeUnit.NANOSECONDS.toSeconds(older.waitedNanos(now));
+        return Math.abs(older.getRating() - newer.getRating()) <= band + growthPerSecond * waitedSeconds;
+    }
+}
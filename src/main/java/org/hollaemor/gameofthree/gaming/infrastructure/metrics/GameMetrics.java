@@ -0,0 +1,112 @@
+package org.hollaemor.gameofthree.gaming.infrastructure.metrics;
+
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.DistributionSummary;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+import io.micrometer.core.instrument.binder.MeterBinder;
+import io.micrometer.core.instrument.composite.CompositeMeterRegistry;
+import org.springframework.stereotype.Component;
+
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Timers and counters of the game requests. Durations are passed in as nanoseconds measured by the caller, so
+ * recording does not allocate on the move path.
+ */
+@Component
+public class GameMetrics implements MeterBinder {
+
+    /*
+    The meters are created up front on a composite that forwards to the registry once it is bound, so the services
+    recording on them do not depend on the registry, which binds every meter binder when it is created.
+     */
+    private final CompositeMeterRegistry meterRegistry = new CompositeMeterRegistry();
+
+    private final Timer startTimer;
+    private final Timer moveTimer;
+    private final Timer timeToPairTimer;
+    private final Timer tournamentRoundTimer;
+    private final Counter turnTimeoutCounter;
+    private final Counter idleTimeoutCounter;
+    private final DistributionSummary predictedTurnsSummary;
+
+
+    public GameMetrics() {
+        startTimer = Timer.builder("game.start")
+                .description("Time to handle a start request, including pairing")
+                .publishPercentileHistogram()
+                .register(meterRegistry);
+
+        moveTimer = Timer.builder("game.move")
+                .description("Time to validate a move and notify the players")
+                .publishPercentileHistogram()
+                .register(meterRegistry);
+
+        timeToPairTimer = Timer.builder("game.pairing.wait")
+                .description("Time a player was available before being paired with an opponent")
+                .publishPercentileHistogram()
+                .register(meterRegistry);
+
+        tournamentRoundTimer = Timer.builder("game.tournament.round")
+                .description("Time from the start of a tournament round to the result of its last match")
+                .publishPercentileHistogram()
+                .register(meterRegistry);
+
+        turnTimeoutCounter = Counter.builder("game.timeouts")
+                .description("Players who ran out of time")
+                .tag("kind", "turn")
+                .register(meterRegistry);
+
+        idleTimeoutCounter = Counter.builder("game.timeouts")
+                .description("Players who ran out of time")
+                .tag("kind", "idle")
+                .register(meterRegistry);
+
+        predictedTurnsSummary = DistributionSummary.builder("game.turns.predicted")
+                .description("Moves a game takes from its random number, known as soon as the number is sent")
+                .publishPercentileHistogram()
+                .register(meterRegistry);
+    }
+
+    @Override
+    public void bindTo(MeterRegistry registry) {
+        meterRegistry.add(registry);
+    }
+
+    public void recordStart(long nanos) {
+        startTimer.record(nanos, TimeUnit.NANOSECONDS);
+    }
+
+    public void recordMove(long nanos) {
+        moveTimer.record(nanos, TimeUnit.NANOSECONDS);
+    }
+
+    public void recordTimeToPair(long nanos) {
+        timeToPairTimer.record(nanos, TimeUnit.NANOSECONDS);
+    }
+
+    public void recordTournamentRound(long nanos) {
+        tournamentRoundTimer.record(nanos, TimeUnit.NANOSECONDS);
+    }
+
+    public void recordPredictedTurns(int turns) {
+        predictedTurnsSummary.record(turns);
+    }
+
+    public void countTurnTimeout() {
+        turnTimeoutCounter.increment();
+    }
+
+    public void countIdleTimeout() {
+        idleTimeoutCounter.increment();
+    }
+
+    public void countError(Throwable throwable) {
+        Counter.builder("game.errors")
+                .description("Requests rejected with an error sent to the player")
+                .tag("exception", throwable.getClass().getSimpleName())
+                .register(meterRegistry)
+                .increment();
+    }
+}
@@ -0,0 +1,68 @@
+package org.hollaemor.gameofthree.gaming.infrastructure.metrics;
+
+import io.micrometer.core.instrument.FunctionCounter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.binder.MeterBinder;
+import org.hollaemor.gameofthree.gaming.infrastructure.GameLaneTaskExecutor;
+import org.springframework.beans.factory.annotation.Qualifier;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.core.task.TaskExecutor;
+import org.springframework.scheduling.concurrent.ThreadPoolTaskExecutor;
+
+/**
+ * Gauges over the STOMP channels, sampled when the registry is scraped. The other subsystems bind their own meters.
+ */
+@Configuration
+public class MetricsConfig {
+
+    /*
+    The channel executors are declared as TaskExecutor, but a channel registration only accepts ThreadPoolTaskExecutor
+    so that is what they are in practice.
+     */
+    @Bean
+    public MeterBinder channelMetrics(@Qualifier("clientInboundChannelExecutor") TaskExecutor inbound,
+                                      @Qualifier("clientOutboundChannelExecutor") TaskExecutor outbound) {
+        return registry -> {
+            bindChannelExecutor("inbound", inbound, registry);
+            bindChannelExecutor("outbound", outbound, registry);
+
+            if (inbound instanceof GameLaneTaskExecutor) {
+                FunctionCounter.builder("game.lanes.rejected", (GameLaneTaskExecutor) inbound, GameLaneTaskExecutor::getRejectedTasks)
+                        .description("Inbound frames rejected because their lane was full")
+                        .register(registry);
+
+                Gauge.builder("game.lanes.queued.max", (GameLaneTaskExecutor) inbound, GameLaneTaskExecutor::getMaxLaneQueueDepth)
+                        .description("Frames waiting on the busiest lane")
+                        .register(registry);
+            }
+        };
+    }
+
+    private static void bindChannelExecutor(String channel, TaskExecutor taskExecutor, MeterRegistry registry) {
+        if (!(taskExecutor instanceof ThreadPoolTaskExecutor)) {
+            return;
+        }
+        var executor = (ThreadPoolTaskExecutor) taskExecutor;
+
+        Gauge.builder("game.channel.queued", executor, MetricsConfig::queuedTasks)
+                .description("Messages waiting for a channel thread")
+                .tag("channel", channel)
+                .register(registry);
+
+        Gauge.builder("game.channel.active", executor, ThreadPoolTaskExecutor::getActiveCount)
+                .description("Channel threads handling a message")
+                .tag("channel", channel)
+                .register(registry);
+    }
+
+    private static int queuedTasks(ThreadPoolTaskExecutor executor) {
+        int queued = executor.getThreadPoolExecutor().getQueue().size();
+
+        if (executor instanceof GameLaneTaskExecutor) {
+            queued += ((GameLaneTaskExecutor) executor).getQueuedTasks();
+        }
+        return queued;
+    }
+}
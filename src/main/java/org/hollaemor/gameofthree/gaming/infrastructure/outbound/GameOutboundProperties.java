@@ -0,0 +1,44 @@
+package org.hollaemor.gameofthree.gaming.infrastructure.outbound;
+
+import lombok.Getter;
+import lombok.Setter;
+import org.springframework.boot.context.properties.ConfigurationProperties;
+
+/**
+ * Flow control of the updates sent to each player's session, see {@link OutboundFlowControl}.
+ */
+@Getter
+@Setter
+@ConfigurationProperties(prefix = "game.outbound")
+public class GameOutboundProperties {
+
+    /**
+     * Updates a session may have handed to the broker but not yet written to its socket. Further updates wait in the
+     * session's queue.
+     */
+    private int window = 8;
+
+    /**
+     * Updates that may wait for a session before the player is treated as a slow consumer.
+     */
+    private int queueCapacity = 32;
+
+    /**
+     * What happens to a slow consumer.
+     */
+    private SlowConsumerAction slowConsumerAction = SlowConsumerAction.DISCONNECT;
+
+
+    public enum SlowConsumerAction {
+        /**
+         * The player is removed and their opponent released, then the session is closed normally so the client may
+         * connect again.
+         */
+        REMOVE_PLAYER,
+
+        /**
+         * The player is removed and their opponent released, then the session is closed as not reliable.
+         */
+        DISCONNECT
+    }
+}
@@ -0,0 +1,328 @@
+package org.hollaemor.gameofthree.gaming.infrastructure.outbound;
+
+import io.micrometer.core.instrument.FunctionCounter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.binder.MeterBinder;
+import lombok.extern.slf4j.Slf4j;
+import org.hollaemor.gameofthree.gaming.domain.GameMessage;
+import org.hollaemor.gameofthree.gaming.domain.GameStatus;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.context.ApplicationEventPublisher;
+import org.springframework.context.event.EventListener;
+import org.springframework.messaging.simp.SimpMessageHeaderAccessor;
+import org.springframework.stereotype.Component;
+import org.springframework.web.socket.CloseStatus;
+import org.springframework.web.socket.TextMessage;
+import org.springframework.web.socket.WebSocketHandler;
+import org.springframework.web.socket.WebSocketMessage;
+import org.springframework.web.socket.WebSocketSession;
+import org.springframework.web.socket.handler.WebSocketHandlerDecorator;
+import org.springframework.web.socket.handler.WebSocketHandlerDecoratorFactory;
+import org.springframework.web.socket.handler.WebSocketSessionDecorator;
+import org.springframework.web.socket.messaging.SessionConnectedEvent;
+
+import java.io.IOException;
+import java.util.ArrayDeque;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.Executor;
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.atomic.LongAdder;
+
+import static org.hollaemor.gameofthree.gaming.infrastructure.service.NotificationService.UPDATE_QUEUE;
+
+/**
+ * Per-session backpressure on player updates. A session may have {@code window} updates on their way to its socket;
+ * further updates wait in a bounded queue of the session and are released as the earlier ones are written. A PLAY
+ * update replaces a PLAY still waiting behind it, since the newer value supersedes the older one. A session whose
+ * queue is full is a slow consumer: its updates are dropped and the configured action is taken, so a stalled client
+ * holds at most {@code window + queueCapacity} updates however long it stalls.
+ *
+ * <p>Writes are observed below Spring's per-session send buffer, which is why this is also a handler decorator.
+ * Updates to players without a session on this node are sent straight away.
+ */
+@Slf4j
+@Component
+public class OutboundFlowControl implements WebSocketHandlerDecoratorFactory, MeterBinder {
+
+    private static final String UPDATE_FRAME_PREFIX = "MESSAGE\n";
+    private static final String UPDATE_DESTINATION_HEADER = "\ndestination:/user" + UPDATE_QUEUE + "\n";
+
+    private final GameOutboundProperties properties;
+    private final ApplicationEventPublisher eventPublisher;
+    private final Executor evictionExecutor;
+
+    private final Map<String, Outbox> outboxesBySession = new ConcurrentHashMap<>();
+    private final Map<String, Outbox> outboxesByPlayer = new ConcurrentHashMap<>();
+
+    private final LongAdder queuedUpdates = new LongAdder();
+    private final LongAdder coalescedUpdates = new LongAdder();
+    private final LongAdder evictedPlayers = new LongAdder();
+
+    @Autowired
+    public OutboundFlowControl(GameOutboundProperties properties, ApplicationEventPublisher eventPublisher) {
+        this(properties, eventPublisher, ForkJoinPool.commonPool());
+    }
+
+    /*
+    Updates are often sent while pairing or disconnect locks are held, so slow consumers are evicted on another thread
+    rather than re-entering PlayerService from under those locks.
+     */
+    OutboundFlowControl(GameOutboundProperties properties, ApplicationEventPublisher eventPublisher, Executor evictionExecutor) {
+        this.properties = properties;
+        this.eventPublisher = eventPublisher;
+        this.evictionExecutor = evictionExecutor;
+    }
+
+    @Override
+    public void bindTo(MeterRegistry registry) {
+        Gauge.builder("game.outbound.queued", this, OutboundFlowControl::getQueuedUpdates)
+                .description("Updates waiting for their session to catch up")
+                .register(registry);
+
+        FunctionCounter.builder("game.outbound.coalesced", this, OutboundFlowControl::getCoalescedUpdates)
+                .description("Waiting PLAY updates replaced by a newer value")
+                .register(registry);
+
+        FunctionCounter.builder("game.outbound.evicted", this, OutboundFlowControl::getEvictedPlayers)
+                .description("Players removed as slow consumers")
+                .register(registry);
+    }
+
+    /**
+     * Runs {@code delivery} now if the player's session has room for {@code message}, later if it has to wait, or
+     * never if it is superseded or the player is a slow consumer.
+     */
+    public void submit(String playerName, GameMessage message, Runnable delivery) {
+        var outbox = outboxesByPlayer.get(playerName);
+
+        if (null == outbox) {
+            delivery.run();
+            return;
+        }
+
+        boolean deliverNow = false;
+        boolean evict = false;
+
+        synchronized (outbox) {
+            if (outbox.evicted) {
+                return;
+            }
+            if (outbox.inFlight < properties.getWindow() && outbox.waiting.isEmpty()) {
+                outbox.inFlight++;
+                deliverNow = true;
+            } else if (supersedes(message, outbox.waiting.peekLast())) {
+                outbox.waiting.pollLast();
+                outbox.waiting.addLast(new Update(message, delivery));
+                coalescedUpdates.increment();
+            } else if (outbox.waiting.size() < properties.getQueueCapacity()) {
+                outbox.waiting.addLast(new Update(message, delivery));
+                queuedUpdates.increment();
+            } else {
+                outbox.evicted = true;
+                queuedUpdates.add(-outbox.waiting.size());
+                outbox.waiting.clear();
+                evict = true;
+            }
+        }
+
+        if (deliverNow) {
+            deliver(outbox, delivery);
+        } else if (evict) {
+            evict(outbox);
+        }
+    }
+
+    @Override
+    public WebSocketHandler decorate(WebSocketHandler handler) {
+        return new WebSocketHandlerDecorator(handler) {
+            @Override
+            public void afterConnectionEstablished(WebSocketSession session) throws Exception {
+                var outbox = new Outbox(session);
+                outboxesBySession.put(session.getId(), outbox);
+                super.afterConnectionEstablished(new WrittenUpdateListener(session, outbox));
+            }
+
+            @Override
+            public void afterConnectionClosed(WebSocketSession session, CloseStatus closeStatus) throws Exception {
+                close(outboxesBySession.remove(session.getId()));
+                super.afterConnectionClosed(session, closeStatus);
+            }
+        };
+    }
+
+    /*
+    The STOMP user is only known once the CONNECT frame is handled, after the WebSocket session was established.
+     */
+    @EventListener
+    public void handleSessionConnected(SessionConnectedEvent event) {
+        var sessionId = SimpMessageHeaderAccessor.getSessionId(event.getMessage().getHeaders());
+        var outbox = null == sessionId ? null : outboxesBySession.get(sessionId);
+
+        if (null != outbox && null != event.getUser()) {
+            outbox.playerName = event.getUser().getName();
+            outboxesByPlayer.put(outbox.playerName, outbox);
+        }
+    }
+
+    public long getQueuedUpdates() {
+        return queuedUpdates.sum();
+    }
+
+    public long getCoalescedUpdates() {
+        return coalescedUpdates.sum();
+    }
+
+    public long getEvictedPlayers() {
+        return evictedPlayers.sum();
+    }
+
+    private static boolean supersedes(GameMessage message, Update waiting) {
+        return null != waiting
+                && GameStatus.PLAY == message.getGameStatus()
+                && GameStatus.PLAY == waiting.message.getGameStatus();
+    }
+
+    /*
+    An update that failed before reaching the socket never comes back through written, so its place in the window is
+    given back here.
+     */
+    private void deliver(Outbox outbox, Runnable delivery) {
+        boolean handedOver = false;
+        try {
+            delivery.run();
+            handedOver = true;
+        } finally {
+            if (!handedOver) {
+                written(outbox);
+            }
+        }
+    }
+
+    /*
+    Called once for every update that left the window, whether it was written or failed, so the window never shrinks.
+    A waiting update that fails as well gives its place to the next one.
+     */
+    private void written(Outbox outbox) {
+        while (true) {
+            Update next;
+
+            synchronized (outbox) {
+                if (outbox.inFlight > 0) {
+                    outbox.inFlight--;
+                }
+                next = outbox.waiting.pollFirst();
+                if (null == next) {
+                    return;
+                }
+                outbox.inFlight++;
+                queuedUpdates.decrement();
+            }
+
+            try {
+                next.delivery.run();
+                return;
+            } catch (RuntimeException ex) {
+                log.warn("could not deliver queued update to {}", outbox.playerName, ex);
+            }
+        }
+    }
+
+    private void evict(Outbox outbox) {
+        evictedPlayers.increment();
+        log.warn("player {} is not keeping up with its updates, taking action {}", outbox.playerName,
+                properties.getSlowConsumerAction());
+
+        /*
+        The session is closed either way: its updates are dropped from here on, so a session left open would only
+        ever show a stale game.
+         */
+        var closeStatus = GameOutboundProperties.SlowConsumerAction.DISCONNECT == properties.getSlowConsumerAction()
+                ? CloseStatus.SESSION_NOT_RELIABLE
+                : CloseStatus.NORMAL;
+
+        evictionExecutor.execute(() -> {
+            eventPublisher.publishEvent(new SlowConsumerEvent(this, outbox.playerName, outbox.session.getId()));
+
+            try {
+                outbox.session.close(closeStatus);
+            } catch (IOException ex) {
+                log.debug("could not close session of {}", outbox.playerName, ex);
+            }
+        });
+    }
+
+    private void close(Outbox outbox) {
+        if (null == outbox) {
+            return;
+        }
+        if (null != outbox.playerName) {
+            outboxesByPlayer.remove(outbox.playerName, outbox);
+        }
+        synchronized (outbox) {
+            queuedUpdates.add(-outbox.waiting.size());
+            outbox.waiting.clear();
+            outbox.evicted = true;
+        }
+    }
+
+
+    private static class Outbox {
+
+        private final WebSocketSession session;
+        private final ArrayDeque<Update> waiting = new ArrayDeque<>();
+
+        private volatile String playerName;
+        private int inFlight;
+        private boolean evicted;
+
+        Outbox(WebSocketSession session) {
+            this.session = session;
+        }
+    }
+
+    private static class Update {
+
+        private final GameMessage message;
+        private final Runnable delivery;
+
+        Update(GameMessage message, Runnable delivery) {
+            this.message = message;
+            this.delivery = delivery;
+        }
+    }
+
+    /**
+     * Sits below Spring's concurrent session decorator, so a send returning here means the frame was written or
+     * failed to be.
+     */
+    private class WrittenUpdateListener extends WebSocketSessionDecorator {
+
+        private final Outbox outbox;
+
+        WrittenUpdateListener(WebSocketSession session, Outbox outbox) {
+            super(session);
+            this.outbox = outbox;
+        }
+
+        @Override
+        public void sendMessage(WebSocketMessage<?> message) throws IOException {
+            try {
+                super.sendMessage(message);
+            } finally {
+                if (isUpdate(message)) {
+                    written(outbox);
+                }
+            }
+        }
+
+        private boolean isUpdate(WebSocketMessage<?> message) {
+            if (!(message instanceof TextMessage)) {
+                return false;
+            }
+            var frame = ((TextMessage) message).getPayload();
+            return frame.startsWith(UPDATE_FRAME_PREFIX) && frame.contains(UPDATE_DESTINATION_HEADER);
+        }
+    }
+}
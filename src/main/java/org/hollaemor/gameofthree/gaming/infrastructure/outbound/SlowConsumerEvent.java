@@ -0,0 +1,20 @@
+package org.hollaemor.gameofthree.gaming.infrastructure.outbound;
+
+import lombok.Getter;
+import org.springframework.context.ApplicationEvent;
+
+/**
+ * Published when a player's session falls so far behind on its updates that the player has to go.
+ */
+@Getter
+public class SlowConsumerEvent extends ApplicationEvent {
+
+    private final String playerName;
+    private final String sessionId;
+
+    public SlowConsumerEvent(Object source, String playerName, String sessionId) {
+        super(source);
+        this.playerName = playerName;
+        this.sessionId = sessionId;
+    }
+}
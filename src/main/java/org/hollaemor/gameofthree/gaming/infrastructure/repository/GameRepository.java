@@ -0,0 +1,25 @@
+package org.hollaemor.gameofthree.gaming.infrastructure.repository;
+
+import org.hollaemor.gameofthree.gaming.domain.Game;
+
+import java.util.Optional;
+
+public interface GameRepository {
+
+    long nextId();
+
+    /**
+     * Makes {@link #nextId()} return ids above {@code gameId}, which a game played before a restart may have had.
+     */
+    void reserveIdsUpTo(long gameId);
+
+    void save(Game game);
+
+    Optional<Game> findById(long gameId);
+
+    Optional<Game> findByPlayerName(String playerName);
+
+    void delete(Game game);
+
+    int count();
+}
@@ -0,0 +1,83 @@
+package org.hollaemor.gameofthree.gaming.infrastructure.repository;
+
+import org.hollaemor.gameofthree.gaming.domain.Game;
+import org.springframework.stereotype.Repository;
+
+import java.util.Map;
+import java.util.Optional;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.AtomicLong;
+
+import static java.util.Optional.ofNullable;
+
+@Repository
+public class InMemoryGameRepository implements GameRepository {
+
+    private final AtomicLong ids;
+
+    private final Map<Long, Game> store;
+
+    /*
+    The game each player is currently in. Saving a rematch replaces the previous game of both players.
+     */
+    private final Map<String, Game> gamesByPlayer;
+
+    public InMemoryGameRepository() {
+        ids = new AtomicLong();
+        store = new ConcurrentHashMap<>();
+        gamesByPlayer = new ConcurrentHashMap<>();
+    }
+
+    @Override
+    public long nextId() {
+        return ids.incrementAndGet();
+    }
+
+    @Override
+    public void reserveIdsUpTo(long gameId) {
+        ids.accumulateAndGet(gameId, Math::max);
+    }
+
+    /*
+    Games restored from the game journal keep their ids, so new ids continue after the highest one saved.
+     */
+    @Override
+    public void save(Game game) {
+        if (game.getId() > ids.get()) {
+            ids.accumulateAndGet(game.getId(), Math::max);
+        }
+        store.put(game.getId(), game);
+        replaceGameOfPlayer(game.getPrimaryPlayerName(), game);
+        replaceGameOfPlayer(game.getSecondaryPlayerName(), game);
+    }
+
+    @Override
+    public Optional<Game> findById(long gameId) {
+        return ofNullable(store.get(gameId));
+    }
+
+    @Override
+    public Optional<Game> findByPlayerName(String playerName) {
+        return ofNullable(gamesByPlayer.get(playerName));
+    }
+
+    @Override
+    public void delete(Game game) {
+        store.remove(game.getId());
+        gamesByPlayer.remove(game.getPrimaryPlayerName(), game);
+        gamesByPlayer.remove(game.getSecondaryPlayerName(), game);
+    }
+
+    @Override
+    public int count() {
+        return store.size();
+    }
+
+    private void replaceGameOfPlayer(String playerName, Game game) {
+        var previous = gamesByPlayer.put(playerName, game);
+
+        if (null != previous && previous != game) {
+            store.remove(previous.getId());
+        }
+    }
+}
@@ -4,9 +4,11 @@ import org.hollaemor.gameofthree.gaming.domain.Player;
 import org.hollaemor.gameofthree.gaming.domain.PlayerStatus;
 import org.springframework.stereotype.Repository;
 
-import java.util.HashMap;
 import java.util.Map;
 import java.util.Optional;
+import java.util.Queue;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentLinkedQueue;
 
 import static java.util.Optional.ofNullable;
 
@@ -16,13 +18,30 @@ public class InMemoryPlayerRepository implements PlayerRepository {
 
     private final Map<String, Player> store;
 
+    /*
+    Available players waiting to be paired, in arrival order. Entries are never removed from the middle of the queue:
+    the index holds the single live entry per player, so leaving the queue (pairing, disconnect) is an O(1) index
+    removal and stale queue entries are discarded lazily when they reach the head. Detached players, whose opponent
+    left while they had no session, wait for their session before they are paired again.
+     */
+    private final Queue<WaitingEntry> waitingQueue;
+    private final Map<String, WaitingEntry> waitingIndex;
+
     public InMemoryPlayerRepository() {
-        store = new HashMap<>();
+        store = new ConcurrentHashMap<>();
+        waitingQueue = new ConcurrentLinkedQueue<>();
+        waitingIndex = new ConcurrentHashMap<>();
     }
 
     @Override
     public void save(Player player) {
         store.put(player.getName(), player);
+
+        if (player.getStatus() == PlayerStatus.AVAILABLE && !player.isDetached()) {
+            enqueue(player);
+        } else {
+            waitingIndex.remove(player.getName());
+        }
     }
 
     @Override
@@ -32,18 +51,69 @@ public class InMemoryPlayerRepository implements PlayerRepository {
 
     @Override
     public Optional<Player> findAvailableForPlayer(String playerName) {
-        return store.values().stream().
-                filter(p -> p.getStatus() == PlayerStatus.AVAILABLE && !p.getName().equals(playerName))
-                .findFirst();
+        var iterator = waitingQueue.iterator();
+
+        while (iterator.hasNext()) {
+            var entry = iterator.next();
+
+            if (!entry.isLive()) {
+                entry.claim();
+                iterator.remove();
+            } else if (!entry.player.getName().equals(playerName) && entry.claim()) {
+                iterator.remove();
+                return Optional.of(entry.player);
+            }
+        }
+        return Optional.empty();
+    }
+
+    @Override
+    public int countWaiting() {
+        return waitingIndex.size();
+    }
+
+    /*
+    Walks the players, which is fine for a gauge sampled on every scrape but not for the game path.
+     */
+    @Override
+    public int countPaired() {
+        return (int) store.values().stream().filter(Player::hasOpponent).count();
     }
 
     @Override
     public void delete(Player player) {
         store.remove(player.getName());
+        waitingIndex.remove(player.getName());
     }
 
     @Override
     public boolean exists(String playerName) {
         return store.containsKey(playerName);
     }
+
+    private void enqueue(Player player) {
+        var entry = new WaitingEntry(player);
+
+        if (waitingIndex.putIfAbsent(player.getName(), entry) == null) {
+            waitingQueue.offer(entry);
+        }
+    }
+
+
+    private class WaitingEntry {
+
+        private final Player player;
+
+        WaitingEntry(Player player) {
+            this.player = player;
+        }
+
+        boolean isLive() {
+            return waitingIndex.get(player.getName()) == this && player.getStatus() == PlayerStatus.AVAILABLE;
+        }
+
+        boolean claim() {
+            return waitingIndex.remove(player.getName(), this);
+        }
+    }
 }
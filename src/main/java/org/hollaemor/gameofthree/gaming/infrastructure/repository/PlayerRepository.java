@@ -14,5 +14,9 @@ public interface PlayerRepository {
 
     Optional<Player> findAvailableForPlayer(String playerName);
 
+    int countWaiting();
+
+    int countPaired();
+
     void delete(Player player);
 }
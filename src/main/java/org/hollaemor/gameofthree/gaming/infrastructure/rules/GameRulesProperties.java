@@ -0,0 +1,49 @@
+package org.hollaemor.gameofthree.gaming.infrastructure.rules;
+
+import lombok.Getter;
+import lombok.Setter;
+import org.springframework.boot.context.properties.ConfigurationProperties;
+
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * Game modes, and the one new games are played in, see {@link RulesConfig}.
+ */
+@Getter
+@Setter
+@ConfigurationProperties(prefix = "game.rules")
+public class GameRulesProperties {
+
+    /**
+     * Mode new games are played in: one of {@code modes}, or {@code classic} for the game of three.
+     */
+    private String mode = RulesConfig.CLASSIC_MODE;
+
+    /**
+     * Game modes by name.
+     */
+    private Map<String, Mode> modes = new HashMap<>();
+
+    @Getter
+    @Setter
+    public static class Mode {
+
+        /**
+         * Number the value is divided by after every move.
+         */
+        private int divisor = 3;
+
+        /**
+         * Numbers a player may add to the value, each between 1 - divisor and divisor - 1.
+         */
+        private List<Integer> moves = new ArrayList<>(List.of(-1, 0, 1));
+
+        /**
+         * Value that wins the game for the player whose move brings the value down to it or below.
+         */
+        private int target = 1;
+    }
+}
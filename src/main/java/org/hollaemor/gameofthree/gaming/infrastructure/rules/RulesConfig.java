@@ -0,0 +1,31 @@
+package org.hollaemor.gameofthree.gaming.infrastructure.rules;
+
+import org.hollaemor.gameofthree.gaming.domain.GameRules;
+import org.springframework.boot.context.properties.EnableConfigurationProperties;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+
+/**
+ * The rules of the mode named by {@code game.rules.mode}, compiled once at startup. Rules that do not make a game that
+ * always ends fail the startup rather than the first game played by them.
+ */
+@Configuration
+@EnableConfigurationProperties(GameRulesProperties.class)
+public class RulesConfig {
+
+    public static final String CLASSIC_MODE = "classic";
+
+    @Bean
+    public GameRules gameRules(GameRulesProperties properties) {
+        var mode = properties.getModes().get(properties.getMode());
+
+        if (null == mode) {
+            if (!CLASSIC_MODE.equals(properties.getMode())) {
+                throw new IllegalStateException("Unknown game mode: " + properties.getMode());
+            }
+            return GameRules.CLASSIC;
+        }
+        return GameRules.compile(mode.getDivisor(), mode.getMoves().stream().mapToInt(Integer::intValue).toArray(),
+                mode.getTarget());
+    }
+}
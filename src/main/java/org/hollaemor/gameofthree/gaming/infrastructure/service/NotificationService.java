@@ -1,21 +1,40 @@
 package org.hollaemor.gameofthree.gaming.infrastructure.service;
 
 import org.hollaemor.gameofthree.gaming.domain.GameMessage;
+import org.hollaemor.gameofthree.gaming.infrastructure.CompactSessions;
+import org.hollaemor.gameofthree.gaming.infrastructure.bot.BotQueue;
+import org.hollaemor.gameofthree.gaming.infrastructure.outbound.OutboundFlowControl;
 import org.springframework.messaging.simp.SimpMessagingTemplate;
 import org.springframework.stereotype.Service;
 
 @Service
 public class NotificationService {
 
-    private static final String UPDATE_QUEUE = "/queue/updates";
+    public static final String UPDATE_QUEUE = "/queue/updates";
 
     private final SimpMessagingTemplate messagingTemplate;
+    private final OutboundFlowControl outboundFlowControl;
+    private final BotQueue botQueue;
+    private final CompactSessions compactSessions;
 
-    public NotificationService(SimpMessagingTemplate messagingTemplate) {
+    public NotificationService(SimpMessagingTemplate messagingTemplate, OutboundFlowControl outboundFlowControl,
+                               BotQueue botQueue, CompactSessions compactSessions) {
         this.messagingTemplate = messagingTemplate;
+        this.outboundFlowControl = outboundFlowControl;
+        this.botQueue = botQueue;
+        this.compactSessions = compactSessions;
     }
 
+    /**
+     * Sends the message to the player's update queue, or hands it to the bot engine if the player is a bot. Players
+     * who connected with {@code format:compact} get it in the compact format.
+     */
     public void notifyPlayer(String playerName, GameMessage message) {
-        messagingTemplate.convertAndSendToUser(playerName, UPDATE_QUEUE, message);
+        if (botQueue.deliver(playerName, message)) {
+            return;
+        }
+        outboundFlowControl.submit(playerName, message,
+                () -> messagingTemplate.convertAndSendToUser(playerName, UPDATE_QUEUE, message,
+                        compactSessions.headersFor(playerName)));
     }
 }
@@ -1,49 +1,192 @@
 package org.hollaemor.gameofthree.gaming.infrastructure.service;
 
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.binder.MeterBinder;
 import org.hollaemor.gameofthree.gaming.domain.GameMessage;
 import org.hollaemor.gameofthree.gaming.domain.Player;
+import org.hollaemor.gameofthree.gaming.domain.Game;
+import org.hollaemor.gameofthree.gaming.domain.PlayerLocks;
+import org.hollaemor.gameofthree.gaming.domain.PlayerStatus;
+import org.hollaemor.gameofthree.gaming.infrastructure.bot.BotPlayer;
+import org.hollaemor.gameofthree.gaming.infrastructure.bot.BotQueue;
+import org.hollaemor.gameofthree.gaming.infrastructure.cluster.RemotePlayer;
+import org.hollaemor.gameofthree.gaming.infrastructure.journal.GameJournal;
+import org.hollaemor.gameofthree.gaming.infrastructure.metrics.GameMetrics;
+import org.hollaemor.gameofthree.gaming.infrastructure.repository.GameRepository;
 import org.hollaemor.gameofthree.gaming.infrastructure.repository.PlayerRepository;
+import org.hollaemor.gameofthree.gaming.infrastructure.spectator.SpectatorBroadcaster;
+import org.hollaemor.gameofthree.gaming.infrastructure.timer.GameTimeouts;
+import org.hollaemor.gameofthree.gaming.infrastructure.tournament.TournamentQueue;
 import org.springframework.stereotype.Service;
 
 import static java.util.Optional.ofNullable;
 import static org.hollaemor.gameofthree.gaming.domain.GameMessageFactory.buildDisconnectMessage;
+import static org.hollaemor.gameofthree.gaming.domain.GameMessageFactory.buildIdleMessage;
 
 @Service
-public class PlayerService {
+public class PlayerService implements MeterBinder {
 
 
     private final PlayerRepository playerRepository;
+    private final GameRepository gameRepository;
     private final NotificationService notificationService;
+    private final PlayerLocks playerLocks;
+    private final GameJournal gameJournal;
+    private final GameTimeouts gameTimeouts;
+    private final GameMetrics gameMetrics;
+    private final TournamentQueue tournamentQueue;
+    private final SpectatorBroadcaster spectators;
+    private final BotQueue botQueue;
 
 
-    public PlayerService(PlayerRepository playerRepository, NotificationService notificationService) {
+    public PlayerService(PlayerRepository playerRepository, GameRepository gameRepository,
+                         NotificationService notificationService, PlayerLocks playerLocks, GameJournal gameJournal,
+                         GameTimeouts gameTimeouts, GameMetrics gameMetrics, TournamentQueue tournamentQueue,
+                         SpectatorBroadcaster spectators, BotQueue botQueue) {
         this.playerRepository = playerRepository;
+        this.gameRepository = gameRepository;
         this.notificationService = notificationService;
+        this.playerLocks = playerLocks;
+        this.gameJournal = gameJournal;
+        this.gameTimeouts = gameTimeouts;
+        this.gameMetrics = gameMetrics;
+        this.tournamentQueue = tournamentQueue;
+        this.spectators = spectators;
+        this.botQueue = botQueue;
+    }
+
+    /**
+     * Gauges over the lobby, sampled when the registry is scraped.
+     */
+    @Override
+    public void bindTo(MeterRegistry registry) {
+        Gauge.builder("game.players", playerRepository, PlayerRepository::countWaiting)
+                .description("Connected players")
+                .tag("status", "waiting")
+                .register(registry);
+
+        Gauge.builder("game.players", playerRepository, PlayerRepository::countPaired)
+                .description("Connected players")
+                .tag("status", "paired")
+                .register(registry);
+
+        Gauge.builder("game.active", gameRepository, GameRepository::count)
+                .description("Games in progress or waiting for a rematch")
+                .register(registry);
     }
 
     public void save(Player player) {
         playerRepository.save(player);
     }
 
+    /**
+     * Saves a new player, unless the player already exists because its session re-attached a detached player. A
+     * re-attached player is saved again, which puts it back in the waiting queue if its opponent left meanwhile.
+     */
+    public void connect(String playerName) {
+        var player = playerRepository.findByName(playerName).orElseGet(() -> new Player(playerName));
+        playerRepository.save(player);
+        startIdleTimeout(player);
+    }
+
 
     public void removePlayer(String playerName) {
         playerRepository.findByName(playerName)
-                .ifPresent(player -> {
-                    playerRepository.delete(player);
-                    updateAndNotifyPlayer(player.getOpponent());
+                .ifPresent(this::removePlayerAndReleaseOpponent);
+    }
+
+    /*
+    The opponent is read before its lock is held, so the removal is retried if the player got paired in between.
+    A player who leaves a tournament match gives its opponent a walkover, so the opponent stays in the tournament.
+     */
+    private void removePlayerAndReleaseOpponent(Player player) {
+        boolean removed;
+        do {
+            var opponent = player.getOpponent();
+            var opponentName = null == opponent ? player.getName() : opponent.getName();
+
+            removed = playerLocks.withLocks(player.getName(), opponentName, () -> {
+                if (player.getOpponent() != opponent) {
+                    return false;
+                }
+                playerRepository.delete(player);
+                var game = gameRepository.findByPlayerName(player.getName());
+                game.ifPresent(playerGame -> {
+                    gameRepository.delete(playerGame);
+                    spectators.disconnected(playerGame.getId(), player.getName());
                 });
+                gameJournal.disconnected(game.map(Game::getId).orElse(0L), player.getName(),
+                        null == opponent ? null : opponent.getName());
+                boolean walkover = null != opponent && tournamentQueue.isMatch(player.getName(), opponent.getName());
+                updateAndNotifyPlayer(opponent, walkover);
+                tournamentQueue.withdraw(player.getName());
+                return true;
+            });
+        } while (!removed);
     }
 
-    private void updateAndNotifyPlayer(Player player) {
+    /*
+    A bot left alone leaves right away: saving it would put it back in the lobby until its DISCONNECT message retired
+    it, where a waiting player could claim it. The stand-in for a player of another cluster node leaves as well, once
+    its DISCONNECT message is on its way to that node, which gives the player back its lobby.
+     */
+    private void updateAndNotifyPlayer(Player player, boolean walkover) {
+        if (player instanceof BotPlayer) {
+            botQueue.retire((BotPlayer) player);
+            return;
+        }
+        if (player instanceof RemotePlayer) {
+            notifyPlayerOfDisconnect(player, buildDisconnectMessage(player.getOpponent().getName()));
+            playerRepository.delete(player);
+            return;
+        }
         ofNullable(player)
                 .ifPresent(p -> {
                     var disconnectedMessage = buildDisconnectMessage(p.getOpponent().getName());
                     player.removeOpponent();
+                    if (walkover) {
+                        p.setStatus(PlayerStatus.IN_TOURNAMENT);
+                    }
                     playerRepository.save(p);
+                    startIdleTimeout(p);
                     notifyPlayerOfDisconnect(p, disconnectedMessage);
                 });
     }
 
+    /*
+    Pairing does not cancel the timeout. When it runs, it finds the player no longer waiting since the same time and
+    leaves it alone.
+     */
+    private void startIdleTimeout(Player player) {
+        if (gameTimeouts.isIdleTimeoutEnabled() && player.getStatus() == PlayerStatus.AVAILABLE) {
+            long availableSince = player.getAvailableSince();
+            gameTimeouts.scheduleIdleTimeout(timeout -> removeIfIdle(player, availableSince));
+        }
+    }
+
+    /*
+    The player's lock is also taken by pairing, so the player cannot be paired between the check and the removal.
+     */
+    private void removeIfIdle(Player player, long availableSince) {
+        var playerName = player.getName();
+
+        boolean removed = playerLocks.withLocks(playerName, playerName, () -> {
+            if (player.getStatus() != PlayerStatus.AVAILABLE || player.getAvailableSince() != availableSince
+                    || player.isDetached() || playerRepository.findByName(playerName).orElse(null) != player) {
+                return false;
+            }
+            playerRepository.delete(player);
+            gameJournal.disconnected(0L, playerName, null);
+            return true;
+        });
+
+        if (removed) {
+            gameMetrics.countIdleTimeout();
+            notificationService.notifyPlayer(playerName, buildIdleMessage());
+        }
+    }
+
     private void notifyPlayerOfDisconnect(Player player, GameMessage message) {
         notificationService.notifyPlayer(player.getName(), message);
     }
@@ -0,0 +1,22 @@
+package org.hollaemor.gameofthree.gaming.infrastructure.session;
+
+import lombok.Getter;
+import lombok.Setter;
+import org.springframework.boot.context.properties.ConfigurationProperties;
+
+import java.time.Duration;
+
+/**
+ * Settings of the players' sessions, see {@link SessionResumption}.
+ */
+@Getter
+@Setter
+@ConfigurationProperties(prefix = "game.session")
+public class GameSessionProperties {
+
+    /**
+     * Time a player in a game has to reconnect after its session closed before it is removed and its opponent released;
+     * zero removes the player right away.
+     */
+    private Duration resumeTimeout = Duration.ZERO;
+}
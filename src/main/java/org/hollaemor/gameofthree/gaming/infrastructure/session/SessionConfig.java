@@ -0,0 +1,9 @@
+package org.hollaemor.gameofthree.gaming.infrastructure.session;
+
+import org.springframework.boot.context.properties.EnableConfigurationProperties;
+import org.springframework.context.annotation.Configuration;
+
+@Configuration
+@EnableConfigurationProperties(GameSessionProperties.class)
+public class SessionConfig {
+}
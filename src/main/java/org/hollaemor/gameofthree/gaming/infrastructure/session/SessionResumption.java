@@ -0,0 +1,103 @@
+package org.hollaemor.gameofthree.gaming.infrastructure.session;
+
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.binder.MeterBinder;
+import lombok.extern.slf4j.Slf4j;
+import org.hollaemor.gameofthree.gaming.domain.Player;
+import org.hollaemor.gameofthree.gaming.infrastructure.repository.PlayerRepository;
+import org.hollaemor.gameofthree.gaming.infrastructure.service.PlayerService;
+import org.hollaemor.gameofthree.gaming.infrastructure.timer.Timeout;
+import org.hollaemor.gameofthree.gaming.infrastructure.timer.TimerWheel;
+import org.springframework.stereotype.Component;
+
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+
+import static java.util.Optional.ofNullable;
+
+/**
+ * Keeps the game of a player whose session closed for {@code game.session.resume-timeout}. The player is detached
+ * and parked on the {@link TimerWheel}; a session connecting with the same username within the timeout re-attaches
+ * it, and its next start request resumes the game. Otherwise the player is removed and its opponent released.
+ */
+@Slf4j
+@Component
+public class SessionResumption implements MeterBinder {
+
+    private final GameSessionProperties properties;
+    private final PlayerRepository playerRepository;
+    private final PlayerService playerService;
+    private final TimerWheel timerWheel;
+
+    private final Map<String, Timeout> parkedPlayers = new ConcurrentHashMap<>();
+
+    public SessionResumption(GameSessionProperties properties, PlayerRepository playerRepository,
+                             PlayerService playerService, TimerWheel timerWheel) {
+        this.properties = properties;
+        this.playerRepository = playerRepository;
+        this.playerService = playerService;
+        this.timerWheel = timerWheel;
+    }
+
+    @Override
+    public void bindTo(MeterRegistry registry) {
+        Gauge.builder("game.sessions.parked", this, SessionResumption::countParked)
+                .description("Players in a game waiting for their session to reconnect")
+                .register(registry);
+    }
+
+    /**
+     * Parks the player of a closed session, and returns false if it is not in a game or resumption is disabled, in
+     * which case the caller removes it.
+     */
+    public boolean park(String playerName) {
+        if (properties.getResumeTimeout().isZero() || properties.getResumeTimeout().isNegative()) {
+            return false;
+        }
+        var player = playerRepository.findByName(playerName)
+                .filter(Player::hasOpponent);
+
+        if (player.isEmpty()) {
+            return false;
+        }
+        player.get().setDetached(true);
+
+        /*
+        The timeout is scheduled inside compute, so its task cannot look for it before it is in the map.
+         */
+        parkedPlayers.compute(playerName, (name, previous) -> {
+            ofNullable(previous).ifPresent(Timeout::cancel);
+            return timerWheel.schedule(timeout -> removeUnclaimed(name, timeout), properties.getResumeTimeout());
+        });
+        log.debug("player parked: {}", playerName);
+        return true;
+    }
+
+    /**
+     * Called once a session re-attached the player, which then no longer needs to be removed.
+     */
+    public void resumed(String playerName) {
+        ofNullable(parkedPlayers.remove(playerName))
+                .ifPresent(timeout -> {
+                    timeout.cancel();
+                    log.debug("player resumed: {}", playerName);
+                });
+    }
+
+    public int countParked() {
+        return parkedPlayers.size();
+    }
+
+    /*
+    Claiming the player through reattach keeps a session from re-attaching it while it is being removed.
+     */
+    private void removeUnclaimed(String playerName, Timeout timeout) {
+        if (!parkedPlayers.remove(playerName, timeout)) {
+            return;
+        }
+        playerRepository.findByName(playerName)
+                .filter(Player::reattach)
+                .ifPresent(player -> playerService.removePlayer(playerName));
+    }
+}
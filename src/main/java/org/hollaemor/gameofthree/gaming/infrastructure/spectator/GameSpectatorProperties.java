@@ -0,0 +1,31 @@
+package org.hollaemor.gameofthree.gaming.infrastructure.spectator;
+
+import lombok.Getter;
+import lombok.Setter;
+import org.springframework.boot.context.properties.ConfigurationProperties;
+
+import java.time.Duration;
+
+/**
+ * Settings of the frames published to the spectators of a game, see {@link SpectatorBroadcaster}.
+ */
+@Getter
+@Setter
+@ConfigurationProperties(prefix = "game.spectator")
+public class GameSpectatorProperties {
+
+    /**
+     * Whether frames after the START frame only carry what changed. Otherwise every frame carries the players too.
+     */
+    private boolean deltas = true;
+
+    /**
+     * Spectators a game may have before its moves are sampled.
+     */
+    private int sampleAbove = 1_000;
+
+    /**
+     * Least time between two move frames of a sampled game. START, GAMEOVER and DISCONNECT frames are always sent.
+     */
+    private Duration sampleInterval = Duration.ofMillis(250);
+}
@@ -0,0 +1,269 @@
+package org.hollaemor.gameofthree.gaming.infrastructure.spectator;
+
+import io.micrometer.core.instrument.FunctionCounter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.binder.MeterBinder;
+import org.hollaemor.gameofthree.gaming.domain.Game;
+import org.hollaemor.gameofthree.gaming.domain.GameNotFoundException;
+import org.hollaemor.gameofthree.gaming.domain.GameStatus;
+import org.hollaemor.gameofthree.gaming.infrastructure.broker.GameBrokerProperties;
+import org.hollaemor.gameofthree.gaming.infrastructure.repository.GameRepository;
+import org.springframework.context.event.EventListener;
+import org.springframework.messaging.simp.SimpMessageHeaderAccessor;
+import org.springframework.messaging.simp.SimpMessagingTemplate;
+import org.springframework.stereotype.Component;
+import org.springframework.web.socket.messaging.AbstractSubProtocolEvent;
+import org.springframework.web.socket.messaging.SessionDisconnectEvent;
+import org.springframework.web.socket.messaging.SessionSubscribeEvent;
+import org.springframework.web.socket.messaging.SessionUnsubscribeEvent;
+
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * Publishes the games to their spectators on {@code /topic/game.{id}}. A frame is converted once and handed to the
+ * broker once, which fans it out to every subscriber of the topic, so a game costs the same to publish however many
+ * watch it. Games nobody watches are not published at all, and their frames are not even built.
+ *
+ * <p>Spectators are counted from the subscriptions of the sessions of this node. Games with more than
+ * {@code sampleAbove} spectators are sampled: a move frame is only published if the last frame of the game is at least
+ * {@code sampleInterval} old. Every frame carries the value of the game, so a skipped frame is made up for by the next.
+ * With the broker relay the spectators may be subscribed on other nodes, so every game is published.
+ *
+ * <p>A spectator gets the current state of the game by subscribing to {@code /app/game.{id}} as well.
+ */
+@Component
+public class SpectatorBroadcaster implements MeterBinder {
+
+    public static final String GAME_TOPIC_PREFIX = "/topic/game.";
+
+    private final SimpMessagingTemplate messagingTemplate;
+    private final GameSpectatorProperties properties;
+    private final GameRepository gameRepository;
+    private final boolean publishUnwatched;
+    private final long sampleIntervalNanos;
+
+    private final Map<Long, Audience> audiences = new ConcurrentHashMap<>();
+
+    /*
+    Game topics subscribed by every session, by subscription id.
+     */
+    private final Map<String, Map<String, Long>> subscriptions = new ConcurrentHashMap<>();
+
+    private final LongAdder publishedFrames = new LongAdder();
+    private final LongAdder sampledFrames = new LongAdder();
+
+    public SpectatorBroadcaster(SimpMessagingTemplate messagingTemplate, GameSpectatorProperties properties,
+                                GameBrokerProperties brokerProperties, GameRepository gameRepository) {
+        this.messagingTemplate = messagingTemplate;
+        this.properties = properties;
+        this.gameRepository = gameRepository;
+        this.publishUnwatched = GameBrokerProperties.Mode.RELAY == brokerProperties.getMode();
+        this.sampleIntervalNanos = properties.getSampleInterval().toNanos();
+    }
+
+    @Override
+    public void bindTo(MeterRegistry registry) {
+        Gauge.builder("game.spectators", this, SpectatorBroadcaster::countSpectators)
+                .description("Subscriptions to the games played on this node")
+                .register(registry);
+
+        FunctionCounter.builder("game.spectator.frames", this, SpectatorBroadcaster::getPublishedFrames)
+                .description("Frames for the spectators of a game, published or sampled out")
+                .tag("outcome", "published")
+                .register(registry);
+
+        FunctionCounter.builder("game.spectator.frames", this, SpectatorBroadcaster::getSampledFrames)
+                .description("Frames for the spectators of a game, published or sampled out")
+                .tag("outcome", "sampled")
+                .register(registry);
+    }
+
+    public void paired(Game game) {
+        if (shouldPublish(game.getId(), false)) {
+            publish(fullFrame(game, GameStatus.START).build());
+        }
+    }
+
+    public void numberSent(Game game, int randomNumber) {
+        if (shouldPublish(game.getId(), false)) {
+            publish(frame(game, GameStatus.PLAY)
+                    .value(randomNumber)
+                    .build());
+        }
+    }
+
+    public void moved(Game game, int move, int value) {
+        if (shouldPublish(game.getId(), true)) {
+            publish(frame(game, GameStatus.PLAY)
+                    .value(value)
+                    .move(move)
+                    .moves(game.getMoveCount())
+                    .build());
+        }
+    }
+
+    public void gameOver(Game game, String winnerName) {
+        if (shouldPublish(game.getId(), false)) {
+            publish(frame(game, GameStatus.GAMEOVER)
+                    .value(game.getCurrentValue())
+                    .moves(game.getMoveCount())
+                    .winner(winnerName)
+                    .build());
+        }
+    }
+
+    public void disconnected(long gameId, String playerName) {
+        if (shouldPublish(gameId, false)) {
+            publish(SpectatorFrame.builder()
+                    .gameStatus(GameStatus.DISCONNECT)
+                    .gameId(gameId)
+                    .content(playerName + " disconnected from game")
+                    .build());
+        }
+    }
+
+    /**
+     * The full frame of the game's current state, for a spectator who starts watching it.
+     */
+    public SpectatorFrame snapshot(long gameId) {
+        var game = gameRepository.findById(gameId)
+                .orElseThrow(() -> new GameNotFoundException("Game not found: " + gameId));
+
+        var status = game.isOver() ? GameStatus.GAMEOVER : game.isStarted() ? GameStatus.PLAY : GameStatus.START;
+        return fullFrame(game, status)
+                .value(game.getCurrentValue())
+                .moves(game.getMoveCount())
+                .build();
+    }
+
+    @EventListener
+    public void handleSubscribe(SessionSubscribeEvent event) {
+        var accessor = SimpMessageHeaderAccessor.wrap(event.getMessage());
+        var gameId = gameIdOf(accessor.getDestination());
+
+        if (null == gameId || null == accessor.getSessionId() || null == accessor.getSubscriptionId()) {
+            return;
+        }
+        var previous = subscriptions.computeIfAbsent(accessor.getSessionId(), id -> new ConcurrentHashMap<>())
+                .put(accessor.getSubscriptionId(), gameId);
+
+        audiences.compute(gameId, (id, audience) -> {
+            var joined = null == audience ? new Audience() : audience;
+            joined.spectators++;
+            return joined;
+        });
+        if (null != previous) {
+            leave(previous);
+        }
+    }
+
+    @EventListener
+    public void handleUnsubscribe(SessionUnsubscribeEvent event) {
+        var sessionSubscriptions = subscriptionsOf(event);
+
+        if (null != sessionSubscriptions) {
+            var gameId = sessionSubscriptions.remove(SimpMessageHeaderAccessor.getSubscriptionId(
+                    event.getMessage().getHeaders()));
+            if (null != gameId) {
+                leave(gameId);
+            }
+        }
+    }
+
+    @EventListener
+    public void handleDisconnect(SessionDisconnectEvent event) {
+        var sessionSubscriptions = null == event.getSessionId() ? null : subscriptions.remove(event.getSessionId());
+
+        if (null != sessionSubscriptions) {
+            sessionSubscriptions.values().forEach(this::leave);
+        }
+    }
+
+    public int countSpectators() {
+        return audiences.values().stream().mapToInt(audience -> audience.spectators).sum();
+    }
+
+    public long getPublishedFrames() {
+        return publishedFrames.sum();
+    }
+
+    public long getSampledFrames() {
+        return sampledFrames.sum();
+    }
+
+    /*
+    Checks whether any game is watched before looking the game up, which keeps the move path free of allocations
+    while nobody watches.
+     */
+    private boolean shouldPublish(long gameId, boolean sampled) {
+        if (audiences.isEmpty()) {
+            return publishUnwatched;
+        }
+        var audience = audiences.get(gameId);
+
+        if (null == audience) {
+            return publishUnwatched;
+        }
+        long now = System.nanoTime();
+
+        if (sampled && audience.spectators > properties.getSampleAbove()
+                && now - audience.publishedAt < sampleIntervalNanos) {
+            sampledFrames.increment();
+            return false;
+        }
+        audience.publishedAt = now;
+        return true;
+    }
+
+    private void publish(SpectatorFrame frame) {
+        messagingTemplate.convertAndSend(GAME_TOPIC_PREFIX + frame.getGameId(), frame);
+        publishedFrames.increment();
+    }
+
+    private SpectatorFrame.SpectatorFrameBuilder frame(Game game, GameStatus status) {
+        return properties.isDeltas()
+                ? SpectatorFrame.builder().gameStatus(status).gameId(game.getId())
+                : fullFrame(game, status);
+    }
+
+    private static SpectatorFrame.SpectatorFrameBuilder fullFrame(Game game, GameStatus status) {
+        return SpectatorFrame.builder()
+                .gameStatus(status)
+                .gameId(game.getId())
+                .primaryPlayer(game.getPrimaryPlayerName())
+                .secondaryPlayer(game.getSecondaryPlayerName());
+    }
+
+    private Map<String, Long> subscriptionsOf(AbstractSubProtocolEvent event) {
+        var sessionId = SimpMessageHeaderAccessor.getSessionId(event.getMessage().getHeaders());
+        return null == sessionId ? null : subscriptions.get(sessionId);
+    }
+
+    private void leave(long gameId) {
+        audiences.computeIfPresent(gameId, (id, audience) -> --audience.spectators == 0 ? null : audience);
+    }
+
+    private static Long gameIdOf(String destination) {
+        if (null == destination || !destination.startsWith(GAME_TOPIC_PREFIX)) {
+            return null;
+        }
+        try {
+            return Long.parseLong(destination.substring(GAME_TOPIC_PREFIX.length()));
+        } catch (NumberFormatException ex) {
+            return null;
+        }
+    }
+
+
+    /*
+    Changed under the lock of its entry in the audiences, read without it.
+     */
+    private static class Audience {
+
+        private volatile int spectators;
+        private volatile long publishedAt;
+    }
+}
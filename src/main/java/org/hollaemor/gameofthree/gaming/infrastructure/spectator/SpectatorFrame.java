@@ -0,0 +1,45 @@
+package org.hollaemor.gameofthree.gaming.infrastructure.spectator;
+
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Getter;
+import lombok.NoArgsConstructor;
+import org.hollaemor.gameofthree.gaming.domain.GameStatus;
+
+/**
+ * State of a game as published to its spectators. A full frame names the players; a delta frame only carries what
+ * changed with the move, and is written without the fields it leaves at their default value. {@code moves} orders the
+ * frames of a game, so a spectator can drop a frame older than the one it has.
+ */
+@Builder
+@NoArgsConstructor
+@AllArgsConstructor
+public class SpectatorFrame {
+
+    @Getter
+    private GameStatus gameStatus;
+
+    @Getter
+    private long gameId;
+
+    @Getter
+    private String primaryPlayer;
+
+    @Getter
+    private String secondaryPlayer;
+
+    @Getter
+    private int value;
+
+    @Getter
+    private int move;
+
+    @Getter
+    private int moves;
+
+    @Getter
+    private String winner;
+
+    @Getter
+    private String content;
+}
@@ -0,0 +1,23 @@
+package org.hollaemor.gameofthree.gaming.infrastructure.spectator;
+
+import java.security.Principal;
+
+/**
+ * User of a session that connected to watch games. A spectator is not a player: it is not added to the lobby and
+ * cannot send to the application.
+ */
+public class SpectatorPrincipal implements Principal {
+
+    private static final String NAME_PREFIX = "spectator-";
+
+    private final String name;
+
+    public SpectatorPrincipal(String sessionId) {
+        this.name = NAME_PREFIX + sessionId;
+    }
+
+    @Override
+    public String getName() {
+        return name;
+    }
+}
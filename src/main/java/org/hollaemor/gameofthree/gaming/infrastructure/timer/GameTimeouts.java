@@ -0,0 +1,48 @@
+package org.hollaemor.gameofthree.gaming.infrastructure.timer;
+
+import org.springframework.stereotype.Component;
+
+import java.time.Duration;
+import java.util.function.Consumer;
+
+/**
+ * The turn and lobby deadlines of the players, kept on the {@link TimerWheel}. A deadline whose limit is not
+ * configured is not scheduled at all.
+ */
+@Component
+public class GameTimeouts {
+
+    private final GameTimerProperties properties;
+    private final TimerWheel timerWheel;
+
+    public GameTimeouts(GameTimerProperties properties, TimerWheel timerWheel) {
+        this.properties = properties;
+        this.timerWheel = timerWheel;
+    }
+
+    public boolean isTurnTimeoutEnabled() {
+        return isPositive(properties.getTurnTimeout());
+    }
+
+    public boolean isIdleTimeoutEnabled() {
+        return isPositive(properties.getIdleTimeout());
+    }
+
+    /**
+     * Runs {@code task} once the turn timeout has passed, unless it is cancelled before.
+     */
+    public Timeout scheduleTurnTimeout(Consumer<Timeout> task) {
+        return timerWheel.schedule(task, properties.getTurnTimeout());
+    }
+
+    /**
+     * Runs {@code task} once the idle timeout has passed, unless it is cancelled before.
+     */
+    public Timeout scheduleIdleTimeout(Consumer<Timeout> task) {
+        return timerWheel.schedule(task, properties.getIdleTimeout());
+    }
+
+    private static boolean isPositive(Duration duration) {
+        return !duration.isZero() && !duration.isNegative();
+    }
+}
@@ -0,0 +1,37 @@
+package org.hollaemor.gameofthree.gaming.infrastructure.timer;
+
+import lombok.Getter;
+import lombok.Setter;
+import org.springframework.boot.context.properties.ConfigurationProperties;
+
+import java.time.Duration;
+
+/**
+ * Settings of the {@link TimerWheel} and of the deadlines kept on it, see {@link GameTimeouts}.
+ */
+@Getter
+@Setter
+@ConfigurationProperties(prefix = "game.timer")
+public class GameTimerProperties {
+
+    /**
+     * Time covered by one bucket of the lowest level of the wheel; timeouts expire up to one tick late.
+     */
+    private Duration tickDuration = Duration.ofMillis(100);
+
+    /**
+     * Number of buckets of every level of the wheel, rounded up to a power of two.
+     */
+    private int ticksPerWheel = 512;
+
+    /**
+     * Time a player has for its turn, including sending the random number, before it loses the game; zero for no
+     * limit.
+     */
+    private Duration turnTimeout = Duration.ZERO;
+
+    /**
+     * Time a player may wait in the lobby without being paired before it is removed; zero for no limit.
+     */
+    private Duration idleTimeout = Duration.ZERO;
+}
@@ -0,0 +1,61 @@
+package org.hollaemor.gameofthree.gaming.infrastructure.timer;
+
+import java.util.concurrent.atomic.AtomicIntegerFieldUpdater;
+import java.util.function.Consumer;
+
+/**
+ * A task scheduled on a {@link TimerWheel}. The links to the neighbouring timeouts of its bucket are only touched by
+ * the wheel's thread.
+ */
+public class Timeout {
+
+    private static final int SCHEDULED = 0;
+    private static final int CANCELLED = 1;
+    private static final int EXPIRED = 2;
+
+    private static final AtomicIntegerFieldUpdater<Timeout> STATE =
+            AtomicIntegerFieldUpdater.newUpdater(Timeout.class, "state");
+
+    private final TimerWheel wheel;
+    private final Consumer<Timeout> task;
+    final long deadline;
+
+    private volatile int state = SCHEDULED;
+
+    TimerWheel.Bucket bucket;
+    Timeout previous;
+    Timeout next;
+
+    Timeout(TimerWheel wheel, Consumer<Timeout> task, long deadline) {
+        this.wheel = wheel;
+        this.task = task;
+        this.deadline = deadline;
+    }
+
+    /**
+     * Returns false if the timeout already expired or was cancelled before.
+     */
+    public boolean cancel() {
+        if (!STATE.compareAndSet(this, SCHEDULED, CANCELLED)) {
+            return false;
+        }
+        wheel.cancelled(this);
+        return true;
+    }
+
+    public boolean isCancelled() {
+        return state == CANCELLED;
+    }
+
+    public boolean isExpired() {
+        return state == EXPIRED;
+    }
+
+    boolean expire() {
+        return STATE.compareAndSet(this, SCHEDULED, EXPIRED);
+    }
+
+    void run() {
+        task.accept(this);
+    }
+}
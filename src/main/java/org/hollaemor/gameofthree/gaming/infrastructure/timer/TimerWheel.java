@@ -0,0 +1,293 @@
+package org.hollaemor.gameofthree.gaming.infrastructure.timer;
+
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.binder.MeterBinder;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.DisposableBean;
+import org.springframework.beans.factory.InitializingBean;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.stereotype.Component;
+
+import java.time.Duration;
+import java.util.Queue;
+import java.util.concurrent.ConcurrentLinkedQueue;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.function.Consumer;
+import java.util.function.LongSupplier;
+
+/**
+ * Hierarchical timing wheel for the deadlines of the players. Every level is a wheel of {@code ticks-per-wheel}
+ * buckets, each bucket of a level covering a whole turn of the level below. A timeout goes into the bucket of the
+ * lowest level that reaches its deadline, and moves down a level whenever the wheel below comes around to its bucket.
+ * A single thread expires one bucket of the lowest level per tick, so scheduling and cancelling a timeout costs O(1),
+ * a timeout is moved at most once per level, and there is no {@code ScheduledFuture} or heap entry per player.
+ *
+ * <p>Scheduling and cancelling only queue the timeout for the wheel's thread, which is the only one touching the
+ * buckets. Tasks run on that thread and must be short.
+ */
+@Slf4j
+@Component
+public class TimerWheel implements InitializingBean, DisposableBean, MeterBinder {
+
+    private static final int MAX_TRANSFERS_PER_TICK = 100_000;
+
+    private final long tickNanos;
+    private final int bitsPerLevel;
+    private final int mask;
+    private final Bucket[][] levels;
+    private final LongSupplier clock;
+    private final long startTime;
+
+    private final Queue<Timeout> scheduled = new ConcurrentLinkedQueue<>();
+    private final Queue<Timeout> cancelled = new ConcurrentLinkedQueue<>();
+    private final AtomicLong pendingTimeouts = new AtomicLong();
+
+    /*
+    Ticks expired so far, only touched by the wheel's thread.
+     */
+    private long tick;
+
+    private volatile Thread ticker;
+    private volatile boolean running;
+
+    @Autowired
+    public TimerWheel(GameTimerProperties properties) {
+        this(properties, System::nanoTime);
+    }
+
+    TimerWheel(GameTimerProperties properties, LongSupplier clock) {
+        this.tickNanos = Math.max(TimeUnit.MILLISECONDS.toNanos(1), properties.getTickDuration().toNanos());
+        this.bitsPerLevel = bitsPerLevel(properties.getTicksPerWheel());
+        this.mask = (1 << bitsPerLevel) - 1;
+        this.clock = clock;
+        this.startTime = clock.getAsLong();
+
+        /*
+        Enough levels for any tick a long can count, so no deadline is too far away for the top level.
+         */
+        this.levels = new Bucket[(Long.SIZE - 2) / bitsPerLevel + 1][mask + 1];
+
+        for (var level : levels) {
+            for (int i = 0; i < level.length; i++) {
+                level[i] = new Bucket();
+            }
+        }
+    }
+
+    @Override
+    public void bindTo(MeterRegistry registry) {
+        Gauge.builder("game.timer.pending", this, TimerWheel::getPendingTimeouts)
+                .description("Timeouts scheduled on the timer wheel")
+                .register(registry);
+    }
+
+    @Override
+    public void afterPropertiesSet() {
+        running = true;
+        ticker = new Thread(this::run, "timer-wheel");
+        ticker.setDaemon(true);
+        ticker.start();
+    }
+
+    @Override
+    public void destroy() throws InterruptedException {
+        running = false;
+
+        if (null != ticker) {
+            ticker.interrupt();
+            ticker.join(TimeUnit.SECONDS.toMillis(5));
+        }
+    }
+
+    /**
+     * Runs {@code task} with its timeout once {@code delay} has passed, unless the timeout is cancelled before.
+     */
+    public Timeout schedule(Consumer<Timeout> task, Duration delay) {
+        var timeout = new Timeout(this, task, clock.getAsLong() - startTime + Math.max(0, delay.toNanos()));
+        pendingTimeouts.incrementAndGet();
+        scheduled.offer(timeout);
+        return timeout;
+    }
+
+    public long getPendingTimeouts() {
+        return pendingTimeouts.get();
+    }
+
+    void cancelled(Timeout timeout) {
+        pendingTimeouts.decrementAndGet();
+        cancelled.offer(timeout);
+    }
+
+    /**
+     * Expires every tick that ended before {@code now}, on the calling thread.
+     */
+    void advanceTo(long now) {
+        long elapsed = now - startTime;
+
+        while ((tick + 1) * tickNanos <= elapsed) {
+            removeCancelled();
+            transferScheduled();
+            cascade();
+            levels[0][(int) (tick & mask)].expire();
+            tick++;
+        }
+    }
+
+    private void run() {
+        while (running) {
+            long sleepNanos = startTime + (tick + 1) * tickNanos - clock.getAsLong();
+            try {
+                if (sleepNanos > 0) {
+                    TimeUnit.NANOSECONDS.sleep(sleepNanos);
+                }
+                advanceTo(clock.getAsLong());
+            } catch (InterruptedException ex) {
+                Thread.currentThread().interrupt();
+                return;
+            } catch (RuntimeException ex) {
+                log.warn("timer wheel tick failed", ex);
+            }
+        }
+    }
+
+    private void removeCancelled() {
+        for (var timeout = cancelled.poll(); null != timeout; timeout = cancelled.poll()) {
+            if (null != timeout.bucket) {
+                timeout.bucket.remove(timeout);
+            }
+        }
+    }
+
+    private void transferScheduled() {
+        for (int i = 0; i < MAX_TRANSFERS_PER_TICK; i++) {
+            var timeout = scheduled.poll();
+
+            if (null == timeout) {
+                return;
+            }
+            if (!timeout.isCancelled()) {
+                place(timeout);
+            }
+        }
+    }
+
+    /*
+    Once the wheel of a level comes around to the start of a bucket of the level above, that bucket's timeouts are
+    due within the next turn of the lower level and are placed again. Higher levels go first, since their timeouts may
+    land in the bucket of a lower level that is due now as well.
+     */
+    private void cascade() {
+        for (int level = levels.length - 1; level > 0; level--) {
+            int shift = level * bitsPerLevel;
+
+            if ((tick & ((1L << shift) - 1)) == 0) {
+                var timeout = levels[level][(int) ((tick >>> shift) & mask)].removeAll();
+
+                while (null != timeout) {
+                    var next = timeout.next;
+                    timeout.next = null;
+                    place(timeout);
+                    timeout = next;
+                }
+            }
+        }
+    }
+
+    /*
+    A timeout whose deadline already passed goes into the current bucket, so it expires with this tick. Otherwise the
+    level is the lowest one whose turn, counted from the current tick, reaches the deadline.
+     */
+    private void place(Timeout timeout) {
+        long deadlineTick = Math.max(timeout.deadline / tickNanos, tick);
+        long ticksAway = deadlineTick - tick;
+
+        int level = 0;
+        while (level < levels.length - 1 && ticksAway >= 1L << ((level + 1) * bitsPerLevel)) {
+            level++;
+        }
+        levels[level][(int) ((deadlineTick >>> (level * bitsPerLevel)) & mask)].add(timeout);
+    }
+
+    private void expire(Timeout timeout) {
+        if (!timeout.expire()) {
+            return;
+        }
+        pendingTimeouts.decrementAndGet();
+        try {
+            timeout.run();
+        } catch (RuntimeException ex) {
+            log.warn("timeout task failed", ex);
+        }
+    }
+
+    private static int bitsPerLevel(int ticksPerWheel) {
+        int bits = 1;
+        while (1 << bits < ticksPerWheel && bits < 20) {
+            bits++;
+        }
+        return bits;
+    }
+
+
+    /*
+    Doubly linked list of the timeouts of one bucket, so a cancelled timeout is unlinked in O(1).
+     */
+    final class Bucket {
+
+        private Timeout head;
+        private Timeout tail;
+
+        void add(Timeout timeout) {
+            timeout.bucket = this;
+
+            if (null == head) {
+                head = timeout;
+            } else {
+                tail.next = timeout;
+                timeout.previous = tail;
+            }
+            tail = timeout;
+        }
+
+        void remove(Timeout timeout) {
+            if (null != timeout.previous) {
+                timeout.previous.next = timeout.next;
+            } else {
+                head = timeout.next;
+            }
+            if (null != timeout.next) {
+                timeout.next.previous = timeout.previous;
+            } else {
+                tail = timeout.previous;
+            }
+            timeout.bucket = null;
+            timeout.previous = null;
+            timeout.next = null;
+        }
+
+        Timeout removeAll() {
+            var first = head;
+
+            for (var timeout = head; null != timeout; timeout = timeout.next) {
+                timeout.bucket = null;
+                timeout.previous = null;
+            }
+            head = null;
+            tail = null;
+            return first;
+        }
+
+        void expire() {
+            var timeout = head;
+
+            while (null != timeout) {
+                var next = timeout.next;
+                remove(timeout);
+                TimerWheel.this.expire(timeout);
+                timeout = next;
+            }
+        }
+    }
+}
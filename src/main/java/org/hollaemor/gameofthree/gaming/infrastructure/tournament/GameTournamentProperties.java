@@ -0,0 +1,20 @@
+package org.hollaemor.gameofthree.gaming.infrastructure.tournament;
+
+import lombok.Getter;
+import lombok.Setter;
+import org.springframework.boot.context.properties.ConfigurationProperties;
+
+/**
+ * Settings of the tournaments, see {@link TournamentDirector}.
+ */
+@Getter
+@Setter
+@ConfigurationProperties(prefix = "game.tournament")
+public class GameTournamentProperties {
+
+    /**
+     * Players registered before a tournament starts, at least 2. Brackets of other sizes than a power of two give byes
+     * in the first round.
+     */
+    private int size = 8;
+}
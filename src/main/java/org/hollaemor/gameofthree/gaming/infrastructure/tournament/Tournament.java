@@ -0,0 +1,160 @@
+package org.hollaemor.gameofthree.gaming.infrastructure.tournament;
+
+import lombok.Getter;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Objects;
+
+/**
+ * Single-elimination bracket of a tournament. The players of a round are paired in bracket order, the first with the
+ * second, the third with the fourth and so on, and the winners keep that order in the next round, so the winners of
+ * neighbouring matches meet. The last player of a round with an odd number of players gets a bye.
+ *
+ * <p>Results come in from the game threads and the rounds are started by the {@link TournamentDirector}, so every
+ * method is synchronized. Deciding a match is O(1), which is what keeps a round of thousands of matches from costing
+ * the game threads anything but their own result.
+ */
+public class Tournament {
+
+    @Getter
+    private final long id;
+
+    private final List<String> entrants = new ArrayList<>();
+
+    /*
+    Current round: its players in bracket order, the winner of each match, null until it is decided or when nobody
+    advances, and the place of every player still in the round.
+     */
+    private String[] players = new String[0];
+    private String[] winners = new String[0];
+    private boolean[] decided = new boolean[0];
+    private final Map<String, Integer> places = new HashMap<>();
+
+    private int undecided;
+
+    @Getter
+    private int round;
+
+    /*
+    System.nanoTime() at which the current round was started.
+     */
+    @Getter
+    private long roundStartedAt;
+
+    Tournament(long id) {
+        this.id = id;
+    }
+
+    synchronized int addEntrant(String playerName) {
+        entrants.add(playerName);
+        return entrants.size();
+    }
+
+    synchronized void removeEntrant(String playerName) {
+        entrants.remove(playerName);
+    }
+
+    synchronized int countEntrants() {
+        return entrants.size();
+    }
+
+    /**
+     * Starts the next round with the winners of the current one, or the first round with the entrants, and returns
+     * its matches. Returns no matches once a single player or none is left.
+     */
+    synchronized List<TournamentMatch> nextRound(long now) {
+        players = round == 0
+                ? entrants.toArray(new String[0])
+                : Arrays.stream(winners).filter(Objects::nonNull).toArray(String[]::new);
+
+        int matchCount = (players.length + 1) / 2;
+        winners = new String[matchCount];
+        decided = new boolean[matchCount];
+        places.clear();
+
+        if (players.length < 2) {
+            return List.of();
+        }
+        round++;
+        roundStartedAt = now;
+        undecided = players.length / 2;
+
+        var matches = new ArrayList<TournamentMatch>(undecided);
+
+        for (int place = 0; place < players.length; place++) {
+            places.put(players[place], place);
+        }
+        for (int match = 0; match < undecided; match++) {
+            matches.add(new TournamentMatch(this, match, players[2 * match], players[2 * match + 1]));
+        }
+        if (players.length % 2 == 1) {
+            winners[matchCount - 1] = players[players.length - 1];
+            decided[matchCount - 1] = true;
+        }
+        return matches;
+    }
+
+    /**
+     * Whether the two players meet in an undecided match of the current round.
+     */
+    synchronized boolean isPlaying(String playerName, String opponentName) {
+        var place = places.get(playerName);
+        var opponentPlace = places.get(opponentName);
+
+        return null != place && null != opponentPlace && place / 2 == opponentPlace / 2 && !decided[place / 2];
+    }
+
+    /**
+     * Decides match {@code match} of the current round for {@code winnerName}, or for nobody if it is null, and returns
+     * true if that was the last undecided match of the round. A match already decided is left alone.
+     */
+    synchronized boolean decide(int match, String winnerName) {
+        if (match >= decided.length || decided[match]) {
+            return false;
+        }
+        winners[match] = winnerName;
+        decided[match] = true;
+        return --undecided == 0;
+    }
+
+    /**
+     * Decides the match of {@code winnerName} in the current round, see {@link #decide(int, String)}.
+     */
+    synchronized boolean decide(String winnerName) {
+        var place = places.get(winnerName);
+        return null != place && decide(place / 2, winnerName);
+    }
+
+    /**
+     * Takes a player who left out of the bracket. An undecided match of the player is a walkover for its opponent, and
+     * a player who already won its match does not advance, which gives its next opponent a bye. Returns true if this
+     * decided the last undecided match of the round.
+     */
+    synchronized boolean withdraw(String playerName) {
+        var place = places.remove(playerName);
+
+        if (null == place) {
+            return false;
+        }
+        int match = place / 2;
+
+        if (decided[match]) {
+            if (playerName.equals(winners[match])) {
+                winners[match] = null;
+            }
+            return false;
+        }
+        return decide(match, players[place ^ 1]);
+    }
+
+    /**
+     * The winner of the tournament once the last round is over, null if every finalist left.
+     */
+    synchronized String getChampion() {
+        return players.length == 1 ? players[0] : null;
+    }
+}
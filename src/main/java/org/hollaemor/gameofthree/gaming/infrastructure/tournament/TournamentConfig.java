@@ -0,0 +1,9 @@
+package org.hollaemor.gameofthree.gaming.infrastructure.tournament;
+
+import org.springframework.boot.context.properties.EnableConfigurationProperties;
+import org.springframework.context.annotation.Configuration;
+
+@Configuration
+@EnableConfigurationProperties(GameTournamentProperties.class)
+public class TournamentConfig {
+}
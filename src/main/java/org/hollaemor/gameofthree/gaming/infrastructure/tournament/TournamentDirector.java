@@ -0,0 +1,131 @@
+package org.hollaemor.gameofthree.gaming.infrastructure.tournament;
+
+import lombok.extern.slf4j.Slf4j;
+import org.hollaemor.gameofthree.gaming.domain.GameService;
+import org.hollaemor.gameofthree.gaming.domain.PlayerStatus;
+import org.hollaemor.gameofthree.gaming.infrastructure.metrics.GameMetrics;
+import org.hollaemor.gameofthree.gaming.infrastructure.repository.PlayerRepository;
+import org.springframework.beans.factory.DisposableBean;
+import org.springframework.beans.factory.InitializingBean;
+import org.springframework.stereotype.Component;
+
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Runs the tournaments. A single thread takes the tournaments out of the {@link TournamentQueue} once they are full
+ * or their round is over, and starts every match of the next round through the {@link GameService}, whose START
+ * messages go out in one batch. The games themselves are played like any other, and their results reach the bracket
+ * from the game threads, so no thread waits for a match however large the bracket is.
+ *
+ * <p>The time from the start of a round to the result of its last match is recorded as {@code game.tournament.round}.
+ */
+@Slf4j
+@Component
+public class TournamentDirector implements InitializingBean, DisposableBean {
+
+    private static final long POLL_TIMEOUT_MILLIS = 1_000;
+
+    private final TournamentQueue queue;
+    private final GameService gameService;
+    private final PlayerRepository playerRepository;
+    private final GameMetrics gameMetrics;
+
+    private volatile Thread worker;
+    private volatile boolean running;
+
+    public TournamentDirector(TournamentQueue queue, GameService gameService, PlayerRepository playerRepository,
+                              GameMetrics gameMetrics) {
+        this.queue = queue;
+        this.gameService = gameService;
+        this.playerRepository = playerRepository;
+        this.gameMetrics = gameMetrics;
+    }
+
+    @Override
+    public void afterPropertiesSet() {
+        running = true;
+        worker = new Thread(this::run, "tournament-director");
+        worker.setDaemon(true);
+        worker.start();
+    }
+
+    @Override
+    public void destroy() throws InterruptedException {
+        running = false;
+
+        if (null != worker) {
+            worker.interrupt();
+            worker.join(TimeUnit.SECONDS.toMillis(5));
+        }
+    }
+
+    /**
+     * Takes the next tournament out of the queue, waiting up to {@code timeoutMillis} for it, and starts its next
+     * round or ends it. Returns false if there was none.
+     */
+    boolean runOnce(long timeoutMillis) throws InterruptedException {
+        var tournament = queue.poll(timeoutMillis);
+
+        if (null == tournament) {
+            return false;
+        }
+        long now = System.nanoTime();
+
+        if (tournament.getRound() > 0) {
+            gameMetrics.recordTournamentRound(now - tournament.getRoundStartedAt());
+        }
+        var matches = tournament.nextRound(now);
+
+        if (matches.isEmpty()) {
+            finish(tournament);
+            return true;
+        }
+        log.debug("starting round {} of tournament {} with {} matches", tournament.getRound(), tournament.getId(),
+                matches.size());
+
+        for (var match : gameService.startTournamentRound(matches)) {
+            queue.walkover(match, waitingPlayer(match));
+        }
+        return true;
+    }
+
+    private void run() {
+        while (running) {
+            try {
+                runOnce(POLL_TIMEOUT_MILLIS);
+            } catch (InterruptedException ex) {
+                Thread.currentThread().interrupt();
+                return;
+            } catch (RuntimeException ex) {
+                log.warn("tournament director failed", ex);
+            }
+        }
+    }
+
+    private void finish(Tournament tournament) {
+        queue.finish(tournament);
+        var champion = tournament.getChampion();
+
+        log.debug("tournament {} won by {}", tournament.getId(), champion);
+
+        if (null != champion) {
+            gameService.releaseChampion(champion);
+        }
+    }
+
+    /*
+    A match is only left unstarted when a player left, so the winner is the other one if it is still waiting.
+     */
+    private String waitingPlayer(TournamentMatch match) {
+        if (isWaiting(match.getFirstPlayerName())) {
+            return match.getFirstPlayerName();
+        }
+        return isWaiting(match.getSecondPlayerName()) ? match.getSecondPlayerName() : null;
+    }
+
+    private boolean isWaiting(String playerName) {
+        return playerRepository.findByName(playerName)
+                .filter(player -> player.getStatus() == PlayerStatus.IN_TOURNAMENT && !player.hasOpponent())
+                .isPresent();
+    }
+}
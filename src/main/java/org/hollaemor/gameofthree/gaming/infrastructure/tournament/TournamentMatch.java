@@ -0,0 +1,22 @@
+package org.hollaemor.gameofthree.gaming.infrastructure.tournament;
+
+import lombok.Getter;
+
+/**
+ * A match of the current round of a tournament, between the players of two neighbouring places of the bracket.
+ */
+@Getter
+public class TournamentMatch {
+
+    private final Tournament tournament;
+    private final int index;
+    private final String firstPlayerName;
+    private final String secondPlayerName;
+
+    TournamentMatch(Tournament tournament, int index, String firstPlayerName, String secondPlayerName) {
+        this.tournament = tournament;
+        this.index = index;
+        this.firstPlayerName = firstPlayerName;
+        this.secondPlayerName = secondPlayerName;
+    }
+}
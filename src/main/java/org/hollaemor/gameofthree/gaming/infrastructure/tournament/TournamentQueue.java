@@ -0,0 +1,163 @@
+package org.hollaemor.gameofthree.gaming.infrastructure.tournament;
+
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.binder.MeterBinder;
+import org.hollaemor.gameofthree.gaming.domain.Player;
+import org.springframework.stereotype.Component;
+
+import java.util.Map;
+import java.util.concurrent.BlockingQueue;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.LinkedBlockingQueue;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Registrations and results of the tournaments, kept for the {@link TournamentDirector}. Players register for the
+ * tournament being formed, which is handed to the director once {@code size} players registered. Results come in as
+ * games end or players leave; a tournament is handed to the director again when the last match of its round was
+ * decided, so the director only ever waits for work and never for a match.
+ */
+@Component
+public class TournamentQueue implements MeterBinder {
+
+    private final GameTournamentProperties properties;
+
+    /*
+    The tournament of every player registered or still in the bracket.
+     */
+    private final Map<String, Tournament> entrants = new ConcurrentHashMap<>();
+
+    private final BlockingQueue<Tournament> work = new LinkedBlockingQueue<>();
+
+    private long tournamentCount;
+
+    private Tournament forming;
+
+    public TournamentQueue(GameTournamentProperties properties) {
+        this.properties = properties;
+    }
+
+    @Override
+    public void bindTo(MeterRegistry registry) {
+        Gauge.builder("game.tournament.players", this, TournamentQueue::countEntrants)
+                .description("Players registered for a tournament or still in its bracket")
+                .register(registry);
+    }
+
+    /**
+     * Registers the player for the tournament being formed and returns the number of players registered for it so
+     * far; the tournament is started once there are {@code size} of them.
+     */
+    public synchronized int register(Player player) {
+        if (null == forming) {
+            forming = new Tournament(++tournamentCount);
+        }
+        var tournament = forming;
+
+        if (null != entrants.putIfAbsent(player.getName(), tournament)) {
+            return tournament.countEntrants();
+        }
+        int registered = tournament.addEntrant(player.getName());
+
+        if (registered >= getSize()) {
+            forming = null;
+            work.offer(tournament);
+        }
+        return registered;
+    }
+
+    public int getSize() {
+        return Math.max(2, properties.getSize());
+    }
+
+    public boolean isEntered(String playerName) {
+        return entrants.containsKey(playerName);
+    }
+
+    /**
+     * Whether the game between the two players is a match of the current round of their tournament.
+     */
+    public boolean isMatch(String playerName, String opponentName) {
+        var tournament = entrants.get(playerName);
+        return null != tournament && tournament == entrants.get(opponentName)
+                && tournament.isPlaying(playerName, opponentName);
+    }
+
+    /**
+     * Records the result of a match; the loser is out of the tournament.
+     */
+    public void matchOver(String winnerName, String loserName) {
+        var tournament = entrants.get(winnerName);
+
+        if (null == tournament) {
+            return;
+        }
+        entrants.remove(loserName, tournament);
+
+        if (tournament.decide(winnerName)) {
+            work.offer(tournament);
+        }
+    }
+
+    /**
+     * Decides a match that could not be started, for the player still waiting for it or for nobody.
+     */
+    public void walkover(TournamentMatch match, String winnerName) {
+        var tournament = match.getTournament();
+
+        if (!match.getFirstPlayerName().equals(winnerName)) {
+            entrants.remove(match.getFirstPlayerName(), tournament);
+        }
+        if (!match.getSecondPlayerName().equals(winnerName)) {
+            entrants.remove(match.getSecondPlayerName(), tournament);
+        }
+        if (tournament.decide(match.getIndex(), winnerName)) {
+            work.offer(tournament);
+        }
+    }
+
+    /**
+     * Takes a player who left out of its tournament. A match the player was in is a walkover for its opponent.
+     */
+    public void withdraw(String playerName) {
+        Tournament tournament;
+
+        synchronized (this) {
+            tournament = entrants.remove(playerName);
+
+            if (null == tournament) {
+                return;
+            }
+            if (tournament == forming) {
+                tournament.removeEntrant(playerName);
+                return;
+            }
+        }
+        if (tournament.withdraw(playerName)) {
+            work.offer(tournament);
+        }
+    }
+
+    /**
+     * Takes the champion, or nobody, out of a tournament that is over.
+     */
+    public void finish(Tournament tournament) {
+        var champion = tournament.getChampion();
+
+        if (null != champion) {
+            entrants.remove(champion, tournament);
+        }
+    }
+
+    /**
+     * Takes the next tournament whose round is over, or which is complete, waiting up to {@code timeoutMillis} for it.
+     */
+    public Tournament poll(long timeoutMillis) throws InterruptedException {
+        return work.poll(timeoutMillis, TimeUnit.MILLISECONDS);
+    }
+
+    public int countEntrants() {
+        return entrants.size();
+    }
+}
@@ -41,20 +41,47 @@ function connect() {
         return;
     }
 
+    connectOver(username, 'WebSocket' in window);
+}
+
+/*
+The plain WebSocket endpoint is preferred. SockJS is the fallback for browsers without WebSocket and for networks
+that block the upgrade, in which case the socket fails before any STOMP frame is received.
+*/
+function openSocket(useWebSocket) {
+    if (useWebSocket) {
+        var scheme = window.location.protocol === 'https:' ? 'wss://' : 'ws://';
+        return new WebSocket(scheme + window.location.host + '/game-of-three-ws');
+    }
+    return new SockJS('/game-of-three');
+}
 
-    var socket = new SockJS('/game-of-three');
-    stompClient = Stomp.over(socket);
+/*
+A dropped connection is reopened under the same username, so the server can hand back the game it kept for the
+player. The first start request after reconnecting is answered with RESUME.
+*/
+var RECONNECT_ATTEMPTS = 5;
+var RECONNECT_DELAY_MILLIS = 2000;
+
+function connectOver(username, useWebSocket, reconnectAttempt) {
+    var sessionOpened = false;
+    var frameReceived = false;
+    var reconnecting = false;
+
+    stompClient = Stomp.over(openSocket(useWebSocket));
     stompClient.reconnect_delay = 0;
     stompClient.debug = function (str) {};
 
     stompClient.connect({
-        username: username
+        username: username,
+        format: 'compact'
     }, function (frame) {
+        sessionOpened = true;
         setConnected(true);
 
         start();
         stompClient.subscribe('/user/queue/updates', function (response) {
-            gameMessage = JSON.parse(response.body);
+            gameMessage = readGameMessage(response);
             processGameMessage();
         });
 
@@ -62,7 +89,59 @@ function connect() {
             showError(response.body);
         });
 
-    }, showError);
+    }, function (error) {
+        if (reconnecting) {
+            return;
+        }
+        if (error.headers) {
+            frameReceived = true;
+        } else if (useWebSocket && !sessionOpened && !frameReceived && !reconnectAttempt) {
+            connectOver(username, false);
+            return;
+        }
+        if (sessionOpened || reconnectAttempt) {
+            reconnecting = true;
+            reconnect(username, useWebSocket, sessionOpened ? 0 : reconnectAttempt);
+            return;
+        }
+        showError(error);
+    });
+}
+
+function reconnect(username, useWebSocket, attempt) {
+    clearError();
+
+    if (attempt >= RECONNECT_ATTEMPTS) {
+        setConnected(false);
+        showError('Connection lost');
+        return;
+    }
+    showError('Connection lost, reconnecting...');
+    setTimeout(function () {
+        connectOver(username, useWebSocket, attempt + 1);
+    }, RECONNECT_DELAY_MILLIS);
+}
+
+/*
+Game messages in the compact format leave out every field holding its default value.
+*/
+function readGameMessage(response) {
+    var message = JSON.parse(response.body);
+    var contentType = response.headers['content-type'] || '';
+
+    if (contentType.indexOf('format=compact') === -1) {
+        return message;
+    }
+
+    return $.extend({
+        content: null,
+        opponent: null,
+        primaryPlayer: false,
+        value: 0,
+        play: 0,
+        winner: false,
+        turn: false
+    }, message);
 }
 
 function disconnect() {
@@ -73,6 +152,16 @@ function disconnect() {
     primaryPlayer = false;
 }
 
+/*
+The server removed this player from the lobby, so there is no point in reconnecting.
+*/
+function timedOut() {
+    var content = gameMessage.content;
+    gameMessage = null;
+    disconnect();
+    showError(content);
+}
+
 function showMessage(message) {
     $("#gameBoard").prepend('<tr><td colspan="2">' + message + '</td></tr>');
 }
@@ -90,24 +179,12 @@ function start() {
     stompClient.send('/app/game.start', {});
 }
 
-function getNumberToMakeValueDivisibleByThree(value) {
-    var modulo = value % 3;
-    switch (modulo) {
-        case 0:
-            return 0;
-        case 1:
-            return -1;
-        default:
-            return 1;
-    }
-}
-
 function updateGameMode() {
 
     if (!isAutomatic()) {
 
         if (gameMessage !== null) {
-            if (primaryPlayer && gameMessage.gameStatus === 'START') {
+            if (primaryPlayer && (gameMessage.gameStatus === 'START' || gameMessage.gameStatus === 'RESUME')) {
                 $('#randomNumberSection').show();
             }
 
@@ -151,6 +228,9 @@ function processGameMessage() {
             primaryPlayer = gameMessage.primaryPlayer;
             startGameSession();
             break;
+        case 'RESUME':
+            resumeGame();
+            break;
         case 'PLAY':
             makeMove();
             break;
@@ -160,11 +240,34 @@ function processGameMessage() {
         case 'DISCONNECT':
             opponentDisconnected();
             break;
+        case 'TIMEOUT':
+            timedOut();
+            break;
+    }
+}
+
+/*
+The game was in progress when this player lost it, e.g. to a server restart. It goes on where it stopped: the primary
+player still has to send the random number, or it is this player's turn to move, or the opponent's.
+*/
+function resumeGame() {
+    $('#gameBoard').html('');
+    $('#opponentLabel').html("[You're playing against: <span>" + gameMessage.opponent + "</span>]").show();
+    opponent = gameMessage.opponent;
+    primaryPlayer = gameMessage.primaryPlayer;
+    showMessage(gameMessage.content);
+
+    if (gameMessage.value === 0) {
+        startGameSession();
+    } else if (gameMessage.turn) {
+        makeMove();
+    } else {
+        gameMessage = null;
     }
 }
 
 function generateRandomNumber() {
-    return Math.floor(Math.random() * 100) + 1;
+    return Math.floor(Math.random() * 99) + 2;
 }
 
 function sendRandomNumber(randomNumber) {
@@ -175,14 +278,18 @@ function sendRandomNumber(randomNumber) {
     gameMessage = null;
 }
 
+/*
+The server sends the move that makes the value divisible along with it, by the rules of the game's mode, which is what
+automatic mode plays.
+*/
 function makeMove() {
     var value = gameMessage.value;
+    var hint = gameMessage.play;
     gameValue = value;
     showMessage(opponent + ' sent value ' + value);
     if (isAutomatic()) {
         delay(function () {
-            var addition = getNumberToMakeValueDivisibleByThree(value);
-            sendMove(value, addition);
+            sendMove(value, hint);
             gameMessage = null;
         });
     } else {
@@ -195,7 +302,6 @@ function sendMove(value, move) {
     var updatedValue = value + move;
     showMessage(updatedValue + ' divided by 3 = ' + updatedValue / 3);
     var message = {
-        value: value,
         move: move
     };
 
@@ -250,7 +356,7 @@ function addNumber() {
 function retrieveRandomNumber() {
     $('#randomNumber').removeClass('invalid');
     var randomNumber = parseInt($('#randomNumber').val());
-    if (isNaN(randomNumber) || randomNumber <= 0) {
+    if (isNaN(randomNumber) || randomNumber <= 1) {
         $('#randomNumber').addClass('invalid');
         return;
     }
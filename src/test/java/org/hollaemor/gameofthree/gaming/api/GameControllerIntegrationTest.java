@@ -20,6 +20,7 @@ import org.springframework.web.socket.sockjs.client.WebSocketTransport;
 
 import java.lang.reflect.Type;
 import java.util.List;
+import java.util.Optional;
 import java.util.concurrent.CompletableFuture;
 import java.util.concurrent.ExecutionException;
 import java.util.concurrent.TimeUnit;
@@ -44,12 +45,15 @@ public class GameControllerIntegrationTest {
 
     private String wsUrl;
 
+    private String nativeWsUrl;
+
     private CompletableFuture<Object> completableFuture;
 
 
     @BeforeEach
     public void setup() {
         wsUrl = String.format("ws://localhost:%d/game-of-three", port);
+        nativeWsUrl = String.format("ws://localhost:%d/game-of-three-ws", port);
         stompClient = new WebSocketStompClient(new SockJsClient(List.of(new WebSocketTransport(new StandardWebSocketClient()))));
         stompClient.setTaskScheduler(new ConcurrentTaskScheduler());
         completableFuture = new CompletableFuture<>();
@@ -77,8 +81,8 @@ public class GameControllerIntegrationTest {
         var stompHeaders = new StompHeaders();
         stompHeaders.add("username", "Magneto");
 
-        given(playerRepository.exists(anyString()))
-                .willReturn(true);
+        given(playerRepository.findByName("Magneto"))
+                .willReturn(Optional.of(new Player("Magneto")));
 
         assertThatExceptionOfType(ExecutionException.class)
                 .isThrownBy(() -> {
@@ -90,7 +94,30 @@ public class GameControllerIntegrationTest {
                     }).get();
                 });
 
-        verify(playerRepository).exists(anyString());
+        verify(playerRepository).findByName("Magneto");
+    }
+
+    @Test
+    public void whenPlayerIsDetached_Then_NewSessionReattachesIt() throws Exception {
+        // given
+        var stompHeaders = new StompHeaders();
+        stompHeaders.add("username", "Mystique");
+
+        var player = new Player("Mystique");
+        player.setDetached(true);
+
+        given(playerRepository.findByName("Mystique"))
+                .willReturn(Optional.of(player));
+
+        // when
+        var session = stompClient.connect(wsUrl, new WebSocketHttpHeaders(), stompHeaders, new StompSessionHandlerAdapter() {
+        }).get(10, TimeUnit.SECONDS);
+
+        // then
+        assertThat(session.isConnected()).isTrue();
+        assertThat(player.isDetached()).isFalse();
+
+        session.disconnect();
     }
 
     @Test
@@ -152,17 +179,65 @@ public class GameControllerIntegrationTest {
                 .addReceiptTask(() -> verify(gameService).processPlayerMove(eq("Xavier"), eq(gameInstruction)));
     }
 
-    private StompSession createSession(MessageConverter messageConverter) throws Exception {
-        var stompHeaders = new StompHeaders();
-        stompHeaders.add("username", "Xavier");
+    @Test
+    public void nativeWebSocketEndpoint_Should_AcceptStompSessions() throws Exception {
+        // given
+        given(gameService.startForPlayer(anyString()))
+                .willReturn(GameMessage.builder().gameStatus(GameStatus.WAITING).build());
 
-        stompClient.setMessageConverter(messageConverter);
-        return stompClient.connect(wsUrl, new WebSocketHttpHeaders(), stompHeaders, new StompSessionHandlerAdapter() {
+        stompClient = new WebSocketStompClient(new StandardWebSocketClient());
+        stompClient.setTaskScheduler(new ConcurrentTaskScheduler());
+
+        // when
+        var stompSession = createSession(new MappingJackson2MessageConverter(), nativeWsUrl, new StompSessionHandlerAdapter() {
+        });
+
+        stompSession.subscribe("/user/queue/updates", new TestStompFrameHandler(GameMessage.class));
+        stompSession.send("/app/game.start", null);
+
+        // then
+        var message = (GameMessage) completableFuture.get(3, TimeUnit.SECONDS);
+
+        assertThat(message.getGameStatus()).isEqualTo(GameStatus.WAITING);
+    }
+
+    @Test
+    public void whenMessageExceedsSizeLimit_Then_SessionIsClosed() throws Exception {
+        // given
+        stompClient = new WebSocketStompClient(new StandardWebSocketClient());
+        stompClient.setTaskScheduler(new ConcurrentTaskScheduler());
+
+        var stompSession = createSession(new StringMessageConverter(), nativeWsUrl, new StompSessionHandlerAdapter() {
+            @Override
+            public void handleTransportError(StompSession session, Throwable exception) {
+                completableFuture.complete(exception);
+            }
+        });
+
+        // when
+        stompSession.send("/app/game.play", "x".repeat(8 * 1024));
+
+        // then
+        assertThat(completableFuture.get(3, TimeUnit.SECONDS)).isInstanceOf(ConnectionLostException.class);
+        verifyNoInteractions(gameService);
+    }
+
+    private StompSession createSession(MessageConverter messageConverter) throws Exception {
+        return createSession(messageConverter, wsUrl, new StompSessionHandlerAdapter() {
             @Override
             public void handleException(StompSession session, StompCommand command, StompHeaders headers, byte[] payload, Throwable exception) {
                 exception.printStackTrace();
             }
-        }).get(1, TimeUnit.SECONDS);
+        });
+    }
+
+    private StompSession createSession(MessageConverter messageConverter, String url,
+                                       StompSessionHandler sessionHandler) throws Exception {
+        var stompHeaders = new StompHeaders();
+        stompHeaders.add("username", "Xavier");
+
+        stompClient.setMessageConverter(messageConverter);
+        return stompClient.connect(url, new WebSocketHttpHeaders(), stompHeaders, sessionHandler).get(1, TimeUnit.SECONDS);
     }
 
     class TestStompFrameHandler implements StompFrameHandler {
@@ -27,6 +27,32 @@ public class GameMessageFactoryTest {
         // then
         assertThat(message.getGameStatus()).isEqualTo(GameStatus.PLAY);
         assertThat(message.getValue()).isEqualTo(40);
+        assertThat(message.getPlay()).isEqualTo(-1);
+    }
+
+    @Test
+    public void buildPlayMessage_Should_HintMoveAlsoForValuesBeyondCache() {
+        // given / when
+        var message = GameMessageFactory.buildPlayMessage(100_001);
+
+        // then
+        assertThat(message.getValue()).isEqualTo(100_001);
+        assertThat(message.getPlay()).isEqualTo(1);
+    }
+
+    @Test
+    public void buildPlayMessage_Should_HintMoveOfTheGameRules() {
+        // given
+        var rules = GameRules.compile(5, new int[]{-2, -1, 0, 1, 2}, 1);
+
+        // when
+        var message = GameMessageFactory.buildPlayMessage(33, rules);
+
+        // then
+        assertThat(message.getValue()).isEqualTo(33);
+        assertThat(message.getPlay()).isEqualTo(2);
+        assertThat(GameMessageFactory.buildPlayMessage(33, GameRules.CLASSIC))
+                .isSameAs(GameMessageFactory.buildPlayMessage(33));
     }
 
     @Test
@@ -39,6 +65,32 @@ public class GameMessageFactoryTest {
         assertThat(message.isWinner()).isTrue();
     }
 
+    @Test
+    public void buildGameOverMessage_Should_ReuseMessagesForWinnerAndLoser() {
+        // given / when
+        var winner = GameMessageFactory.buildGameOverMessage(true);
+        var loser = GameMessageFactory.buildGameOverMessage(false);
+
+        // then
+        assertThat(GameMessageFactory.buildGameOverMessage(true)).isSameAs(winner);
+        assertThat(GameMessageFactory.buildGameOverMessage(false)).isSameAs(loser);
+        assertThat(loser.isWinner()).isFalse();
+    }
+
+    @Test
+    public void buildPlayMessage_Should_ReuseMessagesForSmallValues() {
+        // given / when
+        var cached = GameMessageFactory.buildPlayMessage(33);
+        var large = GameMessageFactory.buildPlayMessage(1_000_000);
+        var negative = GameMessageFactory.buildPlayMessage(-4);
+
+        // then
+        assertThat(GameMessageFactory.buildPlayMessage(33)).isSameAs(cached);
+        assertThat(large.getValue()).isEqualTo(1_000_000);
+        assertThat(negative.getValue()).isEqualTo(-4);
+        assertThat(negative.getGameStatus()).isEqualTo(GameStatus.PLAY);
+    }
+
     @Test
     public void buildStartMessageForPlayer_Should_ReturnStartGameStatus() {
         // given
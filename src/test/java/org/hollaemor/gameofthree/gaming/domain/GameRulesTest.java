@@ -0,0 +1,97 @@
+package org.hollaemor.gameofthree.gaming.domain;
+
+import org.junit.jupiter.api.Test;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatIllegalArgumentException;
+
+public class GameRulesTest {
+
+    @Test
+    public void classicRules_Should_BeCompiledToTheSharedInstance() {
+        // given / when
+        var rules = GameRules.compile(3, new int[]{1, 0, -1}, 1);
+
+        // then
+        assertThat(rules).isSameAs(GameRules.CLASSIC);
+        assertThat(rules.describeMoves()).isEqualTo("-1, 0 or 1");
+    }
+
+    @Test
+    public void classicRules_Should_AllowTheMoveThatMakesValueDivisibleByThree() {
+        for (int value = 0; value < 10_000; value++) {
+            for (int move = -70; move <= 70; move++) {
+                // given / when / then
+                assertThat(GameRules.CLASSIC.isLegal(value, move))
+                        .as("move %d from %d", move, value)
+                        .isEqualTo(move >= -1 && move <= 1 && (value + move) % 3 == 0);
+            }
+            assertThat((value + GameRules.CLASSIC.moveFor(value)) % 3).isZero();
+        }
+    }
+
+    @Test
+    public void rulesOfFive_Should_AllowOneMovePerRemainder() {
+        // given
+        var rules = GameRules.compile(5, new int[]{-2, -1, 0, 1, 2}, 1);
+
+        // when / then
+        assertThat(rules.isLegal(23, 2)).isTrue();
+        assertThat(rules.isLegal(23, -3)).isFalse();
+        assertThat(rules.isLegal(23, 1)).isFalse();
+        assertThat(rules.isLegal(21, -1)).isTrue();
+        assertThat(rules.isMove(2)).isTrue();
+        assertThat(rules.isMove(3)).isFalse();
+        assertThat(rules.next(23, 2)).isEqualTo(5);
+        assertThat(rules.next(2, -2)).isEqualTo(1);
+        assertThat(rules.turnsLeft(23)).isEqualTo(2);
+        assertThat(rules.getFingerprint()).isNotEqualTo(GameRules.CLASSIC.getFingerprint())
+                .isEqualTo(GameRules.compile(5, new int[]{2, 1, 0, -1, -2}, 1).getFingerprint());
+    }
+
+    @Test
+    public void legalMoves_Should_MatchModulo_UpToLargestValue() {
+        // given
+        var rules = GameRules.compile(7, new int[]{-3, -2, -1, 0, 1, 2, 3}, 1);
+
+        for (long value = 0; value <= Integer.MAX_VALUE; value += 65_537) {
+            // when
+            int move = rules.moveFor((int) value);
+
+            // then
+            assertThat((value + move) % 7).as("move %d from %d", move, value).isZero();
+        }
+        assertThat(rules.moveFor(Integer.MAX_VALUE)).isEqualTo(-1);
+    }
+
+    @Test
+    public void hint_Should_BeTheLegalMoveClosestToZero() {
+        // given
+        var rules = GameRules.compile(4, new int[]{-3, -2, 0, 1, 3}, 10);
+
+        // when / then
+        assertThat(rules.moveFor(13)).isEqualTo(3);
+        assertThat(rules.isLegal(13, -1)).isFalse();
+        assertThat(rules.moveFor(15)).isEqualTo(1);
+        assertThat(rules.isLegal(15, -3)).isTrue();
+        assertThat(rules.moveFor(14)).isEqualTo(-2);
+        assertThat(rules.next(14, -2)).isEqualTo(10);
+    }
+
+    @Test
+    public void rulesThatCannotEndTheGame_Should_BeRejected() {
+        // given / when / then
+        assertThatIllegalArgumentException()
+                .isThrownBy(() -> GameRules.compile(5, new int[]{-1, 0, 1}, 1))
+                .withMessage("No move makes a value with remainder 2 divisible by 5");
+        assertThatIllegalArgumentException()
+                .isThrownBy(() -> GameRules.compile(3, new int[]{-1, 0, 3}, 1))
+                .withMessage("Moves must be between -2 and 2, at most 63 apart");
+        assertThatIllegalArgumentException()
+                .isThrownBy(() -> GameRules.compile(1, new int[]{0}, 1))
+                .withMessage("Divisor must be at least 2");
+        assertThatIllegalArgumentException()
+                .isThrownBy(() -> GameRules.compile(3, new int[]{-1, 0, 1}, 0))
+                .withMessage("Target must be at least 1");
+    }
+}
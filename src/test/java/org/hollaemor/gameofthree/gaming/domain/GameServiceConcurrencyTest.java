@@ -0,0 +1,211 @@
+package org.hollaemor.gameofthree.gaming.domain;
+
+import org.hollaemor.gameofthree.gaming.infrastructure.bot.BotQueue;
+import org.hollaemor.gameofthree.gaming.infrastructure.bot.GameBotProperties;
+import org.hollaemor.gameofthree.gaming.infrastructure.journal.GameJournal;
+import org.hollaemor.gameofthree.gaming.infrastructure.journal.GameJournalProperties;
+import org.hollaemor.gameofthree.gaming.infrastructure.matchmaking.FifoPairingStrategy;
+import org.hollaemor.gameofthree.gaming.infrastructure.matchmaking.GameMatchmakingProperties;
+import org.hollaemor.gameofthree.gaming.infrastructure.matchmaking.LatencyProbe;
+import org.hollaemor.gameofthree.gaming.infrastructure.matchmaking.MatchmakingQueue;
+import org.hollaemor.gameofthree.gaming.infrastructure.metrics.GameMetrics;
+import org.hollaemor.gameofthree.gaming.infrastructure.repository.InMemoryGameRepository;
+import org.hollaemor.gameofthree.gaming.infrastructure.repository.InMemoryPlayerRepository;
+import org.hollaemor.gameofthree.gaming.infrastructure.service.NotificationService;
+import org.hollaemor.gameofthree.gaming.infrastructure.service.PlayerService;
+import org.hollaemor.gameofthree.gaming.infrastructure.spectator.SpectatorBroadcaster;
+import org.hollaemor.gameofthree.gaming.infrastructure.timer.GameTimeouts;
+import org.hollaemor.gameofthree.gaming.infrastructure.timer.GameTimerProperties;
+import org.hollaemor.gameofthree.gaming.infrastructure.timer.TimerWheel;
+import org.hollaemor.gameofthree.gaming.infrastructure.tournament.GameTournamentProperties;
+import org.hollaemor.gameofthree.gaming.infrastructure.tournament.TournamentQueue;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.IdentityHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.Callable;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.Executors;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.LongAdder;
+import java.util.stream.Collectors;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyString;
+import static org.mockito.Mockito.doAnswer;
+import static org.mockito.Mockito.mock;
+
+public class GameServiceConcurrencyTest {
+
+    private static final int THREADS = 32;
+    private static final int PLAYERS = 20_000;
+
+    private InMemoryPlayerRepository repository;
+    private InMemoryGameRepository gameRepository;
+    private GameService gameService;
+    private PlayerService playerService;
+    private NotificationService notificationService;
+
+    @BeforeEach
+    public void setup() {
+        var playerLocks = new PlayerLocks();
+        notificationService = mock(NotificationService.class);
+        var spectators = mock(SpectatorBroadcaster.class);
+        var gameJournal = new GameJournal(new GameJournalProperties());
+        var gameMetrics = new GameMetrics();
+        var timerProperties = new GameTimerProperties();
+        var timerWheel = new TimerWheel(timerProperties);
+        var gameTimeouts = new GameTimeouts(timerProperties, timerWheel);
+
+        repository = new InMemoryPlayerRepository();
+        gameRepository = new InMemoryGameRepository();
+        var botQueue = new BotQueue(new GameBotProperties(), repository, gameJournal, timerWheel);
+        var tournamentQueue = new TournamentQueue(new GameTournamentProperties());
+        gameService = new GameService(repository, gameRepository, notificationService, playerLocks, gameMetrics,
+                new MatchmakingQueue(new GameMatchmakingProperties(), new FifoPairingStrategy(), new LatencyProbe()),
+                gameJournal, gameTimeouts, botQueue, GameRules.CLASSIC, tournamentQueue, spectators);
+        playerService = new PlayerService(repository, gameRepository, notificationService, playerLocks, gameJournal,
+                gameTimeouts, gameMetrics, tournamentQueue, spectators, botQueue);
+    }
+
+    @Test
+    public void concurrentStartRequests_Should_NeverPairPlayerTwice() throws Exception {
+        // given
+        var players = new ArrayList<Player>();
+        for (int i = 0; i < PLAYERS; i++) {
+            var player = new Player("player-" + i);
+            players.add(player);
+            repository.save(player);
+        }
+
+        // when
+        runConcurrently(players, player -> gameService.startForPlayer(player.getName()));
+
+        // then
+        assertConsistentPairs(players);
+
+        players.stream()
+                .filter(player -> !player.hasOpponent())
+                .forEach(player -> gameService.startForPlayer(player.getName()));
+
+        assertConsistentPairs(players);
+        assertThat(players.stream().filter(player -> !player.hasOpponent())).hasSizeLessThanOrEqualTo(1);
+    }
+
+    @Test
+    public void concurrentStartRequests_Should_SendEveryPairedPlayerOneStart() throws Exception {
+        // given
+        var starts = new ConcurrentHashMap<String, LongAdder>();
+        doAnswer(invocation -> {
+            countStart(starts, invocation.getArgument(0), invocation.getArgument(1));
+            return null;
+        }).when(notificationService).notifyPlayer(anyString(), any());
+
+        var players = new ArrayList<Player>();
+        for (int i = 0; i < PLAYERS; i++) {
+            var player = new Player("player-" + i);
+            players.add(player);
+            repository.save(player);
+        }
+
+        // when
+        runConcurrently(players, player ->
+                countStart(starts, player.getName(), gameService.startForPlayer(player.getName())));
+
+        // then
+        players.stream()
+                .filter(Player::hasOpponent)
+                .forEach(player -> assertThat(starts.get(player.getName()).sum())
+                        .as("START messages sent to %s", player.getName())
+                        .isEqualTo(1));
+    }
+
+    @Test
+    public void concurrentStartAndDisconnect_Should_LeaveNoPairWithRemovedPlayer() throws Exception {
+        // given
+        var players = new ArrayList<Player>();
+        for (int i = 0; i < PLAYERS; i++) {
+            var player = new Player("player-" + i);
+            players.add(player);
+            repository.save(player);
+        }
+
+        // when
+        runConcurrently(players, player -> {
+            if (player.getName().hashCode() % 4 == 0) {
+                playerService.removePlayer(player.getName());
+            } else {
+                gameService.startForPlayer(player.getName());
+            }
+        });
+
+        // then
+        assertConsistentPairs(players);
+
+        players.stream()
+                .filter(player -> repository.exists(player.getName()) && player.hasOpponent())
+                .forEach(player -> assertThat(repository.exists(player.getOpponent().getName()))
+                        .as("%s is paired with a removed player", player.getName())
+                        .isTrue());
+    }
+
+    private static void countStart(Map<String, LongAdder> starts, String playerName, GameMessage message) {
+        if (null != message && GameStatus.START == message.getGameStatus()) {
+            starts.computeIfAbsent(playerName, name -> new LongAdder()).increment();
+        }
+    }
+
+    private void assertConsistentPairs(List<Player> players) {
+        var seenOpponents = Collections.newSetFromMap(new IdentityHashMap<Player, Boolean>());
+
+        players.stream()
+                .filter(player -> repository.exists(player.getName()) && player.hasOpponent())
+                .forEach(player -> {
+                    assertThat(player.getOpponent().getOpponent()).isSameAs(player);
+                    assertThat(player.getStatus()).isEqualTo(PlayerStatus.PAIRED);
+                    assertThat(seenOpponents.add(player.getOpponent()))
+                            .as("%s is the opponent of more than one player", player.getOpponent().getName())
+                            .isTrue();
+                    assertThat(gameRepository.findByPlayerName(player.getName()))
+                            .hasValueSatisfying(game -> assertThat(game.opponentOf(player.getName()))
+                                    .isEqualTo(player.getOpponent().getName()));
+                });
+    }
+
+    private void runConcurrently(List<Player> players, PlayerAction action) throws Exception {
+        var executor = Executors.newFixedThreadPool(THREADS);
+        var startSignal = new CountDownLatch(1);
+        var shuffled = new ArrayList<>(players);
+        Collections.shuffle(shuffled);
+
+        var tasks = new ArrayList<Callable<Void>>();
+        for (int t = 0; t < THREADS; t++) {
+            var slice = shuffled.subList(t * shuffled.size() / THREADS, (t + 1) * shuffled.size() / THREADS);
+            tasks.add(() -> {
+                startSignal.await();
+                slice.forEach(action::apply);
+                return null;
+            });
+        }
+
+        try {
+            var futures = tasks.stream().map(executor::submit).collect(Collectors.toList());
+            startSignal.countDown();
+            for (var future : futures) {
+                future.get(30, TimeUnit.SECONDS);
+            }
+        } finally {
+            executor.shutdownNow();
+        }
+    }
+
+    private interface PlayerAction {
+        void apply(Player player);
+    }
+}
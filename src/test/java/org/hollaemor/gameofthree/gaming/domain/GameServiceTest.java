@@ -1,16 +1,29 @@
 package org.hollaemor.gameofthree.gaming.domain;
 
+import org.hollaemor.gameofthree.gaming.infrastructure.bot.BotPlayer;
+import org.hollaemor.gameofthree.gaming.infrastructure.bot.BotQueue;
+import org.hollaemor.gameofthree.gaming.infrastructure.journal.GameJournal;
+import org.hollaemor.gameofthree.gaming.infrastructure.matchmaking.MatchmakingQueue;
+import org.hollaemor.gameofthree.gaming.infrastructure.metrics.GameMetrics;
+import org.hollaemor.gameofthree.gaming.infrastructure.repository.GameRepository;
 import org.hollaemor.gameofthree.gaming.infrastructure.repository.PlayerRepository;
 import org.hollaemor.gameofthree.gaming.infrastructure.service.NotificationService;
+import org.hollaemor.gameofthree.gaming.infrastructure.spectator.SpectatorBroadcaster;
+import org.hollaemor.gameofthree.gaming.infrastructure.timer.GameTimeouts;
+import org.hollaemor.gameofthree.gaming.infrastructure.timer.Timeout;
+import org.hollaemor.gameofthree.gaming.infrastructure.tournament.TournamentQueue;
 import org.junit.jupiter.api.Test;
 import org.junit.jupiter.api.extension.ExtendWith;
 import org.mockito.ArgumentCaptor;
 import org.mockito.Captor;
 import org.mockito.InjectMocks;
 import org.mockito.Mock;
+import org.mockito.Spy;
 import org.mockito.junit.jupiter.MockitoExtension;
 
 import java.util.Optional;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.function.Consumer;
 
 import static org.assertj.core.api.Assertions.assertThat;
 import static org.assertj.core.api.Assertions.assertThatExceptionOfType;
@@ -26,15 +39,51 @@ public class GameServiceTest {
     @Mock
     private PlayerRepository playerRepository;
 
+    @Mock
+    private GameRepository gameRepository;
+
     @Mock
     private NotificationService notificationService;
 
+    @Mock
+    private MatchmakingQueue matchmakingQueue;
+
+    @Mock
+    private GameJournal gameJournal;
+
+    @Mock
+    private GameTimeouts gameTimeouts;
+
+    @Mock
+    private BotQueue botQueue;
+
+    @Mock
+    private TournamentQueue tournamentQueue;
+
+    @Mock
+    private SpectatorBroadcaster spectators;
+
+    @Spy
+    private PlayerLocks playerLocks = new PlayerLocks();
+
+    @Spy
+    private GameMetrics gameMetrics = new GameMetrics();
+
+    @Spy
+    private GameRules gameRules = GameRules.CLASSIC;
+
     @InjectMocks
     private GameService gameService;
 
     @Captor
     private ArgumentCaptor<GameMessage> messageCaptor;
 
+    @Captor
+    private ArgumentCaptor<Game> gameCaptor;
+
+    @Captor
+    private ArgumentCaptor<Consumer<Timeout>> timeoutTaskCaptor;
+
 
     @Test
     public void whenPlayerWithNameIsNotFound_Then_ThrowException() {
@@ -51,8 +100,9 @@ public class GameServiceTest {
     @Test
     public void whenGameIsStarted_And_NoPlayerIsAvailable_Then_SendWaitMessage() {
         // given
+        var thor = new Player("Thor");
         given(playerRepository.findByName(anyString()))
-                .willReturn(Optional.of(new Player("Thor")));
+                .willReturn(Optional.of(thor));
 
         given(playerRepository.findAvailableForPlayer(anyString()))
                 .willReturn(Optional.empty());
@@ -64,6 +114,7 @@ public class GameServiceTest {
         assertThat(message.getContent()).isEqualTo("Waiting for available player");
         verify(playerRepository, never()).save(any());
         verifyNoInteractions(notificationService);
+        verify(botQueue).waitForOpponent(thor);
     }
 
 
@@ -77,6 +128,8 @@ public class GameServiceTest {
                 .willReturn(Optional.of(player));
         given(playerRepository.findAvailableForPlayer(anyString()))
                 .willReturn(Optional.of(availablePlayer));
+        given(playerRepository.exists("Wasp"))
+                .willReturn(true);
 
         // when
         var message = gameService.startForPlayer("Ant Man");
@@ -97,6 +150,14 @@ public class GameServiceTest {
         assertThat(availablePlayerMessage.getContent()).isEqualTo("Ant Man requested a game session");
 
         verify(playerRepository, times(2)).save(any());
+
+        verify(gameRepository).save(gameCaptor.capture());
+        assertThat(gameCaptor.getValue().getPrimaryPlayerName()).isEqualTo("Wasp");
+        assertThat(gameCaptor.getValue().getSecondaryPlayerName()).isEqualTo("Ant Man");
+        verify(gameJournal).paired(gameCaptor.getValue());
+
+        verify(gameMetrics, times(2)).recordTimeToPair(anyLong());
+        verify(gameMetrics).recordStart(anyLong());
     }
 
 
@@ -107,6 +168,7 @@ public class GameServiceTest {
         var player = new Player("Captain America");
 
         player.setOpponent(opponent);
+        player.setPrimary(true);
 
         given(playerRepository.findByName(anyString()))
                 .willReturn(Optional.of(player));
@@ -123,6 +185,208 @@ public class GameServiceTest {
         verify(playerRepository, never()).save(any());
 
         verify(notificationService).notifyPlayer(eq("Falcon"), any());
+
+        verify(gameRepository).save(gameCaptor.capture());
+        assertThat(gameCaptor.getValue().getPrimaryPlayerName()).isEqualTo("Captain America");
+        assertThat(gameCaptor.getValue().getCurrentValue()).isZero();
+    }
+
+    @Test
+    public void whenGameIsStarted_And_GameIsInProgress_Then_ResumeIt() {
+        // given
+        var opponent = new Player("Winter Soldier");
+        var player = new Player("Sharon Carter");
+
+        player.setOpponent(opponent);
+        opponent.setPrimary(true);
+
+        var game = startedGame("Winter Soldier", "Sharon Carter", 81);
+
+        given(playerRepository.findByName("Sharon Carter"))
+                .willReturn(Optional.of(player));
+        given(gameRepository.findByPlayerName("Sharon Carter"))
+                .willReturn(Optional.of(game));
+
+        // when
+        var message = gameService.startForPlayer("Sharon Carter");
+
+        // then
+        assertThat(message.getGameStatus()).isEqualTo(GameStatus.RESUME);
+        assertThat(message.getOpponent()).isEqualTo("Winter Soldier");
+        assertThat(message.isPrimaryPlayer()).isFalse();
+        assertThat(message.getValue()).isEqualTo(81);
+        assertThat(message.isTurn()).isTrue();
+
+        verify(gameRepository, never()).save(any());
+        verifyNoInteractions(notificationService);
+    }
+
+    @Test
+    public void whenAvailablePlayerPairedThePlayerConcurrently_Then_NoSecondStartIsSent() {
+        // given
+        var player = new Player("Vision");
+        var availablePlayer = new Player("Wanda");
+        var pairedBy = new Player("Pietro");
+
+        given(playerRepository.findByName(anyString()))
+                .willReturn(Optional.of(player));
+        given(playerRepository.findAvailableForPlayer(anyString()))
+                .willAnswer(invocation -> {
+                    pairedBy.setOpponent(player);
+                    return Optional.of(availablePlayer);
+                });
+        given(playerRepository.exists("Wanda"))
+                .willReturn(true);
+
+        // when
+        var message = gameService.startForPlayer("Vision");
+
+        // then
+        assertThat(message).isNull();
+        assertThat(player.getOpponent()).isSameAs(pairedBy);
+        verify(playerRepository).save(availablePlayer);
+        verifyNoInteractions(notificationService, gameRepository);
+    }
+
+    @Test
+    public void whenPlayerIsRemovedAfterClaimingAvailablePlayer_Then_AvailablePlayerIsNotPaired() {
+        // given
+        var player = new Player("Loki");
+        var availablePlayer = new Player("Sylvie");
+        var removed = new AtomicBoolean();
+
+        given(playerRepository.findByName("Loki"))
+                .willAnswer(invocation -> removed.get() ? Optional.empty() : Optional.of(player));
+        given(playerRepository.findAvailableForPlayer("Loki"))
+                .willAnswer(invocation -> {
+                    removed.set(true);
+                    return Optional.of(availablePlayer);
+                });
+        given(playerRepository.exists("Sylvie"))
+                .willReturn(true);
+
+        // when
+        gameService.startForPlayer("Loki");
+
+        // then
+        assertThat(availablePlayer.hasOpponent()).isFalse();
+        verify(playerRepository).save(availablePlayer);
+        verify(playerRepository).findAvailableForPlayer("Loki");
+        verifyNoInteractions(notificationService, gameRepository);
+    }
+
+    @Test
+    public void whenMatchmakingIsEnabled_Then_WaitMessageIsSent_And_PlayerIsQueued() {
+        // given
+        var player = new Player("Nebula");
+
+        given(playerRepository.findByName(anyString()))
+                .willReturn(Optional.of(player));
+        given(matchmakingQueue.isEnabled())
+                .willReturn(true);
+
+        // when
+        var message = gameService.startForPlayer("Nebula");
+
+        // then
+        assertThat(message).isNull();
+
+        var inOrder = inOrder(notificationService, matchmakingQueue);
+        inOrder.verify(notificationService).notifyPlayer(eq("Nebula"), messageCaptor.capture());
+        inOrder.verify(matchmakingQueue).enqueue(player);
+
+        assertThat(messageCaptor.getValue().getGameStatus()).isEqualTo(GameStatus.WAITING);
+        verify(playerRepository, never()).findAvailableForPlayer(anyString());
+    }
+
+    @Test
+    public void startMatch_Should_PairPlayers_And_NotifyBoth() {
+        // given
+        var gamora = new Player("Gamora");
+        var drax = new Player("Drax");
+
+        given(playerRepository.findByName("Gamora")).willReturn(Optional.of(gamora));
+        given(playerRepository.findByName("Drax")).willReturn(Optional.of(drax));
+        given(playerRepository.exists(anyString())).willReturn(true);
+
+        // when
+        var started = gameService.startMatch("Gamora", "Drax");
+
+        // then
+        assertThat(started).isTrue();
+        assertThat(gamora.getOpponent()).isSameAs(drax);
+        assertThat(gamora.isPrimary()).isTrue();
+        assertThat(drax.isPrimary()).isFalse();
+
+        var inOrder = inOrder(notificationService);
+        inOrder.verify(notificationService).notifyPlayer(eq("Gamora"), messageCaptor.capture());
+        inOrder.verify(notificationService).notifyPlayer(eq("Drax"), messageCaptor.capture());
+        assertThat(messageCaptor.getAllValues()).extracting("gameStatus").containsOnly(GameStatus.START);
+        assertThat(messageCaptor.getAllValues()).extracting("primaryPlayer").containsExactly(true, false);
+
+        verify(gameRepository).save(gameCaptor.capture());
+        assertThat(gameCaptor.getValue().getPrimaryPlayerName()).isEqualTo("Gamora");
+    }
+
+    @Test
+    public void startBotMatch_Should_MakePlayerPrimary_And_NotifyPlayerBeforeBot() {
+        // given
+        var starLord = new Player("Star-Lord");
+        var bot = new BotPlayer("bot-1");
+
+        given(playerRepository.findByName("Star-Lord")).willReturn(Optional.of(starLord));
+
+        // when
+        var started = gameService.startBotMatch("Star-Lord", bot);
+
+        // then
+        assertThat(started).isTrue();
+        assertThat(starLord.getOpponent()).isSameAs(bot);
+        assertThat(starLord.isPrimary()).isTrue();
+        assertThat(bot.isPrimary()).isFalse();
+        verify(playerRepository).save(bot);
+
+        var inOrder = inOrder(notificationService);
+        inOrder.verify(notificationService).notifyPlayer(eq("Star-Lord"), any());
+        inOrder.verify(notificationService).notifyPlayer(eq("bot-1"), any());
+
+        verify(gameRepository).save(gameCaptor.capture());
+        assertThat(gameCaptor.getValue().getPrimaryPlayerName()).isEqualTo("Star-Lord");
+    }
+
+    @Test
+    public void startBotMatch_Should_NotPairPlayerThatIsNoLongerWaiting() {
+        // given
+        var yondu = new Player("Yondu");
+        yondu.setOpponent(new Player("Kraglin"));
+
+        given(playerRepository.findByName("Yondu")).willReturn(Optional.of(yondu));
+
+        // when
+        var started = gameService.startBotMatch("Yondu", new BotPlayer("bot-2"));
+
+        // then
+        assertThat(started).isFalse();
+        verifyNoInteractions(notificationService, gameRepository);
+    }
+
+    @Test
+    public void startMatch_Should_NotPairPlayerThatIsNoLongerWaiting() {
+        // given
+        var rocket = new Player("Rocket");
+        var groot = new Player("Groot");
+        groot.setOpponent(new Player("Mantis"));
+
+        given(playerRepository.findByName("Rocket")).willReturn(Optional.of(rocket));
+        given(playerRepository.findByName("Groot")).willReturn(Optional.of(groot));
+
+        // when
+        var started = gameService.startMatch("Rocket", "Groot");
+
+        // then
+        assertThat(started).isFalse();
+        assertThat(rocket.hasOpponent()).isFalse();
+        verifyNoInteractions(notificationService, gameRepository);
     }
 
     @Test
@@ -153,14 +417,13 @@ public class GameServiceTest {
     public void processRandomNumberFromPlayer_ShouldNotifyOpponent() {
         // given
         var randomNumber = 50;
-        var player = new Player("Loki");
-        player.setOpponent(new Player("Asgard"));
+        var game = new Game(1, "Loki", "Asgard");
 
-        given(playerRepository.findByName(anyString()))
-                .willReturn(Optional.of(player));
+        given(gameRepository.findByPlayerName("Loki"))
+                .willReturn(Optional.of(game));
 
         // when
-        gameService.processRandomNumberFromPlayer(randomNumber, player.getName());
+        gameService.processRandomNumberFromPlayer(randomNumber, "Loki");
 
         // then
         verify(notificationService).notifyPlayer(eq("Asgard"), messageCaptor.capture());
@@ -168,12 +431,32 @@ public class GameServiceTest {
         var message = messageCaptor.getValue();
         assertThat(message.getGameStatus()).isEqualTo(GameStatus.PLAY);
         assertThat(message.getValue()).isEqualTo(50);
+        assertThat(game.getCurrentValue()).isEqualTo(50);
+        verify(gameJournal).numberSent(game, "Loki", 50);
+    }
+
+    @Test
+    public void processRandomNumberFromPlayer_ShouldFailIfPlayerIsNotPrimary() {
+        // given
+        given(gameRepository.findByPlayerName("Thanos"))
+                .willReturn(Optional.of(new Game(1, "Gamora", "Thanos")));
+
+        // when / then
+        assertThatExceptionOfType(OutOfTurnException.class)
+                .isThrownBy(() -> gameService.processRandomNumberFromPlayer(42, "Thanos"))
+                .withMessage("Only Gamora can send the random number");
+
+        verifyNoInteractions(notificationService);
     }
 
     @Test
     public void processPlayerMove_ShouldFailIfCombinationIsNotDivisibleByDivisor() {
         // given
-        var instruction = GameInstruction.builder().value(20).move(-1).build();
+        var game = startedGame("Gamora", "Star Lord", 20);
+        var instruction = GameInstruction.builder().move(-1).build();
+
+        given(gameRepository.findByPlayerName("Star Lord"))
+                .willReturn(Optional.of(game));
 
         // when / then
         assertThatExceptionOfType(InvalidCombinationException.class)
@@ -181,10 +464,26 @@ public class GameServiceTest {
                 .withMessage("19 is not divisible by 3");
     }
 
+    @Test
+    public void processPlayerMove_ShouldFailIfItIsNotPlayersTurn() {
+        // given
+        var game = startedGame("Nebula", "Drax", 21);
+
+        given(gameRepository.findByPlayerName("Nebula"))
+                .willReturn(Optional.of(game));
+
+        // when / then
+        assertThatExceptionOfType(OutOfTurnException.class)
+                .isThrownBy(() -> gameService.processPlayerMove("Nebula", GameInstruction.builder().move(0).build()))
+                .withMessage("It is not your turn");
+
+        verifyNoInteractions(notificationService);
+    }
+
     @Test
     public void processPlayerMove_ShouldFailIfPlayerNotFound() {
         // given
-        var instruction = GameInstruction.builder().value(41).move(1).build();
+        var instruction = GameInstruction.builder().move(1).build();
 
         given(playerRepository.findByName(anyString()))
                 .willReturn(Optional.empty());
@@ -203,20 +502,17 @@ public class GameServiceTest {
 
         // when / then
         assertThatExceptionOfType(OpponentDoesNotExistException.class)
-                .isThrownBy(() -> gameService.processPlayerMove("Winter Soldier", GameInstruction.builder().value(12).move(0).build()));
+                .isThrownBy(() -> gameService.processPlayerMove("Winter Soldier", GameInstruction.builder().move(0).build()));
     }
 
     @Test
     public void processPlayerMove_ShouldNotifyOpponentIfDivisionByThreeIsNotOne() {
         // given
-        var instruction = GameInstruction.builder().value(21).move(0).build();
-        var player = new Player("Rocket");
-        var opponent = new Player("Groot");
+        var instruction = GameInstruction.builder().move(0).build();
+        var game = startedGame("Groot", "Rocket", 21);
 
-        player.setOpponent(opponent);
-
-        given(playerRepository.findByName(anyString()))
-                .willReturn(Optional.of(player));
+        given(gameRepository.findByPlayerName("Rocket"))
+                .willReturn(Optional.of(game));
 
         // when
         gameService.processPlayerMove("Rocket", instruction);
@@ -227,20 +523,19 @@ public class GameServiceTest {
         var message = messageCaptor.getValue();
         assertThat(message.getGameStatus()).isEqualTo(GameStatus.PLAY);
         assertThat(message.getValue()).isEqualTo(7);
+        assertThat(game.getMoveCount()).isEqualTo(1);
+        verify(gameMetrics).recordMove(anyLong());
     }
 
 
     @Test
     public void processPlayerMove_ShouldNotifyBothPlayersIsDivisionByThreeIsOne() {
         // given
-        var instruction = GameInstruction.builder().value(2).move(1).build();
-        var player = new Player("Black Panther");
-        var opponent = new Player("Okoye");
-
-        player.setOpponent(opponent);
+        var instruction = GameInstruction.builder().move(1).build();
+        var game = startedGame("Okoye", "Black Panther", 2);
 
-        given(playerRepository.findByName(anyString()))
-                .willReturn(Optional.of(player));
+        given(gameRepository.findByPlayerName("Black Panther"))
+                .willReturn(Optional.of(game));
 
         // when
         gameService.processPlayerMove("Black Panther", instruction);
@@ -253,6 +548,131 @@ public class GameServiceTest {
                 .allMatch(type -> type.equals(GameStatus.GAMEOVER));
 
         assertThat(messageCaptor.getAllValues()).extracting("winner").containsExactly(true, false);
+        assertThat(game.isOver()).isTrue();
+
+        verify(gameJournal).moved(game, "Black Panther", 1, 1);
+        verify(gameJournal).gameOver(game, "Black Panther");
     }
 
+    @Test
+    public void whenGameIsOver_Then_RatingsAreUpdated() {
+        // given
+        var instruction = GameInstruction.builder().move(1).build();
+        var game = startedGame("Shuri", "Nakia", 2);
+        var winner = new Player("Nakia");
+        var loser = new Player("Shuri");
+        winner.setOpponent(loser);
+
+        given(gameRepository.findByPlayerName("Nakia"))
+                .willReturn(Optional.of(game));
+        given(playerRepository.findByName("Nakia"))
+                .willReturn(Optional.of(winner));
+
+        // when
+        gameService.processPlayerMove("Nakia", instruction);
+
+        // then
+        assertThat(winner.getRating()).isEqualTo(EloRating.INITIAL_RATING + 16);
+        assertThat(loser.getRating()).isEqualTo(EloRating.INITIAL_RATING - 16);
+    }
+
+    @Test
+    public void whenPlayerDoesNotPlayInTime_Then_OpponentWins() {
+        // given
+        var instruction = GameInstruction.builder().move(0).build();
+        var game = startedGame("Gamora", "Nebula", 21);
+
+        given(gameRepository.findByPlayerName("Nebula"))
+                .willReturn(Optional.of(game));
+        given(gameRepository.findById(1))
+                .willReturn(Optional.of(game));
+        given(gameTimeouts.isTurnTimeoutEnabled())
+                .willReturn(true);
+        given(gameTimeouts.scheduleTurnTimeout(timeoutTaskCaptor.capture()))
+                .willReturn(mock(Timeout.class));
+
+        gameService.processPlayerMove("Nebula", instruction);
+        clearInvocations(notificationService);
+
+        // when
+        timeoutTaskCaptor.getValue().accept(mock(Timeout.class));
+
+        // then
+        verify(notificationService).notifyPlayer(eq("Nebula"), messageCaptor.capture());
+        verify(notificationService).notifyPlayer(eq("Gamora"), messageCaptor.capture());
+        assertThat(messageCaptor.getAllValues()).extracting("winner").containsExactly(true, false);
+        assertThat(game.isOver()).isTrue();
+
+        verify(gameJournal).gameOver(game, "Nebula");
+    }
+
+    @Test
+    public void whenPlayerPlaysInTime_Then_TimeoutOfItsTurnIsIgnored() {
+        // given
+        var game = startedGame("Drax", "Mantis", 21);
+
+        given(gameRepository.findByPlayerName(anyString()))
+                .willReturn(Optional.of(game));
+        given(gameRepository.findById(1))
+                .willReturn(Optional.of(game));
+        given(gameTimeouts.isTurnTimeoutEnabled())
+                .willReturn(true);
+        given(gameTimeouts.scheduleTurnTimeout(timeoutTaskCaptor.capture()))
+                .willReturn(mock(Timeout.class));
+
+        gameService.processPlayerMove("Mantis", GameInstruction.builder().move(0).build());
+        gameService.processPlayerMove("Drax", GameInstruction.builder().move(-1).build());
+
+        // when
+        timeoutTaskCaptor.getAllValues().get(0).accept(mock(Timeout.class));
+
+        // then
+        assertThat(game.isOver()).isFalse();
+        verify(gameJournal, never()).gameOver(any(), anyString());
+    }
+
+    @Test
+    public void whenPlayerJoinsTournament_Then_ItIsNoLongerPairedFromLobby() {
+        // given
+        var star = new Player("Star Lord");
+        given(playerRepository.findByName(anyString()))
+                .willReturn(Optional.of(star));
+        given(tournamentQueue.register(star))
+                .willReturn(3);
+        given(tournamentQueue.getSize())
+                .willReturn(8);
+
+        // when
+        var message = gameService.joinTournament("Star Lord");
+        var startMessage = gameService.startForPlayer("Star Lord");
+
+        // then
+        assertThat(star.getStatus()).isEqualTo(PlayerStatus.IN_TOURNAMENT);
+        assertThat(message.getGameStatus()).isEqualTo(GameStatus.WAITING);
+        assertThat(message.getContent()).isEqualTo("Registered for the next tournament, 3 of 8 players");
+        assertThat(startMessage.getContent()).isEqualTo("Waiting for your next tournament match");
+        verify(playerRepository, never()).findAvailableForPlayer(anyString());
+        verifyNoInteractions(botQueue);
+    }
+
+    @Test
+    public void whenPairedPlayerJoinsTournament_Then_ThrowException() {
+        // given
+        var groot = new Player("Groot");
+        groot.setOpponent(new Player("Rocket"));
+        given(playerRepository.findByName(anyString()))
+                .willReturn(Optional.of(groot));
+
+        // when / then
+        assertThatExceptionOfType(OutOfTurnException.class)
+                .isThrownBy(() -> gameService.joinTournament("Groot"))
+                .withMessage("Finish your game before joining a tournament");
+        verifyNoInteractions(tournamentQueue);
+    }
+
+    private Game startedGame(String primaryPlayerName, String secondaryPlayerName, int randomNumber) {
+        var game = new Game(1, primaryPlayerName, secondaryPlayerName);
+        game.start(primaryPlayerName, randomNumber);
+        return game;
+    }
 }
@@ -0,0 +1,145 @@
+package org.hollaemor.gameofthree.gaming.domain;
+
+import org.junit.jupiter.api.Test;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatExceptionOfType;
+
+public class GameTest {
+
+    @Test
+    public void whenGameIsCreated_Then_ItWaitsForRandomNumber() {
+        // given / when
+        var game = new Game(7, "Jon Snow", "Daenerys");
+
+        // then
+        assertThat(game.getId()).isEqualTo(7);
+        assertThat(game.getCurrentValue()).isZero();
+        assertThat(game.getMoveCount()).isZero();
+        assertThat(game.isOver()).isFalse();
+        assertThat(game.getUpdatedAt()).isEqualTo(game.getCreatedAt());
+        assertThat(game.opponentOf("Jon Snow")).isEqualTo("Daenerys");
+        assertThat(game.opponentOf("Daenerys")).isEqualTo("Jon Snow");
+
+        assertThatExceptionOfType(OutOfTurnException.class)
+                .isThrownBy(() -> game.play("Daenerys", 0))
+                .withMessage("Waiting for the random number");
+    }
+
+    @Test
+    public void randomNumber_Should_BeGreaterThanOne_And_SentOnce() {
+        // given
+        var game = new Game(1, "Arya", "Sansa");
+
+        // when / then
+        assertThatExceptionOfType(InvalidCombinationException.class)
+                .isThrownBy(() -> game.start("Arya", 1))
+                .withMessage("Random number must be greater than 1");
+
+        game.start("Arya", 56);
+
+        assertThatExceptionOfType(OutOfTurnException.class)
+                .isThrownBy(() -> game.start("Arya", 57))
+                .withMessage("The game has already started");
+        assertThat(game.getCurrentValue()).isEqualTo(56);
+    }
+
+    @Test
+    public void playersShould_TakeTurns_UntilValueIsOne() {
+        // given
+        var game = new Game(1, "Tyrion", "Cersei");
+        game.start("Tyrion", 56);
+
+        // when / then
+        assertThat(game.play("Cersei", 1)).isEqualTo(19);
+        assertThatExceptionOfType(OutOfTurnException.class)
+                .isThrownBy(() -> game.play("Cersei", -1))
+                .withMessage("It is not your turn");
+
+        assertThat(game.play("Tyrion", -1)).isEqualTo(6);
+        assertThat(game.play("Cersei", 0)).isEqualTo(2);
+        assertThat(game.play("Tyrion", 1)).isEqualTo(1);
+
+        assertThat(game.isOver()).isTrue();
+        assertThat(game.getMoveCount()).isEqualTo(4);
+        assertThatExceptionOfType(OutOfTurnException.class)
+                .isThrownBy(() -> game.play("Cersei", 0))
+                .withMessage("The game is over");
+    }
+
+    @Test
+    public void invalidMove_Should_LeaveGameUnchanged() {
+        // given
+        var game = new Game(1, "Bran", "Hodor");
+        game.start("Bran", 10);
+
+        // when / then
+        assertThatExceptionOfType(InvalidCombinationException.class)
+                .isThrownBy(() -> game.play("Hodor", 2))
+                .withMessage("Move must be -1, 0 or 1");
+        assertThatExceptionOfType(InvalidCombinationException.class)
+                .isThrownBy(() -> game.play("Hodor", 1))
+                .withMessage("11 is not divisible by 3");
+
+        assertThat(game.getCurrentValue()).isEqualTo(10);
+        assertThat(game.getMoveCount()).isZero();
+        assertThat(game.play("Hodor", -1)).isEqualTo(3);
+    }
+
+    @Test
+    public void gameOfOtherRules_Should_BePlayedUntilTheirTarget() {
+        // given
+        var rules = GameRules.compile(5, new int[]{-2, -1, 0, 1, 2}, 2);
+        var game = new Game(1, "Jorah", "Daenerys", rules);
+
+        // when / then
+        assertThatExceptionOfType(InvalidCombinationException.class)
+                .isThrownBy(() -> game.start("Jorah", 2))
+                .withMessage("Random number must be greater than 2");
+        game.start("Jorah", 58);
+
+        assertThatExceptionOfType(InvalidCombinationException.class)
+                .isThrownBy(() -> game.play("Daenerys", 3))
+                .withMessage("Move must be -2, -1, 0, 1 or 2");
+        assertThatExceptionOfType(InvalidCombinationException.class)
+                .isThrownBy(() -> game.play("Daenerys", 1))
+                .withMessage("59 is not divisible by 5");
+
+        assertThat(game.play("Daenerys", 2)).isEqualTo(12);
+        assertThat(game.isOver()).isFalse();
+        assertThat(game.play("Jorah", -2)).isEqualTo(2);
+        assertThat(game.isOver()).isTrue();
+    }
+
+    @Test
+    public void timedOutTurn_Should_EndGame_AgainstPlayerWhoseTurnItWas() {
+        // given
+        var game = new Game(1, "Jaime", "Brienne");
+        game.start("Jaime", 10);
+        int turn = game.getTurn();
+
+        // when
+        var playerName = game.timeOut(turn);
+
+        // then
+        assertThat(playerName).isEqualTo("Brienne");
+        assertThat(game.isOver()).isTrue();
+        assertThat(game.timeOut(turn)).isNull();
+    }
+
+    @Test
+    public void timeOutOfTurnAlreadyPlayed_Should_BeIgnored() {
+        // given
+        var game = new Game(1, "Theon", "Yara");
+        int turnBeforeRandomNumber = game.getTurn();
+        game.start("Theon", 10);
+
+        // when
+        var playerName = game.timeOut(turnBeforeRandomNumber);
+
+        // then
+        assertThat(playerName).isNull();
+        assertThat(game.isOver()).isFalse();
+        assertThat(game.timeOut(game.getTurn())).isEqualTo("Yara");
+    }
+}
@@ -0,0 +1,51 @@
+package org.hollaemor.gameofthree.gaming.domain;
+
+import org.junit.jupiter.api.Test;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+public class MoveOracleTest {
+
+    @Test
+    public void moveFor_Should_MakeValueDivisibleByThree() {
+        // given / when / then
+        assertThat(MoveOracle.moveFor(56)).isEqualTo(1);
+        assertThat(MoveOracle.moveFor(19)).isEqualTo(-1);
+        assertThat(MoveOracle.moveFor(6)).isZero();
+        assertThat(MoveOracle.moveFor(2)).isEqualTo(1);
+        assertThat(MoveOracle.moveFor(Integer.MAX_VALUE)).isEqualTo(-1);
+    }
+
+    @Test
+    public void turnsLeft_Should_CountMovesUntilOne() {
+        // given / when / then
+        assertThat(MoveOracle.turnsLeft(1)).isZero();
+        assertThat(MoveOracle.turnsLeft(2)).isEqualTo(1);
+        assertThat(MoveOracle.turnsLeft(56)).isEqualTo(4);
+        assertThat(MoveOracle.turnsLeft(59_049)).isEqualTo(10);
+        assertThat(MoveOracle.turnsLeft(1_162_261_467)).isEqualTo(19);
+    }
+
+    @Test
+    public void turnsLeft_Should_MatchPlayingTheGame() {
+        for (int value = 2; value < 200_000; value += 7) {
+            // given
+            var game = new Game(1, "Mario", "Luigi");
+            game.start("Mario", value);
+            var mover = "Luigi";
+            int current = value;
+            int turns = 0;
+
+            // when
+            while (current != 1) {
+                current = game.play(mover, MoveOracle.moveFor(current));
+                mover = game.opponentOf(mover);
+                turns++;
+            }
+
+            // then
+            assertThat(MoveOracle.turnsLeft(value)).as("turns from %d", value).isEqualTo(turns);
+            assertThat(MoveOracle.isWonByMover(value)).as("winner from %d", value).isEqualTo(turns % 2 == 1);
+        }
+    }
+}
@@ -0,0 +1,184 @@
+package org.hollaemor.gameofthree.gaming.infrastructure;
+
+import org.hollaemor.gameofthree.gaming.domain.Player;
+import org.hollaemor.gameofthree.gaming.infrastructure.repository.InMemoryPlayerRepository;
+import org.hollaemor.gameofthree.gaming.infrastructure.service.PlayerService;
+import org.hollaemor.gameofthree.gaming.infrastructure.session.GameSessionProperties;
+import org.hollaemor.gameofthree.gaming.infrastructure.session.SessionResumption;
+import org.hollaemor.gameofthree.gaming.infrastructure.timer.TimerWheel;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.messaging.Message;
+import org.springframework.messaging.MessageChannel;
+import org.springframework.messaging.MessagingException;
+import org.springframework.messaging.simp.stomp.StompCommand;
+import org.springframework.messaging.simp.stomp.StompHeaderAccessor;
+import org.springframework.messaging.support.MessageBuilder;
+import org.springframework.web.socket.CloseStatus;
+import org.springframework.web.socket.messaging.SessionDisconnectEvent;
+
+import java.time.Duration;
+import java.util.HashMap;
+import java.util.Map;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatExceptionOfType;
+import static org.hollaemor.gameofthree.gaming.infrastructure.WebSocketConfig.USERNAME_HEADER;
+import static org.mockito.Mockito.mock;
+
+public class AuthenticatedPlayerChannelInterceptorTest {
+
+    private final MessageChannel channel = mock(MessageChannel.class);
+
+    private InMemoryPlayerRepository playerRepository;
+    private CompactSessions compactSessions;
+    private WebSocketConfig.AuthenticatedPlayerChannelInterceptor interceptor;
+    private WebSocketEventListener listener;
+
+
+    @BeforeEach
+    public void setup() {
+        var properties = new GameSessionProperties();
+        properties.setResumeTimeout(Duration.ofMinutes(1));
+
+        playerRepository = new InMemoryPlayerRepository();
+        compactSessions = new CompactSessions();
+        interceptor = new WebSocketConfig.AuthenticatedPlayerChannelInterceptor(playerRepository, compactSessions);
+        listener = new WebSocketEventListener(mock(PlayerService.class), new SessionResumption(properties,
+                playerRepository, mock(PlayerService.class), mock(TimerWheel.class)));
+    }
+
+    @Test
+    public void connectingPlayer_Should_OwnSessionFromConnect() {
+        // given
+        var sessionAttributes = new HashMap<String, Object>();
+
+        // when
+        interceptor.preSend(connect("Morty", sessionAttributes), channel);
+
+        // then
+        assertThat(sessionAttributes).containsEntry(USERNAME_HEADER, "Morty");
+        assertThat(compactSessions.isCompact("Morty")).isFalse();
+    }
+
+    @Test
+    public void playerAskingForCompactFormat_Should_GetItUntilSessionCloses() {
+        // given
+        var sessionAttributes = new HashMap<String, Object>();
+        var connect = connect("Jerry", sessionAttributes);
+        StompHeaderAccessor.getAccessor(connect, StompHeaderAccessor.class)
+                .setNativeHeader(CompactSessions.FORMAT_HEADER, CompactSessions.COMPACT_FORMAT);
+
+        // when
+        interceptor.preSend(connect, channel);
+
+        // then
+        assertThat(compactSessions.isCompact("Jerry")).isTrue();
+
+        compactSessions.handleDisconnect(new SessionDisconnectEvent(this, disconnect(sessionAttributes),
+                "session-1", CloseStatus.NORMAL));
+        assertThat(compactSessions.isCompact("Jerry")).isFalse();
+    }
+
+    @Test
+    public void whenPlayerIsAlreadyConnected_Then_ConnectIsRejected() {
+        // given
+        playerRepository.save(new Player("Rick"));
+        var sessionAttributes = new HashMap<String, Object>();
+
+        // when / then
+        assertThatExceptionOfType(MessagingException.class)
+                .isThrownBy(() -> interceptor.preSend(connect("Rick", sessionAttributes), channel))
+                .withMessageContaining("Player with username already connected!!");
+        assertThat(sessionAttributes).isEmpty();
+    }
+
+    @Test
+    public void whenUsernameDoesNotFitJournalRecord_Then_ConnectIsRejected() {
+        // given
+        var sessionAttributes = new HashMap<String, Object>();
+        var username = "Mr. Poopybutthole, Squanchy, Birdperson and Scary Terry";
+
+        // when / then
+        assertThatExceptionOfType(MessagingException.class)
+                .isThrownBy(() -> interceptor.preSend(connect(username, sessionAttributes), channel))
+                .withMessageContaining("username must not be longer than 43 bytes");
+        assertThat(sessionAttributes).isEmpty();
+        assertThat(playerRepository.exists(username)).isFalse();
+    }
+
+    @Test
+    public void whenSessionClosesBeforeConnected_Then_ReattachedPlayerIsDetachedAgain() {
+        // given
+        var summer = new Player("Summer");
+        summer.setOpponent(new Player("Beth"));
+        summer.setDetached(true);
+        playerRepository.save(summer);
+
+        var sessionAttributes = new HashMap<String, Object>();
+        interceptor.preSend(connect("Summer", sessionAttributes), channel);
+        assertThat(summer.isDetached()).isFalse();
+
+        // when
+        listener.handleWebSocketDisconnected(new SessionDisconnectEvent(this, disconnect(sessionAttributes),
+                "session-1", CloseStatus.NO_STATUS_CODE));
+
+        // then
+        assertThat(summer.isDetached()).isTrue();
+        interceptor.preSend(connect("Summer", new HashMap<>()), channel);
+        assertThat(summer.isDetached()).isFalse();
+    }
+
+    @Test
+    public void whenPlayerSubscribesToClusterDestination_Then_SubscribeIsRejected() {
+        // given
+        var subscribe = frame(StompCommand.SUBSCRIBE, "/topic/game-cluster.game-of-three");
+
+        // when / then
+        assertThatExceptionOfType(MessagingException.class)
+                .isThrownBy(() -> interceptor.preSend(subscribe, channel))
+                .withMessageContaining("Destination is reserved for the cluster");
+    }
+
+    @Test
+    public void whenPlayerSendsToClusterDestination_Then_SendIsRejected() {
+        // given
+        var send = frame(StompCommand.SEND, "/queue/game-cluster.game-of-three.winterfell");
+
+        // when / then
+        assertThatExceptionOfType(MessagingException.class)
+                .isThrownBy(() -> interceptor.preSend(send, channel))
+                .withMessageContaining("Destination is reserved for the cluster");
+    }
+
+    @Test
+    public void whenPlayerSubscribesToUpdates_Then_SubscribeIsAccepted() {
+        // given
+        var subscribe = frame(StompCommand.SUBSCRIBE, "/user/queue/updates");
+
+        // when / then
+        assertThat(interceptor.preSend(subscribe, channel)).isSameAs(subscribe);
+    }
+
+    private static Message<byte[]> frame(StompCommand command, String destination) {
+        var accessor = StompHeaderAccessor.create(command);
+        accessor.setSessionId("session-1");
+        accessor.setDestination(destination);
+        return MessageBuilder.createMessage(new byte[0], accessor.getMessageHeaders());
+    }
+
+    private static Message<byte[]> connect(String username, Map<String, Object> sessionAttributes) {
+        var accessor = StompHeaderAccessor.create(StompCommand.CONNECT);
+        accessor.setSessionId("session-1");
+        accessor.setNativeHeader(USERNAME_HEADER, username);
+        accessor.setSessionAttributes(sessionAttributes);
+        accessor.setLeaveMutable(true);
+        return MessageBuilder.createMessage(new byte[0], accessor.getMessageHeaders());
+    }
+
+    private static Message<byte[]> disconnect(Map<String, Object> sessionAttributes) {
+        var accessor = StompHeaderAccessor.create(StompCommand.DISCONNECT);
+        accessor.setSessionAttributes(sessionAttributes);
+        return MessageBuilder.createMessage(new byte[0], accessor.getMessageHeaders());
+    }
+}
@@ -0,0 +1,67 @@
+package org.hollaemor.gameofthree.gaming.infrastructure;
+
+import org.hollaemor.gameofthree.gaming.domain.GameMessage;
+import org.hollaemor.gameofthree.gaming.domain.GameMessageFactory;
+import org.hollaemor.gameofthree.gaming.domain.GameStatus;
+import org.junit.jupiter.api.Test;
+import org.springframework.messaging.MessageHeaders;
+import org.springframework.messaging.support.MessageBuilder;
+import org.springframework.util.MimeTypeUtils;
+
+import java.nio.charset.StandardCharsets;
+import java.util.Map;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+public class CompactGameMessageConverterTest {
+
+    private final CompactGameMessageConverter converter = new CompactGameMessageConverter();
+
+
+    @Test
+    public void toMessage_Should_OmitDefaultFields() {
+        // given / when
+        var message = converter.toMessage(GameMessageFactory.buildPlayMessage(6),
+                new MessageHeaders(CompactSessions.COMPACT_HEADERS));
+
+        // then
+        assertThat(new String((byte[]) message.getPayload(), StandardCharsets.UTF_8))
+                .isEqualTo("{\"gameStatus\":\"PLAY\",\"value\":6}");
+        assertThat(message.getHeaders().get(MessageHeaders.CONTENT_TYPE).toString())
+                .isEqualTo("application/json;format=compact");
+    }
+
+    @Test
+    public void fromMessage_Should_RestoreDefaultFields() {
+        // given
+        var message = MessageBuilder.withPayload("{\"gameStatus\":\"GAMEOVER\"}".getBytes(StandardCharsets.UTF_8))
+                .setHeader(MessageHeaders.CONTENT_TYPE, CompactGameMessageConverter.COMPACT_JSON)
+                .build();
+
+        // when
+        var gameMessage = (GameMessage) converter.fromMessage(message, GameMessage.class);
+
+        // then
+        assertThat(gameMessage.getGameStatus()).isEqualTo(GameStatus.GAMEOVER);
+        assertThat(gameMessage.isWinner()).isFalse();
+        assertThat(gameMessage.getContent()).isNull();
+    }
+
+    @Test
+    public void toMessage_Should_OnlyConvertGameMessages() {
+        // given / when / then
+        assertThat(converter.toMessage("could not find player", new MessageHeaders(CompactSessions.COMPACT_HEADERS)))
+                .isNull();
+    }
+
+    @Test
+    public void toMessage_Should_LeaveMessagesWithoutCompactContentTypeToDefaultConverter() {
+        // given
+        var message = GameMessageFactory.buildPlayMessage(6);
+
+        // when / then
+        assertThat(converter.toMessage(message, null)).isNull();
+        assertThat(converter.toMessage(message, new MessageHeaders(
+                Map.of(MessageHeaders.CONTENT_TYPE, MimeTypeUtils.APPLICATION_JSON)))).isNull();
+    }
+}
@@ -0,0 +1,232 @@
+package org.hollaemor.gameofthree.gaming.infrastructure;
+
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.core.task.TaskRejectedException;
+import org.springframework.messaging.Message;
+import org.springframework.messaging.MessageHandler;
+import org.springframework.messaging.simp.SimpMessageHeaderAccessor;
+import org.springframework.messaging.simp.SimpMessageType;
+import org.springframework.messaging.support.MessageBuilder;
+import org.springframework.messaging.support.MessageHandlingRunnable;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.TimeUnit;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatExceptionOfType;
+
+public class GameLaneTaskExecutorTest {
+
+    private GameLaneProperties properties;
+
+    private GameLaneTaskExecutor executor;
+
+
+    @BeforeEach
+    public void setup() {
+        properties = new GameLaneProperties();
+        properties.setCount(4);
+        properties.setQueueCapacity(2);
+
+        executor = new GameLaneTaskExecutor(properties, message -> message.getPayload());
+        executor.initialize();
+    }
+
+    @AfterEach
+    public void tearDown() {
+        executor.shutdown();
+    }
+
+    @Test
+    public void framesOfTheSameGame_Should_RunInOrderOnOneThread() throws Exception {
+        // given
+        properties.setQueueCapacity(1_000);
+        executor.shutdown();
+        executor.initialize();
+
+        var threads = Collections.synchronizedList(new ArrayList<String>());
+        var order = Collections.synchronizedList(new ArrayList<Integer>());
+        var done = new CountDownLatch(500);
+
+        // when
+        for (int i = 0; i < 500; i++) {
+            int frame = i;
+            executor.execute(frameOf("Tom-vs-Jerry", () -> {
+                threads.add(Thread.currentThread().getName());
+                order.add(frame);
+                done.countDown();
+            }));
+        }
+
+        // then
+        assertThat(done.await(5, TimeUnit.SECONDS)).isTrue();
+        assertThat(threads).allMatch(name -> name.equals(threads.get(0)));
+        assertThat(threads.get(0)).startsWith("gameLane-");
+        assertThat(order).isSorted();
+    }
+
+    @Test
+    public void whenKeyOfSessionChanges_Then_SessionOnlyMovesLaneOnceItsFramesRan() throws Exception {
+        // given
+        var blocker = new CountDownLatch(1);
+        var threads = Collections.synchronizedList(new ArrayList<String>());
+        var order = Collections.synchronizedList(new ArrayList<Integer>());
+        var done = new CountDownLatch(2);
+
+        executor.execute(frameOf("session-1", "a", () -> {
+            await(blocker);
+            threads.add(Thread.currentThread().getName());
+            order.add(1);
+            done.countDown();
+        }));
+
+        // when
+        executor.execute(frameOf("session-1", "b", () -> {
+            threads.add(Thread.currentThread().getName());
+            order.add(2);
+            done.countDown();
+        }));
+        blocker.countDown();
+
+        // then
+        assertThat(done.await(5, TimeUnit.SECONDS)).isTrue();
+        assertThat(order).containsExactly(1, 2);
+        assertThat(threads.get(1)).isEqualTo(threads.get(0));
+
+        // when
+        var moved = new CountDownLatch(1);
+        executor.execute(frameOf("session-1", "b", () -> {
+            threads.add(Thread.currentThread().getName());
+            moved.countDown();
+        }));
+
+        // then
+        assertThat(moved.await(5, TimeUnit.SECONDS)).isTrue();
+        assertThat(threads.get(2)).isNotEqualTo(threads.get(0));
+    }
+
+    @Test
+    public void whenLaneIsFull_Then_FrameIsRejected_And_Counted() throws Exception {
+        // given
+        var blocker = new CountDownLatch(1);
+        var started = new CountDownLatch(1);
+
+        executor.execute(frameOf("Tom-vs-Jerry", () -> {
+            started.countDown();
+            await(blocker);
+        }));
+        assertThat(started.await(5, TimeUnit.SECONDS)).isTrue();
+
+        executor.execute(frameOf("Tom-vs-Jerry", () -> {}));
+        executor.execute(frameOf("Tom-vs-Jerry", () -> {}));
+
+        // when / then
+        assertThatExceptionOfType(TaskRejectedException.class)
+                .isThrownBy(() -> executor.execute(frameOf("Tom-vs-Jerry", () -> {})));
+
+        assertThat(executor.getRejectedTasks()).isEqualTo(1);
+        assertThat(executor.getQueuedTasks()).isEqualTo(2);
+        assertThat(executor.getMaxLaneQueueDepth()).isEqualTo(2);
+
+        blocker.countDown();
+    }
+
+    @Test
+    public void whenLaneRejectsDisconnect_Then_SessionIsForgotten() throws Exception {
+        // given
+        var blocker = new CountDownLatch(1);
+        var started = new CountDownLatch(1);
+        var done = new CountDownLatch(3);
+
+        executor.execute(frameOf("session-1", "Tom-vs-Jerry", () -> {
+            started.countDown();
+            await(blocker);
+            done.countDown();
+        }));
+        assertThat(started.await(5, TimeUnit.SECONDS)).isTrue();
+
+        executor.execute(frameOf("session-1", "Tom-vs-Jerry", done::countDown));
+        executor.execute(frameOf("session-1", "Tom-vs-Jerry", done::countDown));
+
+        // when
+        assertThatExceptionOfType(TaskRejectedException.class)
+                .isThrownBy(() -> executor.execute(disconnectOf("session-2", "Tom-vs-Jerry")));
+        assertThatExceptionOfType(TaskRejectedException.class)
+                .isThrownBy(() -> executor.execute(disconnectOf("session-1", "Tom-vs-Jerry")));
+
+        // then
+        assertThat(executor.countSessions()).isEqualTo(1);
+
+        blocker.countDown();
+        assertThat(done.await(5, TimeUnit.SECONDS)).isTrue();
+        for (int i = 0; i < 50 && executor.countSessions() > 0; i++) {
+            Thread.sleep(100);
+        }
+        assertThat(executor.countSessions()).isZero();
+    }
+
+    @Test
+    public void tasksWithoutMessage_Should_RunOnSharedPool() throws Exception {
+        // given
+        var thread = new ArrayList<String>();
+        var done = new CountDownLatch(1);
+
+        // when
+        executor.execute(() -> {
+            thread.add(Thread.currentThread().getName());
+            done.countDown();
+        });
+
+        // then
+        assertThat(done.await(5, TimeUnit.SECONDS)).isTrue();
+        assertThat(thread.get(0)).doesNotStartWith("gameLane-");
+    }
+
+    private static void await(CountDownLatch latch) {
+        try {
+            latch.await();
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        }
+    }
+
+    private static MessageHandlingRunnable frameOf(String game, Runnable action) {
+        return frameOf(MessageBuilder.withPayload(game).build(), action);
+    }
+
+    private static MessageHandlingRunnable frameOf(String sessionId, String game, Runnable action) {
+        var headers = SimpMessageHeaderAccessor.create(SimpMessageType.MESSAGE);
+        headers.setSessionId(sessionId);
+        return frameOf(MessageBuilder.createMessage(game, headers.getMessageHeaders()), action);
+    }
+
+    private static MessageHandlingRunnable disconnectOf(String sessionId, String game) {
+        var headers = SimpMessageHeaderAccessor.create(SimpMessageType.DISCONNECT);
+        headers.setSessionId(sessionId);
+        return frameOf(MessageBuilder.createMessage(game, headers.getMessageHeaders()), () -> {});
+    }
+
+    private static MessageHandlingRunnable frameOf(Message<?> message, Runnable action) {
+
+        return new MessageHandlingRunnable() {
+            @Override
+            public Message<?> getMessage() {
+                return message;
+            }
+
+            @Override
+            public MessageHandler getMessageHandler() {
+                return m -> action.run();
+            }
+
+            @Override
+            public void run() {
+                action.run();
+            }
+        };
+    }
+}
@@ -0,0 +1,50 @@
+package org.hollaemor.gameofthree.gaming.infrastructure;
+
+import org.junit.jupiter.api.Test;
+
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.TimeUnit;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatIllegalStateException;
+import static org.junit.jupiter.api.Assumptions.assumeFalse;
+import static org.junit.jupiter.api.Assumptions.assumeTrue;
+
+public class VirtualThreadTaskExecutorTest {
+
+    @Test
+    public void whenVirtualThreadsAreSupported_Then_TasksRunOnVirtualThreads() throws Exception {
+        assumeTrue(VirtualThreads.isSupported(), "requires Java 21 or later");
+
+        // given
+        var executor = new VirtualThreadTaskExecutor();
+        executor.initialize();
+        var isVirtual = new CompletableFuture<Boolean>();
+
+        // when
+        executor.execute(() -> {
+            try {
+                isVirtual.complete((Boolean) Thread.class.getMethod("isVirtual").invoke(Thread.currentThread()));
+            } catch (ReflectiveOperationException e) {
+                isVirtual.completeExceptionally(e);
+            }
+        });
+
+        // then
+        assertThat(isVirtual.get(5, TimeUnit.SECONDS)).isTrue();
+        executor.shutdown();
+    }
+
+    @Test
+    public void whenVirtualThreadsAreNotSupported_Then_InitializationFails() {
+        assumeFalse(VirtualThreads.isSupported(), "virtual threads are supported on this JVM");
+
+        // given
+        var executor = new VirtualThreadTaskExecutor();
+
+        // when / then
+        assertThatIllegalStateException()
+                .isThrownBy(executor::initialize)
+                .withMessageStartingWith("Virtual threads require Java 21 or later");
+    }
+}
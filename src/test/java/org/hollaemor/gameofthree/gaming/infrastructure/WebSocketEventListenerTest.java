@@ -1,11 +1,10 @@
 package org.hollaemor.gameofthree.gaming.infrastructure;
 
-import org.hollaemor.gameofthree.gaming.domain.Player;
+import org.hollaemor.gameofthree.gaming.infrastructure.outbound.SlowConsumerEvent;
 import org.hollaemor.gameofthree.gaming.infrastructure.service.PlayerService;
+import org.hollaemor.gameofthree.gaming.infrastructure.session.SessionResumption;
 import org.junit.jupiter.api.Test;
 import org.junit.jupiter.api.extension.ExtendWith;
-import org.mockito.ArgumentCaptor;
-import org.mockito.Captor;
 import org.mockito.InjectMocks;
 import org.mockito.Mock;
 import org.mockito.junit.jupiter.MockitoExtension;
@@ -17,9 +16,10 @@ import org.springframework.web.socket.messaging.SessionDisconnectEvent;
 
 import java.util.HashMap;
 
-import static org.assertj.core.api.Assertions.assertThat;
+import static org.mockito.ArgumentMatchers.anyString;
 import static org.mockito.ArgumentMatchers.eq;
 import static org.mockito.BDDMockito.given;
+import static org.mockito.Mockito.never;
 import static org.mockito.Mockito.verify;
 
 @ExtendWith(MockitoExtension.class)
@@ -28,18 +28,18 @@ public class WebSocketEventListenerTest {
     @Mock
     private PlayerService playerService;
 
+    @Mock
+    private SessionResumption sessionResumption;
+
     @Mock
     private SessionConnectedEvent sessionConnectedEvent;
 
     @InjectMocks
     private WebSocketEventListener listener;
 
-    @Captor
-    private ArgumentCaptor<Player> playerCaptor;
-
 
     @Test
-    public void whenSessionIsConnected_Then_PlayerIsSaved() {
+    public void whenSessionIsConnected_Then_PlayerIsConnected() {
         // given
         given(sessionConnectedEvent.getUser())
                 .willReturn(() -> "Sheldon");
@@ -48,9 +48,8 @@ public class WebSocketEventListenerTest {
         listener.handleWebSocketConnected(sessionConnectedEvent);
 
         // then
-        verify(playerService).save(playerCaptor.capture());
-
-        assertThat(playerCaptor.getValue().getName()).isEqualTo("Sheldon");
+        verify(playerService).connect("Sheldon");
+        verify(sessionResumption).resumed("Sheldon");
     }
 
     @Test
@@ -71,4 +70,38 @@ public class WebSocketEventListenerTest {
         // then
         verify(playerService).removePlayer(eq("Penny"));
     }
+
+    @Test
+    public void whenDisconnectedPlayerIsParked_Then_PlayerIsNotRemoved() {
+        // given
+        var sessionMap = new HashMap<String, Object>();
+        sessionMap.put("username", "Leonard");
+
+        var message = MessageBuilder.withPayload(new byte[0])
+                .setHeader(StompHeaderAccessor.SESSION_ATTRIBUTES, sessionMap)
+                .build();
+
+        var sessionDisconnectEvent = new SessionDisconnectEvent(new Object(), message, "sessionId", CloseStatus.NORMAL);
+
+        given(sessionResumption.park("Leonard"))
+                .willReturn(true);
+
+        // when
+        listener.handleWebSocketDisconnected(sessionDisconnectEvent);
+
+        // then
+        verify(playerService, never()).removePlayer(anyString());
+    }
+
+    @Test
+    public void whenPlayerIsSlowConsumer_Then_PlayerIsRemoved() {
+        // given
+        var slowConsumerEvent = new SlowConsumerEvent(new Object(), "Raj", "sessionId");
+
+        // when
+        listener.handleSlowConsumer(slowConsumerEvent);
+
+        // then
+        verify(playerService).removePlayer(eq("Raj"));
+    }
 }
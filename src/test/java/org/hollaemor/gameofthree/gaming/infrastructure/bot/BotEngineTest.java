@@ -0,0 +1,133 @@
+package org.hollaemor.gameofthree.gaming.infrastructure.bot;
+
+import org.hollaemor.gameofthree.gaming.domain.GameInstruction;
+import org.hollaemor.gameofthree.gaming.domain.GameMessageFactory;
+import org.hollaemor.gameofthree.gaming.domain.GameService;
+import org.hollaemor.gameofthree.gaming.domain.Player;
+import org.hollaemor.gameofthree.gaming.infrastructure.journal.GameJournal;
+import org.hollaemor.gameofthree.gaming.infrastructure.repository.PlayerRepository;
+import org.hollaemor.gameofthree.gaming.infrastructure.timer.Timeout;
+import org.hollaemor.gameofthree.gaming.infrastructure.timer.TimerWheel;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.ArgumentCaptor;
+import org.mockito.Captor;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+
+import java.time.Duration;
+import java.util.function.Consumer;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.BDDMockito.given;
+import static org.mockito.Mockito.never;
+import static org.mockito.Mockito.verify;
+
+@ExtendWith(MockitoExtension.class)
+public class BotEngineTest {
+
+    @Mock
+    private GameService gameService;
+
+    @Mock
+    private PlayerRepository playerRepository;
+
+    @Mock
+    private GameJournal gameJournal;
+
+    @Mock
+    private TimerWheel timerWheel;
+
+    @Captor
+    private ArgumentCaptor<GameInstruction> instructionCaptor;
+
+    @Captor
+    private ArgumentCaptor<Consumer<Timeout>> timeoutTaskCaptor;
+
+    @Captor
+    private ArgumentCaptor<BotPlayer> botCaptor;
+
+    private GameBotProperties properties;
+
+    private BotQueue queue;
+
+    private BotEngine engine;
+
+
+    @BeforeEach
+    public void setup() {
+        properties = new GameBotProperties();
+        properties.setPairAfter(Duration.ofSeconds(2));
+        properties.setMaxBots(1);
+
+        queue = new BotQueue(properties, playerRepository, gameJournal, timerWheel);
+        engine = new BotEngine(properties, queue, gameService, playerRepository);
+    }
+
+    @Test
+    public void waitingPlayer_Should_BePairedWithNewBot() throws Exception {
+        // given
+        var ripley = new Player("Ripley");
+        queueForBot(ripley);
+        given(gameService.startBotMatch(eq("Ripley"), any())).willReturn(true);
+
+        // when
+        var worked = engine.runOnce(0);
+
+        // then
+        assertThat(worked).isTrue();
+        verify(gameService).startBotMatch(eq("Ripley"), botCaptor.capture());
+        assertThat(botCaptor.getValue().getName()).startsWith(BotEngine.NAME_PREFIX);
+        assertThat(queue.countBots()).isEqualTo(1);
+    }
+
+    @Test
+    public void whenBotMatchCannotBeStarted_Then_BotIsDropped() throws Exception {
+        // given
+        queueForBot(new Player("Hicks"));
+        given(gameService.startBotMatch(eq("Hicks"), any())).willReturn(false);
+
+        // when
+        engine.runOnce(0);
+
+        // then
+        assertThat(queue.countBots()).isZero();
+    }
+
+    @Test
+    public void whenMaxBotsArePlaying_Then_PlayerKeepsWaiting() throws Exception {
+        // given
+        queue.register(new BotPlayer("bot-7"));
+        queueForBot(new Player("Bishop"));
+
+        // when
+        engine.runOnce(0);
+
+        // then
+        verify(gameService, never()).startBotMatch(any(), any());
+    }
+
+    @Test
+    public void botWhoseTurnItIs_Should_PlayMoveThatMakesValueDivisible() throws Exception {
+        // given
+        var bot = new BotPlayer("bot-3");
+        queue.register(bot);
+        queue.deliver("bot-3", GameMessageFactory.buildPlayMessage(19));
+
+        // when
+        engine.runOnce(0);
+
+        // then
+        verify(gameService).processPlayerMove(eq("bot-3"), instructionCaptor.capture());
+        assertThat(instructionCaptor.getValue().getMove()).isEqualTo(-1);
+    }
+
+    private void queueForBot(Player player) {
+        queue.waitForOpponent(player);
+        verify(timerWheel).schedule(timeoutTaskCaptor.capture(), any());
+        timeoutTaskCaptor.getValue().accept(null);
+    }
+}
@@ -0,0 +1,117 @@
+package org.hollaemor.gameofthree.gaming.infrastructure.bot;
+
+import org.hollaemor.gameofthree.GameOfThreeApplication;
+import org.hollaemor.gameofthree.gaming.domain.GameInstruction;
+import org.hollaemor.gameofthree.gaming.domain.GameMessage;
+import org.hollaemor.gameofthree.gaming.domain.GameStatus;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.boot.builder.SpringApplicationBuilder;
+import org.springframework.context.ConfigurableApplicationContext;
+import org.springframework.messaging.converter.MappingJackson2MessageConverter;
+import org.springframework.messaging.simp.stomp.StompFrameHandler;
+import org.springframework.messaging.simp.stomp.StompHeaders;
+import org.springframework.messaging.simp.stomp.StompSession;
+import org.springframework.messaging.simp.stomp.StompSessionHandlerAdapter;
+import org.springframework.scheduling.concurrent.ConcurrentTaskScheduler;
+import org.springframework.web.socket.WebSocketHttpHeaders;
+import org.springframework.web.socket.client.standard.StandardWebSocketClient;
+import org.springframework.web.socket.messaging.WebSocketStompClient;
+
+import java.lang.reflect.Type;
+import java.util.concurrent.BlockingQueue;
+import java.util.concurrent.LinkedBlockingQueue;
+import java.util.concurrent.TimeUnit;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.hollaemor.gameofthree.gaming.infrastructure.WebSocketConfig.WEBSOCKET_ENDPOINT;
+
+/**
+ * The server pairing players left waiting with bots.
+ */
+public class BotIntegrationTest {
+
+    private ConfigurableApplicationContext server;
+
+    private WebSocketStompClient stompClient;
+
+
+    @BeforeEach
+    public void setup() {
+        server = new SpringApplicationBuilder(GameOfThreeApplication.class)
+                .properties("server.port=0",
+                        "game.bot.pair-after=200ms",
+                        "game.timer.tick-duration=10ms")
+                .run();
+
+        stompClient = new WebSocketStompClient(new StandardWebSocketClient());
+        stompClient.setMessageConverter(new MappingJackson2MessageConverter());
+        stompClient.setTaskScheduler(new ConcurrentTaskScheduler());
+    }
+
+    @AfterEach
+    public void tearDown() {
+        stompClient.stop();
+        server.close();
+    }
+
+    @Test
+    public void waitingPlayer_Should_PlayAgainstBot() throws Exception {
+        // given
+        var ellie = new PlayerClient("Ellie");
+        ellie.session.send("/app/game.start", null);
+        assertThat(ellie.nextUpdate().getGameStatus()).isEqualTo(GameStatus.WAITING);
+
+        var start = ellie.nextUpdate();
+        assertThat(start.getGameStatus()).isEqualTo(GameStatus.START);
+        assertThat(start.isPrimaryPlayer()).isTrue();
+        assertThat(start.getOpponent()).startsWith(BotEngine.NAME_PREFIX);
+
+        // when
+        ellie.session.send("/app/game.number", GameInstruction.builder().value(10).build());
+        var botPlayed = ellie.nextUpdate();
+        ellie.session.send("/app/game.play", GameInstruction.builder().move(0).build());
+
+        // then
+        assertThat(botPlayed.getGameStatus()).isEqualTo(GameStatus.PLAY);
+        assertThat(botPlayed.getValue()).isEqualTo(3);
+
+        var gameOver = ellie.nextUpdate();
+        assertThat(gameOver.getGameStatus()).isEqualTo(GameStatus.GAMEOVER);
+        assertThat(gameOver.isWinner()).isTrue();
+    }
+
+    private class PlayerClient implements StompFrameHandler {
+
+        private final StompSession session;
+
+        private final BlockingQueue<GameMessage> updates = new LinkedBlockingQueue<>();
+
+        PlayerClient(String username) throws Exception {
+            var url = "ws://localhost:" + server.getEnvironment().getProperty("local.server.port") + WEBSOCKET_ENDPOINT;
+            var stompHeaders = new StompHeaders();
+            stompHeaders.add("username", username);
+
+            session = stompClient.connect(url, new WebSocketHttpHeaders(), stompHeaders, new StompSessionHandlerAdapter() {
+            }).get(5, TimeUnit.SECONDS);
+            session.subscribe("/user/queue/updates", this);
+        }
+
+        GameMessage nextUpdate() throws InterruptedException {
+            var update = updates.poll(5, TimeUnit.SECONDS);
+            assertThat(update).as("update received").isNotNull();
+            return update;
+        }
+
+        @Override
+        public Type getPayloadType(StompHeaders headers) {
+            return GameMessage.class;
+        }
+
+        @Override
+        public void handleFrame(StompHeaders headers, Object payload) {
+            updates.add((GameMessage) payload);
+        }
+    }
+}
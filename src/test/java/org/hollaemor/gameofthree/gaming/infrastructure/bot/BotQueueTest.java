@@ -0,0 +1,113 @@
+package org.hollaemor.gameofthree.gaming.infrastructure.bot;
+
+import org.hollaemor.gameofthree.gaming.domain.GameMessageFactory;
+import org.hollaemor.gameofthree.gaming.domain.Player;
+import org.hollaemor.gameofthree.gaming.infrastructure.journal.GameJournal;
+import org.hollaemor.gameofthree.gaming.infrastructure.repository.PlayerRepository;
+import org.hollaemor.gameofthree.gaming.infrastructure.timer.Timeout;
+import org.hollaemor.gameofthree.gaming.infrastructure.timer.TimerWheel;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.ArgumentCaptor;
+import org.mockito.Captor;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+
+import java.time.Duration;
+import java.util.function.Consumer;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.Mockito.verify;
+
+@ExtendWith(MockitoExtension.class)
+public class BotQueueTest {
+
+    @Mock
+    private PlayerRepository playerRepository;
+
+    @Mock
+    private GameJournal gameJournal;
+
+    @Mock
+    private TimerWheel timerWheel;
+
+    @Captor
+    private ArgumentCaptor<Consumer<Timeout>> timeoutTaskCaptor;
+
+    private BotQueue queue;
+
+
+    @BeforeEach
+    public void setup() {
+        var properties = new GameBotProperties();
+        properties.setPairAfter(Duration.ofSeconds(3));
+        properties.setMaxBots(10);
+
+        queue = new BotQueue(properties, playerRepository, gameJournal, timerWheel);
+    }
+
+    @Test
+    public void playerStillWaitingAfterPairAfter_Should_BeQueued() throws Exception {
+        // given
+        var neo = new Player("Neo");
+        queue.waitForOpponent(neo);
+        verify(timerWheel).schedule(timeoutTaskCaptor.capture(), eq(Duration.ofSeconds(3)));
+
+        // when
+        timeoutTaskCaptor.getValue().accept(null);
+
+        // then
+        assertThat(queue.poll(0)).isSameAs(neo);
+    }
+
+    @Test
+    public void playerPairedBeforePairAfter_Should_NotBeQueued() throws Exception {
+        // given
+        var trinity = new Player("Trinity");
+        queue.waitForOpponent(trinity);
+        verify(timerWheel).schedule(timeoutTaskCaptor.capture(), any());
+
+        // when
+        trinity.setOpponent(new Player("Morpheus"));
+        timeoutTaskCaptor.getValue().accept(null);
+
+        // then
+        assertThat(queue.poll(0)).isNull();
+    }
+
+    @Test
+    public void playMessageForBot_Should_QueueItsMove() throws Exception {
+        // given
+        var bot = new BotPlayer("bot-1");
+        queue.register(bot);
+
+        // when
+        var delivered = queue.deliver("bot-1", GameMessageFactory.buildPlayMessage(56));
+        var deliveredToPlayer = queue.deliver("Tank", GameMessageFactory.buildPlayMessage(56));
+
+        // then
+        assertThat(delivered).isTrue();
+        assertThat(deliveredToPlayer).isFalse();
+        assertThat(queue.poll(0)).isSameAs(bot);
+        assertThat(bot.getPendingMove()).isEqualTo(1);
+    }
+
+    @Test
+    public void disconnectMessageForBot_Should_RemoveBot() throws Exception {
+        // given
+        var bot = new BotPlayer("bot-2");
+        queue.register(bot);
+
+        // when
+        queue.deliver("bot-2", GameMessageFactory.buildDisconnectMessage("Cypher"));
+
+        // then
+        assertThat(queue.countBots()).isZero();
+        assertThat(queue.poll(0)).isNull();
+        verify(playerRepository).delete(bot);
+        verify(gameJournal).disconnected(0L, "bot-2", null);
+    }
+}
@@ -0,0 +1,169 @@
+package org.hollaemor.gameofthree.gaming.infrastructure.broker;
+
+import org.hollaemor.gameofthree.GameOfThreeApplication;
+import org.hollaemor.gameofthree.gaming.domain.GameInstruction;
+import org.hollaemor.gameofthree.gaming.domain.GameMessage;
+import org.hollaemor.gameofthree.gaming.domain.GameStatus;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.boot.builder.SpringApplicationBuilder;
+import org.springframework.context.ConfigurableApplicationContext;
+import org.springframework.messaging.converter.CompositeMessageConverter;
+import org.springframework.messaging.converter.MappingJackson2MessageConverter;
+import org.springframework.messaging.converter.StringMessageConverter;
+import org.springframework.messaging.simp.stomp.StompBrokerRelayMessageHandler;
+import org.springframework.messaging.simp.stomp.StompFrameHandler;
+import org.springframework.messaging.simp.stomp.StompHeaders;
+import org.springframework.messaging.simp.stomp.StompSession;
+import org.springframework.messaging.simp.stomp.StompSessionHandlerAdapter;
+import org.springframework.scheduling.concurrent.ConcurrentTaskScheduler;
+import org.springframework.web.socket.WebSocketHttpHeaders;
+import org.springframework.web.socket.client.standard.StandardWebSocketClient;
+import org.springframework.web.socket.messaging.WebSocketStompClient;
+import org.springframework.web.socket.sockjs.client.SockJsClient;
+import org.springframework.web.socket.sockjs.client.WebSocketTransport;
+
+import java.lang.reflect.Type;
+import java.util.List;
+import java.util.concurrent.BlockingQueue;
+import java.util.concurrent.LinkedBlockingQueue;
+import java.util.concurrent.TimeUnit;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+/**
+ * The server in relay mode, with an embedded broker delivering the updates and errors.
+ */
+public class BrokerRelayIntegrationTest {
+
+    private EmbeddedStompBroker broker;
+
+    private ConfigurableApplicationContext server;
+
+    private WebSocketStompClient stompClient;
+
+
+    @BeforeEach
+    public void setup() throws Exception {
+        broker = EmbeddedStompBroker.start();
+        server = new SpringApplicationBuilder(GameOfThreeApplication.class)
+                .properties("server.port=0",
+                        "game.broker.mode=relay",
+                        "game.broker.relay.port=" + broker.getPort(),
+                        "game.broker.relay.max-connections=8",
+                        "game.broker.relay.io-threads=2")
+                .run();
+        awaitBrokerAvailable();
+
+        stompClient = new WebSocketStompClient(new SockJsClient(List.of(new WebSocketTransport(new StandardWebSocketClient()))));
+        stompClient.setMessageConverter(new CompositeMessageConverter(
+                List.of(new StringMessageConverter(), new MappingJackson2MessageConverter())));
+        stompClient.setTaskScheduler(new ConcurrentTaskScheduler());
+    }
+
+    @AfterEach
+    public void tearDown() throws Exception {
+        stompClient.stop();
+        server.close();
+        broker.close();
+    }
+
+    @Test
+    public void updates_Should_BeDeliveredThroughTheExternalBroker() throws Exception {
+        // given
+        var tyrion = new PlayerClient("Tyrion");
+        tyrion.session.send("/app/game.start", null);
+        assertThat(tyrion.nextUpdate().getGameStatus()).isEqualTo(GameStatus.WAITING);
+
+        var sansa = new PlayerClient("Sansa");
+
+        // when
+        sansa.session.send("/app/game.start", null);
+
+        // then
+        var sansaStart = sansa.nextUpdate();
+        assertThat(sansaStart.getGameStatus()).isEqualTo(GameStatus.START);
+        assertThat(sansaStart.getOpponent()).isEqualTo("Tyrion");
+        assertThat(tyrion.nextUpdate().getGameStatus()).isEqualTo(GameStatus.START);
+
+        tyrion.session.send("/app/game.number", GameInstruction.builder().value(2).build());
+        assertThat(sansa.nextUpdate().getValue()).isEqualTo(2);
+
+        sansa.session.send("/app/game.play", GameInstruction.builder().move(1).build());
+        assertThat(sansa.nextUpdate().isWinner()).isTrue();
+        assertThat(tyrion.nextUpdate().getGameStatus()).isEqualTo(GameStatus.GAMEOVER);
+
+        assertThat(broker.getQueueNames()).anyMatch(queue -> queue.startsWith("updates-user"));
+    }
+
+    @Test
+    public void errors_Should_BeDeliveredThroughTheExternalBroker() throws Exception {
+        // given
+        var arya = new PlayerClient("Arya");
+
+        // when
+        arya.session.send("/app/game.play", GameInstruction.builder().move(1).build());
+
+        // then
+        assertThat(arya.nextError()).isEqualTo("You have not been paired with an opponent");
+        assertThat(broker.getQueueNames()).anyMatch(queue -> queue.startsWith("errors-user"));
+    }
+
+    private void awaitBrokerAvailable() throws InterruptedException {
+        var relay = server.getBean(StompBrokerRelayMessageHandler.class);
+        for (int i = 0; i < 50 && !relay.isBrokerAvailable(); i++) {
+            Thread.sleep(100);
+        }
+        assertThat(relay.isBrokerAvailable()).as("broker available").isTrue();
+    }
+
+    private class PlayerClient implements StompFrameHandler {
+
+        private final StompSession session;
+
+        private final BlockingQueue<GameMessage> updates = new LinkedBlockingQueue<>();
+        private final BlockingQueue<String> errors = new LinkedBlockingQueue<>();
+
+        PlayerClient(String username) throws Exception {
+            var url = "ws://localhost:" + server.getEnvironment().getProperty("local.server.port") + "/game-of-three";
+            var stompHeaders = new StompHeaders();
+            stompHeaders.add("username", username);
+
+            session = stompClient.connect(url, new WebSocketHttpHeaders(), stompHeaders, new StompSessionHandlerAdapter() {
+            }).get(5, TimeUnit.SECONDS);
+            session.subscribe("/user/queue/updates", this);
+            session.subscribe("/user/queue/errors", new StompFrameHandler() {
+                @Override
+                public Type getPayloadType(StompHeaders headers) {
+                    return String.class;
+                }
+
+                @Override
+                public void handleFrame(StompHeaders headers, Object payload) {
+                    errors.add((String) payload);
+                }
+            });
+        }
+
+        GameMessage nextUpdate() throws InterruptedException {
+            var update = updates.poll(5, TimeUnit.SECONDS);
+            assertThat(update).as("update received").isNotNull();
+            return update;
+        }
+
+        String nextError() throws InterruptedException {
+            return errors.poll(5, TimeUnit.SECONDS);
+        }
+
+        @Override
+        public Type getPayloadType(StompHeaders headers) {
+            return GameMessage.class;
+        }
+
+        @Override
+        public void handleFrame(StompHeaders headers, Object payload) {
+            updates.add((GameMessage) payload);
+        }
+    }
+}
@@ -0,0 +1,50 @@
+package org.hollaemor.gameofthree.gaming.infrastructure.broker;
+
+import org.apache.activemq.broker.BrokerService;
+import org.apache.activemq.command.ActiveMQDestination;
+
+import java.util.Arrays;
+import java.util.List;
+import java.util.stream.Collectors;
+
+/**
+ * In-memory ActiveMQ broker with a STOMP connector on a free port, standing in for the external broker of the relay.
+ */
+public class EmbeddedStompBroker implements AutoCloseable {
+
+    private final BrokerService broker;
+
+    private EmbeddedStompBroker(BrokerService broker) {
+        this.broker = broker;
+    }
+
+    public static EmbeddedStompBroker start() throws Exception {
+        var broker = new BrokerService();
+        broker.setBrokerName("game-of-three-test");
+        broker.setPersistent(false);
+        broker.setUseJmx(false);
+        broker.setAdvisorySupport(false);
+        broker.addConnector("stomp://localhost:0");
+        broker.start();
+        broker.waitUntilStarted();
+
+        return new EmbeddedStompBroker(broker);
+    }
+
+    public int getPort() throws Exception {
+        return broker.getTransportConnectors().get(0).getConnectUri().getPort();
+    }
+
+    public List<String> getQueueNames() throws Exception {
+        return Arrays.stream(broker.getBroker().getDestinations())
+                .filter(ActiveMQDestination::isQueue)
+                .map(ActiveMQDestination::getPhysicalName)
+                .collect(Collectors.toList());
+    }
+
+    @Override
+    public void close() throws Exception {
+        broker.stop();
+        broker.waitUntilStopped();
+    }
+}
@@ -0,0 +1,198 @@
+package org.hollaemor.gameofthree.gaming.infrastructure.cluster;
+
+import org.hollaemor.gameofthree.GameOfThreeApplication;
+import org.hollaemor.gameofthree.gaming.domain.GameInstruction;
+import org.hollaemor.gameofthree.gaming.domain.GameMessage;
+import org.hollaemor.gameofthree.gaming.domain.GameStatus;
+import org.hollaemor.gameofthree.gaming.infrastructure.broker.EmbeddedStompBroker;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.boot.builder.SpringApplicationBuilder;
+import org.springframework.context.ConfigurableApplicationContext;
+import org.springframework.messaging.converter.MappingJackson2MessageConverter;
+import org.springframework.messaging.simp.stomp.StompBrokerRelayMessageHandler;
+import org.springframework.messaging.simp.stomp.StompFrameHandler;
+import org.springframework.messaging.simp.stomp.StompHeaders;
+import org.springframework.messaging.simp.stomp.StompSession;
+import org.springframework.messaging.simp.stomp.StompSessionHandlerAdapter;
+import org.springframework.scheduling.concurrent.ConcurrentTaskScheduler;
+import org.springframework.web.socket.WebSocketHttpHeaders;
+import org.springframework.web.socket.client.standard.StandardWebSocketClient;
+import org.springframework.web.socket.messaging.WebSocketStompClient;
+import org.springframework.web.socket.sockjs.client.SockJsClient;
+import org.springframework.web.socket.sockjs.client.WebSocketTransport;
+
+import java.lang.reflect.Type;
+import java.util.List;
+import java.util.UUID;
+import java.util.concurrent.BlockingQueue;
+import java.util.concurrent.LinkedBlockingQueue;
+import java.util.concurrent.TimeUnit;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+/**
+ * Two nodes of a cluster on an embedded broker, with a player connected to each. The nodes share nothing but the
+ * broker.
+ */
+public class ClusterIntegrationTest {
+
+    private EmbeddedStompBroker broker;
+
+    private ConfigurableApplicationContext winterfell;
+    private ConfigurableApplicationContext kingsLanding;
+
+    private WebSocketStompClient stompClient;
+
+
+    @BeforeEach
+    public void setup() throws Exception {
+        broker = EmbeddedStompBroker.start();
+
+        var clusterName = UUID.randomUUID().toString();
+        winterfell = startNode(clusterName, "winterfell");
+        kingsLanding = startNode(clusterName, "kings-landing");
+        awaitConnected(winterfell);
+        awaitConnected(kingsLanding);
+
+        stompClient = new WebSocketStompClient(new SockJsClient(List.of(new WebSocketTransport(new StandardWebSocketClient()))));
+        stompClient.setMessageConverter(new MappingJackson2MessageConverter());
+        stompClient.setTaskScheduler(new ConcurrentTaskScheduler());
+    }
+
+    @AfterEach
+    public void tearDown() throws Exception {
+        stompClient.stop();
+        winterfell.close();
+        kingsLanding.close();
+        broker.close();
+    }
+
+    @Test
+    public void playersOnDifferentNodes_Should_BePaired_And_PlayAgainstEachOther() throws Exception {
+        // given
+        var stark = new PlayerClient(winterfell, "Stark");
+
+        stark.session.send("/app/game.start", null);
+        assertThat(stark.nextUpdate().getGameStatus()).isEqualTo(GameStatus.WAITING);
+
+        // when
+        var lannister = new PlayerClient(kingsLanding, "Lannister");
+        lannister.session.send("/app/game.start", null);
+
+        // then
+        var lannisterStart = lannister.nextUpdateAfterWaiting();
+        assertThat(lannisterStart.getGameStatus()).isEqualTo(GameStatus.START);
+        assertThat(lannisterStart.getOpponent()).isEqualTo("Stark");
+        assertThat(lannisterStart.isPrimaryPlayer()).isTrue();
+
+        var starkStart = stark.nextUpdate();
+        assertThat(starkStart.getGameStatus()).isEqualTo(GameStatus.START);
+        assertThat(starkStart.getOpponent()).isEqualTo("Lannister");
+        assertThat(starkStart.isPrimaryPlayer()).isFalse();
+
+        lannister.session.send("/app/game.number", GameInstruction.builder().value(2).build());
+
+        var play = stark.nextUpdate();
+        assertThat(play.getGameStatus()).isEqualTo(GameStatus.PLAY);
+        assertThat(play.getValue()).isEqualTo(2);
+
+        stark.session.send("/app/game.play", GameInstruction.builder().move(1).build());
+
+        assertThat(stark.nextUpdate().isWinner()).isTrue();
+        var lannisterGameOver = lannister.nextUpdate();
+        assertThat(lannisterGameOver.getGameStatus()).isEqualTo(GameStatus.GAMEOVER);
+        assertThat(lannisterGameOver.isWinner()).isFalse();
+    }
+
+    @Test
+    public void playerLeavingTheirNode_Should_BeReportedToTheirOpponentOnTheOtherNode() throws Exception {
+        // given
+        var stark = new PlayerClient(winterfell, "Stark");
+        stark.session.send("/app/game.start", null);
+        assertThat(stark.nextUpdate().getGameStatus()).isEqualTo(GameStatus.WAITING);
+
+        var lannister = new PlayerClient(kingsLanding, "Lannister");
+        lannister.session.send("/app/game.start", null);
+        assertThat(lannister.nextUpdateAfterWaiting().getGameStatus()).isEqualTo(GameStatus.START);
+        assertThat(stark.nextUpdate().getGameStatus()).isEqualTo(GameStatus.START);
+
+        // when
+        stark.session.disconnect();
+
+        // then
+        var disconnect = lannister.nextUpdate();
+        assertThat(disconnect.getGameStatus()).isEqualTo(GameStatus.DISCONNECT);
+        assertThat(clusterRouterOf(kingsLanding).find("Stark")).isEmpty();
+        assertThat(clusterRouterOf(winterfell).find("Lannister")).isEmpty();
+    }
+
+    private ConfigurableApplicationContext startNode(String clusterName, String nodeId) throws Exception {
+        return new SpringApplicationBuilder(GameOfThreeApplication.class)
+                .properties("server.port=0",
+                        "game.broker.mode=relay",
+                        "game.broker.relay.port=" + broker.getPort(),
+                        "game.broker.relay.max-connections=8",
+                        "game.broker.relay.io-threads=2",
+                        "game.cluster.enabled=true",
+                        "game.cluster.name=" + clusterName,
+                        "game.cluster.node-id=" + nodeId)
+                .run();
+    }
+
+    private static void awaitConnected(ConfigurableApplicationContext node) throws InterruptedException {
+        var relay = node.getBean(StompBrokerRelayMessageHandler.class);
+        var clusterHub = (StompClusterHub) node.getBean(ClusterHub.class);
+        for (int i = 0; i < 50 && !(relay.isBrokerAvailable() && clusterHub.isConnected()); i++) {
+            Thread.sleep(100);
+        }
+        assertThat(relay.isBrokerAvailable()).as("broker available").isTrue();
+        assertThat(clusterHub.isConnected()).as("node joined the cluster").isTrue();
+    }
+
+    private static ClusterRouter clusterRouterOf(ConfigurableApplicationContext node) {
+        return node.getBean(ClusterRouter.class);
+    }
+
+    private class PlayerClient implements StompFrameHandler {
+
+        private final StompSession session;
+
+        private final BlockingQueue<GameMessage> updates = new LinkedBlockingQueue<>();
+
+        PlayerClient(ConfigurableApplicationContext node, String username) throws Exception {
+            var url = "ws://localhost:" + node.getEnvironment().getProperty("local.server.port") + "/game-of-three";
+            var stompHeaders = new StompHeaders();
+            stompHeaders.add("username", username);
+
+            session = stompClient.connect(url, new WebSocketHttpHeaders(), stompHeaders, new StompSessionHandlerAdapter() {
+            }).get(5, TimeUnit.SECONDS);
+            session.subscribe("/user/queue/updates", this);
+        }
+
+        GameMessage nextUpdate() throws InterruptedException {
+            var update = updates.poll(5, TimeUnit.SECONDS);
+            assertThat(update).as("update received").isNotNull();
+            return update;
+        }
+
+        /*
+        A player who starts waiting is paired through the other node, so its WAITING reply may come first.
+         */
+        GameMessage nextUpdateAfterWaiting() throws InterruptedException {
+            var update = nextUpdate();
+            return GameStatus.WAITING == update.getGameStatus() ? nextUpdate() : update;
+        }
+
+        @Override
+        public Type getPayloadType(StompHeaders headers) {
+            return GameMessage.class;
+        }
+
+        @Override
+        public void handleFrame(StompHeaders headers, Object payload) {
+            updates.add((GameMessage) payload);
+        }
+    }
+}
@@ -0,0 +1,289 @@
+package org.hollaemor.gameofthree.gaming.infrastructure.cluster;
+
+import org.hollaemor.gameofthree.gaming.domain.GameInstruction;
+import org.hollaemor.gameofthree.gaming.domain.GameMessageFactory;
+import org.hollaemor.gameofthree.gaming.domain.GameRules;
+import org.hollaemor.gameofthree.gaming.domain.GameService;
+import org.hollaemor.gameofthree.gaming.domain.OutOfTurnException;
+import org.hollaemor.gameofthree.gaming.domain.Player;
+import org.hollaemor.gameofthree.gaming.domain.PlayerLocks;
+import org.hollaemor.gameofthree.gaming.infrastructure.metrics.GameMetrics;
+import org.hollaemor.gameofthree.gaming.infrastructure.repository.InMemoryPlayerRepository;
+import org.hollaemor.gameofthree.gaming.infrastructure.repository.PlayerRepository;
+import org.hollaemor.gameofthree.gaming.infrastructure.service.NotificationService;
+import org.hollaemor.gameofthree.gaming.infrastructure.service.PlayerService;
+import org.hollaemor.gameofthree.gaming.infrastructure.timer.Timeout;
+import org.hollaemor.gameofthree.gaming.infrastructure.timer.TimerWheel;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.ArgumentCaptor;
+import org.mockito.Captor;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.messaging.simp.SimpMessagingTemplate;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.function.Consumer;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.BDDMockito.given;
+import static org.mockito.BDDMockito.willThrow;
+import static org.mockito.Mockito.never;
+import static org.mockito.Mockito.verify;
+
+@ExtendWith(MockitoExtension.class)
+public class ClusterNodeTest {
+
+    @Mock
+    private GameService gameService;
+
+    @Mock
+    private PlayerService playerService;
+
+    @Mock
+    private NotificationService notificationService;
+
+    @Mock
+    private SimpMessagingTemplate messagingTemplate;
+
+    @Mock
+    private TimerWheel timerWheel;
+
+    @Captor
+    private ArgumentCaptor<Consumer<Timeout>> timeoutTaskCaptor;
+
+    private final List<ClusterMessage> receivedByKingsLanding = new ArrayList<>();
+
+    private PlayerRepository playerRepository;
+
+    private ClusterRouter clusterRouter;
+
+    private ClusterNode node;
+
+
+    @BeforeEach
+    public void setup() {
+        var clusterHub = new LocalClusterHub();
+        clusterHub.join("kings-landing", receivedByKingsLanding::add);
+
+        playerRepository = new InMemoryPlayerRepository();
+        clusterRouter = new ClusterRouter("winterfell", clusterHub);
+
+        node = new ClusterNode(new GameClusterProperties(), clusterHub, clusterRouter, gameService, playerService,
+                playerRepository, new PlayerLocks(), notificationService, messagingTemplate, timerWheel,
+                new GameMetrics(), GameRules.CLASSIC);
+    }
+
+    @Test
+    public void seek_Should_OfferAvailablePlayer_And_HoldThemForTheSeeker() {
+        // given
+        var stark = new Player("Stark");
+        playerRepository.save(stark);
+
+        // when
+        node.handle(seek("Lannister", GameRules.CLASSIC.getFingerprint()));
+
+        // then
+        assertThat(receivedByKingsLanding).hasSize(1);
+        var offer = receivedByKingsLanding.get(0);
+        assertThat(offer.getType()).isEqualTo(ClusterMessageType.OFFER);
+        assertThat(offer.getNodeId()).isEqualTo("winterfell");
+        assertThat(offer.getPlayerName()).isEqualTo("Stark");
+        assertThat(offer.getOpponentName()).isEqualTo("Lannister");
+
+        var lannister = (RemotePlayer) stark.getOpponent();
+        assertThat(lannister.getName()).isEqualTo("Lannister");
+        assertThat(lannister.isHost()).isTrue();
+        assertThat(lannister.isConfirmed()).isFalse();
+        assertThat(clusterRouter.find("Lannister")).containsSame(lannister);
+        assertThat(playerRepository.findAvailableForPlayer("Tyrell")).isEmpty();
+        verify(timerWheel).schedule(any(), eq(new GameClusterProperties().getOfferTimeout()));
+    }
+
+    @Test
+    public void seekByOtherRules_Should_BeIgnored() {
+        // given
+        var stark = new Player("Stark");
+        playerRepository.save(stark);
+
+        // when
+        node.handle(seek("Lannister", GameRules.CLASSIC.getFingerprint() + 1));
+
+        // then
+        assertThat(receivedByKingsLanding).isEmpty();
+        assertThat(stark.hasOpponent()).isFalse();
+        assertThat(playerRepository.findAvailableForPlayer("Tyrell")).containsSame(stark);
+    }
+
+    @Test
+    public void release_Should_PutOfferedPlayerBackInTheLobby() {
+        // given
+        var stark = new Player("Stark");
+        playerRepository.save(stark);
+        node.handle(seek("Lannister", GameRules.CLASSIC.getFingerprint()));
+
+        // when
+        node.handle(ClusterMessage.builder()
+                .type(ClusterMessageType.RELEASE)
+                .nodeId("kings-landing")
+                .playerName("Stark")
+                .opponentName("Lannister")
+                .build());
+
+        // then
+        assertThat(stark.hasOpponent()).isFalse();
+        assertThat(playerRepository.exists("Lannister")).isFalse();
+        assertThat(clusterRouter.find("Lannister")).isEmpty();
+        assertThat(playerRepository.findAvailableForPlayer("Tyrell")).containsSame(stark);
+    }
+
+    @Test
+    public void unconfirmedOffer_Should_BeReleasedOnTimeout() {
+        // given
+        var stark = new Player("Stark");
+        playerRepository.save(stark);
+        node.handle(seek("Lannister", GameRules.CLASSIC.getFingerprint()));
+        verify(timerWheel).schedule(timeoutTaskCaptor.capture(), any());
+
+        // when
+        timeoutTaskCaptor.getValue().accept(null);
+
+        // then
+        assertThat(stark.hasOpponent()).isFalse();
+        assertThat(playerRepository.findAvailableForPlayer("Tyrell")).containsSame(stark);
+    }
+
+    @Test
+    public void confirmedOffer_Should_NotBeReleasedOnTimeout() {
+        // given
+        var stark = new Player("Stark");
+        playerRepository.save(stark);
+        node.handle(seek("Lannister", GameRules.CLASSIC.getFingerprint()));
+        verify(timerWheel).schedule(timeoutTaskCaptor.capture(), any());
+
+        var start = GameMessageFactory.buildPlayMessage(19);
+        node.handle(ClusterMessage.builder()
+                .type(ClusterMessageType.NOTIFY)
+                .nodeId("kings-landing")
+                .playerName("Stark")
+                .opponentName("Lannister")
+                .gameMessage(start)
+                .build());
+
+        // when
+        timeoutTaskCaptor.getValue().accept(null);
+
+        // then
+        assertThat(stark.getOpponent().getName()).isEqualTo("Lannister");
+        verify(notificationService).notifyPlayer(eq("Stark"), any());
+    }
+
+    @Test
+    public void offer_Should_StartGameWithStandInForOfferedPlayer() {
+        // given
+        given(gameService.startRemoteMatch(eq("Lannister"), any())).willReturn(true);
+
+        // when
+        node.handle(offer("Stark", "Lannister"));
+
+        // then
+        var stark = clusterRouter.find("Stark");
+        assertThat(stark).isPresent();
+        assertThat(stark.get().isHost()).isFalse();
+        assertThat(stark.get().getNodeId()).isEqualTo("kings-landing");
+        verify(gameService).startRemoteMatch("Lannister", stark.get());
+        assertThat(receivedByKingsLanding).isEmpty();
+    }
+
+    @Test
+    public void offerNobodyWaitsFor_Should_BeReleased() {
+        // given
+        given(gameService.startRemoteMatch(eq("Lannister"), any())).willReturn(false);
+
+        // when
+        node.handle(offer("Stark", "Lannister"));
+
+        // then
+        assertThat(clusterRouter.find("Stark")).isEmpty();
+        assertThat(receivedByKingsLanding).hasSize(1);
+        var release = receivedByKingsLanding.get(0);
+        assertThat(release.getType()).isEqualTo(ClusterMessageType.RELEASE);
+        assertThat(release.getPlayerName()).isEqualTo("Stark");
+        assertThat(release.getOpponentName()).isEqualTo("Lannister");
+    }
+
+    @Test
+    public void rejectedForwardedMove_Should_BeAnsweredWithItsError() {
+        // given
+        given(gameService.startRemoteMatch(eq("Lannister"), any())).willReturn(true);
+        node.handle(offer("Stark", "Lannister"));
+        willThrow(new OutOfTurnException("Not your turn")).given(gameService).processPlayerMove(eq("Stark"), any());
+
+        // when
+        node.handle(command(ClusterMessageType.MOVE, "Stark", 1));
+
+        // then
+        assertThat(receivedByKingsLanding).hasSize(1);
+        var error = receivedByKingsLanding.get(0);
+        assertThat(error.getType()).isEqualTo(ClusterMessageType.ERROR);
+        assertThat(error.getPlayerName()).isEqualTo("Stark");
+        assertThat(error.getContent()).isEqualTo("Not your turn");
+    }
+
+    @Test
+    public void forwardedNumber_Should_BePlayedByTheHost() {
+        // given
+        given(gameService.startRemoteMatch(eq("Lannister"), any())).willReturn(true);
+        node.handle(offer("Stark", "Lannister"));
+
+        // when
+        node.handle(command(ClusterMessageType.NUMBER, "Stark", 42));
+
+        // then
+        verify(gameService).processRandomNumberFromPlayer(42, "Stark");
+        assertThat(receivedByKingsLanding).isEmpty();
+    }
+
+    @Test
+    public void commandOfUnpairedPlayer_Should_BeAnsweredWithError() {
+        // when
+        node.handle(command(ClusterMessageType.MOVE, "Stark", 1));
+
+        // then
+        assertThat(receivedByKingsLanding).hasSize(1);
+        assertThat(receivedByKingsLanding.get(0).getType()).isEqualTo(ClusterMessageType.ERROR);
+        verify(gameService, never()).processPlayerMove(any(), any(GameInstruction.class));
+    }
+
+    private static ClusterMessage seek(String playerName, int rulesFingerprint) {
+        return ClusterMessage.builder()
+                .type(ClusterMessageType.SEEK)
+                .nodeId("kings-landing")
+                .playerName(playerName)
+                .value(rulesFingerprint)
+                .build();
+    }
+
+    private static ClusterMessage offer(String playerName, String seekerName) {
+        return ClusterMessage.builder()
+                .type(ClusterMessageType.OFFER)
+                .nodeId("kings-landing")
+                .playerName(playerName)
+                .opponentName(seekerName)
+                .build();
+    }
+
+    private static ClusterMessage command(ClusterMessageType type, String playerName, int value) {
+        return ClusterMessage.builder()
+                .type(type)
+                .nodeId("kings-landing")
+                .playerName(playerName)
+                .opponentName("Lannister")
+                .value(value)
+                .build();
+    }
+}
@@ -0,0 +1,86 @@
+package org.hollaemor.gameofthree.gaming.infrastructure.cluster;
+
+import org.hollaemor.gameofthree.gaming.domain.GameMessageFactory;
+import org.hollaemor.gameofthree.gaming.domain.GameStatus;
+import org.hollaemor.gameofthree.gaming.domain.Player;
+import org.hollaemor.gameofthree.gaming.infrastructure.CompactSessions;
+import org.hollaemor.gameofthree.gaming.infrastructure.bot.BotQueue;
+import org.hollaemor.gameofthree.gaming.infrastructure.outbound.GameOutboundProperties;
+import org.hollaemor.gameofthree.gaming.infrastructure.outbound.OutboundFlowControl;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.messaging.simp.SimpMessagingTemplate;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.mockito.BDDMockito.*;
+
+@ExtendWith(MockitoExtension.class)
+public class ClusterNotificationServiceTest {
+
+    @Mock
+    private SimpMessagingTemplate messagingTemplate;
+
+    @Mock
+    private BotQueue botQueue;
+
+    private ClusterNotificationService service;
+
+    private final List<ClusterMessage> receivedByWesteros = new ArrayList<>();
+
+
+    @BeforeEach
+    public void setup() {
+        var clusterHub = new LocalClusterHub();
+        clusterHub.join("westeros", receivedByWesteros::add);
+
+        var clusterRouter = new ClusterRouter("essos", clusterHub);
+        var jonSnow = new RemotePlayer("Jon Snow", "westeros", false, 0L);
+        jonSnow.setOpponent(new Player("Daenerys"));
+        clusterRouter.register(jonSnow);
+
+        service = new ClusterNotificationService(messagingTemplate,
+                new OutboundFlowControl(new GameOutboundProperties(), event -> {}), botQueue, new CompactSessions(),
+                clusterRouter);
+    }
+
+    @Test
+    public void notifyPlayer_Should_SendToLocalPlayerThroughLocalBroker() {
+        // given
+        var gameMessage = GameMessageFactory.buildPlayMessage(19);
+
+        // when
+        service.notifyPlayer("Daenerys", gameMessage);
+
+        // then
+        verify(messagingTemplate).convertAndSendToUser("Daenerys", "/queue/updates", gameMessage, (Map<String, Object>) null);
+        assertThat(receivedByWesteros).isEmpty();
+    }
+
+    @Test
+    public void notifyPlayer_Should_PassRemotePlayerToTheirNode() {
+        // given
+        var gameMessage = GameMessageFactory.buildPlayMessage(19);
+
+        // when
+        service.notifyPlayer("Jon Snow", gameMessage);
+
+        // then
+        verifyNoInteractions(messagingTemplate);
+        assertThat(receivedByWesteros).hasSize(1);
+
+        var notification = receivedByWesteros.get(0);
+        assertThat(notification.getType()).isEqualTo(ClusterMessageType.NOTIFY);
+        assertThat(notification.getNodeId()).isEqualTo("essos");
+        assertThat(notification.getPlayerName()).isEqualTo("Jon Snow");
+        assertThat(notification.getOpponentName()).isEqualTo("Daenerys");
+        assertThat(notification.getGameMessage().getGameStatus()).isEqualTo(GameStatus.PLAY);
+        assertThat(notification.getGameMessage().getValue()).isEqualTo(19);
+    }
+}
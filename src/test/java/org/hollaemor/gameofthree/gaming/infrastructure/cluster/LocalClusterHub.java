@@ -0,0 +1,65 @@
+package org.hollaemor.gameofthree.gaming.infrastructure.cluster;
+
+import com.fasterxml.jackson.core.JsonProcessingException;
+import com.fasterxml.jackson.databind.ObjectMapper;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.function.Consumer;
+
+/**
+ * In-process stand-in for the broker of a cluster, for tests. Messages are handed to the receivers of the joined
+ * nodes on the sending thread, after a round trip through JSON, so that only what the broker would carry arrives.
+ * Every message sent is kept for assertions.
+ */
+public class LocalClusterHub implements ClusterHub {
+
+    private final ObjectMapper objectMapper = new ObjectMapper();
+
+    private final Map<String, Consumer<ClusterMessage>> nodes = new ConcurrentHashMap<>();
+
+    private final List<ClusterMessage> sent = new ArrayList<>();
+
+    @Override
+    public void join(String nodeId, Consumer<ClusterMessage> receiver) {
+        nodes.put(nodeId, receiver);
+    }
+
+    @Override
+    public void leave(String nodeId) {
+        nodes.remove(nodeId);
+    }
+
+    @Override
+    public void send(String nodeId, ClusterMessage message) {
+        var copy = roundTrip(message);
+        var receiver = nodes.get(nodeId);
+
+        if (null != receiver) {
+            receiver.accept(copy);
+        }
+    }
+
+    @Override
+    public void publish(ClusterMessage message) {
+        var copy = roundTrip(message);
+
+        nodes.values().forEach(receiver -> receiver.accept(copy));
+    }
+
+    public synchronized List<ClusterMessage> getSent() {
+        return List.copyOf(sent);
+    }
+
+    private synchronized ClusterMessage roundTrip(ClusterMessage message) {
+        try {
+            var copy = objectMapper.readValue(objectMapper.writeValueAsString(message), ClusterMessage.class);
+            sent.add(copy);
+            return copy;
+        } catch (JsonProcessingException ex) {
+            throw new IllegalStateException("cluster message does not survive JSON: " + message, ex);
+        }
+    }
+}
@@ -0,0 +1,168 @@
+package org.hollaemor.gameofthree.gaming.infrastructure.journal;
+
+import org.hollaemor.gameofthree.gaming.domain.Game;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+import org.springframework.util.unit.DataSize;
+
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.List;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+public class GameJournalTest {
+
+    @TempDir
+    Path directory;
+
+    private GameJournalProperties properties;
+
+    @BeforeEach
+    public void setup() {
+        properties = new GameJournalProperties();
+        properties.setEnabled(true);
+        properties.setDirectory(directory);
+    }
+
+    @Test
+    public void recordedTransitions_Should_BeReadBackInOrder() throws Exception {
+        // given
+        var journal = open();
+        var game = new Game(7, "Jon Snow", "Arya Stark");
+
+        // when
+        journal.paired(game);
+        journal.numberSent(game, "Jon Snow", 56);
+        journal.moved(game, "Arya Stark", 1, 19);
+        journal.moved(game, "Jon Snow", -1, 6);
+        journal.moved(game, "Arya Stark", 0, 2);
+        journal.moved(game, "Jon Snow", 1, 1);
+        journal.gameOver(game, "Jon Snow");
+        journal.disconnected(7, "Arya Stark", "Jon Snow");
+        journal.destroy();
+
+        // then
+        var records = readAll(1);
+
+        assertThat(records).extracting("sequence").containsExactly(1L, 2L, 3L, 4L, 5L, 6L, 7L, 8L);
+        assertThat(records).extracting("type").containsExactly(JournalRecordType.PAIR, JournalRecordType.NUMBER,
+                JournalRecordType.MOVE, JournalRecordType.MOVE, JournalRecordType.MOVE, JournalRecordType.MOVE,
+                JournalRecordType.GAMEOVER, JournalRecordType.DISCONNECT);
+        assertThat(records).extracting("gameId").containsOnly(7L);
+
+        assertThat(records.get(0).getPlayerName()).isEqualTo("Jon Snow");
+        assertThat(records.get(0).getOpponentName()).isEqualTo("Arya Stark");
+        assertThat(records.get(1).getValue()).isEqualTo(56);
+        assertThat(records.get(2).getMove()).isEqualTo(1);
+        assertThat(records.get(2).getValue()).isEqualTo(19);
+        assertThat(journal.getAppendedRecords()).isEqualTo(8);
+    }
+
+    @Test
+    public void whenSegmentIsFull_Then_NextSegmentIsStarted() throws Exception {
+        // given
+        properties.setSegmentSize(DataSize.ofBytes(3 * JournalRecord.SIZE));
+        var journal = open();
+
+        // when
+        for (int i = 0; i < 7; i++) {
+            journal.disconnected(i, "Hodor", null);
+        }
+        journal.destroy();
+
+        // then
+        var reader = new JournalReader(directory);
+        assertThat(reader.segments()).extracting(segment -> segment.getFileName().toString())
+                .containsExactly("00000000000000000001.journal", "00000000000000000004.journal",
+                        "00000000000000000007.journal");
+
+        assertThat(readAll(1)).extracting("gameId").containsExactly(0L, 1L, 2L, 3L, 4L, 5L, 6L);
+        assertThat(readAll(5)).extracting("sequence").containsExactly(5L, 6L, 7L);
+    }
+
+    @Test
+    public void whenJournalIsReopened_Then_AppendingContinuesAfterLastRecord() throws Exception {
+        // given
+        var journal = open();
+        journal.disconnected(1, "Sansa Stark", null);
+        journal.destroy();
+
+        // when
+        journal = open();
+        journal.disconnected(2, "Bran Stark", null);
+        journal.destroy();
+
+        // then
+        assertThat(readAll(1)).extracting("playerName").containsExactly("Sansa Stark", "Bran Stark");
+        assertThat(new JournalReader(directory).read(1, record -> {
+        })).isEqualTo(2);
+    }
+
+    @Test
+    public void whenRecordIsNotCompletelyWritten_Then_ReadingStopsBeforeIt() throws Exception {
+        // given
+        var journal = open();
+        journal.disconnected(1, "Tyrion Lannister", null);
+        journal.disconnected(2, "Cersei Lannister", null);
+        journal.destroy();
+
+        var segment = new JournalReader(directory).segments().get(0);
+        var bytes = Files.readAllBytes(segment);
+        bytes[JournalRecord.SIZE + 40]++;
+        Files.write(segment, bytes);
+
+        // when
+        var records = readAll(1);
+
+        // then
+        assertThat(records).extracting("playerName").containsExactly("Tyrion Lannister");
+    }
+
+    @Test
+    public void longNames_Should_BeCutOff_And_Flagged() throws Exception {
+        // given
+        var journal = open();
+        var name = "Daenerys Stormborn of House Targaryen, the First of Her Name";
+
+        // when
+        journal.disconnected(1, name, "Drogon");
+        journal.destroy();
+
+        // then
+        var record = readAll(1).get(0);
+        assertThat(record.hasTruncatedNames()).isTrue();
+        assertThat(name).startsWith(record.getPlayerName());
+        assertThat(record.getPlayerName()).hasSize(JournalRecord.MAX_NAME_BYTES);
+        assertThat(record.getOpponentName()).isEqualTo("Drogon");
+    }
+
+    @Test
+    public void whenJournalIsDisabled_Then_NothingIsRecorded() throws Exception {
+        // given
+        properties.setEnabled(false);
+        var journal = open();
+
+        // when
+        journal.disconnected(1, "Ned Stark", null);
+        journal.destroy();
+
+        // then
+        assertThat(new JournalReader(directory).segments()).isEmpty();
+        assertThat(journal.getAppendedRecords()).isZero();
+    }
+
+    private GameJournal open() throws Exception {
+        var journal = new GameJournal(properties);
+        journal.afterPropertiesSet();
+        return journal;
+    }
+
+    private List<JournalRecord> readAll(long fromSequence) throws Exception {
+        var records = new ArrayList<JournalRecord>();
+        new JournalReader(directory).read(fromSequence, records::add);
+        return records;
+    }
+}
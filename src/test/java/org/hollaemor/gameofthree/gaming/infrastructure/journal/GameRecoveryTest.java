@@ -0,0 +1,212 @@
+package org.hollaemor.gameofthree.gaming.infrastructure.journal;
+
+import org.hollaemor.gameofthree.gaming.domain.Game;
+import org.hollaemor.gameofthree.gaming.domain.GameRules;
+import org.hollaemor.gameofthree.gaming.domain.Player;
+import org.hollaemor.gameofthree.gaming.infrastructure.repository.InMemoryGameRepository;
+import org.hollaemor.gameofthree.gaming.infrastructure.repository.InMemoryPlayerRepository;
+import org.hollaemor.gameofthree.gaming.infrastructure.service.PlayerService;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.junit.jupiter.api.io.TempDir;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.util.unit.DataSize;
+
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.List;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.mockito.Mockito.never;
+import static org.mockito.Mockito.verify;
+
+@ExtendWith(MockitoExtension.class)
+public class GameRecoveryTest {
+
+    @TempDir
+    Path directory;
+
+    @Mock
+    private PlayerService playerService;
+
+    private GameJournalProperties properties;
+
+    private InMemoryPlayerRepository playerRepository;
+
+    private InMemoryGameRepository gameRepository;
+
+    @BeforeEach
+    public void setup() {
+        properties = new GameJournalProperties();
+        properties.setEnabled(true);
+        properties.setDirectory(directory);
+
+        playerRepository = new InMemoryPlayerRepository();
+        gameRepository = new InMemoryGameRepository();
+    }
+
+    @Test
+    public void recoveredPlayers_Should_BeDetached_And_KeepTheirGame() throws Exception {
+        // given
+        record(journal -> {
+            var game = new Game(42, "Drax", "Mantis");
+            journal.paired(game);
+            journal.numberSent(game, "Drax", 80);
+            journal.moved(game, "Mantis", 1, 27);
+        });
+
+        // when
+        var restoredPlayers = newRecovery().recover();
+
+        // then
+        assertThat(restoredPlayers).containsExactly("Drax", "Mantis");
+
+        var drax = playerRepository.findByName("Drax").orElseThrow();
+        assertThat(drax.isDetached()).isTrue();
+        assertThat(drax.isPrimary()).isTrue();
+        assertThat(drax.getOpponent().getName()).isEqualTo("Mantis");
+
+        var game = gameRepository.findByPlayerName("Mantis").orElseThrow();
+        assertThat(game.getId()).isEqualTo(42);
+        assertThat(game.getCurrentValue()).isEqualTo(27);
+        assertThat(game.isTurnOf("Drax")).isTrue();
+        assertThat(gameRepository.nextId()).isEqualTo(43);
+    }
+
+    @Test
+    public void recovery_Should_StartFromSnapshot_And_ReplayRecordsAfterIt() throws Exception {
+        // given
+        var game = new Game(1, "Groot", "Rocket");
+        record(journal -> {
+            journal.paired(game);
+            journal.numberSent(game, "Groot", 10);
+        });
+        assertThat(newRecovery().snapshot()).isEqualTo(2);
+
+        record(journal -> journal.moved(game, "Rocket", -1, 3));
+
+        // when
+        newRecovery().recover();
+
+        // then
+        assertThat(gameRepository.findById(1).orElseThrow().getCurrentValue()).isEqualTo(3);
+        assertThat(Files.list(directory).filter(file -> file.toString().endsWith(".snapshot")))
+                .extracting(file -> file.getFileName().toString())
+                .containsExactly("00000000000000000002.snapshot");
+    }
+
+    @Test
+    public void snapshot_Should_DeleteSegmentsOlderThanRetainedSnapshots() throws Exception {
+        // given
+        properties.setSegmentSize(DataSize.ofBytes(2 * JournalRecord.SIZE));
+        properties.setSnapshotsRetained(1);
+        var game = new Game(1, "Star-Lord", "Ego");
+        record(journal -> {
+            journal.paired(game);
+            journal.numberSent(game, "Star-Lord", 10);
+            journal.moved(game, "Ego", -1, 3);
+            journal.moved(game, "Star-Lord", 0, 1);
+            journal.gameOver(game, "Star-Lord");
+        });
+
+        // when
+        assertThat(newRecovery().snapshot()).isEqualTo(5);
+
+        // then
+        assertThat(new JournalReader(directory).segments()).extracting(segment -> segment.getFileName().toString())
+                .containsExactly("00000000000000000005.journal");
+
+        record(journal -> journal.paired(new Game(2, "Star-Lord", "Ego")));
+        newRecovery().recover();
+        assertThat(gameRepository.findById(2)).isPresent();
+        assertThat(gameRepository.findById(1)).isEmpty();
+    }
+
+    @Test
+    public void idOfGameEndedBeforeRestart_Should_NotBeReused() throws Exception {
+        // given
+        record(journal -> {
+            var game = new Game(7, "Thor", "Hela");
+            journal.paired(game);
+            journal.gameOver(game, "Thor");
+            journal.disconnected(7, "Hela", "Thor");
+        });
+
+        // when
+        var restoredPlayers = newRecovery().recover();
+
+        // then
+        assertThat(restoredPlayers).isEmpty();
+        assertThat(gameRepository.nextId()).isEqualTo(8);
+    }
+
+    @Test
+    public void idOfGameEndedBeforeSnapshot_Should_NotBeReused() throws Exception {
+        // given
+        record(journal -> {
+            var game = new Game(7, "Thor", "Hela");
+            journal.paired(game);
+            journal.gameOver(game, "Thor");
+            journal.disconnected(7, "Hela", "Thor");
+        });
+        assertThat(newRecovery().snapshot()).isEqualTo(3);
+
+        // when
+        newRecovery().recover();
+
+        // then
+        assertThat(gameRepository.count()).isZero();
+        assertThat(gameRepository.nextId()).isEqualTo(8);
+    }
+
+    @Test
+    public void playerConnectedUnderSameName_Should_NotBeReplaced() throws Exception {
+        // given
+        record(journal -> journal.paired(new Game(1, "Gamora", "Nebula")));
+        var gamora = new Player("Gamora");
+        playerRepository.save(gamora);
+
+        // when
+        var restoredPlayers = newRecovery().recover();
+
+        // then
+        assertThat(restoredPlayers).isEmpty();
+        assertThat(playerRepository.findByName("Gamora")).containsSame(gamora);
+        assertThat(playerRepository.exists("Nebula")).isFalse();
+    }
+
+    @Test
+    public void playersWhoDidNotReconnect_Should_BeRemoved() throws Exception {
+        // given
+        record(journal -> journal.paired(new Game(1, "Yondu", "Kraglin")));
+        var recovery = newRecovery();
+        var restoredPlayers = recovery.recover();
+
+        playerRepository.findByName("Yondu").orElseThrow().reattach();
+
+        // when
+        recovery.removeUnclaimed(restoredPlayers);
+
+        // then
+        verify(playerService).removePlayer("Kraglin");
+        verify(playerService, never()).removePlayer("Yondu");
+    }
+
+    private GameRecovery newRecovery() {
+        return new GameRecovery(properties, playerRepository, gameRepository, playerService, GameRules.CLASSIC);
+    }
+
+    private void record(JournalWrites writes) throws Exception {
+        var journal = new GameJournal(properties);
+        journal.afterPropertiesSet();
+        writes.to(journal);
+        journal.destroy();
+    }
+
+    private interface JournalWrites {
+
+        void to(GameJournal journal);
+    }
+}
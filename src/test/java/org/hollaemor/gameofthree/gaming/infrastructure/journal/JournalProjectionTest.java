@@ -0,0 +1,219 @@
+package org.hollaemor.gameofthree.gaming.infrastructure.journal;
+
+import org.hollaemor.gameofthree.gaming.domain.EloRating;
+import org.hollaemor.gameofthree.gaming.domain.Game;
+import org.hollaemor.gameofthree.gaming.domain.GameRules;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatExceptionOfType;
+
+public class JournalProjectionTest {
+
+    @TempDir
+    Path directory;
+
+    private GameJournal journal;
+
+    @BeforeEach
+    public void setup() throws Exception {
+        var properties = new GameJournalProperties();
+        properties.setEnabled(true);
+        properties.setDirectory(directory);
+
+        journal = new GameJournal(properties);
+        journal.afterPropertiesSet();
+    }
+
+    @Test
+    public void replayedGame_Should_BeInTheStateItWasLeftIn() throws Exception {
+        // given
+        var game = new Game(3, "Tyrion Lannister", "Jaime Lannister");
+        journal.paired(game);
+        journal.numberSent(game, "Tyrion Lannister", 56);
+        journal.moved(game, "Jaime Lannister", 1, 19);
+
+        // when
+        var projection = replay();
+
+        // then
+        assertThat(projection.games()).hasSize(1);
+
+        var replayed = projection.games().iterator().next();
+        assertThat(replayed.getId()).isEqualTo(3);
+        assertThat(replayed.getCurrentValue()).isEqualTo(19);
+        assertThat(replayed.getMoveCount()).isEqualTo(1);
+        assertThat(replayed.isTurnOf("Tyrion Lannister")).isTrue();
+        assertThat(projection.getSequence()).isEqualTo(3);
+    }
+
+    @Test
+    public void rematch_Should_ReplaceGame_And_RatingsShould_FollowResults() throws Exception {
+        // given
+        var game = new Game(1, "Brienne", "Podrick");
+        journal.paired(game);
+        journal.numberSent(game, "Brienne", 2);
+        journal.moved(game, "Podrick", 1, 1);
+        journal.gameOver(game, "Podrick");
+        journal.paired(new Game(2, "Brienne", "Podrick"));
+
+        // when
+        var projection = replay();
+
+        // then
+        assertThat(projection.games()).extracting("id").containsExactly(2L);
+        assertThat(projection.ratingOf("Podrick")).isEqualTo(EloRating.INITIAL_RATING + 16);
+        assertThat(projection.ratingOf("Brienne")).isEqualTo(EloRating.INITIAL_RATING - 16);
+    }
+
+    @Test
+    public void disconnect_Should_EndGame() throws Exception {
+        // given
+        journal.paired(new Game(1, "Jorah", "Daario"));
+        journal.disconnected(1, "Daario", "Jorah");
+
+        // when
+        var projection = replay();
+
+        // then
+        assertThat(projection.games()).isEmpty();
+    }
+
+    @Test
+    public void gameWhoseRecordsDoNotAddUp_Should_BeLeftOut() throws Exception {
+        // given
+        var game = new Game(1, "Missandei", "Grey Worm");
+        journal.paired(game);
+        journal.moved(game, "Grey Worm", 1, 19);
+
+        // when
+        var projection = replay();
+
+        // then
+        assertThat(projection.games()).isEmpty();
+    }
+
+    @Test
+    public void snapshot_Should_RestoreProjection() throws Exception {
+        // given
+        var game = new Game(5, "Samwell", "Gilly");
+        journal.paired(game);
+        journal.numberSent(game, "Samwell", 10);
+        var projection = replay();
+        var snapshot = directory.resolve("snapshot");
+
+        // when
+        projection.writeTo(snapshot);
+        var restored = JournalProjection.readFrom(snapshot, GameRules.CLASSIC);
+
+        // then
+        assertThat(restored.getSequence()).isEqualTo(2);
+        assertThat(restored.getHighestGameId()).isEqualTo(5);
+        assertThat(restored.games()).hasSize(1);
+
+        var restoredGame = restored.games().iterator().next();
+        assertThat(restoredGame.getPrimaryPlayerName()).isEqualTo("Samwell");
+        assertThat(restoredGame.getSecondaryPlayerName()).isEqualTo("Gilly");
+        assertThat(restoredGame.getCurrentValue()).isEqualTo(10);
+        assertThat(restoredGame.isTurnOf("Gilly")).isTrue();
+    }
+
+    @Test
+    public void damagedSnapshot_Should_BeRejected() throws Exception {
+        // given
+        journal.paired(new Game(5, "Varys", "Littlefinger"));
+        var snapshot = directory.resolve("snapshot");
+        replay().writeTo(snapshot);
+
+        var bytes = Files.readAllBytes(snapshot);
+        bytes[20]++;
+        Files.write(snapshot, bytes);
+
+        // when / then
+        assertThatExceptionOfType(IOException.class)
+                .isThrownBy(() -> JournalProjection.readFrom(snapshot, GameRules.CLASSIC));
+    }
+
+    @Test
+    public void gameOfOtherRules_Should_BeLeftOut() throws Exception {
+        // given
+        var rulesOfFive = GameRules.compile(5, new int[]{-2, -1, 0, 1, 2}, 1);
+        var game = new Game(1, "Arya", "Sandor", rulesOfFive);
+        journal.paired(game);
+        journal.numberSent(game, "Arya", 24);
+        journal.moved(game, "Sandor", 1, 5);
+        journal.destroy();
+
+        // when
+        var classic = replay(GameRules.CLASSIC);
+        var five = replay(rulesOfFive);
+
+        // then
+        assertThat(classic.games()).isEmpty();
+        assertThat(five.games()).extracting("currentValue").containsExactly(5);
+    }
+
+    @Test
+    public void snapshotOfOtherRules_Should_KeepRatingsButNotGames() throws Exception {
+        // given
+        var game = new Game(1, "Bronn", "Tormund");
+        journal.paired(game);
+        journal.numberSent(game, "Bronn", 2);
+        journal.moved(game, "Tormund", 1, 1);
+        journal.gameOver(game, "Tormund");
+        journal.paired(new Game(2, "Bronn", "Tormund"));
+        var snapshot = directory.resolve("snapshot");
+        replay().writeTo(snapshot);
+
+        // when
+        var restored = JournalProjection.readFrom(snapshot, GameRules.compile(5, new int[]{-2, -1, 0, 1, 2}, 1));
+
+        // then
+        assertThat(restored.games()).isEmpty();
+        assertThat(restored.ratingOf("Tormund")).isEqualTo(EloRating.INITIAL_RATING + 16);
+        assertThat(restored.getSequence()).isEqualTo(5);
+    }
+
+    @Test
+    public void copy_Should_NotFollowRecordsAppliedAfterwards() throws Exception {
+        // given
+        var game = new Game(1, "Hot Pie", "Gendry");
+        journal.paired(game);
+        journal.numberSent(game, "Hot Pie", 10);
+        journal.moved(game, "Gendry", -1, 3);
+        journal.destroy();
+
+        var projection = new JournalProjection();
+        new JournalReader(directory).read(1, record -> {
+            if (record.getSequence() <= 2) {
+                projection.apply(record);
+            }
+        });
+
+        // when
+        var copy = projection.copy();
+        new JournalReader(directory).read(3, projection::apply);
+
+        // then
+        assertThat(copy.getSequence()).isEqualTo(2);
+        assertThat(copy.games()).extracting("currentValue").containsExactly(10);
+        assertThat(projection.games()).extracting("currentValue").containsExactly(3);
+    }
+
+    private JournalProjection replay() throws Exception {
+        journal.destroy();
+        return replay(GameRules.CLASSIC);
+    }
+
+    private JournalProjection replay(GameRules rules) throws Exception {
+        var projection = new JournalProjection(rules);
+        new JournalReader(directory).read(1, projection::apply);
+        return projection;
+    }
+}
@@ -0,0 +1,74 @@
+package org.hollaemor.gameofthree.gaming.infrastructure.matchmaking;
+
+import org.hollaemor.gameofthree.gaming.domain.GameService;
+import org.hollaemor.gameofthree.gaming.domain.Player;
+import org.hollaemor.gameofthree.gaming.infrastructure.repository.PlayerRepository;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+
+import java.util.Optional;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.mockito.BDDMockito.given;
+import static org.mockito.Mockito.verify;
+
+@ExtendWith(MockitoExtension.class)
+public class MatchmakerTest {
+
+    @Mock
+    private GameService gameService;
+
+    @Mock
+    private PlayerRepository playerRepository;
+
+    private MatchmakingQueue queue;
+
+    private Matchmaker matchmaker;
+
+
+    @BeforeEach
+    public void setup() {
+        var properties = new GameMatchmakingProperties();
+        queue = new MatchmakingQueue(properties, new FifoPairingStrategy(), new LatencyProbe());
+        matchmaker = new Matchmaker(properties, queue, gameService, playerRepository, new LatencyProbe());
+    }
+
+    @Test
+    public void runRound_Should_StartGamesOfMatchedPlayers() {
+        // given
+        queue.enqueue(new Player("Sherlock"));
+        queue.enqueue(new Player("Watson"));
+        given(gameService.startMatch("Sherlock", "Watson")).willReturn(true);
+
+        // when
+        var started = matchmaker.runRound(System.nanoTime());
+
+        // then
+        assertThat(started).isEqualTo(1);
+        assertThat(queue.size()).isZero();
+    }
+
+    @Test
+    public void whenMatchCannotBeStarted_Then_PlayerStillWaitingIsRequeued() {
+        // given
+        var lestrade = new Player("Lestrade");
+        var moriarty = new Player("Moriarty");
+        queue.enqueue(lestrade);
+        queue.enqueue(moriarty);
+
+        given(gameService.startMatch("Lestrade", "Moriarty")).willReturn(false);
+        given(playerRepository.findByName("Lestrade")).willReturn(Optional.of(lestrade));
+        given(playerRepository.findByName("Moriarty")).willReturn(Optional.empty());
+
+        // when
+        var started = matchmaker.runRound(System.nanoTime());
+
+        // then
+        assertThat(started).isZero();
+        assertThat(queue.size()).isEqualTo(1);
+        verify(playerRepository).findByName("Moriarty");
+    }
+}
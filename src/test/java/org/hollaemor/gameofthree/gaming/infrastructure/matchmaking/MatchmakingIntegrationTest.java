@@ -0,0 +1,131 @@
+package org.hollaemor.gameofthree.gaming.infrastructure.matchmaking;
+
+import org.hollaemor.gameofthree.GameOfThreeApplication;
+import org.hollaemor.gameofthree.gaming.domain.GameMessage;
+import org.hollaemor.gameofthree.gaming.domain.GameStatus;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.boot.builder.SpringApplicationBuilder;
+import org.springframework.context.ConfigurableApplicationContext;
+import org.springframework.messaging.converter.MappingJackson2MessageConverter;
+import org.springframework.messaging.simp.stomp.StompFrameHandler;
+import org.springframework.messaging.simp.stomp.StompHeaders;
+import org.springframework.messaging.simp.stomp.StompSession;
+import org.springframework.messaging.simp.stomp.StompSessionHandlerAdapter;
+import org.springframework.scheduling.concurrent.ConcurrentTaskScheduler;
+import org.springframework.web.socket.WebSocketHttpHeaders;
+import org.springframework.web.socket.client.standard.StandardWebSocketClient;
+import org.springframework.web.socket.messaging.WebSocketStompClient;
+
+import java.lang.reflect.Type;
+import java.util.concurrent.BlockingQueue;
+import java.util.concurrent.LinkedBlockingQueue;
+import java.util.concurrent.TimeUnit;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.hollaemor.gameofthree.gaming.infrastructure.WebSocketConfig.WEBSOCKET_ENDPOINT;
+
+/**
+ * The server with the matchmaker enabled, pairing players by round-trip time.
+ */
+public class MatchmakingIntegrationTest {
+
+    private ConfigurableApplicationContext server;
+
+    private WebSocketStompClient stompClient;
+
+
+    @BeforeEach
+    public void setup() {
+        server = new SpringApplicationBuilder(GameOfThreeApplication.class)
+                .properties("server.port=0",
+                        "game.matchmaking.enabled=true",
+                        "game.matchmaking.strategy=lowest-latency",
+                        "game.matchmaking.tick-interval=20ms",
+                        "game.matchmaking.rtt-probe-interval=50ms")
+                .run();
+
+        stompClient = new WebSocketStompClient(new StandardWebSocketClient());
+        stompClient.setMessageConverter(new MappingJackson2MessageConverter());
+        stompClient.setTaskScheduler(new ConcurrentTaskScheduler());
+    }
+
+    @AfterEach
+    public void tearDown() {
+        stompClient.stop();
+        server.close();
+    }
+
+    @Test
+    public void waitingPlayers_Should_BePairedByMatchmaker() throws Exception {
+        // given
+        var batman = new PlayerClient("Batman");
+        var robin = new PlayerClient("Robin");
+
+        // when
+        batman.session.send("/app/game.start", null);
+        assertThat(batman.nextUpdate().getGameStatus()).isEqualTo(GameStatus.WAITING);
+        robin.session.send("/app/game.start", null);
+
+        // then
+        assertThat(robin.nextUpdate().getGameStatus()).isEqualTo(GameStatus.WAITING);
+
+        var batmanStart = batman.nextUpdate();
+        assertThat(batmanStart.getGameStatus()).isEqualTo(GameStatus.START);
+        assertThat(batmanStart.isPrimaryPlayer()).isTrue();
+        assertThat(batmanStart.getOpponent()).isEqualTo("Robin");
+
+        var robinStart = robin.nextUpdate();
+        assertThat(robinStart.getGameStatus()).isEqualTo(GameStatus.START);
+        assertThat(robinStart.isPrimaryPlayer()).isFalse();
+    }
+
+    @Test
+    public void roundTripTime_Should_BeMeasuredForWebSocketSessions() throws Exception {
+        // given
+        new PlayerClient("Alfred");
+        var latencyProbe = server.getBean(LatencyProbe.class);
+
+        // when
+        for (int i = 0; i < 50 && latencyProbe.rttOf("Alfred") == MatchTicket.UNKNOWN_RTT; i++) {
+            Thread.sleep(100);
+        }
+
+        // then
+        assertThat(latencyProbe.rttOf("Alfred")).isNotNegative();
+    }
+
+    private class PlayerClient implements StompFrameHandler {
+
+        private final StompSession session;
+
+        private final BlockingQueue<GameMessage> updates = new LinkedBlockingQueue<>();
+
+        PlayerClient(String username) throws Exception {
+            var url = "ws://localhost:" + server.getEnvironment().getProperty("local.server.port") + WEBSOCKET_ENDPOINT;
+            var stompHeaders = new StompHeaders();
+            stompHeaders.add("username", username);
+
+            session = stompClient.connect(url, new WebSocketHttpHeaders(), stompHeaders, new StompSessionHandlerAdapter() {
+            }).get(5, TimeUnit.SECONDS);
+            session.subscribe("/user/queue/updates", this);
+        }
+
+        GameMessage nextUpdate() throws InterruptedException {
+            var update = updates.poll(5, TimeUnit.SECONDS);
+            assertThat(update).as("update received").isNotNull();
+            return update;
+        }
+
+        @Override
+        public Type getPayloadType(StompHeaders headers) {
+            return GameMessage.class;
+        }
+
+        @Override
+        public void handleFrame(StompHeaders headers, Object payload) {
+            updates.add((GameMessage) payload);
+        }
+    }
+}
@@ -0,0 +1,190 @@
+package org.hollaemor.gameofthree.gaming.infrastructure.matchmaking;
+
+import org.hollaemor.gameofthree.gaming.domain.Player;
+import org.junit.jupiter.api.Test;
+
+import java.time.Duration;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.stream.Collectors;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+public class MatchmakingQueueTest {
+
+    private static final long NOW = TimeUnit.HOURS.toNanos(1);
+
+
+    @Test
+    public void fifo_Should_PairPlayersInArrivalOrder() {
+        // given
+        var queue = queueWith(new FifoPairingStrategy());
+        queue.enqueue(ticket("Arya", 1500, 10, 4));
+        queue.enqueue(ticket("Bran", 2400, 300, 3));
+        queue.enqueue(ticket("Sansa", 1000, 20, 2));
+
+        // when
+        var matches = queue.match(10, NOW);
+
+        // then
+        assertThat(pairs(matches)).containsExactly("Arya+Bran");
+        assertThat(queue.size()).isEqualTo(1);
+    }
+
+    @Test
+    public void ratingBand_Should_PairPlayersOfSimilarRating() {
+        // given
+        var queue = queueWith(new RatingBandPairingStrategy(100, 50));
+        queue.enqueue(ticket("Jaime", 1500, 10, 1));
+        queue.enqueue(ticket("Brienne", 1950, 10, 1));
+        queue.enqueue(ticket("Cersei", 1540, 10, 1));
+        queue.enqueue(ticket("Tormund", 1990, 10, 1));
+
+        // when
+        var matches = queue.match(10, NOW);
+
+        // then
+        assertThat(pairs(matches)).containsExactlyInAnyOrder("Jaime+Cersei", "Brienne+Tormund");
+    }
+
+    @Test
+    public void ratingBand_Should_WidenWhileOlderPlayerWaits() {
+        // given
+        var queue = queueWith(new RatingBandPairingStrategy(100, 50));
+        queue.enqueue(ticket("Jon", 1500, 10, 1));
+        queue.enqueue(ticket("Ygritte", 1700, 10, 1));
+
+        // when / then
+        assertThat(queue.match(10, NOW)).isEmpty();
+        assertThat(pairs(queue.match(10, NOW + TimeUnit.SECONDS.toNanos(2)))).containsExactly("Jon+Ygritte");
+    }
+
+    @Test
+    public void lowestLatency_Should_PairPlayersOfTheSameRttBucket() {
+        // given
+        var queue = queueWith(new LowestLatencyPairingStrategy(Duration.ofMillis(50), Duration.ofSeconds(2)));
+        queue.enqueue(ticket("Theon", 1500, 310, 1));
+        queue.enqueue(ticket("Yara", 1500, 12, 1));
+        queue.enqueue(ticket("Ramsay", 1500, 330, 1));
+        queue.enqueue(ticket("Davos", 1500, 30, 1));
+        queue.enqueue(ticket("Gendry", 1500, 120, 1));
+
+        // when
+        var matches = queue.match(10, NOW);
+
+        // then
+        assertThat(pairs(matches)).containsExactly("Yara+Davos", "Theon+Ramsay");
+        assertThat(queue.size()).isEqualTo(1);
+    }
+
+    @Test
+    public void lowestLatency_Should_PairAcrossBuckets_OnlyAfterWaiting() {
+        // given
+        var queue = queueWith(new LowestLatencyPairingStrategy(Duration.ofMillis(50), Duration.ofSeconds(2)));
+        queue.enqueue(ticket("Varys", 1500, 20, 1));
+        queue.enqueue(ticket("Missandei", 1500, 80, 0));
+
+        // when / then
+        assertThat(queue.match(10, NOW)).isEmpty();
+
+        var matches = queue.match(10, NOW + TimeUnit.SECONDS.toNanos(1));
+        assertThat(pairs(matches)).containsExactly("Varys+Missandei");
+        assertThat(matches.get(0).getFirst().getPlayer().getName()).isEqualTo("Varys");
+    }
+
+    @Test
+    public void match_Should_StopAtBatchSize() {
+        // given
+        var queue = queueWith(new FifoPairingStrategy());
+        for (int i = 0; i < 10; i++) {
+            queue.enqueue(ticket("Unsullied-" + i, 1500, 10, 10 - i));
+        }
+
+        // when
+        var matches = queue.match(2, NOW);
+
+        // then
+        assertThat(pairs(matches)).containsExactly("Unsullied-0+Unsullied-1", "Unsullied-2+Unsullied-3");
+        assertThat(queue.size()).isEqualTo(6);
+    }
+
+    @Test
+    public void match_Should_OnlyLookAtHeadOfBucket_WhenNobodyCanBePaired() {
+        // given
+        var comparisons = new AtomicInteger();
+        var queue = queueWith(new PairingStrategy() {
+            @Override
+            public int bucketOf(MatchTicket ticket) {
+                return 0;
+            }
+
+            @Override
+            public boolean canPair(MatchTicket older, MatchTicket newer, long now) {
+                comparisons.incrementAndGet();
+                return false;
+            }
+        });
+        for (int i = 0; i < 1_000; i++) {
+            queue.enqueue(ticket("Wight-" + i, 1500, 10, 1));
+        }
+
+        // when
+        var matches = queue.match(10, NOW);
+
+        // then
+        assertThat(matches).isEmpty();
+        assertThat(comparisons.get()).isLessThanOrEqualTo(32 * 32);
+        assertThat(queue.size()).isEqualTo(1_000);
+    }
+
+    @Test
+    public void enqueue_Should_KeepPlaceOfQueuedPlayer() {
+        // given
+        var queue = queueWith(new FifoPairingStrategy());
+        var hodor = new Player("Hodor");
+        queue.enqueue(new MatchTicket(hodor, 10, NOW - 2));
+        queue.enqueue(ticket("Osha", 1500, 10, 1));
+
+        // when
+        var queued = queue.enqueue(new MatchTicket(hodor, 10, NOW));
+
+        // then
+        assertThat(queued).isFalse();
+        assertThat(queue.size()).isEqualTo(2);
+        assertThat(pairs(queue.match(10, NOW))).containsExactly("Hodor+Osha");
+    }
+
+    @Test
+    public void requeue_Should_PutTicketBackAtTheHead() {
+        // given
+        var queue = queueWith(new FifoPairingStrategy());
+        var melisandre = ticket("Melisandre", 1500, 10, 5);
+        queue.enqueue(ticket("Stannis", 1500, 10, 1));
+
+        // when
+        queue.requeue(melisandre);
+        queue.enqueue(ticket("Shireen", 1500, 10, 1));
+
+        // then
+        assertThat(pairs(queue.match(10, NOW))).containsExactly("Melisandre+Stannis");
+    }
+
+    private static MatchmakingQueue queueWith(PairingStrategy strategy) {
+        var properties = new GameMatchmakingProperties();
+        properties.setEnabled(true);
+        return new MatchmakingQueue(properties, strategy, new LatencyProbe());
+    }
+
+    private static MatchTicket ticket(String playerName, int rating, long rttMillis, long waitedSeconds) {
+        var player = new Player(playerName);
+        player.setRating(rating);
+        return new MatchTicket(player, rttMillis, NOW - TimeUnit.SECONDS.toNanos(waitedSeconds));
+    }
+
+    private static List<String> pairs(List<Match> matches) {
+        return matches.stream()
+                .map(match -> match.getFirst().getPlayer().getName() + "+" + match.getSecond().getPlayer().getName())
+                .collect(Collectors.toList());
+    }
+}
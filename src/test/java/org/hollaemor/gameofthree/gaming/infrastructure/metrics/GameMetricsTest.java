@@ -0,0 +1,61 @@
+package org.hollaemor.gameofthree.gaming.infrastructure.metrics;
+
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.hollaemor.gameofthree.gaming.domain.InvalidCombinationException;
+import org.hollaemor.gameofthree.gaming.domain.PlayerNotFoundException;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+import java.util.concurrent.TimeUnit;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+public class GameMetricsTest {
+
+    private final SimpleMeterRegistry registry = new SimpleMeterRegistry();
+
+    private final GameMetrics gameMetrics = new GameMetrics();
+
+
+    @BeforeEach
+    public void setup() {
+        gameMetrics.bindTo(registry);
+    }
+
+    @Test
+    public void errors_Should_BeCountedPerExceptionType() {
+        // given / when
+        gameMetrics.countError(new InvalidCombinationException("19 is not divisible by 3"));
+        gameMetrics.countError(new InvalidCombinationException("11 is not divisible by 3"));
+        gameMetrics.countError(new PlayerNotFoundException("Player not found: Hodor"));
+
+        // then
+        assertThat(registry.get("game.errors").tag("exception", "InvalidCombinationException").counter().count())
+                .isEqualTo(2);
+        assertThat(registry.get("game.errors").tag("exception", "PlayerNotFoundException").counter().count())
+                .isEqualTo(1);
+    }
+
+    @Test
+    public void durations_Should_BeRecordedOnTheirTimer() {
+        // given / when
+        gameMetrics.recordMove(TimeUnit.MICROSECONDS.toNanos(40));
+        gameMetrics.recordTimeToPair(TimeUnit.SECONDS.toNanos(3));
+
+        // then
+        assertThat(registry.get("game.move").timer().count()).isEqualTo(1);
+        assertThat(registry.get("game.pairing.wait").timer().totalTime(TimeUnit.SECONDS)).isEqualTo(3);
+        assertThat(registry.get("game.start").timer().count()).isZero();
+    }
+
+    @Test
+    public void predictedTurns_Should_BeRecordedOnTheirSummary() {
+        // given / when
+        gameMetrics.recordPredictedTurns(4);
+        gameMetrics.recordPredictedTurns(10);
+
+        // then
+        assertThat(registry.get("game.turns.predicted").summary().count()).isEqualTo(2);
+        assertThat(registry.get("game.turns.predicted").summary().max()).isEqualTo(10);
+    }
+}
@@ -0,0 +1,50 @@
+package org.hollaemor.gameofthree.gaming.infrastructure.metrics;
+
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.boot.test.web.client.TestRestTemplate;
+import org.springframework.boot.actuate.autoconfigure.web.server.LocalManagementPort;
+import org.springframework.http.HttpStatus;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+@SpringBootTest(webEnvironment = SpringBootTest.WebEnvironment.RANDOM_PORT,
+        properties = "management.server.port=0")
+public class PrometheusEndpointIntegrationTest {
+
+    @Autowired
+    private TestRestTemplate restTemplate;
+
+    @LocalManagementPort
+    private int managementPort;
+
+
+    @Test
+    public void scrapeEndpoint_Should_ExposeGameAndChannelMetrics() {
+        // given / when
+        var body = restTemplate.getForObject("http://localhost:" + managementPort + "/actuator/prometheus",
+                String.class);
+
+        // then
+        assertThat(body)
+                .contains("game_players{status=\"waiting\",}")
+                .contains("game_players{status=\"paired\",}")
+                .contains("game_start_seconds_count")
+                .contains("game_sessions_parked")
+                .contains("game_timer_pending")
+                .contains("game_journal_queued")
+                .contains("game_channel_queued{channel=\"inbound\",}")
+                .contains("game_channel_queued{channel=\"outbound\",}")
+                .contains("game_lanes_rejected_total");
+    }
+
+    @Test
+    public void scrapeEndpoint_Should_NotBeServedOnGamePort() {
+        // given / when
+        var response = restTemplate.getForEntity("/actuator/prometheus", String.class);
+
+        // then
+        assertThat(response.getStatusCode()).isEqualTo(HttpStatus.NOT_FOUND);
+    }
+}
@@ -0,0 +1,224 @@
+package org.hollaemor.gameofthree.gaming.infrastructure.outbound;
+
+import org.hollaemor.gameofthree.gaming.domain.GameMessage;
+import org.hollaemor.gameofthree.gaming.domain.GameMessageFactory;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.ArgumentCaptor;
+import org.mockito.Captor;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.messaging.simp.SimpMessageHeaderAccessor;
+import org.springframework.messaging.simp.SimpMessageType;
+import org.springframework.messaging.support.MessageBuilder;
+import org.springframework.web.socket.CloseStatus;
+import org.springframework.web.socket.TextMessage;
+import org.springframework.web.socket.WebSocketHandler;
+import org.springframework.web.socket.WebSocketSession;
+import org.springframework.web.socket.messaging.SessionConnectedEvent;
+
+import java.io.IOException;
+import java.util.ArrayList;
+import java.util.List;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatExceptionOfType;
+import static org.mockito.BDDMockito.given;
+import static org.mockito.BDDMockito.willThrow;
+import static org.mockito.Mockito.never;
+import static org.mockito.Mockito.verify;
+
+@ExtendWith(MockitoExtension.class)
+public class OutboundFlowControlTest {
+
+    private static final TextMessage UPDATE_FRAME = new TextMessage(
+            "MESSAGE\ndestination:/user/queue/updates\ncontent-type:application/json\n\n{}\u0000");
+
+    @Mock
+    private WebSocketHandler handler;
+
+    @Mock
+    private WebSocketSession session;
+
+    @Captor
+    private ArgumentCaptor<WebSocketSession> sessionCaptor;
+
+    private GameOutboundProperties properties;
+
+    private OutboundFlowControl flowControl;
+
+    private final List<Object> events = new ArrayList<>();
+
+    private final List<Object> delivered = new ArrayList<>();
+
+
+    @BeforeEach
+    public void setup() {
+        properties = new GameOutboundProperties();
+        properties.setWindow(1);
+        properties.setQueueCapacity(2);
+
+        flowControl = new OutboundFlowControl(properties, events::add, Runnable::run);
+    }
+
+    @Test
+    public void updatesOfPlayerWithoutSession_Should_BeDeliveredRightAway() {
+        // given
+        var gameMessage = GameMessageFactory.buildPlayMessage(27);
+
+        // when
+        flowControl.submit("Thor", gameMessage, () -> delivered.add(gameMessage));
+        flowControl.submit("Thor", gameMessage, () -> delivered.add(gameMessage));
+
+        // then
+        assertThat(delivered).hasSize(2);
+    }
+
+    @Test
+    public void whenWindowIsFull_Then_UpdatesWait_Until_EarlierOnesAreWritten() throws Exception {
+        // given
+        var connectedSession = connect("Loki");
+        var start = GameMessageFactory.buildGameOverMessage(true);
+        var rematch = GameMessageFactory.buildGameOverMessage(false);
+
+        // when
+        submit("Loki", start);
+        submit("Loki", rematch);
+
+        // then
+        assertThat(delivered).containsExactly(start);
+        assertThat(flowControl.getQueuedUpdates()).isEqualTo(1);
+
+        // when
+        connectedSession.sendMessage(UPDATE_FRAME);
+
+        // then
+        assertThat(delivered).containsExactly(start, rematch);
+        assertThat(flowControl.getQueuedUpdates()).isZero();
+    }
+
+    @Test
+    public void newerPlayValue_Should_SupersedeWaitingOne() throws Exception {
+        // given
+        var connectedSession = connect("Hela");
+        submit("Hela", GameMessageFactory.buildPlayMessage(81));
+
+        // when
+        submit("Hela", GameMessageFactory.buildPlayMessage(27));
+        submit("Hela", GameMessageFactory.buildPlayMessage(9));
+        connectedSession.sendMessage(UPDATE_FRAME);
+
+        // then
+        assertThat(delivered).extracting("value").containsExactly(81, 9);
+        assertThat(flowControl.getCoalescedUpdates()).isEqualTo(1);
+    }
+
+    @Test
+    public void framesOtherThanUpdates_Should_NotReleaseWaitingUpdates() throws Exception {
+        // given
+        var connectedSession = connect("Odin");
+        submit("Odin", GameMessageFactory.buildPlayMessage(81));
+        submit("Odin", GameMessageFactory.buildGameOverMessage(true));
+
+        // when
+        connectedSession.sendMessage(new TextMessage("MESSAGE\ndestination:/user/queue/errors\n\nnope\u0000"));
+        connectedSession.sendMessage(new TextMessage("\n"));
+
+        // then
+        assertThat(delivered).hasSize(1);
+    }
+
+    @Test
+    public void whenQueueIsFull_Then_PlayerIsEvicted_And_SessionIsClosed() throws Exception {
+        // given
+        connect("Heimdall");
+        submit("Heimdall", GameMessageFactory.buildPlayMessage(81));
+        submit("Heimdall", GameMessageFactory.buildGameOverMessage(true));
+        submit("Heimdall", GameMessageFactory.buildGameOverMessage(false));
+
+        // when
+        submit("Heimdall", GameMessageFactory.buildGameOverMessage(true));
+        submit("Heimdall", GameMessageFactory.buildPlayMessage(3));
+
+        // then
+        assertThat(delivered).hasSize(1);
+        assertThat(flowControl.getQueuedUpdates()).isZero();
+        assertThat(flowControl.getEvictedPlayers()).isEqualTo(1);
+        assertThat(events).hasSize(1);
+        assertThat(((SlowConsumerEvent) events.get(0)).getPlayerName()).isEqualTo("Heimdall");
+
+        verify(session).close(CloseStatus.SESSION_NOT_RELIABLE);
+    }
+
+    @Test
+    public void whenActionIsRemovePlayer_Then_SessionIsClosedNormally() throws Exception {
+        // given
+        properties.setQueueCapacity(0);
+        properties.setSlowConsumerAction(GameOutboundProperties.SlowConsumerAction.REMOVE_PLAYER);
+        connect("Sif");
+        submit("Sif", GameMessageFactory.buildGameOverMessage(true));
+
+        // when
+        submit("Sif", GameMessageFactory.buildGameOverMessage(false));
+
+        // then
+        assertThat(events).hasSize(1);
+        verify(session).close(CloseStatus.NORMAL);
+        verify(session, never()).close(CloseStatus.SESSION_NOT_RELIABLE);
+    }
+
+    @Test
+    public void whenUpdateFailsToBeWritten_Then_ItsPlaceInWindowIsGivenBack() throws Exception {
+        // given
+        var connectedSession = connect("Valkyrie");
+        var start = GameMessageFactory.buildGameOverMessage(true);
+        var rematch = GameMessageFactory.buildGameOverMessage(false);
+        submit("Valkyrie", start);
+        submit("Valkyrie", rematch);
+        willThrow(new IOException("broken pipe")).given(session).sendMessage(UPDATE_FRAME);
+
+        // when
+        assertThatExceptionOfType(IOException.class).isThrownBy(() -> connectedSession.sendMessage(UPDATE_FRAME));
+
+        // then
+        assertThat(delivered).containsExactly(start, rematch);
+        assertThat(flowControl.getQueuedUpdates()).isZero();
+    }
+
+    @Test
+    public void whenDeliveryFails_Then_ItsPlaceInWindowIsGivenBack() throws Exception {
+        // given
+        connect("Korg");
+        var start = GameMessageFactory.buildGameOverMessage(true);
+
+        // when
+        assertThatExceptionOfType(IllegalStateException.class).isThrownBy(() -> flowControl.submit("Korg", start,
+                () -> {
+                    throw new IllegalStateException("no converter");
+                }));
+        submit("Korg", start);
+
+        // then
+        assertThat(delivered).containsExactly(start);
+        assertThat(flowControl.getQueuedUpdates()).isZero();
+    }
+
+    private void submit(String playerName, GameMessage message) {
+        flowControl.submit(playerName, message, () -> delivered.add(message));
+    }
+
+    private WebSocketSession connect(String playerName) throws Exception {
+        given(session.getId()).willReturn("session-of-" + playerName);
+
+        flowControl.decorate(handler).afterConnectionEstablished(session);
+        verify(handler).afterConnectionEstablished(sessionCaptor.capture());
+
+        var headers = SimpMessageHeaderAccessor.create(SimpMessageType.CONNECT_ACK);
+        headers.setSessionId("session-of-" + playerName);
+        var connectAck = MessageBuilder.createMessage(new byte[0], headers.getMessageHeaders());
+        flowControl.handleSessionConnected(new SessionConnectedEvent(this, connectAck, () -> playerName));
+
+        return sessionCaptor.getValue();
+    }
+}
@@ -0,0 +1,63 @@
+package org.hollaemor.gameofthree.gaming.infrastructure.repository;
+
+import org.hollaemor.gameofthree.gaming.domain.Game;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+public class InMemoryGameRepositoryTest {
+
+    private InMemoryGameRepository repository;
+
+    @BeforeEach
+    public void setup() {
+        repository = new InMemoryGameRepository();
+    }
+
+    @Test
+    public void savedGame_Should_BeFoundByIdAndByEitherPlayer() {
+        // given
+        var game = new Game(repository.nextId(), "Ned Stark", "Robert Baratheon");
+
+        // when
+        repository.save(game);
+
+        // then
+        assertThat(repository.findById(game.getId())).containsSame(game);
+        assertThat(repository.findByPlayerName("Ned Stark")).containsSame(game);
+        assertThat(repository.findByPlayerName("Robert Baratheon")).containsSame(game);
+        assertThat(repository.findByPlayerName("Jaime Lannister")).isEmpty();
+    }
+
+    @Test
+    public void rematch_Should_ReplacePreviousGameOfPlayers() {
+        // given
+        var game = new Game(repository.nextId(), "Ned Stark", "Robert Baratheon");
+        var rematch = new Game(repository.nextId(), "Ned Stark", "Robert Baratheon");
+        repository.save(game);
+
+        // when
+        repository.save(rematch);
+
+        // then
+        assertThat(rematch.getId()).isNotEqualTo(game.getId());
+        assertThat(repository.findById(game.getId())).isEmpty();
+        assertThat(repository.findByPlayerName("Robert Baratheon")).containsSame(rematch);
+    }
+
+    @Test
+    public void deletedGame_Should_NotBeFound() {
+        // given
+        var game = new Game(repository.nextId(), "Ned Stark", "Robert Baratheon");
+        repository.save(game);
+
+        // when
+        repository.delete(game);
+
+        // then
+        assertThat(repository.findById(game.getId())).isEmpty();
+        assertThat(repository.findByPlayerName("Ned Stark")).isEmpty();
+        assertThat(repository.findByPlayerName("Robert Baratheon")).isEmpty();
+    }
+}
@@ -101,4 +101,67 @@ public class InMemoryPlayerRepositoryTest {
         // then
         assertThat(available).isEmpty();
     }
+
+    @Test
+    public void findAvailableForPlayer_Should_ReturnPlayersInArrivalOrder() {
+        // given
+        var sansa = new Player("Sansa Stark");
+        var bran = new Player("Bran Stark");
+        repository.save(sansa);
+        repository.save(bran);
+
+        // when / then
+        assertThat(repository.findAvailableForPlayer("Jaime Lannister")).hasValue(sansa);
+        assertThat(repository.findAvailableForPlayer("Cersei Lannister")).hasValue(bran);
+        assertThat(repository.findAvailableForPlayer("Tyrion Lannister")).isEmpty();
+    }
+
+    @Test
+    public void findAvailableForPlayer_Should_NotReturnDeletedPlayer() {
+        // given
+        var player = new Player("Ned Stark");
+        repository.save(player);
+
+        // when
+        repository.delete(player);
+
+        // then
+        assertThat(repository.findAvailableForPlayer("Joffrey")).isEmpty();
+    }
+
+    @Test
+    public void findAvailableForPlayer_Should_ReturnPlayerAgainWhenAvailableAfterPairing() {
+        // given
+        var player = new Player("Brienne");
+        repository.save(player);
+        player.setStatus(PlayerStatus.PAIRED);
+        repository.save(player);
+
+        assertThat(repository.findAvailableForPlayer("Podrick")).isEmpty();
+
+        // when
+        player.setStatus(PlayerStatus.AVAILABLE);
+        repository.save(player);
+
+        // then
+        assertThat(repository.findAvailableForPlayer("Podrick")).hasValue(player);
+    }
+
+    @Test
+    public void countPaired_Should_CountPlayersWithAnOpponent() {
+        // given
+        var jaime = new Player("Jaime");
+        var cersei = new Player("Cersei");
+        jaime.setOpponent(cersei);
+        cersei.setOpponent(jaime);
+
+        // when
+        repository.save(jaime);
+        repository.save(cersei);
+        repository.save(new Player("Tyrion"));
+
+        // then
+        assertThat(repository.countPaired()).isEqualTo(2);
+        assertThat(repository.countWaiting()).isEqualTo(1);
+    }
 }
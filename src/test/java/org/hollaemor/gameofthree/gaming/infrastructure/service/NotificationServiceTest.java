@@ -1,15 +1,25 @@
 package org.hollaemor.gameofthree.gaming.infrastructure.service;
 
 import org.hollaemor.gameofthree.gaming.domain.GameMessageFactory;
+import org.hollaemor.gameofthree.gaming.infrastructure.CompactSessions;
+import org.hollaemor.gameofthree.gaming.infrastructure.bot.BotQueue;
+import org.hollaemor.gameofthree.gaming.infrastructure.outbound.GameOutboundProperties;
+import org.hollaemor.gameofthree.gaming.infrastructure.outbound.OutboundFlowControl;
 import org.junit.jupiter.api.Test;
 import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.ArgumentMatchers;
 import org.mockito.InjectMocks;
 import org.mockito.Mock;
+import org.mockito.Spy;
 import org.mockito.junit.jupiter.MockitoExtension;
 import org.springframework.messaging.simp.SimpMessagingTemplate;
 
+import java.util.Map;
+
 import static org.mockito.BDDMockito.eq;
+import static org.mockito.BDDMockito.given;
 import static org.mockito.BDDMockito.verify;
+import static org.mockito.BDDMockito.verifyNoInteractions;
 
 @ExtendWith(MockitoExtension.class)
 public class NotificationServiceTest {
@@ -17,6 +27,15 @@ public class NotificationServiceTest {
     @Mock
     private SimpMessagingTemplate messagingTemplate;
 
+    @Spy
+    private OutboundFlowControl outboundFlowControl = new OutboundFlowControl(new GameOutboundProperties(), event -> {});
+
+    @Mock
+    private BotQueue botQueue;
+
+    @Spy
+    private CompactSessions compactSessions = new CompactSessions();
+
     @InjectMocks
     private NotificationService service;
 
@@ -32,6 +51,34 @@ public class NotificationServiceTest {
         service.notifyPlayer(playerName, gameMessage);
 
         // then
-        verify(messagingTemplate).convertAndSendToUser(eq(playerName), eq("/queue/updates"), eq(gameMessage));
+        verify(messagingTemplate).convertAndSendToUser(eq(playerName), eq("/queue/updates"), eq(gameMessage),
+                ArgumentMatchers.<Map<String, Object>>isNull());
+    }
+
+    @Test
+    public void whenPlayerAskedForCompactFormat_Then_MessageIsSentWithCompactContentType() {
+        // given
+        var gameMessage = GameMessageFactory.buildPlayMessage(50);
+        compactSessions.connected("Bose", "session-1", CompactSessions.COMPACT_FORMAT);
+
+        // when
+        service.notifyPlayer("Bose", gameMessage);
+
+        // then
+        verify(messagingTemplate).convertAndSendToUser(eq("Bose"), eq("/queue/updates"), eq(gameMessage),
+                eq(CompactSessions.COMPACT_HEADERS));
+    }
+
+    @Test
+    public void notifyPlayer_Should_HandMessageForBotToBotQueue() {
+        // given
+        var gameMessage = GameMessageFactory.buildPlayMessage(50);
+        given(botQueue.deliver("bot-1", gameMessage)).willReturn(true);
+
+        // when
+        service.notifyPlayer("bot-1", gameMessage);
+
+        // then
+        verifyNoInteractions(messagingTemplate);
     }
 }
@@ -1,20 +1,36 @@
 package org.hollaemor.gameofthree.gaming.infrastructure.service;
 
+import org.hollaemor.gameofthree.gaming.domain.Game;
 import org.hollaemor.gameofthree.gaming.domain.GameMessage;
 import org.hollaemor.gameofthree.gaming.domain.GameStatus;
 import org.hollaemor.gameofthree.gaming.domain.Player;
+import org.hollaemor.gameofthree.gaming.domain.PlayerLocks;
 import org.hollaemor.gameofthree.gaming.domain.PlayerStatus;
+import org.hollaemor.gameofthree.gaming.infrastructure.bot.BotPlayer;
+import org.hollaemor.gameofthree.gaming.infrastructure.bot.BotQueue;
+import org.hollaemor.gameofthree.gaming.infrastructure.journal.GameJournal;
+import org.hollaemor.gameofthree.gaming.infrastructure.metrics.GameMetrics;
+import org.hollaemor.gameofthree.gaming.infrastructure.repository.GameRepository;
 import org.hollaemor.gameofthree.gaming.infrastructure.repository.PlayerRepository;
+import org.hollaemor.gameofthree.gaming.infrastructure.spectator.SpectatorBroadcaster;
+import org.hollaemor.gameofthree.gaming.infrastructure.timer.GameTimeouts;
+import org.hollaemor.gameofthree.gaming.infrastructure.timer.Timeout;
+import org.hollaemor.gameofthree.gaming.infrastructure.tournament.TournamentQueue;
 import org.junit.jupiter.api.Test;
 import org.junit.jupiter.api.extension.ExtendWith;
 import org.mockito.*;
 import org.mockito.junit.jupiter.MockitoExtension;
 
 import java.util.Optional;
+import java.util.function.Consumer;
 
 import static org.assertj.core.api.Assertions.assertThat;
+import static org.mockito.ArgumentMatchers.any;
 import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.ArgumentMatchers.same;
 import static org.mockito.BDDMockito.given;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.never;
 import static org.mockito.Mockito.verify;
 
 @ExtendWith(MockitoExtension.class)
@@ -26,12 +42,39 @@ public class PlayerServiceTest {
     @Mock
     private PlayerRepository playerRepository;
 
+    @Mock
+    private GameRepository gameRepository;
+
+    @Mock
+    private GameJournal gameJournal;
+
+    @Mock
+    private GameTimeouts gameTimeouts;
+
+    @Mock
+    private GameMetrics gameMetrics;
+
+    @Mock
+    private TournamentQueue tournamentQueue;
+
+    @Mock
+    private SpectatorBroadcaster spectators;
+
+    @Mock
+    private BotQueue botQueue;
+
+    @Spy
+    private PlayerLocks playerLocks = new PlayerLocks();
+
     @InjectMocks
     private PlayerService service;
 
     @Captor
     private ArgumentCaptor<GameMessage> messageCaptor;
 
+    @Captor
+    private ArgumentCaptor<Consumer<Timeout>> timeoutTaskCaptor;
+
 
     @Test
     public void whenPlayerIsSaved_Then_DelegateToPlayerStore() {
@@ -45,6 +88,20 @@ public class PlayerServiceTest {
         verify(playerRepository).save(player);
     }
 
+    @Test
+    public void whenReattachedPlayerConnects_Then_ItIsKept() {
+        // given
+        var cyborg = new Player("Cyborg");
+        given(playerRepository.findByName("Cyborg"))
+                .willReturn(Optional.of(cyborg));
+
+        // when
+        service.connect("Cyborg");
+
+        // then
+        verify(playerRepository).save(same(cyborg));
+    }
+
 
     @Test
     public void whenPlayerIsRemoved_Then_UpdateOpponent() {
@@ -52,9 +109,12 @@ public class PlayerServiceTest {
         var player = new Player("Flash");
         var opponent = new Player("Aqua Man");
         player.setOpponent(opponent);
+        var game = new Game(1, "Aqua Man", "Flash");
 
         given(playerRepository.findByName(BDDMockito.anyString()))
                 .willReturn(Optional.of(player));
+        given(gameRepository.findByPlayerName("Flash"))
+                .willReturn(Optional.of(game));
 
         assertThat(opponent.getStatus()).isEqualTo(PlayerStatus.PAIRED);
 
@@ -67,6 +127,8 @@ public class PlayerServiceTest {
 
         verify(playerRepository).delete(eq(player));
         verify(playerRepository).save(eq(opponent));
+        verify(gameRepository).delete(game);
+        verify(gameJournal).disconnected(1, "Flash", "Aqua Man");
 
         verify(notificationService).notifyPlayer(eq("Aqua Man"), messageCaptor.capture());
 
@@ -74,4 +136,71 @@ public class PlayerServiceTest {
         assertThat(message.getGameStatus()).isEqualTo(GameStatus.DISCONNECT);
         assertThat(message.getContent()).isEqualTo("Flash disconnected from game");
     }
+
+    @Test
+    public void whenPlayerLeavesBot_Then_BotIsRetiredWithoutGoingBackToLobby() {
+        // given
+        var player = new Player("Batman");
+        var bot = new BotPlayer("bot-1");
+        player.setOpponent(bot);
+
+        given(playerRepository.findByName("Batman"))
+                .willReturn(Optional.of(player));
+
+        // when
+        service.removePlayer("Batman");
+
+        // then
+        verify(botQueue).retire(bot);
+        verify(playerRepository, never()).save(bot);
+        verify(gameTimeouts, never()).scheduleIdleTimeout(any());
+        verify(notificationService, never()).notifyPlayer(eq("bot-1"), any());
+    }
+
+    @Test
+    public void whenPlayerWaitsTooLong_Then_ItIsRemovedFromLobby() {
+        // given
+        var cyclops = new Player("Cyclops");
+
+        given(playerRepository.findByName("Cyclops"))
+                .willReturn(Optional.of(cyclops));
+        given(gameTimeouts.isIdleTimeoutEnabled())
+                .willReturn(true);
+        given(gameTimeouts.scheduleIdleTimeout(timeoutTaskCaptor.capture()))
+                .willReturn(mock(Timeout.class));
+
+        service.connect("Cyclops");
+
+        // when
+        timeoutTaskCaptor.getValue().accept(mock(Timeout.class));
+
+        // then
+        verify(playerRepository).delete(cyclops);
+        verify(gameJournal).disconnected(0L, "Cyclops", null);
+        verify(gameMetrics).countIdleTimeout();
+        verify(notificationService).notifyPlayer(eq("Cyclops"), messageCaptor.capture());
+        assertThat(messageCaptor.getValue().getGameStatus()).isEqualTo(GameStatus.TIMEOUT);
+    }
+
+    @Test
+    public void whenPlayerIsPairedBeforeIdleTimeout_Then_ItIsKept() {
+        // given
+        var storm = new Player("Storm");
+
+        given(playerRepository.findByName("Storm"))
+                .willReturn(Optional.of(storm));
+        given(gameTimeouts.isIdleTimeoutEnabled())
+                .willReturn(true);
+        given(gameTimeouts.scheduleIdleTimeout(timeoutTaskCaptor.capture()))
+                .willReturn(mock(Timeout.class));
+
+        service.connect("Storm");
+        storm.setOpponent(new Player("Rogue"));
+
+        // when
+        timeoutTaskCaptor.getValue().accept(mock(Timeout.class));
+
+        // then
+        verify(playerRepository, never()).delete(storm);
+    }
 }
@@ -0,0 +1,161 @@
+package org.hollaemor.gameofthree.gaming.infrastructure.session;
+
+import org.hollaemor.gameofthree.gaming.domain.Player;
+import org.hollaemor.gameofthree.gaming.infrastructure.repository.PlayerRepository;
+import org.hollaemor.gameofthree.gaming.infrastructure.service.PlayerService;
+import org.hollaemor.gameofthree.gaming.infrastructure.timer.Timeout;
+import org.hollaemor.gameofthree.gaming.infrastructure.timer.TimerWheel;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.ArgumentCaptor;
+import org.mockito.Captor;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+
+import java.time.Duration;
+import java.util.Optional;
+import java.util.function.Consumer;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyString;
+import static org.mockito.BDDMockito.given;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.never;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.verifyNoInteractions;
+
+@ExtendWith(MockitoExtension.class)
+public class SessionResumptionTest {
+
+    @Mock
+    private PlayerRepository playerRepository;
+
+    @Mock
+    private PlayerService playerService;
+
+    @Mock
+    private TimerWheel timerWheel;
+
+    @Captor
+    private ArgumentCaptor<Consumer<Timeout>> taskCaptor;
+
+    private GameSessionProperties properties;
+
+    private SessionResumption sessionResumption;
+
+    private Player hulk;
+
+    @BeforeEach
+    public void setup() {
+        properties = new GameSessionProperties();
+        properties.setResumeTimeout(Duration.ofSeconds(30));
+        sessionResumption = new SessionResumption(properties, playerRepository, playerService, timerWheel);
+
+        hulk = new Player("Hulk");
+        hulk.setOpponent(new Player("Abomination"));
+    }
+
+    @Test
+    public void playerInGame_Should_BeParked_And_Detached() {
+        // given
+        given(playerRepository.findByName("Hulk"))
+                .willReturn(Optional.of(hulk));
+        given(timerWheel.schedule(any(), any()))
+                .willReturn(mock(Timeout.class));
+
+        // when
+        var parked = sessionResumption.park("Hulk");
+
+        // then
+        assertThat(parked).isTrue();
+        assertThat(hulk.isDetached()).isTrue();
+        assertThat(hulk.getOpponent().getName()).isEqualTo("Abomination");
+        assertThat(sessionResumption.countParked()).isOne();
+        verify(timerWheel).schedule(any(), any());
+    }
+
+    @Test
+    public void playerWithoutOpponent_Should_NotBeParked() {
+        // given
+        given(playerRepository.findByName("Hawkeye"))
+                .willReturn(Optional.of(new Player("Hawkeye")));
+
+        // when
+        var parked = sessionResumption.park("Hawkeye");
+
+        // then
+        assertThat(parked).isFalse();
+        verifyNoInteractions(timerWheel);
+    }
+
+    @Test
+    public void whenResumeTimeoutIsZero_Then_PlayerIsNotParked() {
+        // given
+        properties.setResumeTimeout(Duration.ZERO);
+
+        // when
+        var parked = sessionResumption.park("Hulk");
+
+        // then
+        assertThat(parked).isFalse();
+        verifyNoInteractions(playerRepository, timerWheel);
+    }
+
+    @Test
+    public void whenPlayerResumes_Then_TimeoutIsCancelled() {
+        // given
+        var timeout = mock(Timeout.class);
+        given(playerRepository.findByName("Hulk"))
+                .willReturn(Optional.of(hulk));
+        given(timerWheel.schedule(any(), any()))
+                .willReturn(timeout);
+        sessionResumption.park("Hulk");
+
+        // when
+        sessionResumption.resumed("Hulk");
+
+        // then
+        verify(timeout).cancel();
+        assertThat(sessionResumption.countParked()).isZero();
+    }
+
+    @Test
+    public void whenPlayerDoesNotReconnect_Then_PlayerIsRemoved() {
+        // given
+        var timeout = mock(Timeout.class);
+        given(playerRepository.findByName("Hulk"))
+                .willReturn(Optional.of(hulk));
+        given(timerWheel.schedule(taskCaptor.capture(), any()))
+                .willReturn(timeout);
+        sessionResumption.park("Hulk");
+
+        // when
+        taskCaptor.getValue().accept(timeout);
+
+        // then
+        verify(playerService).removePlayer("Hulk");
+        assertThat(sessionResumption.countParked()).isZero();
+    }
+
+    @Test
+    public void whenPlayerReattachedBeforeTimeout_Then_PlayerIsKept() {
+        // given
+        var timeout = mock(Timeout.class);
+        given(playerRepository.findByName("Hulk"))
+                .willReturn(Optional.of(hulk));
+        given(timerWheel.schedule(taskCaptor.capture(), any()))
+                .willReturn(timeout);
+        sessionResumption.park("Hulk");
+
+        hulk.reattach();
+
+        // when
+        taskCaptor.getValue().accept(timeout);
+
+        // then
+        verify(playerService, never()).removePlayer(anyString());
+        assertThat(hulk.isDetached()).isFalse();
+    }
+}
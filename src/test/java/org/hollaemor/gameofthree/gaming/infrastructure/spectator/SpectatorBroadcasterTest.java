@@ -0,0 +1,214 @@
+package org.hollaemor.gameofthree.gaming.infrastructure.spectator;
+
+import org.hollaemor.gameofthree.gaming.domain.Game;
+import org.hollaemor.gameofthree.gaming.domain.GameNotFoundException;
+import org.hollaemor.gameofthree.gaming.domain.GameStatus;
+import org.hollaemor.gameofthree.gaming.infrastructure.broker.GameBrokerProperties;
+import org.hollaemor.gameofthree.gaming.infrastructure.repository.GameRepository;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.ArgumentCaptor;
+import org.mockito.Captor;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.messaging.Message;
+import org.springframework.messaging.simp.SimpMessageHeaderAccessor;
+import org.springframework.messaging.simp.SimpMessageType;
+import org.springframework.messaging.simp.SimpMessagingTemplate;
+import org.springframework.messaging.support.MessageBuilder;
+import org.springframework.web.socket.CloseStatus;
+import org.springframework.web.socket.messaging.SessionDisconnectEvent;
+import org.springframework.web.socket.messaging.SessionSubscribeEvent;
+import org.springframework.web.socket.messaging.SessionUnsubscribeEvent;
+
+import java.time.Duration;
+import java.util.Optional;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatExceptionOfType;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.BDDMockito.given;
+import static org.mockito.Mockito.times;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.verifyNoInteractions;
+
+@ExtendWith(MockitoExtension.class)
+public class SpectatorBroadcasterTest {
+
+    private static final String TOPIC = "/topic/game.1";
+
+    @Mock
+    private SimpMessagingTemplate messagingTemplate;
+
+    @Mock
+    private GameRepository gameRepository;
+
+    @Captor
+    private ArgumentCaptor<SpectatorFrame> frameCaptor;
+
+    private GameSpectatorProperties properties;
+
+    private GameBrokerProperties brokerProperties;
+
+    private final Game game = new Game(1, "Mario", "Luigi");
+
+
+    @BeforeEach
+    public void setup() {
+        properties = new GameSpectatorProperties();
+        brokerProperties = new GameBrokerProperties();
+        game.start("Mario", 10);
+        game.play("Luigi", -1);
+    }
+
+    @Test
+    public void unwatchedGame_Should_NotBePublished() {
+        // given
+        var broadcaster = newBroadcaster();
+
+        // when
+        broadcaster.paired(game);
+        broadcaster.moved(game, -1, 3);
+
+        // then
+        verifyNoInteractions(messagingTemplate);
+    }
+
+    @Test
+    public void moveOfWatchedGame_Should_BePublishedAsDelta() {
+        // given
+        var broadcaster = newBroadcaster();
+        broadcaster.handleSubscribe(subscribe("Peach", "sub-0", TOPIC));
+
+        // when
+        broadcaster.moved(game, -1, 3);
+
+        // then
+        verify(messagingTemplate).convertAndSend(eq(TOPIC), frameCaptor.capture());
+
+        var frame = frameCaptor.getValue();
+        assertThat(frame.getGameStatus()).isEqualTo(GameStatus.PLAY);
+        assertThat(frame.getValue()).isEqualTo(3);
+        assertThat(frame.getMove()).isEqualTo(-1);
+        assertThat(frame.getMoves()).isEqualTo(1);
+        assertThat(frame.getPrimaryPlayer()).isNull();
+        assertThat(broadcaster.countSpectators()).isEqualTo(1);
+    }
+
+    @Test
+    public void whenDeltasAreDisabled_Then_EveryFrameNamesThePlayers() {
+        // given
+        properties.setDeltas(false);
+        var broadcaster = newBroadcaster();
+        broadcaster.handleSubscribe(subscribe("Daisy", "sub-0", TOPIC));
+
+        // when
+        broadcaster.gameOver(game, "Luigi");
+
+        // then
+        verify(messagingTemplate).convertAndSend(eq(TOPIC), frameCaptor.capture());
+
+        var frame = frameCaptor.getValue();
+        assertThat(frame.getGameStatus()).isEqualTo(GameStatus.GAMEOVER);
+        assertThat(frame.getPrimaryPlayer()).isEqualTo("Mario");
+        assertThat(frame.getSecondaryPlayer()).isEqualTo("Luigi");
+        assertThat(frame.getWinner()).isEqualTo("Luigi");
+    }
+
+    @Test
+    public void movesOfLargeAudience_Should_BeSampled() {
+        // given
+        properties.setSampleAbove(1);
+        properties.setSampleInterval(Duration.ofHours(1));
+        var broadcaster = newBroadcaster();
+        broadcaster.handleSubscribe(subscribe("Toad", "sub-0", TOPIC));
+        broadcaster.handleSubscribe(subscribe("Yoshi", "sub-0", TOPIC));
+
+        // when
+        broadcaster.moved(game, -1, 3);
+        broadcaster.moved(game, 0, 1);
+        broadcaster.gameOver(game, "Luigi");
+
+        // then
+        verify(messagingTemplate, times(2)).convertAndSend(eq(TOPIC), frameCaptor.capture());
+        assertThat(frameCaptor.getAllValues()).extracting(SpectatorFrame::getGameStatus)
+                .containsExactly(GameStatus.PLAY, GameStatus.GAMEOVER);
+        assertThat(broadcaster.getPublishedFrames()).isEqualTo(2);
+        assertThat(broadcaster.getSampledFrames()).isEqualTo(1);
+    }
+
+    @Test
+    public void spectatorsWhoLeave_Should_NoLongerBeCounted() {
+        // given
+        var broadcaster = newBroadcaster();
+        broadcaster.handleSubscribe(subscribe("Wario", "sub-0", TOPIC));
+        broadcaster.handleSubscribe(subscribe("Waluigi", "sub-0", TOPIC));
+        broadcaster.handleSubscribe(subscribe("Waluigi", "sub-1", "/topic/game.2"));
+        broadcaster.handleSubscribe(subscribe("Waluigi", "sub-2", "/user/queue/updates"));
+
+        // when
+        broadcaster.handleUnsubscribe(new SessionUnsubscribeEvent(this, message(SimpMessageType.UNSUBSCRIBE,
+                "Wario", "sub-0", null)));
+        broadcaster.handleDisconnect(new SessionDisconnectEvent(this, message(SimpMessageType.DISCONNECT,
+                "Waluigi", null, null), "Waluigi", CloseStatus.NORMAL));
+
+        broadcaster.moved(game, -1, 3);
+
+        // then
+        assertThat(broadcaster.countSpectators()).isZero();
+        verifyNoInteractions(messagingTemplate);
+    }
+
+    @Test
+    public void withBrokerRelay_Then_UnwatchedGameIsPublished() {
+        // given
+        brokerProperties.setMode(GameBrokerProperties.Mode.RELAY);
+        var broadcaster = newBroadcaster();
+
+        // when
+        broadcaster.disconnected(1, "Mario");
+
+        // then
+        verify(messagingTemplate).convertAndSend(eq(TOPIC), frameCaptor.capture());
+        assertThat(frameCaptor.getValue().getContent()).isEqualTo("Mario disconnected from game");
+    }
+
+    @Test
+    public void snapshot_Should_BeFullFrameOfCurrentState() {
+        // given
+        var broadcaster = newBroadcaster();
+        given(gameRepository.findById(1)).willReturn(Optional.of(game));
+
+        // when
+        var frame = broadcaster.snapshot(1);
+
+        // then
+        assertThat(frame.getGameStatus()).isEqualTo(GameStatus.PLAY);
+        assertThat(frame.getPrimaryPlayer()).isEqualTo("Mario");
+        assertThat(frame.getValue()).isEqualTo(3);
+        assertThat(frame.getMoves()).isEqualTo(1);
+
+        assertThatExceptionOfType(GameNotFoundException.class)
+                .isThrownBy(() -> broadcaster.snapshot(7))
+                .withMessage("Game not found: 7");
+    }
+
+    private SpectatorBroadcaster newBroadcaster() {
+        return new SpectatorBroadcaster(messagingTemplate, properties, brokerProperties, gameRepository);
+    }
+
+    private SessionSubscribeEvent subscribe(String sessionId, String subscriptionId, String destination) {
+        return new SessionSubscribeEvent(this, message(SimpMessageType.SUBSCRIBE, sessionId, subscriptionId,
+                destination));
+    }
+
+    private static Message<byte[]> message(SimpMessageType type, String sessionId, String subscriptionId,
+                                           String destination) {
+        var accessor = SimpMessageHeaderAccessor.create(type);
+        accessor.setSessionId(sessionId);
+        accessor.setSubscriptionId(subscriptionId);
+        accessor.setDestination(destination);
+        return MessageBuilder.createMessage(new byte[0], accessor.getMessageHeaders());
+    }
+}
@@ -0,0 +1,148 @@
+package org.hollaemor.gameofthree.gaming.infrastructure.spectator;
+
+import org.hollaemor.gameofthree.GameOfThreeApplication;
+import org.hollaemor.gameofthree.gaming.domain.GameInstruction;
+import org.hollaemor.gameofthree.gaming.domain.GameMessage;
+import org.hollaemor.gameofthree.gaming.domain.GameStatus;
+import org.hollaemor.gameofthree.gaming.infrastructure.repository.PlayerRepository;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.boot.builder.SpringApplicationBuilder;
+import org.springframework.context.ConfigurableApplicationContext;
+import org.springframework.messaging.converter.MappingJackson2MessageConverter;
+import org.springframework.messaging.simp.stomp.StompFrameHandler;
+import org.springframework.messaging.simp.stomp.StompHeaders;
+import org.springframework.messaging.simp.stomp.StompSession;
+import org.springframework.messaging.simp.stomp.StompSessionHandlerAdapter;
+import org.springframework.scheduling.concurrent.ConcurrentTaskScheduler;
+import org.springframework.web.socket.WebSocketHttpHeaders;
+import org.springframework.web.socket.client.standard.StandardWebSocketClient;
+import org.springframework.web.socket.messaging.WebSocketStompClient;
+
+import java.lang.reflect.Type;
+import java.util.concurrent.BlockingQueue;
+import java.util.concurrent.LinkedBlockingQueue;
+import java.util.concurrent.TimeUnit;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.hollaemor.gameofthree.gaming.infrastructure.WebSocketConfig.SPECTATOR_HEADER;
+import static org.hollaemor.gameofthree.gaming.infrastructure.WebSocketConfig.USERNAME_HEADER;
+import static org.hollaemor.gameofthree.gaming.infrastructure.WebSocketConfig.WEBSOCKET_ENDPOINT;
+
+/**
+ * A spectator watching a game of a player against a bot.
+ */
+public class SpectatorIntegrationTest {
+
+    private ConfigurableApplicationContext server;
+
+    private WebSocketStompClient stompClient;
+
+
+    @BeforeEach
+    public void setup() {
+        server = new SpringApplicationBuilder(GameOfThreeApplication.class)
+                .properties("server.port=0",
+                        "game.bot.pair-after=200ms",
+                        "game.timer.tick-duration=10ms")
+                .run();
+
+        stompClient = new WebSocketStompClient(new StandardWebSocketClient());
+        stompClient.setMessageConverter(new MappingJackson2MessageConverter());
+        stompClient.setTaskScheduler(new ConcurrentTaskScheduler());
+    }
+
+    @AfterEach
+    public void tearDown() {
+        stompClient.stop();
+        server.close();
+    }
+
+    @Test
+    public void spectator_Should_SeeSnapshotAndMovesOfGame() throws Exception {
+        // given
+        var joel = new Client<>(SpectatorFrame.class, SPECTATOR_HEADER, "true");
+        assertThat(server.getBean(PlayerRepository.class).countWaiting()).isZero();
+
+        var ellie = new Client<>(GameMessage.class, USERNAME_HEADER, "Ellie");
+        ellie.session.subscribe("/user/queue/updates", ellie);
+        ellie.session.send("/app/game.start", null);
+        assertThat(ellie.next().getGameStatus()).isEqualTo(GameStatus.WAITING);
+        assertThat(ellie.next().getGameStatus()).isEqualTo(GameStatus.START);
+
+        joel.session.subscribe("/topic/game.1", joel);
+        var snapshots = new Client<>(SpectatorFrame.class, joel.session);
+        joel.session.subscribe("/app/game.1", snapshots);
+
+        var snapshot = snapshots.next();
+        assertThat(snapshot.getGameStatus()).isEqualTo(GameStatus.START);
+        assertThat(snapshot.getPrimaryPlayer()).isEqualTo("Ellie");
+        assertThat(snapshot.getSecondaryPlayer()).isNotNull();
+
+        // when
+        ellie.session.send("/app/game.number", GameInstruction.builder().value(10).build());
+        ellie.next();
+        ellie.session.send("/app/game.play", GameInstruction.builder().move(0).build());
+
+        // then
+        var numberSent = joel.next();
+        assertThat(numberSent.getGameStatus()).isEqualTo(GameStatus.PLAY);
+        assertThat(numberSent.getValue()).isEqualTo(10);
+
+        var botPlayed = joel.next();
+        assertThat(botPlayed.getValue()).isEqualTo(3);
+        assertThat(botPlayed.getMove()).isEqualTo(-1);
+        assertThat(botPlayed.getMoves()).isEqualTo(1);
+        assertThat(botPlayed.getPrimaryPlayer()).isNull();
+
+        var ellieWon = joel.next();
+        assertThat(ellieWon.getValue()).isEqualTo(1);
+        assertThat(ellieWon.getMoves()).isEqualTo(2);
+
+        var gameOver = joel.next();
+        assertThat(gameOver.getGameStatus()).isEqualTo(GameStatus.GAMEOVER);
+        assertThat(gameOver.getWinner()).isEqualTo("Ellie");
+    }
+
+    private class Client<T> implements StompFrameHandler {
+
+        private final StompSession session;
+
+        private final Class<T> payloadType;
+
+        private final BlockingQueue<T> frames = new LinkedBlockingQueue<>();
+
+        Client(Class<T> payloadType, String header, String value) throws Exception {
+            var url = "ws://localhost:" + server.getEnvironment().getProperty("local.server.port") + WEBSOCKET_ENDPOINT;
+            var stompHeaders = new StompHeaders();
+            stompHeaders.add(header, value);
+
+            this.payloadType = payloadType;
+            this.session = stompClient.connect(url, new WebSocketHttpHeaders(), stompHeaders,
+                    new StompSessionHandlerAdapter() {
+                    }).get(5, TimeUnit.SECONDS);
+        }
+
+        Client(Class<T> payloadType, StompSession session) {
+            this.payloadType = payloadType;
+            this.session = session;
+        }
+
+        T next() throws InterruptedException {
+            var frame = frames.poll(5, TimeUnit.SECONDS);
+            assertThat(frame).as("frame received").isNotNull();
+            return frame;
+        }
+
+        @Override
+        public Type getPayloadType(StompHeaders headers) {
+            return payloadType;
+        }
+
+        @Override
+        public void handleFrame(StompHeaders headers, Object payload) {
+            frames.add(payloadType.cast(payload));
+        }
+    }
+}
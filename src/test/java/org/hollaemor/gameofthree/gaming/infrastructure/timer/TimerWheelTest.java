@@ -0,0 +1,163 @@
+package org.hollaemor.gameofthree.gaming.infrastructure.timer;
+
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.TimeUnit;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+public class TimerWheelTest {
+
+    private static final long TICK = TimeUnit.MILLISECONDS.toNanos(100);
+
+    private GameTimerProperties properties;
+
+    private long now;
+
+    private List<String> expired;
+
+    @BeforeEach
+    public void setup() {
+        properties = new GameTimerProperties();
+        properties.setTickDuration(Duration.ofMillis(100));
+        properties.setTicksPerWheel(8);
+
+        now = 0;
+        expired = new ArrayList<>();
+    }
+
+    @Test
+    public void timeout_Should_ExpireInTheTickOfItsDeadline() {
+        // given
+        var wheel = new TimerWheel(properties, () -> now);
+        var timeout = wheel.schedule(t -> expired.add("Thor"), Duration.ofMillis(250));
+
+        // when
+        wheel.advanceTo(2 * TICK);
+        var expiredEarly = new ArrayList<>(expired);
+        wheel.advanceTo(3 * TICK);
+
+        // then
+        assertThat(expiredEarly).isEmpty();
+        assertThat(expired).containsExactly("Thor");
+        assertThat(timeout.isExpired()).isTrue();
+        assertThat(wheel.getPendingTimeouts()).isZero();
+    }
+
+    @Test
+    public void timeoutsOnHigherLevels_Should_ExpireInTheTickOfTheirDeadline() {
+        // given
+        var wheel = new TimerWheel(properties, () -> now);
+        var deadlines = new long[]{7, 8, 63, 64, 65, 511, 512, 4_097, 40_000};
+        var expiredAt = new long[deadlines.length];
+        wheel.advanceTo(3 * TICK);
+        long startTick = 3;
+
+        for (int i = 0; i < deadlines.length; i++) {
+            int index = i;
+            now = startTick * TICK;
+            wheel.schedule(t -> expiredAt[index] = now / TICK, Duration.ofMillis(deadlines[i] * 100));
+        }
+
+        // when
+        for (long tick = startTick + 1; tick <= startTick + 40_001; tick++) {
+            now = tick * TICK;
+            wheel.advanceTo(now);
+        }
+
+        // then
+        for (int i = 0; i < deadlines.length; i++) {
+            assertThat(expiredAt[i]).as("deadline %d", deadlines[i]).isEqualTo(startTick + deadlines[i] + 1);
+        }
+        assertThat(wheel.getPendingTimeouts()).isZero();
+    }
+
+    @Test
+    public void timeoutFurtherAwayThanOneTurn_Should_WaitForItsRound() {
+        // given
+        var wheel = new TimerWheel(properties, () -> now);
+        wheel.schedule(t -> expired.add("Loki"), Duration.ofMillis(2_050));
+        wheel.schedule(t -> expired.add("Odin"), Duration.ofMillis(50));
+
+        // when
+        wheel.advanceTo(20 * TICK);
+        var expiredBefore = new ArrayList<>(expired);
+        wheel.advanceTo(21 * TICK);
+
+        // then
+        assertThat(expiredBefore).containsExactly("Odin");
+        assertThat(expired).containsExactly("Odin", "Loki");
+    }
+
+    @Test
+    public void cancelledTimeout_Should_NotExpire() {
+        // given
+        var wheel = new TimerWheel(properties, () -> now);
+        var heimdall = wheel.schedule(t -> expired.add("Heimdall"), Duration.ofMillis(300));
+        var sif = wheel.schedule(t -> expired.add("Sif"), Duration.ofMillis(300));
+        wheel.advanceTo(TICK);
+
+        // when
+        var cancelled = heimdall.cancel();
+        wheel.advanceTo(4 * TICK);
+
+        // then
+        assertThat(cancelled).isTrue();
+        assertThat(heimdall.isCancelled()).isTrue();
+        assertThat(expired).containsExactly("Sif");
+        assertThat(sif.cancel()).isFalse();
+        assertThat(wheel.getPendingTimeouts()).isZero();
+    }
+
+    @Test
+    public void timeoutScheduledAfterItsDeadline_Should_ExpireWithNextTick() {
+        // given
+        var wheel = new TimerWheel(properties, () -> now);
+        wheel.advanceTo(5 * TICK);
+        now = 5 * TICK + 1;
+
+        // when
+        wheel.schedule(t -> expired.add("Valkyrie"), Duration.ZERO);
+        wheel.advanceTo(6 * TICK);
+
+        // then
+        assertThat(expired).containsExactly("Valkyrie");
+    }
+
+    @Test
+    public void failingTask_Should_NotStopOtherTimeouts() {
+        // given
+        var wheel = new TimerWheel(properties, () -> now);
+        wheel.schedule(t -> {
+            throw new IllegalStateException("Surtur");
+        }, Duration.ofMillis(100));
+        wheel.schedule(t -> expired.add("Hela"), Duration.ofMillis(100));
+
+        // when
+        wheel.advanceTo(2 * TICK);
+
+        // then
+        assertThat(expired).containsExactly("Hela");
+    }
+
+    @Test
+    public void startedWheel_Should_ExpireTimeoutsOnItsOwnThread() throws Exception {
+        // given
+        properties.setTickDuration(Duration.ofMillis(10));
+        var wheel = new TimerWheel(properties);
+        var latch = new CountDownLatch(1);
+        wheel.afterPropertiesSet();
+
+        // when
+        wheel.schedule(t -> latch.countDown(), Duration.ofMillis(30));
+
+        // then
+        assertThat(latch.await(5, TimeUnit.SECONDS)).isTrue();
+        wheel.destroy();
+    }
+}
@@ -0,0 +1,155 @@
+package org.hollaemor.gameofthree.gaming.infrastructure.tournament;
+
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.hollaemor.gameofthree.gaming.domain.GameInstruction;
+import org.hollaemor.gameofthree.gaming.domain.GameRules;
+import org.hollaemor.gameofthree.gaming.domain.GameService;
+import org.hollaemor.gameofthree.gaming.domain.GameStatus;
+import org.hollaemor.gameofthree.gaming.domain.Player;
+import org.hollaemor.gameofthree.gaming.domain.PlayerLocks;
+import org.hollaemor.gameofthree.gaming.domain.PlayerStatus;
+import org.hollaemor.gameofthree.gaming.infrastructure.bot.BotQueue;
+import org.hollaemor.gameofthree.gaming.infrastructure.bot.GameBotProperties;
+import org.hollaemor.gameofthree.gaming.infrastructure.journal.GameJournal;
+import org.hollaemor.gameofthree.gaming.infrastructure.journal.GameJournalProperties;
+import org.hollaemor.gameofthree.gaming.infrastructure.matchmaking.FifoPairingStrategy;
+import org.hollaemor.gameofthree.gaming.infrastructure.matchmaking.GameMatchmakingProperties;
+import org.hollaemor.gameofthree.gaming.infrastructure.matchmaking.LatencyProbe;
+import org.hollaemor.gameofthree.gaming.infrastructure.matchmaking.MatchmakingQueue;
+import org.hollaemor.gameofthree.gaming.infrastructure.metrics.GameMetrics;
+import org.hollaemor.gameofthree.gaming.infrastructure.repository.InMemoryGameRepository;
+import org.hollaemor.gameofthree.gaming.infrastructure.repository.InMemoryPlayerRepository;
+import org.hollaemor.gameofthree.gaming.infrastructure.service.NotificationService;
+import org.hollaemor.gameofthree.gaming.infrastructure.service.PlayerService;
+import org.hollaemor.gameofthree.gaming.infrastructure.spectator.SpectatorBroadcaster;
+import org.hollaemor.gameofthree.gaming.infrastructure.timer.GameTimeouts;
+import org.hollaemor.gameofthree.gaming.infrastructure.timer.GameTimerProperties;
+import org.hollaemor.gameofthree.gaming.infrastructure.timer.TimerWheel;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.mockito.ArgumentMatchers.argThat;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.verify;
+
+public class TournamentDirectorTest {
+
+    private final SimpleMeterRegistry meterRegistry = new SimpleMeterRegistry();
+
+    private final NotificationService notificationService = mock(NotificationService.class);
+
+    private final SpectatorBroadcaster spectators = mock(SpectatorBroadcaster.class);
+
+    private InMemoryPlayerRepository repository;
+    private InMemoryGameRepository gameRepository;
+    private GameService gameService;
+    private PlayerService playerService;
+    private TournamentDirector director;
+
+
+    @BeforeEach
+    public void setup() {
+        var playerLocks = new PlayerLocks();
+        var gameJournal = new GameJournal(new GameJournalProperties());
+        var gameMetrics = new GameMetrics();
+        gameMetrics.bindTo(meterRegistry);
+        var timerProperties = new GameTimerProperties();
+        var timerWheel = new TimerWheel(timerProperties);
+        var gameTimeouts = new GameTimeouts(timerProperties, timerWheel);
+        var properties = new GameTournamentProperties();
+        properties.setSize(4);
+
+        repository = new InMemoryPlayerRepository();
+        gameRepository = new InMemoryGameRepository();
+        var tournamentQueue = new TournamentQueue(properties);
+        var botQueue = new BotQueue(new GameBotProperties(), repository, gameJournal, timerWheel);
+        gameService = new GameService(repository, gameRepository, notificationService, playerLocks, gameMetrics,
+                new MatchmakingQueue(new GameMatchmakingProperties(), new FifoPairingStrategy(), new LatencyProbe()),
+                gameJournal, gameTimeouts, botQueue, GameRules.CLASSIC, tournamentQueue, spectators);
+        playerService = new PlayerService(repository, gameRepository, notificationService, playerLocks, gameJournal,
+                gameTimeouts, gameMetrics, tournamentQueue, spectators, botQueue);
+        director = new TournamentDirector(tournamentQueue, gameService, repository, gameMetrics);
+    }
+
+    @Test
+    public void bracketOfFour_Should_BePlayedUntilChampionIsReleased() throws Exception {
+        // given
+        var simba = join("Simba");
+        var nala = join("Nala");
+        var timon = join("Timon");
+        var pumbaa = join("Pumbaa");
+
+        // when
+        assertThat(director.runOnce(0)).isTrue();
+
+        // then
+        assertThat(simba.getOpponent()).isSameAs(nala);
+        assertThat(timon.getOpponent()).isSameAs(pumbaa);
+        verify(notificationService).notifyPlayer(eq("Simba"),
+                argThat(message -> GameStatus.START == message.getGameStatus() && message.isPrimaryPlayer()));
+        verify(notificationService).notifyPlayer(eq("Pumbaa"),
+                argThat(message -> GameStatus.START == message.getGameStatus() && !message.isPrimaryPlayer()));
+
+        playMatch("Simba", "Nala", true);
+        assertThat(director.runOnce(0)).isFalse();
+        playMatch("Timon", "Pumbaa", false);
+
+        assertThat(nala.getStatus()).isEqualTo(PlayerStatus.AVAILABLE);
+        assertThat(timon.getStatus()).isEqualTo(PlayerStatus.AVAILABLE);
+
+        assertThat(director.runOnce(0)).isTrue();
+        assertThat(simba.getOpponent()).isSameAs(pumbaa);
+        assertThat(simba.isPrimary()).isTrue();
+
+        playMatch("Simba", "Pumbaa", false);
+        assertThat(director.runOnce(0)).isTrue();
+
+        assertThat(pumbaa.getStatus()).isEqualTo(PlayerStatus.AVAILABLE);
+        assertThat(simba.getStatus()).isEqualTo(PlayerStatus.AVAILABLE);
+        verify(notificationService).notifyPlayer(eq("Pumbaa"),
+                argThat(message -> "You won the tournament".equals(message.getContent())));
+        assertThat(meterRegistry.get("game.tournament.round").timer().count()).isEqualTo(2);
+    }
+
+    @Test
+    public void playerWhoLeavesMatch_Should_GiveOpponentWalkover() throws Exception {
+        // given
+        var mufasa = join("Mufasa");
+        join("Scar");
+        var rafiki = join("Rafiki");
+        var zazu = join("Zazu");
+        director.runOnce(0);
+        playMatch("Rafiki", "Zazu", true);
+
+        // when
+        playerService.removePlayer("Scar");
+
+        // then
+        assertThat(mufasa.getStatus()).isEqualTo(PlayerStatus.IN_TOURNAMENT);
+        assertThat(zazu.getStatus()).isEqualTo(PlayerStatus.AVAILABLE);
+
+        assertThat(director.runOnce(0)).isTrue();
+        assertThat(mufasa.getOpponent()).isSameAs(rafiki);
+    }
+
+    private Player join(String playerName) {
+        var player = new Player(playerName);
+        repository.save(player);
+        gameService.joinTournament(playerName);
+        return player;
+    }
+
+    /*
+    From 9 the secondary player moves to 3 and the primary one wins, from 3 the secondary player wins right away.
+     */
+    private void playMatch(String primaryPlayerName, String secondaryPlayerName, boolean primaryPlayerWins) {
+        gameService.processRandomNumberFromPlayer(primaryPlayerWins ? 9 : 3, primaryPlayerName);
+        gameService.processPlayerMove(secondaryPlayerName, GameInstruction.builder().move(0).build());
+
+        if (primaryPlayerWins) {
+            gameService.processPlayerMove(primaryPlayerName, GameInstruction.builder().move(0).build());
+        }
+    }
+}
@@ -0,0 +1,88 @@
+package org.hollaemor.gameofthree.gaming.infrastructure.tournament;
+
+import org.hollaemor.gameofthree.gaming.domain.Player;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+public class TournamentQueueTest {
+
+    private TournamentQueue queue;
+
+
+    @BeforeEach
+    public void setup() {
+        var properties = new GameTournamentProperties();
+        properties.setSize(3);
+        queue = new TournamentQueue(properties);
+    }
+
+    @Test
+    public void fullTournament_Should_BeHandedToDirector() throws Exception {
+        // given
+        queue.register(new Player("Mario"));
+        queue.register(new Player("Luigi"));
+        assertThat(queue.poll(0)).isNull();
+
+        // when
+        var registered = queue.register(new Player("Peach"));
+
+        // then
+        assertThat(registered).isEqualTo(3);
+        var tournament = queue.poll(0);
+        assertThat(tournament).isNotNull();
+        assertThat(tournament.countEntrants()).isEqualTo(3);
+        assertThat(queue.countEntrants()).isEqualTo(3);
+        assertThat(queue.isEntered("Luigi")).isTrue();
+    }
+
+    @Test
+    public void playerRegisteredTwice_Should_BeCountedOnce() {
+        // given
+        queue.register(new Player("Toad"));
+
+        // when
+        var registered = queue.register(new Player("Toad"));
+
+        // then
+        assertThat(registered).isEqualTo(1);
+    }
+
+    @Test
+    public void playerWhoLeavesBeforeStart_Should_FreeItsPlace() throws Exception {
+        // given
+        queue.register(new Player("Yoshi"));
+        queue.register(new Player("Wario"));
+
+        // when
+        queue.withdraw("Wario");
+        queue.register(new Player("Daisy"));
+
+        // then
+        assertThat(queue.isEntered("Wario")).isFalse();
+        assertThat(queue.poll(0)).isNull();
+    }
+
+    @Test
+    public void lastResultOfRound_Should_HandTournamentBackToDirector() throws Exception {
+        // given
+        queue.register(new Player("Bowser"));
+        queue.register(new Player("Koopa"));
+        queue.register(new Player("Boo"));
+        var matches = queue.poll(0).nextRound(1L);
+
+        // when
+        assertThat(queue.isMatch("Bowser", "Koopa")).isTrue();
+        queue.matchOver("Koopa", "Bowser");
+
+        // then
+        assertThat(queue.isEntered("Bowser")).isFalse();
+        assertThat(queue.isMatch("Bowser", "Koopa")).isFalse();
+        var tournament = queue.poll(0);
+        assertThat(tournament).isSameAs(matches.get(0).getTournament());
+        assertThat(tournament.nextRound(2L))
+                .extracting(TournamentMatch::getSecondPlayerName)
+                .containsExactly("Boo");
+    }
+}
@@ -0,0 +1,116 @@
+package org.hollaemor.gameofthree.gaming.infrastructure.tournament;
+
+import org.junit.jupiter.api.Test;
+
+import java.util.List;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.tuple;
+
+public class TournamentTest {
+
+    @Test
+    public void bracketOfFive_Should_GiveByesUntilChampionIsLeft() {
+        // given
+        var tournament = tournamentOf("Frodo", "Sam", "Merry", "Pippin", "Gandalf");
+
+        // when
+        var firstRound = tournament.nextRound(1L);
+
+        // then
+        assertThat(firstRound).extracting(TournamentMatch::getFirstPlayerName).containsExactly("Frodo", "Merry");
+        assertThat(firstRound).extracting(TournamentMatch::getSecondPlayerName).containsExactly("Sam", "Pippin");
+        assertThat(tournament.getRound()).isEqualTo(1);
+        assertThat(tournament.getRoundStartedAt()).isEqualTo(1L);
+
+        assertThat(tournament.decide("Frodo")).isFalse();
+        assertThat(tournament.decide("Pippin")).isTrue();
+
+        var secondRound = tournament.nextRound(2L);
+        assertThat(secondRound).hasSize(1);
+        assertThat(secondRound.get(0).getFirstPlayerName()).isEqualTo("Frodo");
+        assertThat(secondRound.get(0).getSecondPlayerName()).isEqualTo("Pippin");
+
+        assertThat(tournament.decide("Pippin")).isTrue();
+
+        var finalRound = tournament.nextRound(3L);
+        assertThat(finalRound).hasSize(1);
+        assertThat(finalRound.get(0).getFirstPlayerName()).isEqualTo("Pippin");
+        assertThat(finalRound.get(0).getSecondPlayerName()).isEqualTo("Gandalf");
+
+        assertThat(tournament.decide("Gandalf")).isTrue();
+        assertThat(tournament.nextRound(4L)).isEmpty();
+        assertThat(tournament.getChampion()).isEqualTo("Gandalf");
+        assertThat(tournament.getRound()).isEqualTo(3);
+    }
+
+    @Test
+    public void playersOfUndecidedMatch_Should_BePlaying() {
+        // given
+        var tournament = tournamentOf("Aragorn", "Legolas", "Gimli", "Boromir");
+        tournament.nextRound(1L);
+
+        // when / then
+        assertThat(tournament.isPlaying("Aragorn", "Legolas")).isTrue();
+        assertThat(tournament.isPlaying("Legolas", "Gimli")).isFalse();
+
+        tournament.decide("Legolas");
+        assertThat(tournament.isPlaying("Aragorn", "Legolas")).isFalse();
+        assertThat(tournament.decide("Aragorn")).isFalse();
+    }
+
+    @Test
+    public void playerWhoLeavesMatch_Should_GiveOpponentWalkover() {
+        // given
+        var tournament = tournamentOf("Bilbo", "Thorin", "Balin", "Dwalin");
+        tournament.nextRound(1L);
+        tournament.decide("Balin");
+
+        // when
+        var roundOver = tournament.withdraw("Thorin");
+
+        // then
+        assertThat(roundOver).isTrue();
+        assertThat(tournament.nextRound(2L))
+                .extracting(TournamentMatch::getFirstPlayerName, TournamentMatch::getSecondPlayerName)
+                .containsExactly(tuple("Bilbo", "Balin"));
+    }
+
+    @Test
+    public void winnerWhoLeaves_Should_GiveNextOpponentBye() {
+        // given
+        var tournament = tournamentOf("Elrond", "Galadriel", "Celeborn", "Arwen");
+        tournament.nextRound(1L);
+        tournament.decide("Elrond");
+
+        // when
+        var roundOver = tournament.withdraw("Elrond");
+
+        // then
+        assertThat(roundOver).isFalse();
+        assertThat(tournament.decide("Arwen")).isTrue();
+        assertThat(tournament.nextRound(2L)).isEmpty();
+        assertThat(tournament.getChampion()).isEqualTo("Arwen");
+    }
+
+    @Test
+    public void matchWithoutWinner_Should_AdvanceNobody() {
+        // given
+        var tournament = tournamentOf("Eowyn", "Eomer");
+        var matches = tournament.nextRound(1L);
+
+        // when
+        var roundOver = tournament.decide(matches.get(0).getIndex(), null);
+
+        // then
+        assertThat(roundOver).isTrue();
+        assertThat(tournament.nextRound(2L)).isEmpty();
+        assertThat(tournament.getChampion()).isNull();
+    }
+
+    private static Tournament tournamentOf(String... playerNames) {
+        var tournament = new Tournament(1);
+        List.of(playerNames).forEach(tournament::addEntrant);
+        return tournament;
+    }
+}